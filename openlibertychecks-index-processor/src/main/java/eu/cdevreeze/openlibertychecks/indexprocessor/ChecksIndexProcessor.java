@@ -0,0 +1,393 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.indexprocessor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor recording the classes using Jakarta annotations (common annotations such as "Resource",
+ * servlet, EJB and CDI annotations) in a compact binary index resource, named "META-INF/openlibertychecks/class-infos.idx".
+ * Tools like "FindResourcesInWar" in the openlibertychecks project then read this index instead of scanning
+ * class files.
+ * <p>
+ * For each such class, the class header, its fields and methods (including constructors), and all runtime-visible
+ * annotations of the class and its fields and methods are recorded, in the layout of class "ClassInfoSerialization"
+ * in the openlibertychecks project. The layout must be kept in sync with that class. Type descriptors are computed
+ * from erased types, so synthetic constructor parameters (of inner classes and enums) are absent.
+ * <p>
+ * The index also records the binary names of all top-level classes compiled along with the index. The index is only
+ * complete after a full build, so incremental compilation is not supported. The openlibertychecks tools ignore an index
+ * whose recorded class names differ from the class files next to it, though. File modification times cannot be used
+ * for that, because the index is written before the class files.
+ * <p>
+ * This processor has no dependencies, so it can be put on the annotation processor path of any project. It does
+ * not claim any annotations.
+ *
+ * @author Chris de Vreeze
+ */
+@SupportedAnnotationTypes({
+        "jakarta.annotation.*",
+        "jakarta.servlet.annotation.*",
+        "jakarta.ejb.*",
+        "jakarta.inject.*",
+        "jakarta.enterprise.*"
+})
+public class ChecksIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_RESOURCE_NAME = "META-INF/openlibertychecks/class-infos.idx";
+
+    // Must be the same as in class ChecksIndexes in the openlibertychecks project
+    private static final int MAGIC = 0x4F4C4358;
+    private static final int FORMAT_VERSION = 2;
+
+    // JVM access flags (see the JVM specification, chapter 4)
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNCHRONIZED = 0x0020;
+    private static final int ACC_VOLATILE = 0x0040;
+    private static final int ACC_TRANSIENT = 0x0080;
+    private static final int ACC_NATIVE = 0x0100;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_STRICT = 0x0800;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    // Binary names of the compiled top-level classes, collected over all rounds, sorted
+    private final Set<String> compiledClassNames = new TreeSet<>();
+
+    // Serialized class data per binary class name, collected over all rounds, sorted on class name
+    private final Map<String, byte[]> serializedClasses = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement classElement) {
+                compiledClassNames.add(binaryName(classElement));
+            }
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                findEnclosingClass(element).ifPresent(this::recordClass);
+            }
+        }
+
+        if (roundEnv.processingOver() && !serializedClasses.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void recordClass(TypeElement classElement) {
+        String className = binaryName(classElement);
+        if (serializedClasses.containsKey(className)) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            writeClass(classElement, out);
+            out.flush();
+            serializedClasses.put(className, bos.toByteArray());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not record class " + className);
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource =
+                    processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE_NAME);
+
+            try (OutputStream os = resource.openOutputStream();
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(compiledClassNames.size());
+                for (String compiledClassName : compiledClassNames) {
+                    out.writeUTF(compiledClassName);
+                }
+                out.writeInt(serializedClasses.size());
+                for (byte[] serializedClass : serializedClasses.values()) {
+                    out.write(serializedClass);
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Could not write " + INDEX_RESOURCE_NAME + ": " + e.getMessage()
+            );
+        }
+    }
+
+    private void writeClass(TypeElement classElement, DataOutputStream out) throws IOException {
+        boolean isInterface = classElement.getKind().isInterface();
+
+        out.writeUTF(binaryName(classElement));
+        out.writeInt(classAccessFlags(classElement));
+
+        // Like in class files, interfaces have java.lang.Object as superclass
+        Optional<String> superClassNameOption = isInterface ?
+                Optional.of(Object.class.getName()) :
+                Optional.of(classElement.getSuperclass())
+                        .filter(t -> t.getKind() == TypeKind.DECLARED)
+                        .map(this::typeName);
+        out.writeBoolean(superClassNameOption.isPresent());
+        if (superClassNameOption.isPresent()) {
+            out.writeUTF(superClassNameOption.get());
+        }
+
+        List<? extends TypeMirror> interfaces = classElement.getInterfaces();
+        out.writeInt(interfaces.size());
+        for (TypeMirror interfaceType : interfaces) {
+            out.writeUTF(typeName(interfaceType));
+        }
+
+        writeAnnotations(classElement, out);
+
+        List<VariableElement> fields = classElement.getEnclosedElements().stream()
+                .filter(e -> e.getKind().isField())
+                .map(e -> (VariableElement) e)
+                .toList();
+        out.writeInt(fields.size());
+        for (VariableElement field : fields) {
+            out.writeByte(0); // MemberInfo.Kind.FIELD
+            out.writeUTF(field.getSimpleName().toString());
+            out.writeUTF(descriptor(field.asType()));
+            out.writeInt(memberAccessFlags(field));
+            writeAnnotations(field, out);
+        }
+
+        List<ExecutableElement> methods = classElement.getEnclosedElements().stream()
+                .filter(e -> e.getKind() == ElementKind.METHOD || e.getKind() == ElementKind.CONSTRUCTOR)
+                .map(e -> (ExecutableElement) e)
+                .toList();
+        out.writeInt(methods.size());
+        for (ExecutableElement method : methods) {
+            boolean isConstructor = method.getKind() == ElementKind.CONSTRUCTOR;
+            out.writeByte(isConstructor ? 2 : 1); // MemberInfo.Kind.CONSTRUCTOR or METHOD
+            out.writeUTF(isConstructor ? "<init>" : method.getSimpleName().toString());
+            out.writeUTF(descriptor(method));
+            out.writeInt(memberAccessFlags(method));
+            writeAnnotations(method, out);
+        }
+    }
+
+    private void writeAnnotations(Element element, DataOutputStream out) throws IOException {
+        List<? extends AnnotationMirror> annotations = element.getAnnotationMirrors().stream()
+                .filter(this::isRuntimeVisible)
+                .toList();
+        out.writeInt(annotations.size());
+        for (AnnotationMirror annotation : annotations) {
+            writeAnnotation(annotation, out);
+        }
+    }
+
+    private void writeAnnotation(AnnotationMirror annotation, DataOutputStream out) throws IOException {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = annotation.getElementValues();
+
+        out.writeUTF(typeName(annotation.getAnnotationType()));
+        out.writeInt(elementValues.size());
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> kv : elementValues.entrySet()) {
+            out.writeUTF(kv.getKey().getSimpleName().toString());
+            writeElementValue(kv.getValue().getValue(), out);
+        }
+    }
+
+    // The tags are those of the element_value structure in class files
+
+    private void writeElementValue(Object value, DataOutputStream out) throws IOException {
+        if (value instanceof Byte b) {
+            out.writeByte('B');
+            out.writeByte(b);
+        } else if (value instanceof Character c) {
+            out.writeByte('C');
+            out.writeChar(c);
+        } else if (value instanceof Short sh) {
+            out.writeByte('S');
+            out.writeShort(sh);
+        } else if (value instanceof Boolean b) {
+            out.writeByte('Z');
+            out.writeBoolean(b);
+        } else if (value instanceof Integer i) {
+            out.writeByte('I');
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte('J');
+            out.writeLong(l);
+        } else if (value instanceof Float f) {
+            out.writeByte('F');
+            out.writeFloat(f);
+        } else if (value instanceof Double d) {
+            out.writeByte('D');
+            out.writeDouble(d);
+        } else if (value instanceof String s) {
+            out.writeByte('s');
+            out.writeUTF(s);
+        } else if (value instanceof VariableElement enumConst) {
+            out.writeByte('e');
+            out.writeUTF(typeName(enumConst.asType()));
+            out.writeUTF(enumConst.getSimpleName().toString());
+        } else if (value instanceof TypeMirror type) {
+            out.writeByte('c');
+            out.writeUTF(typeName(type));
+        } else if (value instanceof AnnotationMirror nestedAnnotation) {
+            out.writeByte('@');
+            writeAnnotation(nestedAnnotation, out);
+        } else if (value instanceof List<?> values) {
+            out.writeByte('[');
+            out.writeInt(values.size());
+            for (Object v : values) {
+                writeElementValue(((AnnotationValue) v).getValue(), out);
+            }
+        } else {
+            throw new IOException("Unexpected annotation element value " + value);
+        }
+    }
+
+    private boolean isRuntimeVisible(AnnotationMirror annotation) {
+        Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+    }
+
+    private Optional<TypeElement> findEnclosingClass(Element element) {
+        Element current = element;
+        while (current != null && !(current.getKind().isClass() || current.getKind().isInterface())) {
+            current = current.getEnclosingElement();
+        }
+        return Optional.ofNullable((TypeElement) current);
+    }
+
+    private String binaryName(TypeElement classElement) {
+        return processingEnv.getElementUtils().getBinaryName(classElement).toString();
+    }
+
+    /**
+     * Returns the type name of the erasure of the given type, as found in class files, such as "int",
+     * "java.lang.String[]" or "java.util.Map$Entry".
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erasedType = processingEnv.getTypeUtils().erasure(type);
+
+        return switch (erasedType.getKind()) {
+            case ARRAY -> typeName(((ArrayType) erasedType).getComponentType()) + "[]";
+            case DECLARED -> binaryName((TypeElement) ((DeclaredType) erasedType).asElement());
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE, VOID -> erasedType.getKind().name().toLowerCase();
+            default -> Object.class.getName();
+        };
+    }
+
+    private String descriptor(TypeMirror type) {
+        TypeMirror erasedType = processingEnv.getTypeUtils().erasure(type);
+
+        return switch (erasedType.getKind()) {
+            case BOOLEAN -> "Z";
+            case BYTE -> "B";
+            case SHORT -> "S";
+            case INT -> "I";
+            case LONG -> "J";
+            case CHAR -> "C";
+            case FLOAT -> "F";
+            case DOUBLE -> "D";
+            case VOID -> "V";
+            case ARRAY -> "[" + descriptor(((ArrayType) erasedType).getComponentType());
+            default -> "L" + typeName(erasedType).replace('.', '/') + ";";
+        };
+    }
+
+    private String descriptor(ExecutableElement method) {
+        StringBuilder sb = new StringBuilder("(");
+        method.getParameters().forEach(p -> sb.append(descriptor(p.asType())));
+        return sb.append(")").append(descriptor(method.getReturnType())).toString();
+    }
+
+    private int classAccessFlags(TypeElement classElement) {
+        Set<Modifier> modifiers = classElement.getModifiers();
+        int flags = 0;
+        // Like in class files, protected nested classes are public, and private nested classes are package-private
+        if (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED)) flags |= ACC_PUBLIC;
+        if (modifiers.contains(Modifier.FINAL)) flags |= ACC_FINAL;
+        if (modifiers.contains(Modifier.ABSTRACT)) flags |= ACC_ABSTRACT;
+
+        switch (classElement.getKind()) {
+            case INTERFACE -> flags |= ACC_INTERFACE | ACC_ABSTRACT;
+            case ANNOTATION_TYPE -> flags |= ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION;
+            case ENUM -> flags |= ACC_SUPER | ACC_ENUM;
+            default -> flags |= ACC_SUPER;
+        }
+        return flags;
+    }
+
+    private int memberAccessFlags(Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        int flags = 0;
+        if (modifiers.contains(Modifier.PUBLIC)) flags |= ACC_PUBLIC;
+        if (modifiers.contains(Modifier.PRIVATE)) flags |= ACC_PRIVATE;
+        if (modifiers.contains(Modifier.PROTECTED)) flags |= ACC_PROTECTED;
+        if (modifiers.contains(Modifier.STATIC)) flags |= ACC_STATIC;
+        if (modifiers.contains(Modifier.FINAL)) flags |= ACC_FINAL;
+        if (modifiers.contains(Modifier.SYNCHRONIZED)) flags |= ACC_SYNCHRONIZED;
+        if (modifiers.contains(Modifier.VOLATILE)) flags |= ACC_VOLATILE;
+        if (modifiers.contains(Modifier.TRANSIENT)) flags |= ACC_TRANSIENT;
+        if (modifiers.contains(Modifier.NATIVE)) flags |= ACC_NATIVE;
+        if (modifiers.contains(Modifier.ABSTRACT)) flags |= ACC_ABSTRACT;
+        if (modifiers.contains(Modifier.STRICTFP)) flags |= ACC_STRICT;
+        if (member.getKind() == ElementKind.ENUM_CONSTANT) flags |= ACC_ENUM;
+        return flags;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.archive;
+
+import com.google.common.collect.ImmutableList;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Path of an entry in a (possibly nested) archive, such as "WEB-INF/classes/com/example/MyServlet.class"
+ * in the WAR "myapp.war" nested in the EAR file "myapp.ear". In that example, the archive file is the EAR file,
+ * the nested archive names are just "myapp.war", and the entry name is "WEB-INF/classes/com/example/MyServlet.class".
+ *
+ * @author Chris de Vreeze
+ */
+public record ArchiveEntryPath(Path archiveFile, ImmutableList<String> nestedArchiveNames, String entryName) {
+
+    public ArchiveEntryPath {
+        Objects.requireNonNull(archiveFile);
+        Objects.requireNonNull(nestedArchiveNames);
+        Objects.requireNonNull(entryName);
+    }
+
+    /**
+     * Returns the name of the innermost archive containing the entry, such as "WEB-INF/lib/mylib.jar".
+     */
+    public String enclosingArchiveName() {
+        return nestedArchiveNames.isEmpty() ?
+                archiveFile.getFileName().toString() :
+                nestedArchiveNames.get(nestedArchiveNames.size() - 1);
+    }
+
+    /**
+     * Returns the file name part of the entry name, such as "web.xml" for entry name "WEB-INF/web.xml".
+     */
+    public String simpleEntryName() {
+        return entryName.substring(entryName.lastIndexOf('/') + 1);
+    }
+
+    public ArchiveEntryPath resolveNested(String nestedEntryName) {
+        return new ArchiveEntryPath(
+                archiveFile,
+                ImmutableList.<String>builder().addAll(nestedArchiveNames).add(entryName).build(),
+                nestedEntryName
+        );
+    }
+
+    /**
+     * Returns a "jar:" URI for this entry, using "!/" as separator for each nesting level. Such URIs identify
+     * entries, but the JDK can only open them if the archive is not nested. Characters such as spaces and "#"
+     * in nested archive names and entry names are percent-encoded.
+     */
+    public URI toUri() {
+        return URI.create(
+                "jar:" + archiveFile.toUri() +
+                        Stream.concat(nestedArchiveNames.stream(), Stream.of(entryName))
+                                .map(n -> "!/" + encodePath(n))
+                                .collect(Collectors.joining())
+        );
+    }
+
+    @Override
+    public String toString() {
+        return Stream.concat(
+                Stream.of(archiveFile.toString()),
+                Stream.concat(nestedArchiveNames.stream(), Stream.of(entryName))
+        ).collect(Collectors.joining("!/"));
+    }
+
+    private static String encodePath(String name) {
+        try {
+            // The leading slash prevents a colon in the first segment from being taken for a scheme separator
+            return new URI(null, null, "/" + name, null).getRawPath().substring(1);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Not a valid entry name: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.archive;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Support for scanning packed archives (EAR, WAR, JAR and RAR files), including nested archives, such as JAR files
+ * in a WAR file in an EAR file. Nothing is extracted to disk. The outer archive is read via its ZIP central
+ * directory, and nested archives are read as streams, in memory.
+ *
+ * @author Chris de Vreeze
+ */
+public class ArchiveScanning {
+
+    private static final Set<String> ARCHIVE_EXTENSIONS = Set.of(".ear", ".war", ".jar", ".rar");
+
+    private ArchiveScanning() {
+    }
+
+    /**
+     * Returns true if the given file or entry name ends with an archive file extension, such as ".war".
+     */
+    public static boolean isArchiveName(String name) {
+        return ARCHIVE_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    public static boolean isArchiveFile(Path path) {
+        return Files.isRegularFile(path) && isArchiveName(path.getFileName().toString());
+    }
+
+    /**
+     * Passes the contents of all (non-directory) entries matching the given predicate to the given consumer,
+     * recursively descending into nested archives. Only the contents of matching entries and nested archives are
+     * inflated. Entries are visited in archive order, one at a time.
+     */
+    public static void forEachEntry(
+            Path archiveFile,
+            Predicate<ArchiveEntryPath> entryPredicate,
+            BiConsumer<ArchiveEntryPath, byte[]> entryConsumer
+    ) {
+        forEachEntry(archiveFile, p -> true, entryPredicate, entryConsumer);
+    }
+
+    /**
+     * Like the overloaded method without nested archive predicate, but only descending into the nested archives
+     * matching that predicate. Nested archives that do not match are skipped without being inflated.
+     */
+    public static void forEachEntry(
+            Path archiveFile,
+            Predicate<ArchiveEntryPath> nestedArchivePredicate,
+            Predicate<ArchiveEntryPath> entryPredicate,
+            BiConsumer<ArchiveEntryPath, byte[]> entryConsumer
+    ) {
+        try (ZipFile zipFile = new ZipFile(archiveFile.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+
+                ArchiveEntryPath entryPath = new ArchiveEntryPath(archiveFile, ImmutableList.of(), entry.getName());
+
+                if (isArchiveName(entry.getName())) {
+                    if (nestedArchivePredicate.test(entryPath)) {
+                        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                            visitNestedArchive(
+                                    new ZipInputStream(inputStream),
+                                    entryPath,
+                                    nestedArchivePredicate,
+                                    entryPredicate,
+                                    entryConsumer
+                            );
+                        }
+                    }
+                } else if (entryPredicate.test(entryPath)) {
+                    try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                        entryConsumer.accept(entryPath, inputStream.readAllBytes());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void visitNestedArchive(
+            ZipInputStream zipInputStream,
+            ArchiveEntryPath nestedArchivePath,
+            Predicate<ArchiveEntryPath> nestedArchivePredicate,
+            Predicate<ArchiveEntryPath> entryPredicate,
+            BiConsumer<ArchiveEntryPath, byte[]> entryConsumer
+    ) throws IOException {
+        // Do not close the ZipInputStream, because that would close the enclosing stream as well
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            ArchiveEntryPath entryPath = nestedArchivePath.resolveNested(entry.getName());
+
+            if (isArchiveName(entry.getName())) {
+                if (nestedArchivePredicate.test(entryPath)) {
+                    visitNestedArchive(
+                            new ZipInputStream(zipInputStream),
+                            entryPath,
+                            nestedArchivePredicate,
+                            entryPredicate,
+                            entryConsumer
+                    );
+                }
+            } else if (entryPredicate.test(entryPath)) {
+                entryConsumer.accept(entryPath, zipInputStream.readAllBytes());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
+
+/**
+ * Class or class member, as read from a class file, with its annotations having retention "runtime".
+ *
+ * @author Chris de Vreeze
+ */
+public sealed interface AnnotatedInfo permits ClassInfo, MemberInfo {
+
+    ImmutableList<AnnotationInfo> annotations();
+
+    default Optional<AnnotationInfo> findAnnotation(String annotationTypeName) {
+        return annotations().stream()
+                .filter(ann -> ann.annotationTypeName().equals(annotationTypeName))
+                .findFirst();
+    }
+
+    default boolean hasAnnotation(String annotationTypeName) {
+        return findAnnotation(annotationTypeName).isPresent();
+    }
+}
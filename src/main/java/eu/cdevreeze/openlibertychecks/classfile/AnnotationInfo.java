@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Annotation occurrence, as read from a class file (so without loading any class). Only the explicitly
+ * specified element values are present; default values are not stored in the class file of the annotated class.
+ *
+ * @author Chris de Vreeze
+ */
+public record AnnotationInfo(String annotationTypeName, ImmutableMap<String, ElementValue> elementValues) {
+
+    public AnnotationInfo {
+        Objects.requireNonNull(annotationTypeName);
+        Objects.requireNonNull(elementValues);
+    }
+
+    public sealed interface ElementValue {
+
+        /**
+         * Returns the value as string, as it would typically be shown in a report.
+         */
+        String asString();
+    }
+
+    /**
+     * Primitive or String element value.
+     */
+    public record ConstValue(Object value) implements ElementValue {
+
+        @Override
+        public String asString() {
+            return String.valueOf(value);
+        }
+    }
+
+    public record EnumConstValue(String enumTypeName, String constName) implements ElementValue {
+
+        @Override
+        public String asString() {
+            return constName;
+        }
+    }
+
+    public record ClassValue(String typeName) implements ElementValue {
+
+        @Override
+        public String asString() {
+            return typeName;
+        }
+    }
+
+    public record AnnotationValue(AnnotationInfo annotation) implements ElementValue {
+
+        @Override
+        public String asString() {
+            return annotation.toString();
+        }
+    }
+
+    public record ArrayValue(ImmutableList<ElementValue> values) implements ElementValue {
+
+        @Override
+        public String asString() {
+            return values.stream().map(ElementValue::asString).collect(Collectors.joining(", ", "[", "]"));
+        }
+    }
+
+    public boolean hasType(Class<?> annotationClass) {
+        return annotationTypeName.equals(annotationClass.getName());
+    }
+
+    public Optional<ElementValue> elementValueOption(String elementName) {
+        return Optional.ofNullable(elementValues.get(elementName));
+    }
+
+    public Optional<String> elementValueAsStringOption(String elementName) {
+        return elementValueOption(elementName).map(ElementValue::asString);
+    }
+
+    /**
+     * Returns the nested annotations of the given element, which must be an annotation or array of annotations,
+     * if present. For example, the "value" of a "Resources" annotation contains the nested "Resource" annotations.
+     */
+    public ImmutableList<AnnotationInfo> nestedAnnotations(String elementName) {
+        return elementValueOption(elementName)
+                .stream()
+                .flatMap(v -> (v instanceof ArrayValue arr) ? arr.values().stream() : Stream.of(v))
+                .flatMap(v -> (v instanceof AnnotationValue ann) ? Stream.of(ann.annotation()) : Stream.empty())
+                .collect(ImmutableList.toImmutableList());
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Support for reading the compact binary class index ("META-INF/openlibertychecks/class-infos.idx") emitted at
+ * compile time by the annotation processor in module "openlibertychecks-index-processor". The index holds
+ * {@link ClassInfo} objects of all classes using Jakarta common, servlet, EJB or CDI annotations. Hence, if such
+ * an index is present and up-to-date, no class file needs to be read at all.
+ * <p>
+ * The indexed ClassInfo objects are built from the source model seen by the annotation processor, so they lack
+ * the synthetic members generated by the compiler (such as "lambda$new$0" methods or bridge methods). Hence, they
+ * are not necessarily equal to the ClassInfo objects parsed from the class files, although they have the same
+ * (annotated) declared members.
+ * <p>
+ * The layout of the index is a header (magic number and format version), the number of compiled top-level classes,
+ * their binary names, the number of indexed classes, and the indexed classes themselves, each in the layout of
+ * {@link ClassInfoSerialization}.
+ * <p>
+ * An index is considered stale (and therefore ignored) if the top-level classes recorded in it are not exactly the
+ * top-level classes of the class files next to it. Like for Jandex indexes (see {@link JandexIndexes}), only class
+ * names are compared, and no class file is read. File modification times are useless here, because the annotation
+ * processor writes the index before the compiler writes the class files. So if a class is changed and recompiled
+ * without running the annotation processor (e.g. by an IDE incremental build, or with "-proc:none"), the stale index
+ * goes undetected. That is why callers should only prefer the index if explicitly asked for it.
+ *
+ * @author Chris de Vreeze
+ */
+public class ChecksIndexes {
+
+    public static final String INDEX_RESOURCE_NAME = "META-INF/openlibertychecks/class-infos.idx";
+
+    // Must be the same as in the annotation processor
+    private static final int MAGIC = 0x4F4C4358;
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The content of an index. The compiled class names are the binary names of the top-level classes compiled
+     * along with the index, whether they are indexed or not. They are only used to find out whether the index is stale.
+     */
+    public record ChecksIndex(ImmutableSet<String> compiledClassNames, ImmutableList<ClassInfo> classInfos) {
+    }
+
+    private ChecksIndexes() {
+    }
+
+    /**
+     * Returns the classes in the index in the given class path directory (such as "WEB-INF/classes"), if there is
+     * a readable index in that directory that is not stale. Otherwise, returns an empty Optional, and the caller should
+     * fall back to scanning the class files in the directory. Only the class file names are inspected in order to
+     * determine whether the index is up-to-date.
+     */
+    public static Optional<List<ClassInfo>> findClassInfosInChecksIndex(Path classesDir) {
+        Path indexFile = classesDir.resolve(INDEX_RESOURCE_NAME);
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+
+        int maxDepth = 100;
+        try (Stream<Path> pathStream = Files.walk(classesDir, maxDepth)) {
+            ChecksIndex index;
+            try (InputStream inputStream = Files.newInputStream(indexFile)) {
+                index = readChecksIndex(inputStream);
+            }
+
+            ImmutableSet<String> classNamesInDir = pathStream
+                    .filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".class"))
+                    .map(p -> classesDir.relativize(p).toString().replace(p.getFileSystem().getSeparator(), "/"))
+                    .filter(ChecksIndexes::isIndexableClassFileName)
+                    .map(ChecksIndexes::toTopLevelClassName)
+                    .collect(ImmutableSet.toImmutableSet());
+
+            return isUpToDate(index, classNamesInDir) ? Optional.of(index.classInfos()) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            // Eating the exception, and falling back to class files
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the classes in the index in the given JAR file, if there is a readable index in that JAR file
+     * that is not stale. Otherwise, returns an empty Optional. Only the names of the class file entries in the
+     * ZIP central directory are inspected in order to determine whether the index is up-to-date.
+     */
+    public static Optional<List<ClassInfo>> findClassInfosInChecksIndex(ZipFile jarFile) {
+        ZipEntry indexEntry = jarFile.getEntry(INDEX_RESOURCE_NAME);
+        if (indexEntry == null) {
+            return Optional.empty();
+        }
+
+        try (InputStream inputStream = jarFile.getInputStream(indexEntry)) {
+            ChecksIndex index = readChecksIndex(inputStream);
+
+            ImmutableSet<String> classNamesInJar = jarFile.stream()
+                    .filter(e -> !e.isDirectory())
+                    .map(ZipEntry::getName)
+                    .filter(ChecksIndexes::isIndexableClassFileName)
+                    .map(ChecksIndexes::toTopLevelClassName)
+                    .collect(ImmutableSet.toImmutableSet());
+
+            return isUpToDate(index, classNamesInJar) ? Optional.of(index.classInfos()) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static ChecksIndex readChecksIndex(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an openlibertychecks class index");
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported openlibertychecks class index format version " + formatVersion);
+        }
+
+        int compiledClassCount = in.readInt();
+        ImmutableSet.Builder<String> compiledClassNames = ImmutableSet.builder();
+        for (int i = 0; i < compiledClassCount; i++) {
+            compiledClassNames.add(in.readUTF());
+        }
+
+        int count = in.readInt();
+        ImmutableList.Builder<ClassInfo> classInfos = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            classInfos.add(ClassInfoSerialization.readClassInfo(in));
+        }
+        return new ChecksIndex(compiledClassNames.build(), classInfos.build());
+    }
+
+    /**
+     * Writes the given index. Typically, the index is written by the annotation processor instead,
+     * but this method can be used to create an index from class files after the fact.
+     */
+    public static void writeChecksIndex(ChecksIndex index, OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(index.compiledClassNames().size());
+        for (String compiledClassName : index.compiledClassNames()) {
+            out.writeUTF(compiledClassName);
+        }
+        out.writeInt(index.classInfos().size());
+        for (ClassInfo classInfo : index.classInfos()) {
+            ClassInfoSerialization.writeClassInfo(classInfo, out);
+        }
+        out.flush();
+    }
+
+    private static boolean isUpToDate(ChecksIndex index, ImmutableSet<String> topLevelClassNamesOnDisk) {
+        ImmutableSet<String> topLevelClassNamesInIndex = index.compiledClassNames().stream()
+                .map(ChecksIndexes::toTopLevelClassName)
+                .collect(ImmutableSet.toImmutableSet());
+
+        return topLevelClassNamesInIndex.equals(topLevelClassNamesOnDisk);
+    }
+
+    private static boolean isIndexableClassFileName(String relativePath) {
+        return relativePath.endsWith(".class") &&
+                !relativePath.startsWith("META-INF/") &&
+                !relativePath.endsWith("module-info.class") &&
+                !relativePath.endsWith("package-info.class");
+    }
+
+    /**
+     * Returns the top-level class name of the given class file path or binary class name. Nested, local and anonymous
+     * classes are not seen by the annotation processor as compiled classes, so they are mapped to their top-level class.
+     */
+    private static String toTopLevelClassName(String classFilePathOrClassName) {
+        String className = classFilePathOrClassName.endsWith(".class") ?
+                classFilePathOrClassName.replaceFirst("\\.class$", "").replace('/', '.') :
+                classFilePathOrClassName;
+        int dollarIndex = className.indexOf('$');
+        return dollarIndex < 0 ? className : className.substring(0, dollarIndex);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Class file parser, returning {@link ClassInfo} objects. No class is loaded, and no static initializer is run.
+ * <p>
+ * Only the class header (class name, superclass and interfaces), the declared fields and methods, and their
+ * "RuntimeVisibleAnnotations" attributes are read. Code, parameter annotations, invisible annotations,
+ * type annotations etc. are skipped.
+ * <p>
+ * See <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html">The class File Format</a>.
+ *
+ * @author Chris de Vreeze
+ */
+public class ClassFileParser {
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private ClassFileParser() {
+    }
+
+    /**
+     * Parses the given class file. Throws an {@link IllegalArgumentException} if it is not a valid class file.
+     */
+    public static ClassInfo parse(byte[] classFileBytes) {
+        ConstantPool constantPool = ConstantPool.read(classFileBytes);
+        ByteBuffer buffer = ByteBuffer.wrap(classFileBytes);
+        buffer.position(constantPool.endOffset());
+
+        try {
+            return readClass(buffer, constantPool);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Corrupt class file", e);
+        }
+    }
+
+    public static ClassInfo parse(InputStream inputStream) {
+        try {
+            return parse(inputStream.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ClassInfo parse(Path classFile) {
+        try {
+            return parse(Files.readAllBytes(classFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ClassInfo readClass(ByteBuffer buffer, ConstantPool cp) {
+        int accessFlags = readU2(buffer);
+        String className = cp.className(readU2(buffer));
+        int superClassIndex = readU2(buffer);
+        Optional<String> superClassNameOption =
+                (superClassIndex == 0) ? Optional.empty() : Optional.of(cp.className(superClassIndex));
+
+        int interfaceCount = readU2(buffer);
+        ImmutableList.Builder<String> interfaceNames = ImmutableList.builder();
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(cp.className(readU2(buffer)));
+        }
+
+        ImmutableList<MemberInfo> fields = readMembers(buffer, cp, className, true);
+        ImmutableList<MemberInfo> methods = readMembers(buffer, cp, className, false);
+        ImmutableList<AnnotationInfo> annotations = readAttributes(buffer, cp);
+
+        return new ClassInfo(
+                className,
+                accessFlags,
+                superClassNameOption,
+                interfaceNames.build(),
+                annotations,
+                fields,
+                methods
+        );
+    }
+
+    private static ImmutableList<MemberInfo> readMembers(
+            ByteBuffer buffer,
+            ConstantPool cp,
+            String ownerClassName,
+            boolean isField
+    ) {
+        int count = readU2(buffer);
+        ImmutableList.Builder<MemberInfo> result = ImmutableList.builder();
+
+        for (int i = 0; i < count; i++) {
+            int accessFlags = readU2(buffer);
+            String name = cp.utf8(readU2(buffer));
+            String descriptor = cp.utf8(readU2(buffer));
+            ImmutableList<AnnotationInfo> annotations = readAttributes(buffer, cp);
+
+            if (name.equals("<clinit>")) {
+                continue;
+            }
+            MemberInfo.Kind kind = isField ?
+                    MemberInfo.Kind.FIELD :
+                    (name.equals("<init>") ? MemberInfo.Kind.CONSTRUCTOR : MemberInfo.Kind.METHOD);
+
+            result.add(new MemberInfo(kind, ownerClassName, name, descriptor, accessFlags, annotations));
+        }
+        return result.build();
+    }
+
+    /**
+     * Reads an attribute table, returning the runtime visible annotations, and skipping all other attributes.
+     */
+    private static ImmutableList<AnnotationInfo> readAttributes(ByteBuffer buffer, ConstantPool cp) {
+        int count = readU2(buffer);
+        ImmutableList.Builder<AnnotationInfo> result = ImmutableList.builder();
+
+        for (int i = 0; i < count; i++) {
+            String attributeName = cp.utf8(readU2(buffer));
+            int length = buffer.getInt();
+
+            if (attributeName.equals(RUNTIME_VISIBLE_ANNOTATIONS)) {
+                int annotationCount = readU2(buffer);
+                for (int j = 0; j < annotationCount; j++) {
+                    result.add(readAnnotation(buffer, cp));
+                }
+            } else {
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return result.build();
+    }
+
+    private static AnnotationInfo readAnnotation(ByteBuffer buffer, ConstantPool cp) {
+        String typeName = TypeDescriptors.toTypeName(cp.utf8(readU2(buffer)));
+        int pairCount = readU2(buffer);
+
+        ImmutableMap.Builder<String, AnnotationInfo.ElementValue> elementValues = ImmutableMap.builder();
+        for (int i = 0; i < pairCount; i++) {
+            String elementName = cp.utf8(readU2(buffer));
+            elementValues.put(elementName, readElementValue(buffer, cp));
+        }
+        return new AnnotationInfo(typeName, elementValues.build());
+    }
+
+    private static AnnotationInfo.ElementValue readElementValue(ByteBuffer buffer, ConstantPool cp) {
+        char tag = (char) buffer.get();
+
+        return switch (tag) {
+            case 'B' -> new AnnotationInfo.ConstValue((byte) cp.intValue(readU2(buffer)));
+            case 'C' -> new AnnotationInfo.ConstValue((char) cp.intValue(readU2(buffer)));
+            case 'S' -> new AnnotationInfo.ConstValue((short) cp.intValue(readU2(buffer)));
+            case 'Z' -> new AnnotationInfo.ConstValue(cp.intValue(readU2(buffer)) != 0);
+            case 'I' -> new AnnotationInfo.ConstValue(cp.intValue(readU2(buffer)));
+            case 'J' -> new AnnotationInfo.ConstValue(cp.longValue(readU2(buffer)));
+            case 'F' -> new AnnotationInfo.ConstValue(cp.floatValue(readU2(buffer)));
+            case 'D' -> new AnnotationInfo.ConstValue(cp.doubleValue(readU2(buffer)));
+            case 's' -> new AnnotationInfo.ConstValue(cp.utf8(readU2(buffer)));
+            case 'e' -> {
+                String enumTypeName = TypeDescriptors.toTypeName(cp.utf8(readU2(buffer)));
+                String constName = cp.utf8(readU2(buffer));
+                yield new AnnotationInfo.EnumConstValue(enumTypeName, constName);
+            }
+            case 'c' -> new AnnotationInfo.ClassValue(TypeDescriptors.toTypeName(cp.utf8(readU2(buffer))));
+            case '@' -> new AnnotationInfo.AnnotationValue(readAnnotation(buffer, cp));
+            case '[' -> {
+                int count = readU2(buffer);
+                ImmutableList.Builder<AnnotationInfo.ElementValue> values = ImmutableList.builder();
+                for (int i = 0; i < count; i++) {
+                    values.add(readElementValue(buffer, cp));
+                }
+                yield new AnnotationInfo.ArrayValue(values.build());
+            }
+            default -> throw new IllegalArgumentException("Unknown element value tag " + tag);
+        };
+    }
+
+    private static int readU2(ByteBuffer buffer) {
+        return Short.toUnsignedInt(buffer.getShort());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Class (or interface, enum, record, annotation type), as read from a class file (so without loading any class).
+ * Class names are binary names, so nested classes contain dollar signs, just like {@link Class#getName()}.
+ * <p>
+ * Unlike the "getMethods" and "getFields" results of Java reflection, the members are only the declared ones.
+ *
+ * @author Chris de Vreeze
+ */
+public record ClassInfo(
+        String className,
+        int accessFlags,
+        Optional<String> superClassNameOption,
+        ImmutableList<String> interfaceNames,
+        ImmutableList<AnnotationInfo> annotations,
+        ImmutableList<MemberInfo> fields,
+        ImmutableList<MemberInfo> methods
+) implements AnnotatedInfo {
+
+    // See the JVM specification for these access flags (with the same values as their counterparts in java.lang.reflect.Modifier)
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    public ClassInfo {
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(superClassNameOption);
+        Objects.requireNonNull(interfaceNames);
+        Objects.requireNonNull(annotations);
+        Objects.requireNonNull(fields);
+        Objects.requireNonNull(methods);
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+
+    public String packageName() {
+        int idx = className.lastIndexOf('.');
+        return (idx < 0) ? "" : className.substring(0, idx);
+    }
+
+    /**
+     * Returns the declared fields, methods and constructors having at least one annotation with retention "runtime".
+     */
+    public ImmutableList<MemberInfo> annotatedMembers() {
+        return Stream.concat(fields.stream(), methods.stream())
+                .filter(m -> !m.annotations().isEmpty())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns the declared methods (not constructors).
+     */
+    public ImmutableList<MemberInfo> declaredMethods() {
+        return methods.stream()
+                .filter(m -> m.kind() == MemberInfo.Kind.METHOD)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    public ImmutableList<MemberInfo> declaredConstructors() {
+        return methods.stream()
+                .filter(m -> m.kind() == MemberInfo.Kind.CONSTRUCTOR)
+                .collect(ImmutableList.toImmutableList());
+    }
+}
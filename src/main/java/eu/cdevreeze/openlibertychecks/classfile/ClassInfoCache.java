@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent incremental cache of class file analysis results. Each class file is stored by (normalized absolute)
+ * path, together with its size, last modification time and SHA-256 content hash, and the {@link ClassInfo} read from
+ * it (or nothing, if the class file did not pass the prefilter or could not be parsed).
+ * <p>
+ * A class file is only re-analyzed if it changed. If size and last modification time are unchanged, the cached
+ * result is used without even reading the file. Otherwise, the content hash is computed, and only if that hash
+ * differs as well, the class file is parsed again. So typically only a few class files are parsed in subsequent
+ * runs against the same (re-built) application.
+ * <p>
+ * Cached results depend on the prefilter. Therefore, the cache file also stores the prefilter criteria, and
+ * a cache file stored for different criteria (or in another format version) is ignored.
+ * <p>
+ * Instances are thread-safe, so they can be used during parallel class path scanning.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ClassInfoCache {
+
+    private static final int MAGIC = 0x4F4C4349;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path cacheFile;
+    private final ConstantPoolPrefilter classFilePrefilter;
+    private final ConcurrentMap<String, Entry> entries;
+    private final AtomicInteger analyzedCount = new AtomicInteger();
+    private final AtomicInteger reusedCount = new AtomicInteger();
+
+    private ClassInfoCache(Path cacheFile, ConstantPoolPrefilter classFilePrefilter, Map<String, Entry> entries) {
+        this.cacheFile = cacheFile;
+        this.classFilePrefilter = classFilePrefilter;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * Opens the cache stored in the given file, if any, for the given prefilter. If the file does not exist, or
+     * is unreadable, or has been stored for another prefilter, the cache starts out empty. Nothing is written
+     * to disk before calling method "save".
+     */
+    public static ClassInfoCache open(Path cacheFile, ConstantPoolPrefilter classFilePrefilter) {
+        return new ClassInfoCache(cacheFile, classFilePrefilter, load(cacheFile, classFilePrefilter.toString()));
+    }
+
+    public Path cacheFile() {
+        return cacheFile;
+    }
+
+    public ConstantPoolPrefilter classFilePrefilter() {
+        return classFilePrefilter;
+    }
+
+    /**
+     * Returns the {@link ClassInfo} of the given class file, if it passes the prefilter and can be parsed.
+     * The class file is only parsed if it is not in the cache, or if its content changed.
+     */
+    public Optional<ClassInfo> findClassInfo(Path classFile) {
+        String key = classFile.toAbsolutePath().normalize().toString();
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(classFile, BasicFileAttributes.class);
+            long size = attrs.size();
+            long lastModified = attrs.lastModifiedTime().toMillis();
+            Entry cachedEntry = entries.get(key);
+
+            if (cachedEntry != null && cachedEntry.size == size && cachedEntry.lastModified == lastModified) {
+                reusedCount.incrementAndGet();
+                return cachedEntry.classInfoOption;
+            }
+
+            byte[] bytes = Files.readAllBytes(classFile);
+            byte[] hash = sha256(bytes);
+
+            if (cachedEntry != null && Arrays.equals(cachedEntry.hash, hash)) {
+                // Touched but unchanged class file
+                entries.put(key, new Entry(size, lastModified, hash, cachedEntry.classInfoOption));
+                reusedCount.incrementAndGet();
+                return cachedEntry.classInfoOption;
+            }
+
+            Optional<ClassInfo> classInfoOption = analyze(bytes);
+            entries.put(key, new Entry(size, lastModified, hash, classInfoOption));
+            analyzedCount.incrementAndGet();
+            return classInfoOption;
+        } catch (IOException e) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the number of class files parsed (or at least prefiltered) since opening the cache.
+     */
+    public int analyzedCount() {
+        return analyzedCount.get();
+    }
+
+    /**
+     * Returns the number of class files whose analysis result was taken from the cache since opening the cache.
+     */
+    public int reusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Stores the cache in the cache file, leaving out entries of class files that no longer exist. The file is
+     * first written to a temporary file in the same directory, which then replaces the cache file. If that fails,
+     * the temporary file is deleted.
+     */
+    public void save() {
+        try {
+            Path dir = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tempFile = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+
+            try {
+                try (DataOutputStream out =
+                             new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    Map<String, Entry> existingEntries = entries.entrySet().stream()
+                            .filter(kv -> Files.isRegularFile(Path.of(kv.getKey())))
+                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(classFilePrefilter.toString());
+                    out.writeInt(existingEntries.size());
+
+                    for (Map.Entry<String, Entry> kv : existingEntries.entrySet()) {
+                        Entry entry = kv.getValue();
+                        out.writeUTF(kv.getKey());
+                        out.writeLong(entry.size);
+                        out.writeLong(entry.lastModified);
+                        out.write(entry.hash);
+                        out.writeBoolean(entry.classInfoOption.isPresent());
+                        if (entry.classInfoOption.isPresent()) {
+                            ClassInfoSerialization.writeClassInfo(entry.classInfoOption.get(), out);
+                        }
+                    }
+                }
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                // Not leaving the temporary file behind if writing or replacing the cache file fails
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<ClassInfo> analyze(byte[] classFileBytes) {
+        try {
+            return classFilePrefilter.test(classFileBytes) ?
+                    Optional.of(ClassFileParser.parse(classFileBytes)) :
+                    Optional.empty();
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Map<String, Entry> load(Path cacheFile, String prefilterKey) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return Map.of();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(prefilterKey)) {
+                return Map.of();
+            }
+            int count = in.readInt();
+            Map<String, Entry> result = new ConcurrentHashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                byte[] hash = new byte[32];
+                in.readFully(hash);
+                Optional<ClassInfo> classInfoOption =
+                        in.readBoolean() ? Optional.of(ClassInfoSerialization.readClassInfo(in)) : Optional.empty();
+                result.put(key, new Entry(size, lastModified, hash, classInfoOption));
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // Eating the exception, and starting with an empty cache
+            return Map.of();
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private record Entry(long size, long lastModified, byte[] hash, Optional<ClassInfo> classInfoOption) {
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compact binary serialization of {@link ClassInfo} objects, using {@link DataOutput} and {@link DataInput}.
+ * Strings are written as modified UTF-8, which suffices, since they all stem from class file constant pools.
+ * <p>
+ * This layout is also used for the classes in a {@link ChecksIndexes} index. The annotation processor in module
+ * "openlibertychecks-index-processor" writes that layout itself, so it must be kept in sync with this class.
+ *
+ * @author Chris de Vreeze
+ */
+final class ClassInfoSerialization {
+
+    private ClassInfoSerialization() {
+    }
+
+    static void writeClassInfo(ClassInfo classInfo, DataOutput out) throws IOException {
+        out.writeUTF(classInfo.className());
+        out.writeInt(classInfo.accessFlags());
+        out.writeBoolean(classInfo.superClassNameOption().isPresent());
+        if (classInfo.superClassNameOption().isPresent()) {
+            out.writeUTF(classInfo.superClassNameOption().get());
+        }
+        out.writeInt(classInfo.interfaceNames().size());
+        for (String interfaceName : classInfo.interfaceNames()) {
+            out.writeUTF(interfaceName);
+        }
+        writeAnnotations(classInfo.annotations(), out);
+        writeMembers(classInfo.fields(), out);
+        writeMembers(classInfo.methods(), out);
+    }
+
+    static ClassInfo readClassInfo(DataInput in) throws IOException {
+        String className = in.readUTF();
+        int accessFlags = in.readInt();
+        Optional<String> superClassNameOption = in.readBoolean() ? Optional.of(in.readUTF()) : Optional.empty();
+        int interfaceCount = in.readInt();
+        ImmutableList.Builder<String> interfaceNames = ImmutableList.builder();
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(in.readUTF());
+        }
+        ImmutableList<AnnotationInfo> annotations = readAnnotations(in);
+        ImmutableList<MemberInfo> fields = readMembers(className, in);
+        ImmutableList<MemberInfo> methods = readMembers(className, in);
+
+        return new ClassInfo(
+                className,
+                accessFlags,
+                superClassNameOption,
+                interfaceNames.build(),
+                annotations,
+                fields,
+                methods
+        );
+    }
+
+    private static void writeMembers(ImmutableList<MemberInfo> members, DataOutput out) throws IOException {
+        out.writeInt(members.size());
+        for (MemberInfo member : members) {
+            out.writeByte(member.kind().ordinal());
+            out.writeUTF(member.name());
+            out.writeUTF(member.typeDescriptor());
+            out.writeInt(member.accessFlags());
+            writeAnnotations(member.annotations(), out);
+        }
+    }
+
+    private static ImmutableList<MemberInfo> readMembers(String ownerClassName, DataInput in) throws IOException {
+        int count = in.readInt();
+        ImmutableList.Builder<MemberInfo> result = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            MemberInfo.Kind kind = MemberInfo.Kind.values()[in.readByte()];
+            String name = in.readUTF();
+            String typeDescriptor = in.readUTF();
+            int accessFlags = in.readInt();
+            ImmutableList<AnnotationInfo> annotations = readAnnotations(in);
+            result.add(new MemberInfo(kind, ownerClassName, name, typeDescriptor, accessFlags, annotations));
+        }
+        return result.build();
+    }
+
+    private static void writeAnnotations(ImmutableList<AnnotationInfo> annotations, DataOutput out) throws IOException {
+        out.writeInt(annotations.size());
+        for (AnnotationInfo annotation : annotations) {
+            writeAnnotation(annotation, out);
+        }
+    }
+
+    private static ImmutableList<AnnotationInfo> readAnnotations(DataInput in) throws IOException {
+        int count = in.readInt();
+        ImmutableList.Builder<AnnotationInfo> result = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            result.add(readAnnotation(in));
+        }
+        return result.build();
+    }
+
+    private static void writeAnnotation(AnnotationInfo annotation, DataOutput out) throws IOException {
+        out.writeUTF(annotation.annotationTypeName());
+        out.writeInt(annotation.elementValues().size());
+        for (Map.Entry<String, AnnotationInfo.ElementValue> entry : annotation.elementValues().entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeElementValue(entry.getValue(), out);
+        }
+    }
+
+    private static AnnotationInfo readAnnotation(DataInput in) throws IOException {
+        String typeName = in.readUTF();
+        int count = in.readInt();
+        ImmutableMap.Builder<String, AnnotationInfo.ElementValue> elementValues = ImmutableMap.builder();
+        for (int i = 0; i < count; i++) {
+            String elementName = in.readUTF();
+            elementValues.put(elementName, readElementValue(in));
+        }
+        return new AnnotationInfo(typeName, elementValues.build());
+    }
+
+    // The tags are those of the element_value structure in class files
+
+    private static void writeElementValue(AnnotationInfo.ElementValue value, DataOutput out) throws IOException {
+        if (value instanceof AnnotationInfo.ConstValue v) {
+            if (v.value() instanceof Byte b) {
+                out.writeByte('B');
+                out.writeByte(b);
+            } else if (v.value() instanceof Character c) {
+                out.writeByte('C');
+                out.writeChar(c);
+            } else if (v.value() instanceof Short sh) {
+                out.writeByte('S');
+                out.writeShort(sh);
+            } else if (v.value() instanceof Boolean b) {
+                out.writeByte('Z');
+                out.writeBoolean(b);
+            } else if (v.value() instanceof Integer i) {
+                out.writeByte('I');
+                out.writeInt(i);
+            } else if (v.value() instanceof Long l) {
+                out.writeByte('J');
+                out.writeLong(l);
+            } else if (v.value() instanceof Float f) {
+                out.writeByte('F');
+                out.writeFloat(f);
+            } else if (v.value() instanceof Double d) {
+                out.writeByte('D');
+                out.writeDouble(d);
+            } else {
+                out.writeByte('s');
+                out.writeUTF((String) v.value());
+            }
+        } else if (value instanceof AnnotationInfo.EnumConstValue v) {
+            out.writeByte('e');
+            out.writeUTF(v.enumTypeName());
+            out.writeUTF(v.constName());
+        } else if (value instanceof AnnotationInfo.ClassValue v) {
+            out.writeByte('c');
+            out.writeUTF(v.typeName());
+        } else if (value instanceof AnnotationInfo.AnnotationValue v) {
+            out.writeByte('@');
+            writeAnnotation(v.annotation(), out);
+        } else if (value instanceof AnnotationInfo.ArrayValue v) {
+            out.writeByte('[');
+            out.writeInt(v.values().size());
+            for (AnnotationInfo.ElementValue elementValue : v.values()) {
+                writeElementValue(elementValue, out);
+            }
+        }
+    }
+
+    private static AnnotationInfo.ElementValue readElementValue(DataInput in) throws IOException {
+        char tag = (char) in.readByte();
+
+        return switch (tag) {
+            case 'B' -> new AnnotationInfo.ConstValue(in.readByte());
+            case 'C' -> new AnnotationInfo.ConstValue(in.readChar());
+            case 'S' -> new AnnotationInfo.ConstValue(in.readShort());
+            case 'Z' -> new AnnotationInfo.ConstValue(in.readBoolean());
+            case 'I' -> new AnnotationInfo.ConstValue(in.readInt());
+            case 'J' -> new AnnotationInfo.ConstValue(in.readLong());
+            case 'F' -> new AnnotationInfo.ConstValue(in.readFloat());
+            case 'D' -> new AnnotationInfo.ConstValue(in.readDouble());
+            case 's' -> new AnnotationInfo.ConstValue(in.readUTF());
+            case 'e' -> new AnnotationInfo.EnumConstValue(in.readUTF(), in.readUTF());
+            case 'c' -> new AnnotationInfo.ClassValue(in.readUTF());
+            case '@' -> new AnnotationInfo.AnnotationValue(readAnnotation(in));
+            case '[' -> {
+                int count = in.readInt();
+                ImmutableList.Builder<AnnotationInfo.ElementValue> values = ImmutableList.builder();
+                for (int i = 0; i < count; i++) {
+                    values.add(readElementValue(in));
+                }
+                yield new AnnotationInfo.ArrayValue(values.build());
+            }
+            default -> throw new IOException("Unknown element value tag " + tag);
+        };
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Constant pool of a class file, as offsets into the class file bytes. Entries are only decoded on demand.
+ * <p>
+ * See <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html#jvms-4.4">The Constant Pool</a>.
+ *
+ * @author Chris de Vreeze
+ */
+final class ConstantPool {
+
+    static final int CONSTANT_Utf8 = 1;
+    static final int CONSTANT_Integer = 3;
+    static final int CONSTANT_Float = 4;
+    static final int CONSTANT_Long = 5;
+    static final int CONSTANT_Double = 6;
+    static final int CONSTANT_Class = 7;
+    static final int CONSTANT_String = 8;
+    static final int CONSTANT_Fieldref = 9;
+    static final int CONSTANT_Methodref = 10;
+    static final int CONSTANT_InterfaceMethodref = 11;
+    static final int CONSTANT_NameAndType = 12;
+    static final int CONSTANT_MethodHandle = 15;
+    static final int CONSTANT_MethodType = 16;
+    static final int CONSTANT_Dynamic = 17;
+    static final int CONSTANT_InvokeDynamic = 18;
+    static final int CONSTANT_Module = 19;
+    static final int CONSTANT_Package = 20;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final byte[] bytes;
+    private final byte[] tags;
+    private final int[] offsets; // offsets of the entry contents, just after the tag
+    private final int endOffset;
+    private final String[] decodedUtf8Cache;
+
+    private ConstantPool(byte[] bytes, byte[] tags, int[] offsets, int endOffset) {
+        this.bytes = bytes;
+        this.tags = tags;
+        this.offsets = offsets;
+        this.endOffset = endOffset;
+        this.decodedUtf8Cache = new String[tags.length];
+    }
+
+    /**
+     * Reads the constant pool of the given class file bytes, without decoding any entries.
+     * Throws an {@link IllegalArgumentException} if the bytes are not those of a class file.
+     */
+    static ConstantPool read(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Preconditions.checkArgument(buffer.getInt() == MAGIC, "Not a class file (wrong magic number)");
+            buffer.getShort(); // minor version
+            buffer.getShort(); // major version
+
+            int count = Short.toUnsignedInt(buffer.getShort());
+            byte[] tags = new byte[count];
+            int[] offsets = new int[count];
+
+            int index = 1;
+            while (index < count) {
+                byte tag = buffer.get();
+                tags[index] = tag;
+                offsets[index] = buffer.position();
+
+                switch (tag) {
+                    case CONSTANT_Utf8 -> skip(buffer, Short.toUnsignedInt(buffer.getShort()));
+                    case CONSTANT_Class, CONSTANT_String, CONSTANT_MethodType, CONSTANT_Module, CONSTANT_Package ->
+                            skip(buffer, 2);
+                    case CONSTANT_MethodHandle -> skip(buffer, 3);
+                    case CONSTANT_Integer, CONSTANT_Float, CONSTANT_Fieldref, CONSTANT_Methodref,
+                            CONSTANT_InterfaceMethodref, CONSTANT_NameAndType, CONSTANT_Dynamic,
+                            CONSTANT_InvokeDynamic -> skip(buffer, 4);
+                    case CONSTANT_Long, CONSTANT_Double -> {
+                        skip(buffer, 8);
+                        index++; // These entries take 2 slots
+                    }
+                    default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+                }
+                index++;
+            }
+            return new ConstantPool(bytes, tags, offsets, buffer.position());
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Corrupt class file", e);
+        }
+    }
+
+    int size() {
+        return tags.length;
+    }
+
+    /**
+     * Returns the offset in the class file just after the constant pool, where the access flags start.
+     */
+    int endOffset() {
+        return endOffset;
+    }
+
+    int tag(int index) {
+        return tags[index];
+    }
+
+    /**
+     * Returns the length in bytes (not chars) of the Utf8 entry at the given index.
+     */
+    int utf8Length(int index) {
+        checkTag(index, CONSTANT_Utf8);
+        return readUnsignedShort(offsets[index]);
+    }
+
+    /**
+     * Returns true if the Utf8 entry at the given index consists of exactly the given bytes. No decoding takes place.
+     * For ASCII strings, such as type descriptors of Jakarta EE annotations, modified UTF-8 is plain ASCII.
+     */
+    boolean utf8Equals(int index, byte[] expected) {
+        if (tags[index] != CONSTANT_Utf8) {
+            return false;
+        }
+        int offset = offsets[index];
+        int length = readUnsignedShort(offset);
+        return length == expected.length &&
+                Arrays.equals(bytes, offset + 2, offset + 2 + length, expected, 0, length);
+    }
+
+    String utf8(int index) {
+        checkTag(index, CONSTANT_Utf8);
+        String result = decodedUtf8Cache[index];
+        if (result == null) {
+            int offset = offsets[index];
+            result = decodeModifiedUtf8(bytes, offset + 2, readUnsignedShort(offset));
+            decodedUtf8Cache[index] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the binary class name (using dots, and dollar signs for nested classes) of the given Class entry.
+     */
+    String className(int index) {
+        checkTag(index, CONSTANT_Class);
+        return utf8(readUnsignedShort(offsets[index])).replace('/', '.');
+    }
+
+    int intValue(int index) {
+        checkTag(index, CONSTANT_Integer);
+        return ByteBuffer.wrap(bytes, offsets[index], 4).getInt();
+    }
+
+    float floatValue(int index) {
+        checkTag(index, CONSTANT_Float);
+        return ByteBuffer.wrap(bytes, offsets[index], 4).getFloat();
+    }
+
+    long longValue(int index) {
+        checkTag(index, CONSTANT_Long);
+        return ByteBuffer.wrap(bytes, offsets[index], 8).getLong();
+    }
+
+    double doubleValue(int index) {
+        checkTag(index, CONSTANT_Double);
+        return ByteBuffer.wrap(bytes, offsets[index], 8).getDouble();
+    }
+
+    private void checkTag(int index, int expectedTag) {
+        Preconditions.checkArgument(
+                index > 0 && index < tags.length && tags[index] == expectedTag,
+                "Expected constant pool entry with tag %s at index %s",
+                expectedTag,
+                index
+        );
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static void skip(ByteBuffer buffer, int n) {
+        buffer.position(buffer.position() + n);
+    }
+
+    private static String decodeModifiedUtf8(byte[] bytes, int offset, int length) {
+        char[] chars = new char[length];
+        int charCount = 0;
+        int i = offset;
+        int end = offset + length;
+
+        while (i < end) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                chars[charCount++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[charCount++] = (char) (((b & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else {
+                chars[charCount++] = (char) (((b & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            }
+        }
+        return new String(chars, 0, charCount);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fast class file prefilter, only looking at the constant pool. It returns true if the constant pool contains
+ * at least one of the given type descriptors (such as "Ljakarta/annotation/Resource;") as Utf8 entry.
+ * Only Utf8 entries of matching length are compared, byte by byte, and no entry is decoded into a string.
+ * <p>
+ * Any class file annotated with one of these annotation types passes the filter, because the annotation type
+ * descriptor must occur in the constant pool. The reverse is not true: for example, a class that merely
+ * uses such an annotation type in a field descriptor also passes the filter. Hence, the filter is to be used
+ * in front of a full class file analysis, such as {@link ClassFileParser#parse(byte[])}.
+ * <p>
+ * Bytes that are not a valid class file do not pass the filter.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ConstantPoolPrefilter implements Predicate<byte[]> {
+
+    private final ImmutableSet<String> classNames;
+    private final ImmutableList<byte[]> typeDescriptors;
+    private final boolean[] candidateLengths;
+
+    private ConstantPoolPrefilter(ImmutableSet<String> classNames) {
+        Preconditions.checkArgument(!classNames.isEmpty());
+        this.classNames = classNames;
+        this.typeDescriptors = classNames.stream()
+                .map(TypeDescriptors::toFieldDescriptor)
+                // Type descriptors of Jakarta EE annotations are ASCII, so modified UTF-8 is ASCII as well
+                .map(d -> d.getBytes(StandardCharsets.UTF_8))
+                .collect(ImmutableList.toImmutableList());
+
+        int maxLength = typeDescriptors.stream().mapToInt(d -> d.length).max().orElseThrow();
+        this.candidateLengths = new boolean[maxLength + 1];
+        typeDescriptors.forEach(d -> candidateLengths[d.length] = true);
+    }
+
+    /**
+     * Creates a prefilter for the given (fully qualified) class names, such as "jakarta.annotation.Resource".
+     */
+    public static ConstantPoolPrefilter forClassNames(Collection<String> classNames) {
+        return new ConstantPoolPrefilter(ImmutableSet.copyOf(classNames));
+    }
+
+    @SafeVarargs
+    public static ConstantPoolPrefilter forAnnotationTypes(Class<? extends Annotation>... annotationClasses) {
+        return forClassNames(Arrays.stream(annotationClasses).map(Class::getName).toList());
+    }
+
+    @Override
+    public boolean test(byte[] classFileBytes) {
+        ConstantPool constantPool;
+        try {
+            constantPool = ConstantPool.read(classFileBytes);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        for (int i = 1; i < constantPool.size(); i++) {
+            if (constantPool.tag(i) == ConstantPool.CONSTANT_Utf8) {
+                int length = constantPool.utf8Length(i);
+
+                if (length < candidateLengths.length && candidateLengths[length]) {
+                    for (byte[] typeDescriptor : typeDescriptors) {
+                        if (constantPool.utf8Equals(i, typeDescriptor)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the given (already parsed) class, or one of its fields or methods, is annotated with one
+     * of the annotation types of this filter, either directly or as nested annotation (as in a "Resources"
+     * annotation containing "Resource" annotations). This is the counterpart of this filter for class data that
+     * does not come from class file bytes, such as Jandex indexes. It is more precise than the constant pool test.
+     */
+    public boolean matchesAnnotations(ClassInfo classInfo) {
+        return Stream.concat(
+                        classInfo.annotations().stream(),
+                        classInfo.annotatedMembers().stream().flatMap(m -> m.annotations().stream())
+                )
+                .anyMatch(this::matchesAnnotation);
+    }
+
+    private boolean matchesAnnotation(AnnotationInfo annotation) {
+        return classNames.contains(annotation.annotationTypeName()) ||
+                annotation.elementValues().keySet().stream()
+                        .flatMap(name -> annotation.nestedAnnotations(name).stream())
+                        .anyMatch(this::matchesAnnotation);
+    }
+
+    /**
+     * Returns a string identifying the filter criteria, namely the sorted type descriptors. Results of this
+     * filter can be stored (for example in a {@link ClassInfoCache}) together with this string.
+     */
+    @Override
+    public String toString() {
+        return typeDescriptors.stream()
+                .map(d -> new String(d, StandardCharsets.UTF_8))
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(", ", "ConstantPoolPrefilter[", "]"));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Support for reading Jandex annotation indexes ("META-INF/jandex.idx") shipped in library JAR files, as an
+ * alternative to parsing all class files of those JAR files. The index content is converted to {@link ClassInfo}
+ * objects, just like the result of {@link ClassFileParser}, so the annotation checks do not care where the
+ * data came from. Only runtime-visible annotations are retained, like in {@link ClassFileParser}.
+ * <p>
+ * An index is only used if it is not stale. That is, the classes in the index must be exactly the classes in the
+ * JAR file (comparing class names from the ZIP central directory only, without inflating any class file), and the
+ * index must not be older than any class file in the JAR file.
+ *
+ * @author Chris de Vreeze
+ */
+public class JandexIndexes {
+
+    public static final String JANDEX_INDEX_ENTRY_NAME = "META-INF/jandex.idx";
+
+    private JandexIndexes() {
+    }
+
+    /**
+     * Returns the classes in the Jandex index of the given JAR file, if that JAR file contains a readable index
+     * that is not stale. Otherwise, returns an empty Optional, and the caller should fall back to scanning
+     * the class files in the JAR file.
+     */
+    public static Optional<List<ClassInfo>> findClassInfosInJandexIndex(ZipFile jarFile) {
+        ZipEntry indexEntry = jarFile.getEntry(JANDEX_INDEX_ENTRY_NAME);
+        if (indexEntry == null) {
+            return Optional.empty();
+        }
+
+        try (InputStream inputStream = jarFile.getInputStream(indexEntry)) {
+            Index index = new IndexReader(inputStream).read();
+
+            List<ClassInfo> classInfos = index.getKnownClasses()
+                    .stream()
+                    .map(JandexIndexes::convertClassInfo)
+                    .sorted(Comparator.comparing(ClassInfo::className))
+                    .toList();
+
+            return isUpToDate(jarFile, indexEntry, classInfos) ? Optional.of(classInfos) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            // Unreadable index, or unsupported index version, so eating the exception and falling back to class files
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isUpToDate(ZipFile jarFile, ZipEntry indexEntry, List<ClassInfo> classInfos) {
+        List<? extends ZipEntry> classFileEntries = jarFile.stream()
+                .filter(e -> !e.isDirectory())
+                .filter(e -> e.getName().endsWith(".class"))
+                .filter(e -> !e.getName().startsWith("META-INF/") && !e.getName().endsWith("module-info.class"))
+                .toList();
+
+        ImmutableSet<String> classNamesInJar = classFileEntries.stream()
+                .map(e -> e.getName().substring(0, e.getName().length() - ".class".length()).replace('/', '.'))
+                .collect(ImmutableSet.toImmutableSet());
+        ImmutableSet<String> classNamesInIndex = classInfos.stream()
+                .map(ClassInfo::className)
+                .collect(ImmutableSet.toImmutableSet());
+
+        boolean indexNotOlderThanClassFiles = classFileEntries.stream()
+                .allMatch(e -> e.getTime() <= indexEntry.getTime());
+
+        return classNamesInJar.equals(classNamesInIndex) && indexNotOlderThanClassFiles;
+    }
+
+    private static ClassInfo convertClassInfo(org.jboss.jandex.ClassInfo classInfo) {
+        String className = classInfo.name().toString();
+
+        return new ClassInfo(
+                className,
+                Short.toUnsignedInt(classInfo.flags()),
+                Optional.ofNullable(classInfo.superName()).map(DotName::toString),
+                classInfo.interfaceNames().stream().map(DotName::toString).collect(ImmutableList.toImmutableList()),
+                convertAnnotations(classInfo.declaredAnnotations()),
+                classInfo.fields().stream()
+                        .map(f -> convertField(className, f))
+                        .collect(ImmutableList.toImmutableList()),
+                classInfo.methods().stream()
+                        .filter(m -> !m.name().equals("<clinit>"))
+                        .map(m -> convertMethod(className, m))
+                        .collect(ImmutableList.toImmutableList())
+        );
+    }
+
+    private static MemberInfo convertField(String ownerClassName, FieldInfo field) {
+        return new MemberInfo(
+                MemberInfo.Kind.FIELD,
+                ownerClassName,
+                field.name(),
+                toDescriptor(field.type()),
+                Short.toUnsignedInt(field.flags()),
+                convertAnnotations(field.declaredAnnotations())
+        );
+    }
+
+    private static MemberInfo convertMethod(String ownerClassName, MethodInfo method) {
+        // Unlike method "parameterTypes", method "descriptorParameterTypes" retains synthetic and mandated parameters,
+        // such as the name and ordinal parameters of enum constructors, like the descriptor in the class file does
+        String descriptor = method.descriptorParameterTypes().stream()
+                .map(JandexIndexes::toDescriptor)
+                .reduce("(", String::concat) + ")" + toDescriptor(method.returnType());
+
+        return new MemberInfo(
+                method.name().equals("<init>") ? MemberInfo.Kind.CONSTRUCTOR : MemberInfo.Kind.METHOD,
+                ownerClassName,
+                method.name(),
+                descriptor,
+                Short.toUnsignedInt(method.flags()),
+                convertAnnotations(method.declaredAnnotations())
+        );
+    }
+
+    private static ImmutableList<AnnotationInfo> convertAnnotations(Collection<AnnotationInstance> annotations) {
+        return annotations.stream()
+                .filter(AnnotationInstance::runtimeVisible)
+                .map(JandexIndexes::convertAnnotation)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static AnnotationInfo convertAnnotation(AnnotationInstance annotation) {
+        return new AnnotationInfo(
+                annotation.name().toString(),
+                annotation.values().stream()
+                        .collect(ImmutableMap.toImmutableMap(AnnotationValue::name, JandexIndexes::convertValue))
+        );
+    }
+
+    private static AnnotationInfo.ElementValue convertValue(AnnotationValue value) {
+        return switch (value.kind()) {
+            case BYTE -> new AnnotationInfo.ConstValue(value.asByte());
+            case SHORT -> new AnnotationInfo.ConstValue(value.asShort());
+            case INTEGER -> new AnnotationInfo.ConstValue(value.asInt());
+            case CHARACTER -> new AnnotationInfo.ConstValue(value.asChar());
+            case FLOAT -> new AnnotationInfo.ConstValue(value.asFloat());
+            case DOUBLE -> new AnnotationInfo.ConstValue(value.asDouble());
+            case LONG -> new AnnotationInfo.ConstValue(value.asLong());
+            case BOOLEAN -> new AnnotationInfo.ConstValue(value.asBoolean());
+            case STRING -> new AnnotationInfo.ConstValue(value.asString());
+            case ENUM -> new AnnotationInfo.EnumConstValue(value.asEnumType().toString(), value.asEnum());
+            case CLASS -> new AnnotationInfo.ClassValue(TypeDescriptors.toTypeName(toDescriptor(value.asClass())));
+            case NESTED -> new AnnotationInfo.AnnotationValue(convertAnnotation(value.asNested()));
+            case ARRAY -> new AnnotationInfo.ArrayValue(
+                    value.asArrayList().stream()
+                            .map(JandexIndexes::convertValue)
+                            .collect(ImmutableList.toImmutableList())
+            );
+            case UNKNOWN -> new AnnotationInfo.ArrayValue(ImmutableList.of()); // empty array of unknown type
+        };
+    }
+
+    /**
+     * Returns the (erased) descriptor of the given Jandex type. Jandex uses the erasure as name of generic types,
+     * and the descriptor (with dots instead of slashes) as name of array types.
+     */
+    private static String toDescriptor(Type type) {
+        String name = type.name().toString();
+
+        return switch (type.kind()) {
+            case VOID -> "V";
+            case PRIMITIVE -> switch (name) {
+                case "byte" -> "B";
+                case "char" -> "C";
+                case "double" -> "D";
+                case "float" -> "F";
+                case "int" -> "I";
+                case "long" -> "J";
+                case "short" -> "S";
+                case "boolean" -> "Z";
+                default -> throw new IllegalArgumentException("Unknown primitive type: " + name);
+            };
+            case ARRAY -> name.replace('.', '/');
+            default -> TypeDescriptors.toFieldDescriptor(name);
+        };
+    }
+}
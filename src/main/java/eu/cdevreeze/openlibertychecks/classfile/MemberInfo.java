@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+
+/**
+ * Field, method or constructor, as read from a class file (so without loading any class).
+ * The type descriptor is the JVM field or method descriptor, such as "Ljavax/sql/DataSource;" or "(I)V".
+ *
+ * @author Chris de Vreeze
+ */
+public record MemberInfo(
+        Kind kind,
+        String ownerClassName,
+        String name,
+        String typeDescriptor,
+        int accessFlags,
+        ImmutableList<AnnotationInfo> annotations
+) implements AnnotatedInfo {
+
+    public enum Kind {FIELD, METHOD, CONSTRUCTOR}
+
+    public MemberInfo {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(ownerClassName);
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(typeDescriptor);
+        Objects.requireNonNull(annotations);
+    }
+
+    public boolean isStatic() {
+        return Modifier.isStatic(accessFlags);
+    }
+
+    public boolean isPublic() {
+        return Modifier.isPublic(accessFlags);
+    }
+
+    /**
+     * Returns the field type name. Only applicable to fields.
+     */
+    public String fieldTypeName() {
+        Preconditions.checkState(kind == Kind.FIELD, "Not a field: %s", name);
+        return TypeDescriptors.toTypeName(typeDescriptor);
+    }
+
+    /**
+     * Returns the parameter type names. Only applicable to methods and constructors.
+     */
+    public ImmutableList<String> parameterTypeNames() {
+        Preconditions.checkState(kind != Kind.FIELD, "Not a method or constructor: %s", name);
+        return TypeDescriptors.parameterTypeNames(typeDescriptor);
+    }
+
+    /**
+     * Returns the return type name. Only applicable to methods and constructors.
+     */
+    public String returnTypeName() {
+        Preconditions.checkState(kind != Kind.FIELD, "Not a method or constructor: %s", name);
+        return TypeDescriptors.returnTypeName(typeDescriptor);
+    }
+
+    /**
+     * Returns a Java-like signature, such as "javax.sql.DataSource dataSource" for a field,
+     * "void setDataSource(javax.sql.DataSource)" for a method or "MyBean(int)" for a constructor.
+     */
+    public String signature() {
+        return switch (kind) {
+            case FIELD -> fieldTypeName() + " " + name;
+            case METHOD -> returnTypeName() + " " + name + "(" + String.join(",", parameterTypeNames()) + ")";
+            case CONSTRUCTOR -> simpleOwnerClassName() + "(" + String.join(",", parameterTypeNames()) + ")";
+        };
+    }
+
+    private String simpleOwnerClassName() {
+        return ownerClassName.substring(ownerClassName.lastIndexOf('.') + 1);
+    }
+}
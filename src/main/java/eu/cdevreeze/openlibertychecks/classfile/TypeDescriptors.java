@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Conversions between JVM type descriptors (such as "Ljava/lang/String;" or "(I)V") and Java type names.
+ * <p>
+ * See <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html#jvms-4.3">Descriptors</a>.
+ *
+ * @author Chris de Vreeze
+ */
+public class TypeDescriptors {
+
+    private TypeDescriptors() {
+    }
+
+    /**
+     * Returns the Java type name of the given field descriptor (or return descriptor "V"), such as
+     * "int", "java.lang.String" or "java.lang.String[]". Nested classes keep their dollar signs.
+     */
+    public static String toTypeName(String fieldDescriptor) {
+        int end = endOfFieldDescriptor(fieldDescriptor, 0);
+        Preconditions.checkArgument(end == fieldDescriptor.length(), "Not a field descriptor: %s", fieldDescriptor);
+        return toTypeName(fieldDescriptor, 0, end);
+    }
+
+    /**
+     * Returns the field descriptor of the given (non-array) class name, such as "Ljakarta/annotation/Resource;"
+     * for "jakarta.annotation.Resource".
+     */
+    public static String toFieldDescriptor(String className) {
+        return "L" + className.replace('.', '/') + ";";
+    }
+
+    public static ImmutableList<String> parameterTypeNames(String methodDescriptor) {
+        Preconditions.checkArgument(methodDescriptor.startsWith("("), "Not a method descriptor: %s", methodDescriptor);
+
+        ImmutableList.Builder<String> result = ImmutableList.builder();
+        int idx = 1;
+        while (methodDescriptor.charAt(idx) != ')') {
+            int end = endOfFieldDescriptor(methodDescriptor, idx);
+            result.add(toTypeName(methodDescriptor, idx, end));
+            idx = end;
+        }
+        return result.build();
+    }
+
+    public static String returnTypeName(String methodDescriptor) {
+        int idx = methodDescriptor.indexOf(')');
+        Preconditions.checkArgument(idx > 0, "Not a method descriptor: %s", methodDescriptor);
+        return toTypeName(methodDescriptor.substring(idx + 1));
+    }
+
+    private static int endOfFieldDescriptor(String descriptor, int start) {
+        int idx = start;
+        while (descriptor.charAt(idx) == '[') {
+            idx++;
+        }
+        if (descriptor.charAt(idx) == 'L') {
+            int semicolonIdx = descriptor.indexOf(';', idx);
+            Preconditions.checkArgument(semicolonIdx > 0, "Missing ';' in descriptor: %s", descriptor);
+            return semicolonIdx + 1;
+        } else {
+            return idx + 1;
+        }
+    }
+
+    private static String toTypeName(String descriptor, int start, int end) {
+        int dimensions = 0;
+        int idx = start;
+        while (descriptor.charAt(idx) == '[') {
+            dimensions++;
+            idx++;
+        }
+
+        String baseTypeName = switch (descriptor.charAt(idx)) {
+            case 'B' -> "byte";
+            case 'C' -> "char";
+            case 'D' -> "double";
+            case 'F' -> "float";
+            case 'I' -> "int";
+            case 'J' -> "long";
+            case 'S' -> "short";
+            case 'Z' -> "boolean";
+            case 'V' -> "void";
+            case 'L' -> descriptor.substring(idx + 1, end - 1).replace('/', '.');
+            default -> throw new IllegalArgumentException("Not a type descriptor: " + descriptor.substring(start, end));
+        };
+        return baseTypeName + "[]".repeat(dimensions);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Type hierarchy (superclasses and interfaces) built from class file headers, so without loading any class.
+ * It answers assignability questions such as "does this class implement ServletContextListener?", which
+ * would otherwise require {@link Class#isAssignableFrom(Class)} on loaded classes.
+ * <p>
+ * Each type gets an int ID, and for each type the transitive closure of its supertypes (including the type
+ * itself) is precomputed as a sorted int array. Type hierarchies are shallow, so a subtype query is a binary
+ * search in a very small array, so in practice constant time. Unlike a bit matrix, memory use is linear in
+ * the number of types.
+ * <p>
+ * Types that are referenced as supertype but whose class files are not available (for example, JDK or Jakarta EE
+ * API types) are nodes without known supertypes, unless they can be found by an optional class file resolver,
+ * such as the one returned by method {@link #classFileResolver(ClassLoader)}.
+ * <p>
+ * Instances are immutable and therefore thread-safe.
+ *
+ * @author Chris de Vreeze
+ */
+public final class TypeHierarchy {
+
+    private final Map<String, Integer> typeIds;
+    private final String[] typeNames;
+    private final boolean[] known;
+    private final int[][] supertypeClosures;
+
+    private TypeHierarchy(Map<String, Integer> typeIds, String[] typeNames, boolean[] known, int[][] supertypeClosures) {
+        this.typeIds = typeIds;
+        this.typeNames = typeNames;
+        this.known = known;
+        this.supertypeClosures = supertypeClosures;
+    }
+
+    public static TypeHierarchy build(Collection<ClassInfo> classInfos) {
+        return build(classInfos, ignored -> Optional.empty());
+    }
+
+    /**
+     * Builds the type hierarchy from the given classes, using the given resolver for supertypes that are not among
+     * the given classes. The resolver is used transitively, so the supertypes of resolved classes are resolved
+     * as well.
+     */
+    public static TypeHierarchy build(
+            Collection<ClassInfo> classInfos,
+            Function<String, Optional<ClassInfo>> classInfoResolver
+    ) {
+        Map<String, ClassInfo> classInfoMap = new HashMap<>();
+        classInfos.forEach(c -> classInfoMap.putIfAbsent(c.className(), c));
+
+        // Resolving missing supertypes, and collecting all type names (in sorted order, for deterministic IDs)
+        Map<String, Optional<ClassInfo>> allTypes = new TreeMap<>();
+        Deque<String> typeNamesToProcess = new ArrayDeque<>(classInfoMap.keySet());
+
+        while (!typeNamesToProcess.isEmpty()) {
+            String typeName = typeNamesToProcess.pop();
+            if (allTypes.containsKey(typeName)) {
+                continue;
+            }
+            Optional<ClassInfo> classInfoOption =
+                    Optional.ofNullable(classInfoMap.get(typeName)).or(() -> classInfoResolver.apply(typeName));
+            allTypes.put(typeName, classInfoOption);
+            classInfoOption.ifPresent(c -> directSupertypeNames(c).forEach(typeNamesToProcess::push));
+        }
+
+        int size = allTypes.size();
+        Map<String, Integer> typeIds = new HashMap<>();
+        String[] typeNames = allTypes.keySet().toArray(String[]::new);
+        IntStream.range(0, size).forEach(i -> typeIds.put(typeNames[i], i));
+
+        boolean[] known = new boolean[size];
+        int[][] directSupertypeIds = new int[size][];
+        for (int i = 0; i < size; i++) {
+            Optional<ClassInfo> classInfoOption = allTypes.get(typeNames[i]);
+            known[i] = classInfoOption.isPresent();
+            directSupertypeIds[i] = classInfoOption.stream()
+                    .flatMap(TypeHierarchy::directSupertypeNames)
+                    .mapToInt(typeIds::get)
+                    .toArray();
+        }
+
+        int[][] supertypeClosures = new int[size][];
+        boolean[] inProgress = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            computeSupertypeClosure(i, directSupertypeIds, supertypeClosures, inProgress);
+        }
+        return new TypeHierarchy(Map.copyOf(typeIds), typeNames, known, supertypeClosures);
+    }
+
+    /**
+     * Returns a class file resolver that reads class files as resources from the given class loader (typically
+     * the class loader of this tool, containing the JDK and Jakarta EE API classes). No class is loaded.
+     */
+    public static Function<String, Optional<ClassInfo>> classFileResolver(ClassLoader classLoader) {
+        return typeName -> {
+            String resourceName = typeName.replace('.', '/') + ".class";
+            try (InputStream inputStream = classLoader.getResourceAsStream(resourceName)) {
+                return (inputStream == null) ? Optional.empty() : Optional.of(ClassFileParser.parse(inputStream));
+            } catch (IOException | RuntimeException e) {
+                return Optional.empty();
+            }
+        };
+    }
+
+    public int size() {
+        return typeNames.length;
+    }
+
+    public OptionalInt findTypeId(String typeName) {
+        Integer typeId = typeIds.get(typeName);
+        return (typeId == null) ? OptionalInt.empty() : OptionalInt.of(typeId);
+    }
+
+    public String typeName(int typeId) {
+        return typeNames[typeId];
+    }
+
+    /**
+     * Returns true if the class file of the given type was available, so its supertypes are known.
+     */
+    public boolean isKnownType(String typeName) {
+        return findTypeId(typeName).stream().anyMatch(id -> known[id]);
+    }
+
+    /**
+     * Returns true if the first type is the same as or a subtype of the second one, like
+     * {@link Class#isAssignableFrom(Class)} with the parameter and receiver swapped. Unknown types
+     * are only subtypes of themselves.
+     */
+    public boolean isSubtypeOf(String typeName, String supertypeName) {
+        if (typeName.equals(supertypeName)) {
+            return true;
+        }
+        Integer typeId = typeIds.get(typeName);
+        Integer supertypeId = typeIds.get(supertypeName);
+        return typeId != null && supertypeId != null && isSubtypeOf(typeId, supertypeId);
+    }
+
+    public boolean isSubtypeOf(String typeName, Class<?> supertype) {
+        return isSubtypeOf(typeName, supertype.getName());
+    }
+
+    public boolean isSubtypeOf(int typeId, int supertypeId) {
+        return Arrays.binarySearch(supertypeClosures[typeId], supertypeId) >= 0;
+    }
+
+    /**
+     * Returns all supertypes of the given type, including the type itself, sorted on type name.
+     */
+    public ImmutableList<String> findSupertypeNames(String typeName) {
+        return findTypeId(typeName).stream()
+                .flatMap(id -> Arrays.stream(supertypeClosures[id]))
+                .mapToObj(id -> typeNames[id])
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns all subtypes of the given type, including the type itself, sorted on type name.
+     * This query is linear in the size of the type hierarchy.
+     */
+    public ImmutableList<String> findSubtypeNames(String typeName) {
+        OptionalInt supertypeIdOption = findTypeId(typeName);
+        if (supertypeIdOption.isEmpty()) {
+            return ImmutableList.of();
+        }
+        int supertypeId = supertypeIdOption.getAsInt();
+        return IntStream.range(0, size())
+                .filter(id -> isSubtypeOf(id, supertypeId))
+                .mapToObj(id -> typeNames[id])
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static Stream<String> directSupertypeNames(ClassInfo classInfo) {
+        return Stream.concat(classInfo.superClassNameOption().stream(), classInfo.interfaceNames().stream());
+    }
+
+    private static int[] computeSupertypeClosure(
+            int typeId,
+            int[][] directSupertypeIds,
+            int[][] supertypeClosures,
+            boolean[] inProgress
+    ) {
+        if (supertypeClosures[typeId] != null) {
+            return supertypeClosures[typeId];
+        }
+        // Cycles cannot occur in valid class files, but corrupt input must not lead to a stack overflow
+        Preconditions.checkArgument(!inProgress[typeId], "Cycle in type hierarchy at %s", typeId);
+        inProgress[typeId] = true;
+
+        int[] closure = IntStream.concat(
+                        IntStream.of(typeId),
+                        Arrays.stream(directSupertypeIds[typeId])
+                                .flatMap(id -> Arrays.stream(
+                                        computeSupertypeClosure(id, directSupertypeIds, supertypeClosures, inProgress)
+                                ))
+                )
+                .distinct()
+                .sorted()
+                .toArray();
+
+        supertypeClosures[typeId] = closure;
+        inProgress[typeId] = false;
+        return closure;
+    }
+}
@@ -19,11 +19,29 @@ package eu.cdevreeze.openlibertychecks.console;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveEntryPath;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveScanning;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ChecksIndexes;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfoCache;
+import eu.cdevreeze.openlibertychecks.classfile.ConstantPoolPrefilter;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex;
+import eu.cdevreeze.openlibertychecks.console.internal.XmlDescriptorRoots;
 import eu.cdevreeze.openlibertychecks.console.internal.XmlRootElementFinder;
+import eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationExtractor;
 import eu.cdevreeze.openlibertychecks.reflection.internal.ClassPathScanning;
+import eu.cdevreeze.openlibertychecks.reflection.internal.IsolatedClassLoading;
+import eu.cdevreeze.openlibertychecks.reflection.internal.ReflectionDescriptors;
 import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
 import eu.cdevreeze.openlibertychecks.xml.ibm.server.ServerXmlJndiResource;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariables;
 import eu.cdevreeze.openlibertychecks.xml.ibm.server.factories.ServerXmlJndiResources;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming.ServerXmlJndiResourceExtraction;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming.ServerXmlJndiResourceFact;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiEnvironmentRefElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
@@ -38,8 +56,12 @@ import eu.cdevreeze.yaidom4j.dom.immutabledom.NodeBuilder;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentPrinter;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentPrinters;
 import jakarta.annotation.Resource;
+import jakarta.annotation.Resources;
 
 import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -48,24 +70,32 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import static eu.cdevreeze.openlibertychecks.reflection.jakartaee10.CommonJakartaAnnotations.findResourceAnnotation;
-import static eu.cdevreeze.openlibertychecks.reflection.jakartaee10.CommonJakartaAnnotations.findResourcesAnnotation;
 
 /**
- * Program finding the resources in an extracted WAR file directory.
+ * Program finding the resources in a WAR, as extracted directory or as packed WAR or EAR file.
  * These resources may occur as Resource-annotated code or "resources" in XML configuration files.
+ * Resource-annotated code is searched for in "WEB-INF/classes" as well as in the JAR files in "WEB-INF/lib".
  * The resources are shown along with the contents of OpenLiberty configuration files, thus enabling
- * comparisons of these sets of "resource" data.
+ * comparisons of these sets of "resource" data. These comparisons are also made by the program itself: references
+ * are joined with the resources they refer to by normalized JNDI name (see {@link JndiNameIndex}), and the
+ * unmatched references are reported.
  * <p>
- * To run this program, first complete the class path for running. For example, obtain (most of) the class path
- * from the analysed project by running command "mvn dependency:build-classpath", for example.
+ * Resource annotations are found by reading the class files directly, so the classes of the WAR are not loaded,
+ * and the class path of the analysed project is not needed. Method "findResourcesInClassesDir" does use
+ * Java reflection, though. To use that method, first complete the class path for running. For example, obtain
+ * (most of) the class path from the analysed project by running command "mvn dependency:build-classpath", for example.
+ * Alternatively, pass a disposable class loader for the WAR (see {@link IsolatedClassLoading}) to that method.
  * <p>
  * This program can also run on the class path of the analysed project, if it contains a dependency
  * on this project. It may be needed to extend that class path with the dependencies of scope "provided",
  * such as the jakartaee-api dependency, before running this program "as part of the analysed project".
  * <p>
- * This program takes at least one directory path. The first one contains the open WAR directory.
- * The other ones contain OpenLiberty configuration files.
+ * This program takes at least one path. The first one is the open WAR directory, or a packed WAR or EAR file.
+ * Packed archives (including nested archives, such as JAR files in a WAR file in an EAR file) are read in memory,
+ * without extracting them. The other paths are directories containing OpenLiberty configuration files.
+ * <p>
+ * If system property "openlibertychecks.classInfoCache" is set to a file path, the analysis results of the class
+ * files in "WEB-INF/classes" are stored in that file, and subsequent runs only parse the class files that changed.
  *
  * @author Chris de Vreeze
  */
@@ -79,6 +109,17 @@ public class FindResourcesInWar {
             Resource resourceAnnotation
     ) {
 
+        /**
+         * Converts this reflection-based object to a descriptor-based one, which no longer refers to any
+         * (WAR) class, and which can be compared with the results of class file analysis.
+         */
+        public ResourceAnnotationClassFileInfo toDescriptorBasedInfo() {
+            return new ResourceAnnotationClassFileInfo(
+                    ReflectionDescriptors.toAnnotatedInfo(annotatedElement),
+                    ReflectionDescriptors.toAnnotationInfo(resourceAnnotation)
+            );
+        }
+
         public Element toXml() {
             var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
 
@@ -153,6 +194,143 @@ public class FindResourcesInWar {
         }
     }
 
+    /**
+     * Resource annotation occurrence, as read from a class file, without loading any class.
+     */
+    public record ResourceAnnotationClassFileInfo(
+            AnnotatedInfo annotatedInfo,
+            AnnotationInfo resourceAnnotation
+    ) {
+
+        public ResourceAnnotationClassFileInfo {
+            Preconditions.checkArgument(resourceAnnotation.hasType(Resource.class));
+        }
+
+        public Element toXml() {
+            var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
+
+            return nb.element(
+                    "resourceAnnotationOccurrence",
+                    ImmutableMap.of(),
+                    ImmutableList.of(convertAnnotatedInfoToXml(), convertResourceAnnotationToXml())
+            );
+        }
+
+        private Element convertAnnotatedInfoToXml() {
+            var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
+
+            if (annotatedInfo() instanceof ClassInfo c) {
+                return nb.textElement("class", (c.isInterface() ? "interface " : "class ") + c.className());
+            } else if (annotatedInfo() instanceof MemberInfo m) {
+                String ownerClass = "class " + m.ownerClassName();
+                return switch (m.kind()) {
+                    case FIELD -> nb.textElement(
+                            "field",
+                            ImmutableMap.of("class", ownerClass),
+                            memberToString(m, Modifier.fieldModifiers())
+                    );
+                    case METHOD -> nb.textElement(
+                            "method",
+                            ImmutableMap.of("class", ownerClass),
+                            memberToString(m, Modifier.methodModifiers())
+                    );
+                    case CONSTRUCTOR -> nb.textElement(
+                            "constructor",
+                            ImmutableMap.of("class", ownerClass),
+                            memberToString(m, Modifier.constructorModifiers())
+                    );
+                };
+            } else {
+                return nb.textElement("annotatedElement", annotatedInfo().toString());
+            }
+        }
+
+        private Element convertResourceAnnotationToXml() {
+            var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
+
+            return nb.element(
+                    "annotation",
+                    ImmutableMap.of("annotationType", Resource.class.toString()),
+                    ImmutableList.of(
+                            new Comment("""
+                                    Name is the JNDI name, for fields defaulting to the field name,
+                                    and for methods defaulting to the JavaBeans property name corresponding to the annotated method
+                                    """.strip()
+                            ),
+                            nb.textElement("name", elementValueAsString("name")),
+                            nb.textElement("description", elementValueAsString("description")),
+                            nb.textElement("shareable", elementValueAsString("shareable")),
+                            nb.textElement("lookup", elementValueAsString("lookup")),
+                            nb.textElement("type", typeToString(elementValueAsString("type"))),
+                            nb.textElement("mappedName", elementValueAsString("mappedName")),
+                            nb.textElement("authenticationType", elementValueAsString("authenticationType"))
+                    )
+            );
+        }
+
+        private String elementValueAsString(String elementName) {
+            return resourceAnnotation().elementValueAsStringOption(elementName)
+                    .orElseGet(() -> defaultValueAsString(elementName));
+        }
+
+        private static String defaultValueAsString(String elementName) {
+            // The Resource annotation type is on the class path of this program, so this does not load any WAR class
+            try {
+                Object defaultValue = Resource.class.getMethod(elementName).getDefaultValue();
+                return (defaultValue instanceof Class<?> c) ? c.getName() : String.valueOf(defaultValue);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        /**
+         * Returns the same string as method "toString" of the corresponding Field, Method or Constructor, except for
+         * the "throws" clause, which is not known. This keeps the report format of the reflection-based variant.
+         */
+        private static String memberToString(MemberInfo member, int modifierMask) {
+            String owner = member.ownerClassName();
+            String parameters = (member.kind() == MemberInfo.Kind.FIELD) ?
+                    "" :
+                    "(" + String.join(",", member.parameterTypeNames()) + ")";
+            String memberString = switch (member.kind()) {
+                case FIELD -> member.fieldTypeName() + " " + owner + "." + member.name();
+                case METHOD -> member.returnTypeName() + " " + owner + "." + member.name() + parameters;
+                case CONSTRUCTOR -> owner + parameters;
+            };
+            String modifiers = Modifier.toString(member.accessFlags() & modifierMask);
+            return modifiers.isEmpty() ? memberString : modifiers + " " + memberString;
+        }
+
+        /**
+         * Returns the same string as method "toString" of the Class with the given name, such as
+         * "interface javax.sql.DataSource", if that class is on the class path of this program. It is loaded
+         * without initializing it. Otherwise, for example for types of the analysed WAR, the plain type name is returned,
+         * since it is unknown whether the type is a class or an interface.
+         */
+        private static String typeToString(String typeName) {
+            try {
+                return Class.forName(typeName, false, FindResourcesInWar.class.getClassLoader()).toString();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return typeName;
+            }
+        }
+    }
+
+    /**
+     * System property holding the path of the optional persistent class file analysis cache.
+     */
+    public static final String CLASS_INFO_CACHE_PROPERTY = "openlibertychecks.classInfoCache";
+
+    /**
+     * Boolean system property enabling the use of the index emitted by the openlibertychecks annotation processor
+     * in directory "WEB-INF/classes" (see {@link ChecksIndexes}). It is off by default, because an index that is stale
+     * without the set of classes having changed (e.g. after an IDE incremental build) goes undetected.
+     */
+    public static final String USE_CHECKS_INDEX_PROPERTY = "openlibertychecks.useChecksIndex";
+
+    private static final AnnotationExtractor RESOURCE_ANNOTATION_EXTRACTOR =
+            AnnotationExtractor.forAnnotationTypes(Resource.class, Resources.class);
+
     public static void main(String[] args) {
         Objects.checkIndex(0, args.length);
 
@@ -165,14 +343,25 @@ public class FindResourcesInWar {
         System.out.println(docPrinter.print(foundResources));
     }
 
-    public static Element findResourcesAsXml(Path warDir, List<Path> otherDirs) {
-        Preconditions.checkArgument(Files.isDirectory(warDir));
+    /**
+     * Returns the found resources as XML. The first parameter is either an extracted WAR directory,
+     * or a packed WAR or EAR file, which is then read without extracting it.
+     */
+    public static Element findResourcesAsXml(Path warDirOrArchive, List<Path> otherDirs) {
+        boolean isArchive = ArchiveScanning.isArchiveFile(warDirOrArchive);
+        Preconditions.checkArgument(Files.isDirectory(warDirOrArchive) || isArchive);
         Preconditions.checkArgument(otherDirs.stream().allMatch(Files::isDirectory));
 
-        Map<AnnotatedElement, List<Resource>> resources = findResourcesInClassesDir(warDir);
+        Map<AnnotatedInfo, List<AnnotationInfo>> resources = new LinkedHashMap<>();
+        if (isArchive) {
+            resources.putAll(findResourceAnnotationInfosInArchive(warDirOrArchive));
+        } else {
+            resources.putAll(findResourceAnnotationInfosInClassesDirUsingOptionalCache(warDirOrArchive));
+            findResourceAnnotationInfosInLibJars(warDirOrArchive).forEach(resources::putIfAbsent);
+        }
 
-        List<ResourceAnnotationInfo> resourceAnnotationInfoList = resources.entrySet().stream()
-                .flatMap(kv -> kv.getValue().stream().map(res -> new ResourceAnnotationInfo(kv.getKey(), res)))
+        List<ResourceAnnotationClassFileInfo> resourceAnnotationInfoList = resources.entrySet().stream()
+                .flatMap(kv -> kv.getValue().stream().map(res -> new ResourceAnnotationClassFileInfo(kv.getKey(), res)))
                 .toList();
 
         var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
@@ -182,13 +371,34 @@ public class FindResourcesInWar {
                 ImmutableMap.of(),
                 resourceAnnotationInfoList
                         .stream()
-                        .map(ResourceAnnotationInfo::toXml)
+                        .map(ResourceAnnotationClassFileInfo::toXml)
                         .collect(ImmutableList.toImmutableList())
         );
 
-        ImmutableList<Path> allDirs = ImmutableList.<Path>builder().add(warDir).addAll(otherDirs).build();
+        // Each other directory is walked only once, for all kinds of XML descriptors
+        XmlDescriptorRoots otherDirsDescriptorRoots = XmlDescriptorRoots.findInDirectories(
+                otherDirs,
+                Runtime.getRuntime().availableProcessors()
+        );
+
+        List<JndiEnvironmentRefElement> jndiEnvironmentRefElements = isArchive ?
+                Stream.concat(
+                        findJndiEnvironmentRefsInArchiveDeploymentDescriptors(warDirOrArchive).stream(),
+                        findJndiEnvironmentRefs(findDeploymentDescriptorRoots(otherDirsDescriptorRoots)).stream()
+                ).toList() :
+                findJndiEnvironmentRefs(
+                        Stream.concat(
+                                findDeploymentDescriptorRoots(
+                                        XmlDescriptorRoots.findInDirectories(
+                                                List.of(warDirOrArchive),
+                                                Runtime.getRuntime().availableProcessors()
+                                        )
+                                ).stream(),
+                                findDeploymentDescriptorRoots(otherDirsDescriptorRoots).stream()
+                        ).toList()
+                );
 
-        ImmutableList<Node> jndiEnvironmentRefs = findJndiEnvironmentRefsInDeploymentDescriptors(allDirs)
+        ImmutableList<Node> jndiEnvironmentRefs = jndiEnvironmentRefElements
                 .stream()
                 .map(e ->
                         nb.element(
@@ -199,14 +409,19 @@ public class FindResourcesInWar {
                 )
                 .collect(ImmutableList.toImmutableList());
 
-        ImmutableList<Node> enabledFeaturesInServerXmlFiles = findEnabledFeaturesInServerXmlFiles(otherDirs)
+        ImmutableList<Node> enabledFeaturesInServerXmlFiles = findEnabledFeatures(otherDirsDescriptorRoots.serverXmlRootElements())
                 .stream()
                 .map(v ->
                         nb.textElement("enabledFeature", v)
                 )
                 .collect(ImmutableList.toImmutableList());
 
-        ImmutableList<Node> serverXmlJndiResources = findJndiResourcesInServerXmlFiles(otherDirs)
+        List<ServerXmlJndiResource> serverXmlJndiResourceList =
+                findServerXmlJndiResources(otherDirsDescriptorRoots.serverXmlRootElements());
+        ConfigVariableResolver configVariableResolver =
+                findConfigVariableResolver(otherDirs, otherDirsDescriptorRoots.serverXmlRootElements());
+
+        ImmutableList<Node> serverXmlJndiResources = serverXmlJndiResourceList
                 .stream()
                 .map(e ->
                         nb.element(
@@ -227,9 +442,62 @@ public class FindResourcesInWar {
                 )
                 .plusChild(
                         nb.element("serverXmlJndiResources").withChildren(serverXmlJndiResources)
+                )
+                .plusChild(
+                        convertJndiNameIndexToXml(
+                                JndiNameIndex.of(
+                                        resources,
+                                        jndiEnvironmentRefElements,
+                                        serverXmlJndiResourceList,
+                                        value -> resolveOrKeepRawValue(configVariableResolver, value)
+                                )
+                        )
                 );
     }
 
+    private static Element convertJndiNameIndexToXml(JndiNameIndex jndiNameIndex) {
+        var nb = new NodeBuilder.ConciseApi(NamespaceScope.empty());
+
+        ImmutableList<Node> matches = jndiNameIndex.matches()
+                .stream()
+                .map(m ->
+                        nb.element(
+                                "jndiReference",
+                                ImmutableMap.of(
+                                        "name", m.reference().name().toString(),
+                                        "target", m.target().toString(),
+                                        "matched", String.valueOf(m.isMatched())
+                                ),
+                                ImmutableList.<Node>builder()
+                                        .add(nb.textElement("source", m.reference().source().toString()))
+                                        .add(nb.textElement("origin", m.reference().origin()))
+                                        .addAll(
+                                                m.providers().stream()
+                                                        .map(p -> nb.textElement(
+                                                                "provider",
+                                                                ImmutableMap.of("source", p.source().toString()),
+                                                                p.origin()
+                                                        ))
+                                                        .toList()
+                                        )
+                                        .build()
+                        )
+                )
+                .collect(ImmutableList.toImmutableList());
+
+        ImmutableList<Node> unreferencedProviders = jndiNameIndex.unreferencedServerXmlProviders()
+                .stream()
+                .map(p -> nb.textElement("provider", ImmutableMap.of("name", p.name().toString()), p.origin()))
+                .collect(ImmutableList.toImmutableList());
+
+        return nb.element("jndiNameMatches")
+                .plusChild(
+                        new Comment("References without provider have attribute matched=\"false\"")
+                )
+                .plusChild(nb.element("references").withChildren(matches))
+                .plusChild(nb.element("unreferencedServerXmlProviders").withChildren(unreferencedProviders));
+    }
+
     public static Map<AnnotatedElement, List<Resource>> findResourcesInClassesDir(Path warDir) {
         Path classesDir = warDir.resolve("WEB-INF").resolve("classes");
         Preconditions.checkArgument(Files.isDirectory(classesDir));
@@ -241,16 +509,207 @@ public class FindResourcesInWar {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    /**
+     * Like the overloaded method taking only the WAR directory, but loading the classes through the given class loader,
+     * without initializing them. Typically, the class loader is a disposable one, created by class
+     * {@link IsolatedClassLoading}, so the classes of the WAR are not loaded by the class loader of this program.
+     */
+    public static Map<AnnotatedElement, List<Resource>> findResourcesInClassesDir(Path warDir, ClassLoader classLoader) {
+        Path classesDir = warDir.resolve("WEB-INF").resolve("classes");
+        Preconditions.checkArgument(Files.isDirectory(classesDir));
+
+        List<Class<?>> webAppClasses = ClassPathScanning.findClasses(classesDir, classLoader);
+
+        // Public members inherited from a shared superclass are found once per subclass, so keep the first occurrence
+        return webAppClasses.stream()
+                .flatMap(c -> findAllResourcesInClass(c).entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * Like method "findResourcesInClassesDir", but loading the classes through a disposable class loader for the WAR
+     * (without initializing them), and converting the results to descriptors (see {@link ReflectionDescriptors}).
+     * The class loader is closed before returning, and the result does not keep any WAR class reachable, so the
+     * loaded classes can be garbage collected. The result map iterates in class name order.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceDescriptorsInClassesDir(Path warDir) {
+        return IsolatedClassLoading.analyzeWar(
+                warDir,
+                classLoader -> findResourcesInClassesDir(warDir, classLoader).entrySet().stream()
+                        .map(kv -> Map.entry(
+                                ReflectionDescriptors.toAnnotatedInfo(kv.getKey()),
+                                kv.getValue().stream().map(ReflectionDescriptors::toAnnotationInfo).toList()
+                        ))
+                        .sorted(Comparator.comparing(kv -> sortKey(kv.getKey())))
+                        .collect(Collectors.toMap(
+                                Map.Entry::getKey,
+                                Map.Entry::getValue,
+                                (v1, v2) -> v1,
+                                LinkedHashMap::new
+                        ))
+        );
+    }
+
+    /**
+     * Like method "findResourcesInClassesDir", but reads the class files directly instead of using Java reflection.
+     * Hence, no class of the WAR is loaded, and no static initializer is run. Class files not mentioning the
+     * Resource or Resources annotation types in their constant pools are skipped after a quick scan.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInClassesDir(Path warDir) {
+        return findResourceAnnotationInfosInClassesDir(warDir, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Like the overloaded method taking only the WAR directory, but scanning the class files with the given
+     * parallelism. The result map iterates in class name order, so reports based on it are deterministic.
+     * If system property {@link #USE_CHECKS_INDEX_PROPERTY} is set to "true", and the classes directory contains an
+     * up-to-date index emitted by the openlibertychecks annotation processor (see {@link ChecksIndexes}), that index
+     * is used instead, without reading any class file.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInClassesDir(
+            Path warDir,
+            int parallelism
+    ) {
+        Path classesDir = warDir.resolve("WEB-INF").resolve("classes");
+        Preconditions.checkArgument(Files.isDirectory(classesDir));
+
+        ConstantPoolPrefilter prefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class);
+        List<ClassInfo> webAppClasses = Boolean.getBoolean(USE_CHECKS_INDEX_PROPERTY) ?
+                ClassPathScanning.findClassInfosPreferringChecksIndex(classesDir, prefilter, parallelism) :
+                ClassPathScanning.findClassInfos(classesDir, prefilter, parallelism);
+
+        return webAppClasses.stream()
+                .flatMap(c -> findAllResourcesInClass(c).entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * Like the overloaded method taking the WAR directory and parallelism, but using the given persistent
+     * {@link ClassInfoCache}, which should have been opened for the Resource and Resources annotation types.
+     * Only class files that changed since the cache was last saved are parsed. The cache is not saved by this method.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInClassesDir(
+            Path warDir,
+            ClassInfoCache classInfoCache,
+            int parallelism
+    ) {
+        Path classesDir = warDir.resolve("WEB-INF").resolve("classes");
+        Preconditions.checkArgument(Files.isDirectory(classesDir));
+
+        List<ClassInfo> webAppClasses = ClassPathScanning.findClassInfos(classesDir, classInfoCache, parallelism);
+
+        return webAppClasses.stream()
+                .flatMap(c -> findAllResourcesInClass(c).entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * Like method "findResourceAnnotationInfosInClassesDir", but searching the JAR files in directory "WEB-INF/lib"
+     * instead of directory "WEB-INF/classes". The JAR files are not extracted, and no class is loaded.
+     * For JAR files shipping an up-to-date index (see {@link ChecksIndexes}) or Jandex index ("META-INF/jandex.idx"),
+     * the index is used instead.
+     * If there is no "WEB-INF/lib" directory, an empty map is returned.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInLibJars(Path warDir) {
+        return findResourceAnnotationInfosInLibJars(warDir, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInLibJars(
+            Path warDir,
+            int parallelism
+    ) {
+        Path libDir = warDir.resolve("WEB-INF").resolve("lib");
+
+        List<ClassInfo> libraryClasses = ClassPathScanning.findClassInfosInJarsPreferringIndexes(
+                ClassPathScanning.findJarFiles(libDir),
+                ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class),
+                parallelism
+        );
+
+        return libraryClasses.stream()
+                .flatMap(c -> findAllResourcesInClass(c).entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * Like method "findResourceAnnotationInfosInClassesDir", but reading the class files from the given packed
+     * archive (such as a WAR or EAR file), including its nested archives. Nothing is extracted to disk.
+     */
+    public static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInArchive(Path archiveFile) {
+        List<ClassInfo> classes = ClassPathScanning.findClassInfosInArchive(
+                archiveFile,
+                ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class)
+        );
+
+        return classes.stream()
+                .flatMap(c -> findAllResourcesInClass(c).entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    private static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotationInfosInClassesDirUsingOptionalCache(
+            Path warDir
+    ) {
+        Optional<Path> cacheFileOption = Optional.ofNullable(System.getProperty(CLASS_INFO_CACHE_PROPERTY)).map(Path::of);
+
+        if (cacheFileOption.isEmpty()) {
+            return findResourceAnnotationInfosInClassesDir(warDir);
+        }
+
+        ClassInfoCache classInfoCache = ClassInfoCache.open(
+                cacheFileOption.get(),
+                ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class)
+        );
+        Map<AnnotatedInfo, List<AnnotationInfo>> result = findResourceAnnotationInfosInClassesDir(
+                warDir,
+                classInfoCache,
+                Runtime.getRuntime().availableProcessors()
+        );
+        classInfoCache.save();
+        return result;
+    }
+
     public static List<JndiEnvironmentRefElement> findJndiEnvironmentRefsInDeploymentDescriptors(List<Path> dirs) {
+        // Each directory is walked only once, for web.xml and ejb-jar.xml files alike
         List<AncestryAwareNodes.Element> deploymentDescriptorRoots = dirs.stream()
-                .flatMap(dir ->
-                        Stream.concat(
-                                findWebXmlRootElements(dir).stream(),
-                                findEjbJarXmlRootElements(dir).stream()
-                        )
-                )
+                .map(dir -> XmlDescriptorRoots.findInDirectories(List.of(dir)))
+                .flatMap(descriptorRoots -> findDeploymentDescriptorRoots(descriptorRoots).stream())
                 .toList();
 
+        return findJndiEnvironmentRefs(deploymentDescriptorRoots);
+    }
+
+    /**
+     * Like method "findJndiEnvironmentRefsInDeploymentDescriptors", but reading the deployment descriptors from
+     * the given packed archive (such as a WAR or EAR file), including its nested modules.
+     * <p>
+     * To give the same results for a packed WAR file and the extracted WAR directory, library JAR files (such as
+     * those in "WEB-INF/lib" or in the "lib" directory of an EAR file) are not scanned, just like the directory walk
+     * does not open any JAR file. The modules of an EAR file (WAR, EJB JAR and RAR files) are scanned, though.
+     */
+    public static List<JndiEnvironmentRefElement> findJndiEnvironmentRefsInArchiveDeploymentDescriptors(Path archiveFile) {
+        List<AncestryAwareNodes.Element> deploymentDescriptorRoots = XmlRootElementFinder.findXmlRootElementsInArchiveByName(
+                archiveFile,
+                FindResourcesInWar::isModuleArchive,
+                entryPath -> entryPath.entryName().endsWith(".xml"),
+                n -> n.equals(Names.JAKARTAEE_WEBAPP_NAME) || n.equals(Names.JAKARTAEE_EJBJAR_NAME)
+        );
+
+        return findJndiEnvironmentRefs(deploymentDescriptorRoots);
+    }
+
+    /**
+     * Returns true if the given nested archive is a module directly in the outer (EAR) archive,
+     * and not a library JAR file.
+     */
+    private static boolean isModuleArchive(ArchiveEntryPath nestedArchivePath) {
+        return nestedArchivePath.nestedArchiveNames().isEmpty() &&
+                !nestedArchivePath.entryName().startsWith("WEB-INF/") &&
+                !nestedArchivePath.entryName().startsWith("lib/");
+    }
+
+    private static List<JndiEnvironmentRefElement> findJndiEnvironmentRefs(
+            List<AncestryAwareNodes.Element> deploymentDescriptorRoots
+    ) {
         return deploymentDescriptorRoots.stream()
                 .map(DeploymentDescriptorRootElements::newInstance)
                 .flatMap(e -> e.getElement()
@@ -261,11 +720,18 @@ public class FindResourcesInWar {
                 .toList();
     }
 
+    private static List<AncestryAwareNodes.Element> findDeploymentDescriptorRoots(XmlDescriptorRoots descriptorRoots) {
+        return Stream.concat(
+                descriptorRoots.webXmlRootElements().stream(),
+                descriptorRoots.ejbJarXmlRootElements().stream()
+        ).toList();
+    }
+
     public static List<String> findEnabledFeaturesInServerXmlFiles(List<Path> dirs) {
-        List<AncestryAwareNodes.Element> serverXmlRoots = dirs.stream()
-                .flatMap(dir -> findServerXmlRootElements(dir).stream())
-                .toList();
+        return findEnabledFeatures(XmlDescriptorRoots.findInDirectories(dirs).serverXmlRootElements());
+    }
 
+    private static List<String> findEnabledFeatures(List<AncestryAwareNodes.Element> serverXmlRoots) {
         return serverXmlRoots.stream()
                 .map(Server::new)
                 .flatMap(e -> e.featureManagers().stream())
@@ -274,10 +740,42 @@ public class FindResourcesInWar {
     }
 
     public static List<ServerXmlJndiResource> findJndiResourcesInServerXmlFiles(List<Path> dirs) {
-        List<AncestryAwareNodes.Element> serverXmlRoots = dirs.stream()
-                .flatMap(dir -> findServerXmlRootElements(dir).stream())
+        return findServerXmlJndiResources(XmlDescriptorRoots.findInDirectories(dirs).serverXmlRootElements());
+    }
+
+    /**
+     * Like method "findJndiResourcesInServerXmlFiles", but extracting facts about the resources with a streaming
+     * parser, without building any element tree. This is meant for very large (generated) server.xml files.
+     * Files that cannot be parsed as XML files are silently ignored, "eating the exception".
+     */
+    public static List<ServerXmlJndiResourceFact> findJndiResourceFactsInServerXmlFiles(List<Path> dirs) {
+        return dirs.stream()
+                .flatMap(dir -> {
+                    try (Stream<Path> fileStream = Files.walk(dir)) {
+                        return fileStream
+                                .filter(Files::isRegularFile)
+                                .filter(p -> p.getFileName().toString().endsWith(".xml"))
+                                .filter(p -> XmlRootElementFinder.findRootElementName(p)
+                                        .filter(n -> n.equals(new QName("server")))
+                                        .isPresent())
+                                .toList()
+                                .stream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .flatMap(p -> {
+                    try {
+                        return ServerXmlJndiResourceExtraction.findJndiResourceFacts(p).stream();
+                    } catch (UncheckedIOException e) {
+                        // Ignoring the exception
+                        return Stream.empty();
+                    }
+                })
                 .toList();
+    }
 
+    private static List<ServerXmlJndiResource> findServerXmlJndiResources(List<AncestryAwareNodes.Element> serverXmlRoots) {
         return serverXmlRoots.stream()
                 .map(Server::new)
                 .flatMap(e ->
@@ -288,68 +786,100 @@ public class FindResourcesInWar {
     }
 
     private static Map<AnnotatedElement, List<Resource>> findAllResourcesInClass(Class<?> clazz) {
-        List<Resource> resourcesInClass =
-                findResourceAnnotation(clazz).stream().toList();
-        Map<Field, List<Resource>> resourcesInFields =
-                getFields(clazz).stream()
-                        .flatMap(f -> findResourceAnnotation(f).stream().map(ann -> Map.entry(f, List.of(ann))))
-                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        Map<Method, List<Resource>> resourcesInMethods =
-                getMethods(clazz).stream()
-                        .flatMap(m -> findResourceAnnotation(m).stream().map(ann -> Map.entry(m, List.of(ann))))
-                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        List<Resource> resourcesBundledInClass =
-                findResourcesAnnotation(clazz).stream()
-                        .flatMap(r -> Arrays.stream(r.value()))
-                        .toList();
-
-        List<Resource> allResourcesInClass = new ArrayList<>();
-        allResourcesInClass.addAll(resourcesInClass);
-        allResourcesInClass.addAll(resourcesBundledInClass);
+        // One pass over the class and its members, collecting both annotation types at once
+        AnnotationExtractor.ClassAnnotations classAnnotations = RESOURCE_ANNOTATION_EXTRACTOR.extract(clazz);
+
+        List<Resource> allResourcesInClass =
+                Stream.concat(
+                        classAnnotations.findClassAnnotation(Resource.class).stream(),
+                        classAnnotations.findClassAnnotation(Resources.class).stream().flatMap(r -> Arrays.stream(r.value()))
+                ).toList();
 
         Map<AnnotatedElement, List<Resource>> result = new HashMap<>();
-        result.put(clazz, List.copyOf(allResourcesInClass));
-        result.putAll(resourcesInFields);
-        result.putAll(resourcesInMethods);
+        result.put(clazz, allResourcesInClass);
+        classAnnotations.findAnnotatedMembers(Resource.class).forEach((member, ann) -> result.put(member, List.of(ann)));
 
         return Map.copyOf(result);
     }
 
-    private static List<Field> getFields(Class<?> clazz) {
-        return Stream.of(Arrays.stream(clazz.getDeclaredFields()), Arrays.stream(clazz.getFields()))
-                .flatMap(v -> v)
-                .distinct()
-                .toList();
+    private static String sortKey(AnnotatedInfo annotatedInfo) {
+        if (annotatedInfo instanceof ClassInfo classInfo) {
+            return classInfo.className();
+        } else {
+            MemberInfo memberInfo = (MemberInfo) annotatedInfo;
+            return memberInfo.ownerClassName() + " " + memberInfo.signature();
+        }
     }
 
-    private static List<Method> getMethods(Class<?> clazz) {
-        return Stream.of(Arrays.stream(clazz.getDeclaredMethods()), Arrays.stream(clazz.getMethods()))
-                .flatMap(v -> v)
-                .distinct()
-                .toList();
+    private static Map<AnnotatedInfo, List<AnnotationInfo>> findAllResourcesInClass(ClassInfo classInfo) {
+        // One pass over the class and its members, like for the reflection-based variant
+        ImmutableMap<AnnotatedInfo, ImmutableList<AnnotationInfo>> annotationsByElement =
+                RESOURCE_ANNOTATION_EXTRACTOR.extract(classInfo);
+        List<AnnotationInfo> classAnnotations = annotationsByElement.get(classInfo);
+
+        List<AnnotationInfo> allResourcesInClass =
+                Stream.concat(
+                        classAnnotations.stream().filter(ann -> isAnnotationOfType(ann, Resource.class)),
+                        classAnnotations.stream()
+                                .filter(ann -> isAnnotationOfType(ann, Resources.class))
+                                .flatMap(r -> r.nestedAnnotations("value").stream())
+                ).toList();
+
+        // Unlike the reflection-based variant, only the declared members are considered, so no duplicates are found
+        // The insertion order is kept, for deterministic output
+        Map<AnnotatedInfo, List<AnnotationInfo>> result = new LinkedHashMap<>();
+        result.put(classInfo, allResourcesInClass);
+        annotationsByElement.forEach((element, annotations) -> {
+            if (!element.equals(classInfo)) {
+                annotations.stream()
+                        .filter(ann -> isAnnotationOfType(ann, Resource.class))
+                        .findFirst()
+                        .ifPresent(ann -> result.put(element, List.of(ann)));
+            }
+        });
+
+        return Collections.unmodifiableMap(result);
     }
 
-    private static List<AncestryAwareNodes.Element> findWebXmlRootElements(Path dir) {
-        return XmlRootElementFinder.findXmlRootElements(
-                dir,
-                p -> p.getFileName().toString().endsWith(".xml"),
-                e -> e.name().equals(Names.JAKARTAEE_WEBAPP_NAME)
-        );
+    private static boolean isAnnotationOfType(AnnotationInfo annotation, Class<? extends Annotation> annotationType) {
+        return annotation.annotationTypeName().equals(annotationType.getName());
     }
 
-    private static List<AncestryAwareNodes.Element> findEjbJarXmlRootElements(Path dir) {
-        return XmlRootElementFinder.findXmlRootElements(
-                dir,
-                p -> p.getFileName().toString().endsWith(".xml"),
-                e -> e.name().equals(Names.JAKARTAEE_EJBJAR_NAME)
-        );
+    /**
+     * Returns a resolver of the configuration variables declared in the given server.xml files and in the server.env
+     * and bootstrap.properties files directly in the given directories. Each directory is treated as a server
+     * configuration directory, using the server.xml files in it, and later directories take precedence.
+     */
+    private static ConfigVariableResolver findConfigVariableResolver(
+            List<Path> dirs,
+            List<AncestryAwareNodes.Element> serverXmlRoots
+    ) {
+        List<ConfigVariables.Layer> layers = dirs.stream()
+                .flatMap(dir -> {
+                    Path absoluteDir = dir.toAbsolutePath().normalize();
+                    List<Server> servers = serverXmlRoots.stream()
+                            .filter(e -> e.docUriOption()
+                                    .filter(uri -> "file".equals(uri.getScheme()))
+                                    .map(Path::of)
+                                    .filter(p -> p.startsWith(absoluteDir))
+                                    .isPresent())
+                            .map(Server::new)
+                            .toList();
+                    return ConfigVariables.forServer(dir, servers).layers().stream();
+                })
+                .toList();
+        return new ConfigVariableResolver(ConfigVariables.of(layers));
     }
 
-    private static List<AncestryAwareNodes.Element> findServerXmlRootElements(Path dir) {
-        return XmlRootElementFinder.findXmlRootElements(
-                dir,
-                p -> p.getFileName().toString().endsWith(".xml"),
-                e -> e.name().equals(new QName("server"))
-        );
+    /**
+     * Resolves the given value, but returns the raw value if variable resolution fails (due to cyclic variable
+     * definitions), so that one configuration error does not abort the whole report, but shows up in it.
+     */
+    private static String resolveOrKeepRawValue(ConfigVariableResolver variableResolver, String rawValue) {
+        try {
+            return variableResolver.resolve(rawValue);
+        } catch (IllegalStateException e) {
+            return rawValue;
+        }
     }
 }
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.ServerXmlJndiResource;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiEnvironmentRefElement;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import static eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareElementPredicates.hasName;
+
+/**
+ * Index of JNDI names across Resource annotations, deployment descriptors and server.xml files, keyed by
+ * normalized JNDI name, joining references to the resources they refer to with hash lookups.
+ * <p>
+ * References are Resource annotations and "resource-ref", "resource-env-ref" and "env-entry" elements in deployment
+ * descriptors. A deployment descriptor reference overrides the "lookup" of Resource annotations having the same name.
+ * Providers are server.xml elements having a "jndiName" attribute, resource definitions in deployment descriptors
+ * (such as "data-source"), and "env-entry" elements without "lookup-name" (which provide their own value).
+ * <p>
+ * The target of a reference is its lookup name, if any. Otherwise, it is the reference itself if there is a provider
+ * for it in the "java:comp/env" namespace, and else the reference name in the server namespace, like the default
+ * binding in OpenLiberty. Lookup names referring to other references (in "java:comp/env") are not followed.
+ *
+ * @author Chris de Vreeze
+ */
+public final class JndiNameIndex {
+
+    private static final String JAVA_COMP_ENV_PREFIX = "java:comp/env/";
+
+    /**
+     * JNDI namespace. Names without "java:" prefix are in the COMP_ENV namespace when used as reference name,
+     * and in the SERVER namespace (i.e. the "jndiName" namespace of server.xml) when used as lookup name.
+     */
+    public enum Scope {
+
+        COMP_ENV(JAVA_COMP_ENV_PREFIX),
+        COMP("java:comp/"),
+        MODULE("java:module/"),
+        APP("java:app/"),
+        GLOBAL("java:global/"),
+        SERVER("");
+
+        private final String prefix;
+
+        Scope(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String prefix() {
+            return prefix;
+        }
+    }
+
+    public record JndiName(Scope scope, String name) {
+
+        public JndiName {
+            Objects.requireNonNull(scope);
+            Objects.requireNonNull(name);
+        }
+
+        /**
+         * Parses a reference name, such as the name of a Resource annotation or a "res-ref-name".
+         */
+        public static JndiName parseReferenceName(String rawName) {
+            return parse(rawName, Scope.COMP_ENV);
+        }
+
+        /**
+         * Parses a lookup name, such as the lookup of a Resource annotation, a "lookup-name", or a server.xml "jndiName".
+         */
+        public static JndiName parseLookupName(String rawName) {
+            return parse(rawName, Scope.SERVER);
+        }
+
+        @Override
+        public String toString() {
+            return scope.prefix() + name;
+        }
+
+        private static JndiName parse(String rawName, Scope defaultScope) {
+            String name = rawName.strip();
+            // The more specific "java:comp/env/" prefix comes before "java:comp/"
+            for (Scope scope : Scope.values()) {
+                if (scope != Scope.SERVER && name.startsWith(scope.prefix())) {
+                    return new JndiName(scope, name.substring(scope.prefix().length()));
+                }
+            }
+            return name.startsWith("java:") ? new JndiName(Scope.SERVER, name) : new JndiName(defaultScope, name);
+        }
+    }
+
+    public enum Source {RESOURCE_ANNOTATION, DEPLOYMENT_DESCRIPTOR, SERVER_XML}
+
+    /**
+     * JNDI reference, where the origin is a human-readable location, such as a class member or document URI.
+     */
+    public record JndiReference(JndiName name, Optional<JndiName> lookupOption, Source source, String origin) {
+
+        public JndiReference {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(lookupOption);
+            Objects.requireNonNull(source);
+            Objects.requireNonNull(origin);
+        }
+    }
+
+    public record JndiProvider(JndiName name, Source source, String origin) {
+
+        public JndiProvider {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(source);
+            Objects.requireNonNull(origin);
+        }
+    }
+
+    public record Match(JndiReference reference, JndiName target, ImmutableList<JndiProvider> providers) {
+
+        public Match {
+            Objects.requireNonNull(reference);
+            Objects.requireNonNull(target);
+            Objects.requireNonNull(providers);
+        }
+
+        public boolean isMatched() {
+            return !providers.isEmpty();
+        }
+    }
+
+    private final ImmutableList<JndiReference> references;
+    private final ImmutableListMultimap<JndiName, JndiProvider> providersByName;
+    private final ImmutableList<Match> matches;
+
+    private JndiNameIndex(
+            ImmutableList<JndiReference> references,
+            ImmutableListMultimap<JndiName, JndiProvider> providersByName
+    ) {
+        this.references = references;
+        this.providersByName = providersByName;
+        this.matches = references.stream().map(this::match).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Creates the index from Resource annotations as read from class files (Resources annotations must have been
+     * unpacked), JNDI environment reference elements in deployment descriptors, and server.xml JNDI resources.
+     */
+    public static JndiNameIndex of(
+            Map<AnnotatedInfo, List<AnnotationInfo>> resourceAnnotations,
+            List<JndiEnvironmentRefElement> jndiEnvironmentRefElements,
+            List<? extends ServerXmlJndiResource> serverXmlJndiResources
+    ) {
+        return of(resourceAnnotations, jndiEnvironmentRefElements, serverXmlJndiResources, UnaryOperator.identity());
+    }
+
+    /**
+     * Like the other "of" method, but resolving the server.xml "jndiName" attribute values with the given value
+     * resolver first. Typically, that is method {@link ConfigVariableResolver#resolve(String)}.
+     */
+    public static JndiNameIndex of(
+            Map<AnnotatedInfo, List<AnnotationInfo>> resourceAnnotations,
+            List<JndiEnvironmentRefElement> jndiEnvironmentRefElements,
+            List<? extends ServerXmlJndiResource> serverXmlJndiResources,
+            UnaryOperator<String> valueResolver
+    ) {
+        List<JndiReference> descriptorReferences = new ArrayList<>();
+        ImmutableListMultimap.Builder<JndiName, JndiProvider> providers = ImmutableListMultimap.builder();
+
+        for (JndiEnvironmentRefElement refElement : jndiEnvironmentRefElements) {
+            AncestryAwareNodes.Element element = refElement.getElement();
+            JndiName name = JndiName.parseReferenceName(refElement.name());
+            String origin = origin(element);
+            Optional<JndiName> lookupOption = findLookupName(element);
+
+            switch (element.elementName().getLocalPart()) {
+                case "resource-ref", "resource-env-ref" -> descriptorReferences.add(
+                        new JndiReference(name, lookupOption, Source.DEPLOYMENT_DESCRIPTOR, origin)
+                );
+                case "env-entry" -> {
+                    if (lookupOption.isPresent()) {
+                        descriptorReferences.add(new JndiReference(name, lookupOption, Source.DEPLOYMENT_DESCRIPTOR, origin));
+                    } else {
+                        providers.put(name, new JndiProvider(name, Source.DEPLOYMENT_DESCRIPTOR, origin));
+                    }
+                }
+                default -> providers.put(name, new JndiProvider(name, Source.DEPLOYMENT_DESCRIPTOR, origin));
+            }
+        }
+
+        for (ServerXmlJndiResource resource : serverXmlJndiResources) {
+            resource.jndiNameOption().map(valueResolver).map(JndiName::parseLookupName).ifPresent(name ->
+                    providers.put(name, new JndiProvider(name, Source.SERVER_XML, origin(resource.getElement())))
+            );
+        }
+
+        Map<JndiName, Optional<JndiName>> descriptorLookups = new HashMap<>();
+        descriptorReferences.forEach(ref -> descriptorLookups.merge(ref.name(), ref.lookupOption(), (o1, o2) -> o1.or(() -> o2)));
+
+        List<JndiReference> references = new ArrayList<>(descriptorReferences);
+        resourceAnnotations.forEach((annotatedInfo, annotations) -> {
+            for (AnnotationInfo annotation : annotations) {
+                findReferenceName(annotatedInfo, annotation).ifPresent(name -> {
+                    Optional<JndiName> lookupOption = descriptorLookups.getOrDefault(name, Optional.empty())
+                            .or(() -> annotation.elementValueAsStringOption("lookup")
+                                    .filter(v -> !v.isBlank())
+                                    .map(JndiName::parseLookupName));
+                    references.add(new JndiReference(name, lookupOption, Source.RESOURCE_ANNOTATION, origin(annotatedInfo)));
+                });
+            }
+        });
+
+        return new JndiNameIndex(ImmutableList.copyOf(references), providers.build());
+    }
+
+    public ImmutableList<JndiReference> references() {
+        return references;
+    }
+
+    public ImmutableListMultimap<JndiName, JndiProvider> providersByName() {
+        return providersByName;
+    }
+
+    public ImmutableList<JndiProvider> findProviders(JndiName name) {
+        return providersByName.get(name);
+    }
+
+    /**
+     * Returns the match of each reference, in the order of the references.
+     */
+    public ImmutableList<Match> matches() {
+        return matches;
+    }
+
+    public ImmutableList<Match> unmatchedReferences() {
+        return matches.stream().filter(m -> !m.isMatched()).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns the server.xml providers that are not the target of any reference. They may still be used by
+     * applications that are not part of the analysis, or by code doing JNDI lookups directly.
+     */
+    public ImmutableList<JndiProvider> unreferencedServerXmlProviders() {
+        ImmutableSet<JndiName> targets = matches.stream().map(Match::target).collect(ImmutableSet.toImmutableSet());
+        return providersByName.values().stream()
+                .filter(p -> p.source() == Source.SERVER_XML)
+                .filter(p -> !targets.contains(p.name()))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private Match match(JndiReference reference) {
+        JndiName target = reference.lookupOption().orElseGet(() ->
+                providersByName.containsKey(reference.name()) || reference.name().scope() != Scope.COMP_ENV ?
+                        reference.name() :
+                        new JndiName(Scope.SERVER, reference.name().name())
+        );
+        return new Match(reference, target, providersByName.get(target));
+    }
+
+    /**
+     * Returns the name of the Resource annotation, defaulting to the class name followed by the field name or
+     * JavaBeans property name for fields and setters. For classes the name is required, so without name
+     * nothing is returned.
+     */
+    private static Optional<JndiName> findReferenceName(AnnotatedInfo annotatedInfo, AnnotationInfo annotation) {
+        Optional<String> nameOption = annotation.elementValueAsStringOption("name").filter(v -> !v.isBlank());
+        if (nameOption.isPresent()) {
+            return nameOption.map(JndiName::parseReferenceName);
+        }
+        if (annotatedInfo instanceof MemberInfo m) {
+            return switch (m.kind()) {
+                case FIELD -> Optional.of(new JndiName(Scope.COMP_ENV, m.ownerClassName() + "/" + m.name()));
+                case METHOD -> Optional.of(m.name())
+                        .filter(n -> n.startsWith("set") && n.length() > 3)
+                        .map(n -> new JndiName(Scope.COMP_ENV, m.ownerClassName() + "/" + decapitalize(n.substring(3))));
+                case CONSTRUCTOR -> Optional.empty();
+            };
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<JndiName> findLookupName(AncestryAwareNodes.Element element) {
+        String ns = element.elementName().getNamespaceURI();
+        return element.childElementStream(hasName(ns, "lookup-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .filter(v -> !v.isBlank())
+                .map(JndiName::parseLookupName);
+    }
+
+    // Like java.beans.Introspector.decapitalize, without needing the java.desktop module
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String origin(AnnotatedInfo annotatedInfo) {
+        if (annotatedInfo instanceof ClassInfo c) {
+            return c.className();
+        } else if (annotatedInfo instanceof MemberInfo m) {
+            return m.ownerClassName() + "#" + m.name();
+        } else {
+            return annotatedInfo.toString();
+        }
+    }
+
+    private static String origin(AncestryAwareNodes.Element element) {
+        return element.elementName().getLocalPart() +
+                element.docUriOption().map(uri -> " in " + uri).orElse("");
+    }
+}
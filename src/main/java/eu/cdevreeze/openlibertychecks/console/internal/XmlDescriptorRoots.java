@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import javax.xml.namespace.QName;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * XML descriptor root elements (web.xml, ejb-jar.xml, beans.xml, persistence.xml and server.xml),
+ * found in one walk per directory, and classified by root element name.
+ * <p>
+ * Each XML file is parsed at most once, and only if its root element name (read with a streaming parser)
+ * is that of one of the descriptor kinds. So the directories need not be walked again for each kind of descriptor.
+ *
+ * @author Chris de Vreeze
+ */
+public final class XmlDescriptorRoots {
+
+    public enum DescriptorKind {
+
+        WEB_XML(Names.JAKARTAEE_WEBAPP_NAME),
+        EJB_JAR_XML(Names.JAKARTAEE_EJBJAR_NAME),
+        BEANS_XML(Names.JAKARTAEE_BEANS_NAME),
+        PERSISTENCE_XML(Names.JAKARTA_PERSISTENCE_NAME),
+        SERVER_XML(new QName("server"));
+
+        private final QName rootElementName;
+
+        DescriptorKind(QName rootElementName) {
+            this.rootElementName = rootElementName;
+        }
+
+        public QName rootElementName() {
+            return rootElementName;
+        }
+
+        public static Optional<DescriptorKind> fromRootElementName(QName rootElementName) {
+            return Arrays.stream(values()).filter(k -> k.rootElementName.equals(rootElementName)).findFirst();
+        }
+    }
+
+    private final ImmutableListMultimap<DescriptorKind, AncestryAwareNodes.Element> rootElementsByKind;
+
+    private XmlDescriptorRoots(ImmutableListMultimap<DescriptorKind, AncestryAwareNodes.Element> rootElementsByKind) {
+        this.rootElementsByKind = rootElementsByKind;
+    }
+
+    /**
+     * Walks each given directory once, collecting the root elements of all "*.xml" files that are descriptors
+     * of one of the known kinds. Files that cannot be parsed as XML files are silently ignored.
+     */
+    public static XmlDescriptorRoots findInDirectories(List<Path> dirs) {
+        return findInDirectories(dirs, 1);
+    }
+
+    /**
+     * Like the overloaded method without parallelism, but parsing the XML files of each directory on a bounded
+     * pool with the given parallelism. The result is the same as for the sequential variant, in the same order.
+     */
+    public static XmlDescriptorRoots findInDirectories(List<Path> dirs, int parallelism) {
+        ImmutableList<AncestryAwareNodes.Element> rootElements = dirs.stream()
+                .flatMap(dir -> XmlRootElementFinder.findXmlRootElementsByName(
+                        dir,
+                        p -> p.getFileName().toString().endsWith(".xml"),
+                        n -> DescriptorKind.fromRootElementName(n).isPresent(),
+                        parallelism
+                ).stream())
+                .collect(ImmutableList.toImmutableList());
+
+        return new XmlDescriptorRoots(
+                rootElements.stream()
+                        .collect(ImmutableListMultimap.toImmutableListMultimap(
+                                e -> DescriptorKind.fromRootElementName(e.name()).orElseThrow(),
+                                e -> e
+                        ))
+        );
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> rootElements(DescriptorKind kind) {
+        return rootElementsByKind.get(kind);
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> webXmlRootElements() {
+        return rootElements(DescriptorKind.WEB_XML);
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> ejbJarXmlRootElements() {
+        return rootElements(DescriptorKind.EJB_JAR_XML);
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> beansXmlRootElements() {
+        return rootElements(DescriptorKind.BEANS_XML);
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> persistenceXmlRootElements() {
+        return rootElements(DescriptorKind.PERSISTENCE_XML);
+    }
+
+    public ImmutableList<AncestryAwareNodes.Element> serverXmlRootElements() {
+        return rootElements(DescriptorKind.SERVER_XML);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import com.google.common.base.Preconditions;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Document;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * In-memory cache of parsed (immutable) XML documents, keyed by canonical file path, file size and last
+ * modification time. When the file size or modification time of a cached file changes, the file is parsed again.
+ * <p>
+ * The cache is bounded by the estimated number of retained bytes of the cached documents, evicting the least
+ * recently used documents first. The estimate is a fixed multiple of the file size, which is crude but cheap.
+ * <p>
+ * The shared instance is used by {@link XmlRootElementFinder}, so configuration files shared by many analysed WARs
+ * (such as OpenLiberty server.xml files) are parsed once per process. All users of the shared instance must parse
+ * with the same parser configuration (removing inter-element whitespace), because the parser is not part of the
+ * cache key. The cache is thread-safe. Documents are parsed outside the lock, so 2 threads may occasionally parse
+ * the same file concurrently, which is harmless.
+ *
+ * @author Chris de Vreeze
+ */
+public final class XmlDocumentCache {
+
+    /**
+     * System property holding the maximum estimated number of retained bytes of the shared cache.
+     * Value 0 turns off caching by the shared instance.
+     */
+    public static final String MAX_BYTES_PROPERTY = "openlibertychecks.xmlDocumentCacheMaxBytes";
+
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    private static final int ESTIMATED_RETAINED_BYTES_PER_FILE_BYTE = 10;
+
+    private static final XmlDocumentCache SHARED_INSTANCE =
+            new XmlDocumentCache(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+
+    private record Key(Path canonicalPath, long size, FileTime lastModifiedTime) {
+    }
+
+    private record Entry(Key key, Document document, long estimatedBytes) {
+    }
+
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts with the least recently used entry
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalEstimatedBytes;
+    private long hitCount;
+    private long missCount;
+
+    public XmlDocumentCache(long maxBytes) {
+        Preconditions.checkArgument(maxBytes >= 0, "The maximum number of bytes must not be negative");
+        this.maxBytes = maxBytes;
+    }
+
+    public static XmlDocumentCache shared() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * Returns the cached document for the given file, if it is up-to-date, and otherwise parses the file with the
+     * given parser and caches the result. Parse exceptions are not caught, and nothing is cached for them.
+     * <p>
+     * The parser is not part of the cache key (parsers have no meaningful equality), so a cached document may have
+     * been parsed by another parser than the given one. Hence, all callers of one cache instance must use the same
+     * parser configuration. For the shared instance, that is a parser removing inter-element whitespace, as used
+     * by {@link XmlRootElementFinder}.
+     */
+    public Document getOrParse(Path xmlFile, DocumentParser docParser) {
+        Key key = toKey(xmlFile);
+
+        Optional<Document> cachedDocument = findDocument(key);
+        if (cachedDocument.isPresent()) {
+            return cachedDocument.get();
+        }
+
+        Document document = docParser.parse(key.canonicalPath().toUri());
+        put(new Entry(key, document, key.size() * ESTIMATED_RETAINED_BYTES_PER_FILE_BYTE));
+        return document;
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return totalEstimatedBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalEstimatedBytes = 0;
+    }
+
+    private synchronized Optional<Document> findDocument(Key key) {
+        Entry entry = entries.get(key.canonicalPath());
+        if (entry != null && entry.key().equals(key)) {
+            hitCount++;
+            return Optional.of(entry.document());
+        }
+        missCount++;
+        return Optional.empty();
+    }
+
+    private synchronized void put(Entry entry) {
+        if (entry.estimatedBytes() > maxBytes) {
+            // Too large to cache at all
+            return;
+        }
+        Entry previousEntry = entries.put(entry.key().canonicalPath(), entry);
+        if (previousEntry != null) {
+            totalEstimatedBytes -= previousEntry.estimatedBytes();
+        }
+        totalEstimatedBytes += entry.estimatedBytes();
+
+        var iterator = entries.values().iterator();
+        while (totalEstimatedBytes > maxBytes && iterator.hasNext()) {
+            Entry leastRecentlyUsedEntry = iterator.next();
+            iterator.remove();
+            totalEstimatedBytes -= leastRecentlyUsedEntry.estimatedBytes();
+        }
+    }
+
+    private static Key toKey(Path xmlFile) {
+        try {
+            Path canonicalPath = xmlFile.toRealPath();
+            BasicFileAttributes attributes = Files.readAttributes(canonicalPath, BasicFileAttributes.class);
+            return new Key(canonicalPath, attributes.size(), attributes.lastModifiedTime());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -16,16 +16,35 @@
 
 package eu.cdevreeze.openlibertychecks.console.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveEntryPath;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveScanning;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Document;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParser;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+import org.xml.sax.InputSource;
 
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -36,12 +55,37 @@ import java.util.stream.Stream;
  */
 public class XmlRootElementFinder {
 
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static final int MAX_TASKS_IN_FLIGHT_PER_THREAD = 4;
+
     private XmlRootElementFinder() {
     }
 
+    /**
+     * Like the overloaded method taking a root element predicate, but only fully parsing the XML files whose
+     * root element name matches the given predicate. The root element name is first read with a streaming
+     * parser, which stops at the first start element. Hence, unrelated XML files (such as Maven POM files)
+     * are not parsed into a DOM tree at all.
+     * <p>
+     * Files that cannot be parsed as XML files are silently ignored, "eating the exception".
+     */
+    public static ImmutableList<AncestryAwareNodes.Element> findXmlRootElementsByName(
+            Path dir,
+            Predicate<Path> xmlFilePredicate,
+            Predicate<QName> rootElementNamePredicate
+    ) {
+        return findXmlRootElements(
+                dir,
+                xmlFilePredicate.and(p -> findRootElementName(p).filter(rootElementNamePredicate).isPresent()),
+                e -> rootElementNamePredicate.test(e.name())
+        );
+    }
+
     /**
      * Finds all XML file root elements of XML files under the given search root directory,
      * matching the given XML file predicate, and matching the given root element predicate.
+     * Parsed documents are shared through the {@link XmlDocumentCache}, so unchanged files are not parsed again.
      * <p>
      * Matching files that cannot be parsed as XML files are silently ignored, "eating the exception".
      */
@@ -56,21 +100,181 @@ public class XmlRootElementFinder {
             return fileStream
                     .filter(Files::isRegularFile)
                     .filter(xmlFilePredicate)
-                    .flatMap(p -> {
-                        try {
-                            AncestryAwareNodes.Element rootElem = AncestryAwareDocument.from(docParser.parse(p.toUri()))
-                                    .withUri(dir.toUri())
-                                    .documentElement();
-                            return Stream.of(rootElem);
-                        } catch (RuntimeException e) {
-                            // Ignoring the exception
-                            return Stream.empty();
-                        }
-                    })
+                    .flatMap(p -> parseRootElement(p, dir, docParser).stream())
                     .filter(rootElementPredicate)
                     .collect(ImmutableList.toImmutableList());
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
+
+    /**
+     * Like the overloaded method without parallelism, but sniffing and parsing the XML files on a bounded pool with the
+     * given parallelism, each worker thread using its own DocumentParser. The result order is the order in which
+     * the directory walk encountered the files, just like for the sequential variant, so it is deterministic.
+     * <p>
+     * To apply backpressure, the directory walk submits no more files than a small multiple of the parallelism
+     * ahead of the oldest file that has not been parsed yet. So the number of documents held in memory is bounded
+     * by the number of results, not by the number of files found.
+     */
+    public static ImmutableList<AncestryAwareNodes.Element> findXmlRootElementsByName(
+            Path dir,
+            Predicate<Path> xmlFilePredicate,
+            Predicate<QName> rootElementNamePredicate,
+            int parallelism
+    ) {
+        Preconditions.checkArgument(parallelism >= 1, "Parallelism must be at least 1");
+
+        if (parallelism == 1) {
+            return findXmlRootElementsByName(dir, xmlFilePredicate, rootElementNamePredicate);
+        }
+
+        int maxTasksInFlight = MAX_TASKS_IN_FLIGHT_PER_THREAD * parallelism;
+        ThreadLocal<DocumentParser> docParsers =
+                ThreadLocal.withInitial(() -> DocumentParsers.builder().removingInterElementWhitespace().build());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (Stream<Path> fileStream = Files.walk(dir)) {
+            ImmutableList.Builder<AncestryAwareNodes.Element> result = ImmutableList.builder();
+            Deque<ForkJoinTask<Optional<AncestryAwareNodes.Element>>> tasksInFlight = new ArrayDeque<>();
+
+            fileStream
+                    .filter(Files::isRegularFile)
+                    .filter(xmlFilePredicate)
+                    .forEach(p -> {
+                        if (tasksInFlight.size() >= maxTasksInFlight) {
+                            tasksInFlight.removeFirst().join().ifPresent(result::add);
+                        }
+                        tasksInFlight.addLast(pool.submit(() ->
+                                findRootElementName(p).filter(rootElementNamePredicate).isPresent() ?
+                                        parseRootElement(p, dir, docParsers.get()) :
+                                        Optional.empty()
+                        ));
+                    });
+
+            while (!tasksInFlight.isEmpty()) {
+                tasksInFlight.removeFirst().join().ifPresent(result::add);
+            }
+            return result.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Finds all XML file root elements of XML entries in the given packed archive (EAR, WAR, JAR or RAR file),
+     * including nested archives, matching the given entry predicate, and having a root element name matching the
+     * given predicate. Like for method "findXmlRootElementsByName", only the entries whose root element name matches
+     * are fully parsed. Nothing is extracted to disk. The document URI of each root element is the "jar:" URI of the
+     * archive entry.
+     * <p>
+     * Matching entries that cannot be parsed as XML files are silently ignored, "eating the exception".
+     */
+    public static ImmutableList<AncestryAwareNodes.Element> findXmlRootElementsInArchiveByName(
+            Path archiveFile,
+            Predicate<ArchiveEntryPath> xmlEntryPredicate,
+            Predicate<QName> rootElementNamePredicate
+    ) {
+        return findXmlRootElementsInArchiveByName(archiveFile, p -> true, xmlEntryPredicate, rootElementNamePredicate);
+    }
+
+    /**
+     * Like the overloaded method without nested archive predicate, but only descending into the nested archives
+     * matching that predicate (see {@link ArchiveScanning#forEachEntry(Path, Predicate, Predicate, BiConsumer)}).
+     */
+    public static ImmutableList<AncestryAwareNodes.Element> findXmlRootElementsInArchiveByName(
+            Path archiveFile,
+            Predicate<ArchiveEntryPath> nestedArchivePredicate,
+            Predicate<ArchiveEntryPath> xmlEntryPredicate,
+            Predicate<QName> rootElementNamePredicate
+    ) {
+        DocumentParser docParser = DocumentParsers.builder().removingInterElementWhitespace().build();
+
+        ImmutableList.Builder<AncestryAwareNodes.Element> result = ImmutableList.builder();
+        ArchiveScanning.forEachEntry(
+                archiveFile,
+                nestedArchivePredicate,
+                xmlEntryPredicate,
+                (entryPath, bytes) -> {
+                    if (findRootElementName(new ByteArrayInputStream(bytes)).filter(rootElementNamePredicate).isPresent()) {
+                        parseRootElement(entryPath, bytes, docParser).ifPresent(result::add);
+                    }
+                }
+        );
+        return result.build();
+    }
+
+    private static Optional<AncestryAwareNodes.Element> parseRootElement(Path xmlFile, Path dir, DocumentParser docParser) {
+        try {
+            Document doc = XmlDocumentCache.shared().getOrParse(xmlFile, docParser);
+            AncestryAwareNodes.Element rootElem = AncestryAwareDocument.from(doc)
+                    .withUri(dir.toUri())
+                    .documentElement();
+            return Optional.of(rootElem);
+        } catch (RuntimeException e) {
+            // Ignoring the exception
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<AncestryAwareNodes.Element> parseRootElement(
+            ArchiveEntryPath entryPath,
+            byte[] bytes,
+            DocumentParser docParser
+    ) {
+        try {
+            InputSource inputSource = new InputSource(new ByteArrayInputStream(bytes));
+            inputSource.setSystemId(entryPath.toUri().toString());
+            AncestryAwareNodes.Element rootElem = AncestryAwareDocument.from(docParser.parse(inputSource))
+                    .withUri(entryPath.toUri())
+                    .documentElement();
+            return Optional.of(rootElem);
+        } catch (RuntimeException e) {
+            // Ignoring the exception
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the name of the root element of the given XML file, reading no further than its first start element.
+     * If the file cannot be read or is not well-formed up to that point, an empty Optional is returned.
+     */
+    public static Optional<QName> findRootElementName(Path xmlFile) {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(xmlFile))) {
+            return findRootElementName(inputStream);
+        } catch (IOException e) {
+            // Ignoring the exception
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<QName> findRootElementName(InputStream inputStream) {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        return Optional.of(reader.getName());
+                    }
+                }
+                return Optional.empty();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            // Ignoring the exception
+            return Optional.empty();
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        // No DTDs or external entities are loaded just to find the root element name
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return xmlInputFactory;
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Single-pass extraction of all annotations of a given set of annotation types from a class and its members.
+ * Each class is visited once, reading the class-level annotations, the members and their annotations from the
+ * per-class metadata caches of {@link AnnotationSupport}, and all annotation types of interest are collected in one per-class result at the same
+ * time. So when several checks (such as for Resource, servlet, EJB and CDI annotations) are run together, members
+ * are not looked up again and again per annotation type.
+ * <p>
+ * Like the reflection-based checks in this project, the members are the declared fields, methods and constructors,
+ * as well as the inherited public fields and methods. Class-level annotations include inherited ones (for annotation
+ * types meta-annotated with "Inherited", such as ServletSecurity).
+ * <p>
+ * There is also a {@link ClassInfo} variant, for the same kind of result from class file analysis.
+ *
+ * @author Chris de Vreeze
+ */
+public final class AnnotationExtractor {
+
+    private final ImmutableSet<Class<? extends Annotation>> annotationTypes;
+    private final ImmutableSet<String> annotationTypeNames;
+
+    private AnnotationExtractor(ImmutableSet<Class<? extends Annotation>> annotationTypes) {
+        Preconditions.checkArgument(!annotationTypes.isEmpty());
+        this.annotationTypes = annotationTypes;
+        this.annotationTypeNames = annotationTypes.stream().map(Class::getName).collect(ImmutableSet.toImmutableSet());
+    }
+
+    public static AnnotationExtractor forAnnotationTypes(Collection<Class<? extends Annotation>> annotationTypes) {
+        return new AnnotationExtractor(ImmutableSet.copyOf(annotationTypes));
+    }
+
+    @SafeVarargs
+    public static AnnotationExtractor forAnnotationTypes(Class<? extends Annotation>... annotationTypes) {
+        return forAnnotationTypes(Arrays.asList(annotationTypes));
+    }
+
+    /**
+     * The annotations of interest found in one class, per annotated element (the class itself or one of its members).
+     * Only elements having at least one annotation of interest are present, except for the class itself,
+     * which is always present. The map iterates in the order of visiting: class, fields, constructors, methods.
+     */
+    public record ClassAnnotations(
+            Class<?> clazz,
+            ImmutableMap<AnnotatedElement, ImmutableList<Annotation>> annotationsByElement
+    ) {
+
+        public ImmutableList<Annotation> classAnnotations() {
+            return annotationsByElement.get(clazz);
+        }
+
+        public <A extends Annotation> Optional<A> findClassAnnotation(Class<A> annotationType) {
+            return findAnnotation(clazz, annotationType);
+        }
+
+        public <A extends Annotation> Optional<A> findAnnotation(AnnotatedElement element, Class<A> annotationType) {
+            return annotationsByElement.getOrDefault(element, ImmutableList.of())
+                    .stream()
+                    .filter(annotationType::isInstance)
+                    .map(annotationType::cast)
+                    .findFirst();
+        }
+
+        /**
+         * Returns the members (so not the class itself) having an annotation of the given type, with that annotation.
+         */
+        public <A extends Annotation> ImmutableMap<AnnotatedElement, A> findAnnotatedMembers(Class<A> annotationType) {
+            return annotationsByElement.keySet()
+                    .stream()
+                    .filter(e -> e instanceof Member)
+                    .flatMap(e -> findAnnotation(e, annotationType).map(ann -> Map.entry(e, ann)).stream())
+                    .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+        }
+    }
+
+    public ClassAnnotations extract(Class<?> clazz) {
+        Map<AnnotatedElement, ImmutableList<Annotation>> result = new LinkedHashMap<>();
+        result.put(clazz, filter(AnnotationSupport.getAnnotations(clazz).values()));
+
+        Set<AnnotatedElement> members = new LinkedHashSet<>();
+        members.addAll(AnnotationSupport.getFields(clazz));
+        members.addAll(AnnotationSupport.getDeclaredConstructors(clazz));
+        members.addAll(AnnotationSupport.getMethods(clazz));
+
+        for (AnnotatedElement member : members) {
+            ImmutableList<Annotation> annotations = filter(AnnotationSupport.getDeclaredAnnotations(member).values());
+            if (!annotations.isEmpty()) {
+                result.put(member, annotations);
+            }
+        }
+        return new ClassAnnotations(clazz, ImmutableMap.copyOf(result));
+    }
+
+    /**
+     * Class file variant of the overloaded method taking a Class. Only declared members and declared class-level
+     * annotations are considered, since supertypes are not consulted. The class itself is always the first key.
+     */
+    public ImmutableMap<AnnotatedInfo, ImmutableList<AnnotationInfo>> extract(ClassInfo classInfo) {
+        Map<AnnotatedInfo, ImmutableList<AnnotationInfo>> result = new LinkedHashMap<>();
+        result.put(classInfo, filter(classInfo));
+
+        Stream.concat(classInfo.fields().stream(), classInfo.methods().stream())
+                .filter(m -> !m.annotations().isEmpty())
+                .forEach(m -> {
+                    ImmutableList<AnnotationInfo> annotations = filter(m);
+                    if (!annotations.isEmpty()) {
+                        result.put(m, annotations);
+                    }
+                });
+        return ImmutableMap.copyOf(result);
+    }
+
+    private ImmutableList<Annotation> filter(Collection<Annotation> annotations) {
+        return annotations.stream()
+                .filter(ann -> annotationTypes.contains(ann.annotationType()))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private ImmutableList<AnnotationInfo> filter(AnnotatedInfo annotatedInfo) {
+        return annotatedInfo.annotations()
+                .stream()
+                .filter(ann -> annotationTypeNames.contains(ann.annotationTypeName()))
+                .collect(ImmutableList.toImmutableList());
+    }
+}
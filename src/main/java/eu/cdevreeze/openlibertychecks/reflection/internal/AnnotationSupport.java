@@ -16,37 +16,229 @@
 
 package eu.cdevreeze.openlibertychecks.reflection.internal;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Annotation retrieval support (for annotations having retention "runtime").
+ * <p>
+ * The reflection-based methods are backed by per-class metadata caches, built on {@link ClassValue}, and shared
+ * by all "*Annotations" helper classes. The first query for a class reads its annotations once, and subsequent
+ * queries for that class (e.g. "is it a servlet, a filter or a listener") are map lookups. Class-level annotations
+ * are cached separately from the fields, methods and constructors (each of these also cached separately), and the
+ * members are only read when needed. After all, reading the members of a class fails with a NoClassDefFoundError
+ * if a member signature refers to a class that is missing from the class path, even if only class-level annotations
+ * are queried.
+ * <p>
+ * The cached metadata is attached to the Class object itself, so it does not keep class loaders reachable:
+ * when a class loader of an analysed WAR becomes unreachable, its classes and their cached metadata can be
+ * garbage collected together.
  *
  * @author Chris de Vreeze
  */
 public class AnnotationSupport {
 
+    private static final ClassValue<ClassAnnotations> CLASS_ANNOTATIONS = new ClassValue<>() {
+
+        @Override
+        protected ClassAnnotations computeValue(Class<?> type) {
+            return ClassAnnotations.of(type);
+        }
+    };
+
+    private static final ClassValue<MemberMetadata<Field>> FIELD_METADATA = new ClassValue<>() {
+
+        @Override
+        protected MemberMetadata<Field> computeValue(Class<?> type) {
+            return MemberMetadata.of(type.getDeclaredFields(), type.getFields());
+        }
+    };
+
+    private static final ClassValue<MemberMetadata<Method>> METHOD_METADATA = new ClassValue<>() {
+
+        @Override
+        protected MemberMetadata<Method> computeValue(Class<?> type) {
+            return MemberMetadata.of(type.getDeclaredMethods(), type.getMethods());
+        }
+    };
+
+    private static final ClassValue<MemberMetadata<Constructor<?>>> CONSTRUCTOR_METADATA = new ClassValue<>() {
+
+        @Override
+        protected MemberMetadata<Constructor<?>> computeValue(Class<?> type) {
+            return MemberMetadata.of(type.getDeclaredConstructors(), new Constructor<?>[0]);
+        }
+    };
+
     private AnnotationSupport() {
     }
 
     /**
      * Returns the result of method "getDeclaredAnnotation", wrapped in an "Optional".
+     * For classes, fields, methods and constructors, the result comes from the per-class metadata caches.
      */
     public static <T extends Annotation> Optional<T> findDeclaredAnnotation(
             AnnotatedElement annotatedElement,
             Class<T> annotationClass
     ) {
-        return Optional.ofNullable(annotatedElement.getDeclaredAnnotation(annotationClass));
+        if (annotatedElement instanceof Class<?> clazz) {
+            return CLASS_ANNOTATIONS.get(clazz).findDeclaredAnnotation(annotationClass);
+        } else {
+            return Optional.ofNullable(getDeclaredAnnotations(annotatedElement).get(annotationClass))
+                    .map(annotationClass::cast);
+        }
     }
 
     /**
      * Returns the result of method "getAnnotation", wrapped in an "Optional".
+     * For classes, fields, methods and constructors, the result comes from the per-class metadata caches.
      */
     public static <T extends Annotation> Optional<T> findAnnotation(
             AnnotatedElement annotatedElement,
             Class<T> annotationClass
     ) {
-        return Optional.ofNullable(annotatedElement.getAnnotation(annotationClass));
+        if (annotatedElement instanceof Class<?> clazz) {
+            return CLASS_ANNOTATIONS.get(clazz).findAnnotation(annotationClass);
+        } else if (annotatedElement instanceof Member) {
+            // Only class-level annotations can be inherited
+            return findDeclaredAnnotation(annotatedElement, annotationClass);
+        } else {
+            return Optional.ofNullable(annotatedElement.getAnnotation(annotationClass));
+        }
+    }
+
+    /**
+     * Returns the declared fields of the given class, followed by the public fields (including inherited ones)
+     * that are not declared by the class. The result is cached per class.
+     */
+    public static ImmutableList<Field> getFields(Class<?> clazz) {
+        return FIELD_METADATA.get(clazz).members();
+    }
+
+    /**
+     * Returns the declared methods of the given class, followed by the public methods (including inherited ones)
+     * that are not declared by the class. The result is cached per class.
+     */
+    public static ImmutableList<Method> getMethods(Class<?> clazz) {
+        return METHOD_METADATA.get(clazz).members();
+    }
+
+    /**
+     * Returns the declared annotations of the given class or member, per annotation type. For classes, fields, methods
+     * and constructors, the result comes from the per-class metadata caches.
+     */
+    static ImmutableMap<Class<? extends Annotation>, Annotation> getDeclaredAnnotations(
+            AnnotatedElement annotatedElement
+    ) {
+        if (annotatedElement instanceof Class<?> clazz) {
+            return CLASS_ANNOTATIONS.get(clazz).declaredAnnotations();
+        } else if (annotatedElement instanceof Field field) {
+            return FIELD_METADATA.get(field.getDeclaringClass()).findDeclaredAnnotations(field);
+        } else if (annotatedElement instanceof Method method) {
+            return METHOD_METADATA.get(method.getDeclaringClass()).findDeclaredAnnotations(method);
+        } else if (annotatedElement instanceof Constructor<?> constructor) {
+            return CONSTRUCTOR_METADATA.get(constructor.getDeclaringClass()).findDeclaredAnnotations(constructor);
+        } else {
+            return toAnnotationMap(annotatedElement.getDeclaredAnnotations());
+        }
+    }
+
+    /**
+     * Returns the annotations of the given class, including inherited ones, per annotation type, like method
+     * "getAnnotations". The result comes from the per-class metadata cache.
+     */
+    static ImmutableMap<Class<? extends Annotation>, Annotation> getAnnotations(Class<?> clazz) {
+        return CLASS_ANNOTATIONS.get(clazz).annotations();
+    }
+
+    /**
+     * Returns the declared constructors of the given class. The result is cached per class.
+     */
+    static ImmutableList<Constructor<?>> getDeclaredConstructors(Class<?> clazz) {
+        return CONSTRUCTOR_METADATA.get(clazz).members();
+    }
+
+    /**
+     * Returns the annotation of the given type declared on the given class or member read from a class file,
+     * if any. No classes are loaded. Inherited annotations are not found, because the superclass is not consulted.
+     */
+    public static Optional<AnnotationInfo> findDeclaredAnnotation(
+            AnnotatedInfo annotatedInfo,
+            Class<? extends Annotation> annotationClass
+    ) {
+        return annotatedInfo.findAnnotation(annotationClass.getName());
+    }
+
+    /**
+     * Cached class-level annotations of one class. It must only refer to the class itself and to classes visible
+     * from it (such as annotation types), and never to a ClassValue, or else class loaders leak.
+     */
+    private record ClassAnnotations(
+            ImmutableMap<Class<? extends Annotation>, Annotation> declaredAnnotations,
+            ImmutableMap<Class<? extends Annotation>, Annotation> annotations
+    ) {
+
+        static ClassAnnotations of(Class<?> clazz) {
+            return new ClassAnnotations(
+                    toAnnotationMap(clazz.getDeclaredAnnotations()),
+                    toAnnotationMap(clazz.getAnnotations())
+            );
+        }
+
+        <T extends Annotation> Optional<T> findDeclaredAnnotation(Class<T> annotationClass) {
+            return Optional.ofNullable(declaredAnnotations.get(annotationClass)).map(annotationClass::cast);
+        }
+
+        <T extends Annotation> Optional<T> findAnnotation(Class<T> annotationClass) {
+            return Optional.ofNullable(annotations.get(annotationClass)).map(annotationClass::cast);
+        }
+    }
+
+    /**
+     * Cached fields, methods or constructors of one class, along with their declared annotations. The members are
+     * the declared ones, followed by the public ones (including inherited ones) that are not declared by the class.
+     * The same leak-avoidance rules apply as for {@link ClassAnnotations}.
+     */
+    private record MemberMetadata<M extends AccessibleObject & Member>(
+            ImmutableList<M> members,
+            ImmutableMap<M, ImmutableMap<Class<? extends Annotation>, Annotation>> declaredMemberAnnotations
+    ) {
+
+        static <M extends AccessibleObject & Member> MemberMetadata<M> of(M[] declaredMembers, M[] publicMembers) {
+            // Only members having annotations are stored in the annotation map
+            return new MemberMetadata<>(
+                    Stream.concat(Arrays.stream(declaredMembers), Arrays.stream(publicMembers))
+                            .distinct()
+                            .collect(ImmutableList.toImmutableList()),
+                    Arrays.stream(declaredMembers)
+                            .filter(m -> m.getDeclaredAnnotations().length > 0)
+                            .collect(ImmutableMap.toImmutableMap(
+                                    m -> m,
+                                    m -> toAnnotationMap(m.getDeclaredAnnotations())
+                            ))
+            );
+        }
+
+        ImmutableMap<Class<? extends Annotation>, Annotation> findDeclaredAnnotations(M member) {
+            return declaredMemberAnnotations.getOrDefault(member, ImmutableMap.of());
+        }
+    }
+
+    private static ImmutableMap<Class<? extends Annotation>, Annotation> toAnnotationMap(Annotation[] annotations) {
+        return Arrays.stream(annotations)
+                .collect(ImmutableMap.toImmutableMap(Annotation::annotationType, ann -> ann));
     }
 }
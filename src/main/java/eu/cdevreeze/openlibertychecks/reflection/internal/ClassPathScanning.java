@@ -17,15 +17,35 @@
 package eu.cdevreeze.openlibertychecks.reflection.internal;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveEntryPath;
+import eu.cdevreeze.openlibertychecks.archive.ArchiveScanning;
+import eu.cdevreeze.openlibertychecks.classfile.ChecksIndexes;
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfoCache;
+import eu.cdevreeze.openlibertychecks.classfile.ConstantPoolPrefilter;
+import eu.cdevreeze.openlibertychecks.classfile.JandexIndexes;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Class path scanning support.
@@ -56,28 +76,462 @@ public class ClassPathScanning {
         }
     }
 
-    private static Optional<Class<?>> findClass(Path classFile, Path rootDir) {
+    /**
+     * Finds the classes in the given directory as one class path entry, like the overloaded method taking only the
+     * root directory, but loading the classes through the given class loader, without initializing them. So no
+     * static initializers are run. Typically, the class loader is a disposable one created by
+     * {@link IsolatedClassLoading}, in order to not load the classes into the class loader of this tool.
+     */
+    public static List<Class<?>> findClasses(Path rootDir, ClassLoader classLoader) {
+        int maxDepth = 100;
+        try (Stream<Path> pathStream = Files.walk(rootDir, maxDepth)) {
+            return pathStream
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(".class"))
+                    .flatMap(p -> findClass(p, rootDir, classLoader).stream())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the classes in the given directory as one class path entry, like method "findClasses", but returns
+     * {@link ClassInfo} objects read directly from the class files. No classes are loaded, so no static
+     * initializers are run. Class files that cannot be parsed are silently ignored. The result is sorted on
+     * class name, like for all methods returning ClassInfo objects in this class.
+     */
+    public static List<ClassInfo> findClassInfos(Path rootDir) {
+        return findClassInfos(rootDir, bytes -> true);
+    }
+
+    /**
+     * Like the overloaded method taking only the root directory, but only parsing class files passing the
+     * given prefilter on the class file bytes, such as a {@link ConstantPoolPrefilter}. Class files not passing
+     * the prefilter are skipped.
+     */
+    public static List<ClassInfo> findClassInfos(Path rootDir, Predicate<byte[]> classFilePrefilter) {
+        return findClassInfos(rootDir, classFilePrefilter, 1);
+    }
+
+    /**
+     * Parallel variant of the overloaded method taking a root directory and prefilter. The directory tree is
+     * scanned by a work-stealing pool with the given parallelism, with one task per subdirectory (and per
+     * batch of class files in large directories).
+     */
+    public static List<ClassInfo> findClassInfos(Path rootDir, Predicate<byte[]> classFilePrefilter, int parallelism) {
+        Preconditions.checkArgument(Files.isDirectory(rootDir));
+
+        return scan(
+                List.of(new ClassesDirSource(rootDir, Optional.empty(), false)),
+                classFilePrefilter,
+                c -> true,
+                parallelism
+        );
+    }
+
+    /**
+     * Like the parallel overloaded method taking a root directory and prefilter, but using the given persistent
+     * {@link ClassInfoCache} (with its prefilter) for the analysis of each class file. Only class files that changed
+     * since the cache was saved are parsed again. Saving the cache afterwards is the responsibility of the caller.
+     */
+    public static List<ClassInfo> findClassInfos(Path rootDir, ClassInfoCache classInfoCache, int parallelism) {
+        Preconditions.checkArgument(Files.isDirectory(rootDir));
+
+        return scan(
+                List.of(new ClassesDirSource(rootDir, Optional.of(classInfoCache), false)),
+                bytes -> true,
+                c -> true,
+                parallelism
+        );
+    }
+
+    /**
+     * Like the parallel overloaded method taking a root directory and prefilter, but using the index emitted by the
+     * openlibertychecks annotation processor (see {@link ChecksIndexes}) instead, if the directory contains an index
+     * that is not stale. In that case no class file is read at all. The classes in the index are filtered with method
+     * {@link ConstantPoolPrefilter#matchesAnnotations(ClassInfo)}. Note that the staleness check only detects added or
+     * removed classes (see {@link ChecksIndexes}), so callers should only use this method if explicitly asked for.
+     */
+    public static List<ClassInfo> findClassInfosPreferringChecksIndex(
+            Path rootDir,
+            ConstantPoolPrefilter classFilePrefilter,
+            int parallelism
+    ) {
+        Preconditions.checkArgument(Files.isDirectory(rootDir));
+
+        return scan(
+                List.of(new ClassesDirSource(rootDir, Optional.empty(), true)),
+                classFilePrefilter,
+                classFilePrefilter::matchesAnnotations,
+                parallelism
+        );
+    }
+
+    /**
+     * Finds the classes in the given JAR file, returning {@link ClassInfo} objects read directly from the
+     * class file entries. The ZIP central directory is read once, and only ".class" entries passing the given
+     * prefilter are parsed. Nothing is extracted to disk, and no classes are loaded.
+     * <p>
+     * Entries under "META-INF" (such as versioned entries of multi-release JARs) and "module-info.class"
+     * are skipped. Class file entries that cannot be parsed are silently ignored.
+     */
+    public static List<ClassInfo> findClassInfosInJar(Path jarFile, Predicate<byte[]> classFilePrefilter) {
+        return findClassInfosInJars(List.of(jarFile), classFilePrefilter, 1);
+    }
+
+    /**
+     * Finds the classes in the given JAR files, processing the JAR files in parallel, using a pool with the
+     * given parallelism.
+     */
+    public static List<ClassInfo> findClassInfosInJars(
+            List<Path> jarFiles,
+            Predicate<byte[]> classFilePrefilter,
+            int parallelism
+    ) {
+        return scan(
+                jarFiles.stream().<ClassFileSource>map(jarFile -> new JarFileSource(jarFile, false)).toList(),
+                classFilePrefilter,
+                c -> true,
+                parallelism
+        );
+    }
+
+    /**
+     * Like method "findClassInfosInJar", but using an index of the JAR file instead of its class files, if the JAR
+     * file contains such an index and if that index is not stale. The index emitted by the openlibertychecks
+     * annotation processor (see {@link ChecksIndexes}) is preferred over a Jandex index ("META-INF/jandex.idx").
+     * The classes in the index are filtered with method {@link ConstantPoolPrefilter#matchesAnnotations(ClassInfo)}.
+     * Without usable index, this method falls back to parsing the class files that pass the given prefilter.
+     */
+    public static List<ClassInfo> findClassInfosInJarPreferringIndexes(
+            Path jarFile,
+            ConstantPoolPrefilter classFilePrefilter
+    ) {
+        return findClassInfosInJarsPreferringIndexes(List.of(jarFile), classFilePrefilter, 1);
+    }
+
+    /**
+     * Like method "findClassInfosInJars", but using method "findClassInfosInJarPreferringIndexes" per JAR file.
+     */
+    public static List<ClassInfo> findClassInfosInJarsPreferringIndexes(
+            List<Path> jarFiles,
+            ConstantPoolPrefilter classFilePrefilter,
+            int parallelism
+    ) {
+        return scan(
+                jarFiles.stream().<ClassFileSource>map(jarFile -> new JarFileSource(jarFile, true)).toList(),
+                classFilePrefilter,
+                classFilePrefilter::matchesAnnotations,
+                parallelism
+        );
+    }
+
+    /**
+     * Returns the JAR files directly in the given directory (such as "WEB-INF/lib"), sorted on file name.
+     * Returns an empty list if the directory does not exist.
+     */
+    public static List<Path> findJarFiles(Path libDir) {
+        if (!Files.isDirectory(libDir)) {
+            return List.of();
+        }
+        try (Stream<Path> pathStream = Files.list(libDir)) {
+            return pathStream
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the classes in the given packed archive (EAR, WAR, JAR or RAR file), including nested archives, such as
+     * JAR files in a WAR file in an EAR file. Nothing is extracted to disk, and no classes are loaded.
+     * <p>
+     * In a WAR file, only class files under "WEB-INF/classes" are considered (besides those in its nested JAR files).
+     * Class files directly in an EAR file are ignored.
+     */
+    public static List<ClassInfo> findClassInfosInArchive(Path archiveFile, Predicate<byte[]> classFilePrefilter) {
+        return scan(List.of(new ArchiveFileSource(archiveFile)), classFilePrefilter, c -> true, 1);
+    }
+
+    /**
+     * Source of class files, which is a classes directory, a JAR file, or a packed archive with nested archives.
+     * Directories and JAR files may contain an index, which is used instead of the class files if so desired.
+     */
+    private sealed interface ClassFileSource permits ClassesDirSource, JarFileSource, ArchiveFileSource {
+
+        /**
+         * Returns the classes of this source, only parsing the class files that pass the given prefilter.
+         * If an index is used instead, the given filter on indexed classes is applied. This method is called
+         * from a task in the fork-join pool of method "scan", so subtasks can be forked.
+         */
+        List<ClassInfo> findClassInfos(Predicate<byte[]> classFilePrefilter, Predicate<ClassInfo> indexedClassFilter);
+    }
+
+    private record ClassesDirSource(
+            Path rootDir,
+            Optional<ClassInfoCache> classInfoCacheOption,
+            boolean preferChecksIndex
+    ) implements ClassFileSource {
+
+        @Override
+        public List<ClassInfo> findClassInfos(
+                Predicate<byte[]> classFilePrefilter,
+                Predicate<ClassInfo> indexedClassFilter
+        ) {
+            Optional<List<ClassInfo>> indexedClassInfosOption = preferChecksIndex ?
+                    ChecksIndexes.findClassInfosInChecksIndex(rootDir) :
+                    Optional.empty();
+
+            if (indexedClassInfosOption.isPresent()) {
+                return indexedClassInfosOption.get().stream().filter(indexedClassFilter).toList();
+            }
+
+            Function<Path, Optional<ClassInfo>> classFileAnalyzer = classInfoCacheOption
+                    .<Function<Path, Optional<ClassInfo>>>map(cache -> cache::findClassInfo)
+                    .orElse(p -> findClassInfo(p, classFilePrefilter));
+            return new DirectoryScanningTask(rootDir, classFileAnalyzer, 0).invoke();
+        }
+    }
+
+    private record JarFileSource(Path jarFile, boolean preferIndexes) implements ClassFileSource {
+
+        @Override
+        public List<ClassInfo> findClassInfos(
+                Predicate<byte[]> classFilePrefilter,
+                Predicate<ClassInfo> indexedClassFilter
+        ) {
+            try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+                Optional<List<ClassInfo>> indexedClassInfosOption = preferIndexes ?
+                        ChecksIndexes.findClassInfosInChecksIndex(zipFile)
+                                .or(() -> JandexIndexes.findClassInfosInJandexIndex(zipFile)) :
+                        Optional.empty();
+
+                if (indexedClassInfosOption.isPresent()) {
+                    return indexedClassInfosOption.get().stream().filter(indexedClassFilter).toList();
+                }
+
+                return zipFile.stream()
+                        .filter(e -> !e.isDirectory() && isClassFileEntryName(e.getName()))
+                        .flatMap(e -> findClassInfo(zipFile, e, classFilePrefilter).stream())
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private record ArchiveFileSource(Path archiveFile) implements ClassFileSource {
+
+        @Override
+        public List<ClassInfo> findClassInfos(
+                Predicate<byte[]> classFilePrefilter,
+                Predicate<ClassInfo> indexedClassFilter
+        ) {
+            List<ClassInfo> result = new ArrayList<>();
+            ArchiveScanning.forEachEntry(
+                    archiveFile,
+                    ClassPathScanning::isClassPathEntry,
+                    (entryPath, bytes) -> {
+                        if (classFilePrefilter.test(bytes)) {
+                            findClassInfo(bytes).ifPresent(result::add);
+                        }
+                    }
+            );
+            return result;
+        }
+    }
+
+    /**
+     * Finds the classes of all given sources, using a fork-join pool with the given parallelism. Each source is
+     * scanned by its own task, and classes directories fork subtasks as well. The result is sorted on class name,
+     * so it is deterministic, regardless of the parallelism.
+     */
+    private static List<ClassInfo> scan(
+            List<ClassFileSource> sources,
+            Predicate<byte[]> classFilePrefilter,
+            Predicate<ClassInfo> indexedClassFilter,
+            int parallelism
+    ) {
+        Preconditions.checkArgument(parallelism >= 1, "Parallelism must be at least 1");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
         try {
-            Preconditions.checkArgument(Files.isRegularFile(classFile));
-            Preconditions.checkArgument(classFile.getFileName().toString().endsWith(".class"));
+            List<ForkJoinTask<List<ClassInfo>>> tasks = sources.stream()
+                    .map(source -> pool.submit(() -> source.findClassInfos(classFilePrefilter, indexedClassFilter)))
+                    .toList();
+            return tasks.stream()
+                    .flatMap(t -> t.join().stream())
+                    .sorted(Comparator.comparing(ClassInfo::className))
+                    .toList();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static boolean isClassPathEntry(ArchiveEntryPath entryPath) {
+        String entryName = entryPath.entryName();
+        String archiveName = entryPath.enclosingArchiveName();
+
+        if (!isClassFileEntryName(entryName) || archiveName.endsWith(".ear")) {
+            return false;
+        } else if (archiveName.endsWith(".war")) {
+            return entryName.startsWith("WEB-INF/classes/");
+        } else {
+            return true;
+        }
+    }
+
+    private static Optional<ClassInfo> findClassInfo(byte[] bytes) {
+        try {
+            return Optional.of(ClassFileParser.parse(bytes));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isClassFileEntryName(String entryName) {
+        return entryName.endsWith(".class") &&
+                !entryName.startsWith("META-INF/") &&
+                !entryName.endsWith("module-info.class");
+    }
+
+    private static Optional<ClassInfo> findClassInfo(
+            ZipFile zipFile,
+            ZipEntry entry,
+            Predicate<byte[]> classFilePrefilter
+    ) {
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            byte[] bytes = inputStream.readAllBytes();
+            return classFilePrefilter.test(bytes) ? Optional.of(ClassFileParser.parse(bytes)) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
 
-            Path relativePath = rootDir.relativize(classFile.getParent());
-            String packageName =
-                    String.join(".", IntStream.range(0, relativePath.getNameCount())
-                            .mapToObj(relativePath::getName)
-                            .map(Path::toString)
-                            .toList());
-            String simpleClassName = removeClassExtension(classFile.getFileName().toString());
+    private static final class DirectoryScanningTask extends RecursiveTask<List<ClassInfo>> {
 
-            String fqcn =
-                    (packageName.isEmpty()) ? simpleClassName : String.format("%s.%s", packageName, simpleClassName);
+        @Serial
+        private static final long serialVersionUID = 1L;
 
-            return Optional.of(Class.forName(fqcn));
+        private static final int MAX_DEPTH = 100;
+
+        private final Path dir;
+        private final Function<Path, Optional<ClassInfo>> classFileAnalyzer;
+        private final int depth;
+
+        DirectoryScanningTask(Path dir, Function<Path, Optional<ClassInfo>> classFileAnalyzer, int depth) {
+            this.dir = dir;
+            this.classFileAnalyzer = classFileAnalyzer;
+            this.depth = depth;
+        }
+
+        @Override
+        protected List<ClassInfo> compute() {
+            List<Path> subDirs = new ArrayList<>();
+            List<Path> classFiles = new ArrayList<>();
+
+            try (Stream<Path> pathStream = Files.list(dir)) {
+                pathStream.forEach(p -> {
+                    if (Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS)) {
+                        subDirs.add(p);
+                    } else if (Files.isRegularFile(p) && p.getFileName().toString().endsWith(".class")) {
+                        classFiles.add(p);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<RecursiveTask<List<ClassInfo>>> subTasks = new ArrayList<>();
+            if (depth < MAX_DEPTH) {
+                subDirs.forEach(d -> subTasks.add(new DirectoryScanningTask(d, classFileAnalyzer, depth + 1)));
+            }
+            subTasks.add(new ClassFileBatchTask(classFiles, classFileAnalyzer));
+
+            return ForkJoinTask.invokeAll(subTasks).stream()
+                    .flatMap(t -> t.join().stream())
+                    .toList();
+        }
+    }
+
+    private static final class ClassFileBatchTask extends RecursiveTask<List<ClassInfo>> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final int BATCH_SIZE = 64;
+
+        private final List<Path> classFiles;
+        private final Function<Path, Optional<ClassInfo>> classFileAnalyzer;
+
+        ClassFileBatchTask(List<Path> classFiles, Function<Path, Optional<ClassInfo>> classFileAnalyzer) {
+            this.classFiles = classFiles;
+            this.classFileAnalyzer = classFileAnalyzer;
+        }
+
+        @Override
+        protected List<ClassInfo> compute() {
+            if (classFiles.size() <= BATCH_SIZE) {
+                return classFiles.stream()
+                        .flatMap(p -> classFileAnalyzer.apply(p).stream())
+                        .toList();
+            }
+
+            int middle = classFiles.size() / 2;
+            ClassFileBatchTask firstHalf = new ClassFileBatchTask(classFiles.subList(0, middle), classFileAnalyzer);
+            ClassFileBatchTask secondHalf =
+                    new ClassFileBatchTask(classFiles.subList(middle, classFiles.size()), classFileAnalyzer);
+            firstHalf.fork();
+            List<ClassInfo> secondResult = secondHalf.compute();
+            return Stream.concat(firstHalf.join().stream(), secondResult.stream()).toList();
+        }
+    }
+
+    private static Optional<ClassInfo> findClassInfo(Path classFile, Predicate<byte[]> classFilePrefilter) {
+        try {
+            byte[] bytes = Files.readAllBytes(classFile);
+            return classFilePrefilter.test(bytes) ? Optional.of(ClassFileParser.parse(bytes)) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Class<?>> findClass(Path classFile, Path rootDir) {
+        try {
+            return Optional.of(Class.forName(toClassName(classFile, rootDir)));
         } catch (ClassNotFoundException | RuntimeException e) {
             return Optional.empty();
         }
     }
 
+    private static Optional<Class<?>> findClass(Path classFile, Path rootDir, ClassLoader classLoader) {
+        try {
+            return Optional.of(Class.forName(toClassName(classFile, rootDir), false, classLoader));
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            // Linkage errors, such as NoClassDefFoundError for missing dependencies, are ignored as well
+            return Optional.empty();
+        }
+    }
+
+    private static String toClassName(Path classFile, Path rootDir) {
+        Preconditions.checkArgument(Files.isRegularFile(classFile));
+        Preconditions.checkArgument(classFile.getFileName().toString().endsWith(".class"));
+
+        Path relativePath = rootDir.relativize(classFile.getParent());
+        String packageName =
+                String.join(".", IntStream.range(0, relativePath.getNameCount())
+                        .mapToObj(relativePath::getName)
+                        .map(Path::toString)
+                        .toList());
+        String simpleClassName = removeClassExtension(classFile.getFileName().toString());
+
+        return (packageName.isEmpty()) ? simpleClassName : String.format("%s.%s", packageName, simpleClassName);
+    }
+
     private static String removeClassExtension(String fileName) {
         if (fileName.endsWith(".class")) {
             return fileName.substring(0, fileName.length() - ".class".length());
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection.internal;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Support for loading the classes of an analysed WAR into a disposable class loader of its own, instead of into
+ * the class loader of this tool. Combined with loading classes without initializing them (see method
+ * {@link ClassPathScanning#findClasses(Path, ClassLoader)}), no static initializer of the WAR is run.
+ * <p>
+ * After the analysis, the class loader is closed. Once no loaded class, reflection object or annotation instance
+ * is reachable anymore, the class loader and its classes can be garbage collected, so metaspace use stays bounded
+ * when analysing many WARs in one run. Therefore, analysis results should not hold on to reflection objects.
+ *
+ * @author Chris de Vreeze
+ */
+public class IsolatedClassLoading {
+
+    private IsolatedClassLoading() {
+    }
+
+    /**
+     * Creates a class loader for the given open WAR directory, with "WEB-INF/classes" and the JAR files in
+     * "WEB-INF/lib" as class path. The parent class loader is the class loader of this tool, which should contain
+     * the Jakarta EE API, so that, for example, annotation types are shared between this tool and the WAR classes.
+     * The caller is responsible for closing the class loader.
+     */
+    public static URLClassLoader newWarClassLoader(Path warDir) {
+        Preconditions.checkArgument(Files.isDirectory(warDir));
+
+        Path classesDir = warDir.resolve("WEB-INF").resolve("classes");
+        List<Path> jarFiles = ClassPathScanning.findJarFiles(warDir.resolve("WEB-INF").resolve("lib"));
+
+        URL[] urls = Stream.concat(Stream.of(classesDir).filter(Files::isDirectory), jarFiles.stream())
+                .map(IsolatedClassLoading::toUrl)
+                .toArray(URL[]::new);
+
+        return new URLClassLoader(
+                "war:" + warDir.getFileName(),
+                urls,
+                IsolatedClassLoading.class.getClassLoader()
+        );
+    }
+
+    /**
+     * Runs the given analysis against a new class loader for the given open WAR directory (see method
+     * "newWarClassLoader"), and closes that class loader afterwards, even if the analysis fails.
+     * The result of the analysis should not contain any reflection objects, or else the class loader
+     * cannot be garbage collected as long as the result is reachable.
+     */
+    public static <R> R analyzeWar(Path warDir, Function<ClassLoader, R> analysis) {
+        URLClassLoader classLoader = newWarClassLoader(warDir);
+        try (classLoader) {
+            return analysis.apply(classLoader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static URL toUrl(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
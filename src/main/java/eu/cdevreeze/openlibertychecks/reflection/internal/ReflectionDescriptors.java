@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.classfile.TypeDescriptors;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Conversions of Java reflection objects to the immutable, string-based descriptors that are also used for
+ * class file analysis, namely {@link ClassInfo}, {@link MemberInfo} and {@link AnnotationInfo}. These descriptors
+ * do not refer to any Class object, so results converted to descriptors do not keep classes or class loaders
+ * reachable. Moreover, they have value semantics, so they can be compared, cached or serialized.
+ * <p>
+ * Converted annotations only contain element values that differ from the default values. Annotations read from
+ * class files contain the explicitly written element values instead, even those equal to the default values.
+ * Hence, in order to compare annotation descriptors obtained from class files with those obtained from reflection,
+ * first normalize the former with method {@link #withoutDefaultValues(AnnotationInfo, Class)}.
+ * <p>
+ * The access flags of converted classes are taken from {@link Class#getModifiers()}. For nested classes, these are
+ * the flags of the InnerClasses attribute (which may contain "private", "protected" and "static"), rather than the
+ * "access_flags" of the class file, which are returned by class file parsing. Top-level classes differ only
+ * in the ACC_SUPER flag, which is not returned by reflection.
+ *
+ * @author Chris de Vreeze
+ */
+public class ReflectionDescriptors {
+
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private ReflectionDescriptors() {
+    }
+
+    public static ClassInfo toClassInfo(Class<?> clazz) {
+        int accessFlags = clazz.getModifiers() |
+                (clazz.isAnnotation() ? ACC_ANNOTATION : 0) |
+                (clazz.isEnum() ? ACC_ENUM : 0);
+
+        return new ClassInfo(
+                clazz.getName(),
+                accessFlags,
+                // Like in class files, interfaces have java.lang.Object as superclass
+                Optional.ofNullable(clazz.getSuperclass())
+                        .map(Class::getName)
+                        .or(() -> clazz.isInterface() ? Optional.of(Object.class.getName()) : Optional.empty()),
+                Arrays.stream(clazz.getInterfaces()).map(Class::getName).collect(ImmutableList.toImmutableList()),
+                toAnnotationInfos(clazz.getDeclaredAnnotations()),
+                Arrays.stream(clazz.getDeclaredFields())
+                        .map(ReflectionDescriptors::toMemberInfo)
+                        .collect(ImmutableList.toImmutableList()),
+                Stream.concat(
+                                Arrays.stream(clazz.getDeclaredConstructors()).map(ReflectionDescriptors::toMemberInfo),
+                                Arrays.stream(clazz.getDeclaredMethods()).map(ReflectionDescriptors::toMemberInfo)
+                        )
+                        .collect(ImmutableList.toImmutableList())
+        );
+    }
+
+    public static MemberInfo toMemberInfo(Field field) {
+        return new MemberInfo(
+                MemberInfo.Kind.FIELD,
+                field.getDeclaringClass().getName(),
+                field.getName(),
+                field.getType().descriptorString(),
+                field.getModifiers() | (field.isEnumConstant() ? ACC_ENUM : 0),
+                toAnnotationInfos(field.getDeclaredAnnotations())
+        );
+    }
+
+    public static MemberInfo toMemberInfo(Method method) {
+        return new MemberInfo(
+                MemberInfo.Kind.METHOD,
+                method.getDeclaringClass().getName(),
+                method.getName(),
+                methodDescriptor(method.getParameterTypes(), method.getReturnType()),
+                method.getModifiers(),
+                toAnnotationInfos(method.getDeclaredAnnotations())
+        );
+    }
+
+    public static MemberInfo toMemberInfo(Constructor<?> constructor) {
+        return new MemberInfo(
+                MemberInfo.Kind.CONSTRUCTOR,
+                constructor.getDeclaringClass().getName(),
+                "<init>",
+                methodDescriptor(constructor.getParameterTypes(), void.class),
+                constructor.getModifiers(),
+                toAnnotationInfos(constructor.getDeclaredAnnotations())
+        );
+    }
+
+    /**
+     * Converts the given class, field, method or constructor to its descriptor.
+     */
+    public static AnnotatedInfo toAnnotatedInfo(AnnotatedElement annotatedElement) {
+        if (annotatedElement instanceof Class<?> clazz) {
+            return toClassInfo(clazz);
+        } else if (annotatedElement instanceof Field field) {
+            return toMemberInfo(field);
+        } else if (annotatedElement instanceof Method method) {
+            return toMemberInfo(method);
+        } else if (annotatedElement instanceof Constructor<?> constructor) {
+            return toMemberInfo(constructor);
+        } else {
+            throw new IllegalArgumentException("Not a class, field, method or constructor: " + annotatedElement);
+        }
+    }
+
+    public static AnnotationInfo toAnnotationInfo(Annotation annotation) {
+        ImmutableMap.Builder<String, AnnotationInfo.ElementValue> elementValues = ImmutableMap.builder();
+
+        // The order of the annotation type elements is unspecified, but that does not matter for map equality
+        for (Method element : annotation.annotationType().getDeclaredMethods()) {
+            Object value = invoke(element, annotation);
+
+            if (!Objects.deepEquals(value, element.getDefaultValue())) {
+                elementValues.put(element.getName(), toElementValue(value));
+            }
+        }
+        return new AnnotationInfo(annotation.annotationType().getName(), elementValues.build());
+    }
+
+    /**
+     * Returns the given annotation descriptor (typically read from a class file) without the element values that
+     * are equal to the default values of the given annotation type, recursively for nested annotations. The result
+     * can be compared with the result of method {@link #toAnnotationInfo(Annotation)}.
+     */
+    public static AnnotationInfo withoutDefaultValues(
+            AnnotationInfo annotationInfo,
+            Class<? extends Annotation> annotationType
+    ) {
+        Preconditions.checkArgument(annotationInfo.hasType(annotationType));
+        ImmutableMap.Builder<String, AnnotationInfo.ElementValue> elementValues = ImmutableMap.builder();
+
+        annotationInfo.elementValues().forEach((name, value) -> {
+            Optional<Method> elementOption = Arrays.stream(annotationType.getDeclaredMethods())
+                    .filter(m -> m.getName().equals(name))
+                    .findFirst();
+            AnnotationInfo.ElementValue normalizedValue = elementOption
+                    .map(element -> withoutDefaultValues(value, element.getReturnType()))
+                    .orElse(value);
+            boolean isDefaultValue = elementOption
+                    .flatMap(element -> Optional.ofNullable(element.getDefaultValue()))
+                    .map(defaultValue -> toElementValue(defaultValue).equals(normalizedValue))
+                    .orElse(false);
+
+            if (!isDefaultValue) {
+                elementValues.put(name, normalizedValue);
+            }
+        });
+        return new AnnotationInfo(annotationInfo.annotationTypeName(), elementValues.build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AnnotationInfo.ElementValue withoutDefaultValues(AnnotationInfo.ElementValue value, Class<?> type) {
+        if (value instanceof AnnotationInfo.AnnotationValue annotationValue && type.isAnnotation()) {
+            return new AnnotationInfo.AnnotationValue(
+                    withoutDefaultValues(annotationValue.annotation(), (Class<? extends Annotation>) type)
+            );
+        } else if (value instanceof AnnotationInfo.ArrayValue arrayValue && type.isArray()) {
+            return new AnnotationInfo.ArrayValue(
+                    arrayValue.values().stream()
+                            .map(v -> withoutDefaultValues(v, type.getComponentType()))
+                            .collect(ImmutableList.toImmutableList())
+            );
+        } else {
+            return value;
+        }
+    }
+
+    private static ImmutableList<AnnotationInfo> toAnnotationInfos(Annotation[] annotations) {
+        return Arrays.stream(annotations)
+                .map(ReflectionDescriptors::toAnnotationInfo)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static AnnotationInfo.ElementValue toElementValue(Object value) {
+        if (value instanceof Enum<?> enumValue) {
+            return new AnnotationInfo.EnumConstValue(enumValue.getDeclaringClass().getName(), enumValue.name());
+        } else if (value instanceof Class<?> classValue) {
+            return new AnnotationInfo.ClassValue(TypeDescriptors.toTypeName(classValue.descriptorString()));
+        } else if (value instanceof Annotation annotationValue) {
+            return new AnnotationInfo.AnnotationValue(toAnnotationInfo(annotationValue));
+        } else if (value.getClass().isArray()) {
+            return new AnnotationInfo.ArrayValue(
+                    IntStream.range(0, Array.getLength(value))
+                            .mapToObj(i -> toElementValue(Array.get(value, i)))
+                            .collect(ImmutableList.toImmutableList())
+            );
+        } else {
+            return new AnnotationInfo.ConstValue(value); // boxed primitive or String
+        }
+    }
+
+    private static String methodDescriptor(Class<?>[] parameterTypes, Class<?> returnType) {
+        return Arrays.stream(parameterTypes)
+                .map(Class::descriptorString)
+                .reduce("(", String::concat) + ")" + returnType.descriptorString();
+    }
+
+    private static Object invoke(Method annotationElement, Annotation annotation) {
+        try {
+            annotationElement.setAccessible(true);
+            return annotationElement.invoke(annotation);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
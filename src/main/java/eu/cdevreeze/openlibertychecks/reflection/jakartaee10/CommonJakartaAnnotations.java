@@ -16,6 +16,9 @@
 
 package eu.cdevreeze.openlibertychecks.reflection.jakartaee10;
 
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
 import jakarta.annotation.Resource;
 import jakarta.annotation.Resources;
 
@@ -24,6 +27,7 @@ import java.lang.reflect.Method;
 import java.util.Optional;
 
 import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findAnnotation;
+import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findDeclaredAnnotation;
 
 /**
  * Jakarta common annotation support (for annotations having retention "runtime").
@@ -66,4 +70,22 @@ public class CommonJakartaAnnotations {
     public static Optional<Resources> findResourcesAnnotation(Class<?> clazz) {
         return findAnnotation(clazz, Resources.class);
     }
+
+    // Class file based variants, not needing any class loading of the inspected classes
+
+    public static boolean isResource(AnnotatedInfo annotatedInfo) {
+        return findResourceAnnotation(annotatedInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findResourceAnnotation(AnnotatedInfo annotatedInfo) {
+        return findDeclaredAnnotation(annotatedInfo, Resource.class);
+    }
+
+    public static boolean hasResourcesAnnotation(ClassInfo classInfo) {
+        return findResourcesAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findResourcesAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, Resources.class);
+    }
 }
@@ -16,6 +16,8 @@
 
 package eu.cdevreeze.openlibertychecks.reflection.jakartaee10.cdi;
 
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
 import jakarta.inject.Inject;
 
 import java.lang.reflect.Constructor;
@@ -58,4 +60,17 @@ public class CdiAnnotations {
     public static Optional<Inject> findInjectAnnotation(Method method) {
         return findDeclaredAnnotation(method, Inject.class);
     }
+
+    // Class file based variants, not needing any class loading of the inspected classes
+
+    /**
+     * Returns true if the given constructor, field or method has an Inject annotation.
+     */
+    public static boolean hasInjectAnnotation(MemberInfo member) {
+        return findInjectAnnotation(member).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findInjectAnnotation(MemberInfo member) {
+        return findDeclaredAnnotation(member, Inject.class);
+    }
 }
@@ -16,6 +16,9 @@
 
 package eu.cdevreeze.openlibertychecks.reflection.jakartaee10.ejb;
 
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
 import jakarta.ejb.*;
 
 import java.lang.reflect.Method;
@@ -80,4 +83,54 @@ public class EjbAnnotations {
     public static Optional<Schedule> findScheduleAnnotation(Method method) {
         return findDeclaredAnnotation(method, Schedule.class);
     }
+
+    // Class file based variants, not needing any class loading of the inspected classes
+
+    public static boolean isStatelessSessionBean(ClassInfo classInfo) {
+        return findStatelessAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findStatelessAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, Stateless.class);
+    }
+
+    public static boolean isStatefulSessionBean(ClassInfo classInfo) {
+        return findStatefulAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findStatefulAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, Stateful.class);
+    }
+
+    public static boolean isSingletonSessionBean(ClassInfo classInfo) {
+        return findSingletonAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findSingletonAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, Singleton.class);
+    }
+
+    public static boolean isMessageDrivenBean(ClassInfo classInfo) {
+        return findMessageDrivenAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findMessageDrivenAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, MessageDriven.class);
+    }
+
+    public static boolean hasSchedulesAnnotation(MemberInfo method) {
+        return findSchedulesAnnotation(method).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findSchedulesAnnotation(MemberInfo method) {
+        return findDeclaredAnnotation(method, Schedules.class);
+    }
+
+    public static boolean hasScheduleAnnotation(MemberInfo method) {
+        return findScheduleAnnotation(method).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findScheduleAnnotation(MemberInfo method) {
+        return findDeclaredAnnotation(method, Schedule.class);
+    }
 }
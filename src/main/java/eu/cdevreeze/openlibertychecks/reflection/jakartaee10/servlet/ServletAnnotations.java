@@ -16,6 +16,9 @@
 
 package eu.cdevreeze.openlibertychecks.reflection.jakartaee10.servlet;
 
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.TypeHierarchy;
 import jakarta.servlet.ServletContextAttributeListener;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.ServletRequestAttributeListener;
@@ -28,8 +31,8 @@ import jakarta.servlet.http.HttpSessionAttributeListener;
 import jakarta.servlet.http.HttpSessionIdListener;
 import jakarta.servlet.http.HttpSessionListener;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findAnnotation;
 import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findDeclaredAnnotation;
@@ -41,6 +44,16 @@ import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSuppo
  */
 public class ServletAnnotations {
 
+    private static final List<Class<?>> WEB_LISTENER_TYPES = List.of(
+            ServletContextListener.class,
+            ServletContextAttributeListener.class,
+            ServletRequestListener.class,
+            ServletRequestAttributeListener.class,
+            HttpSessionListener.class,
+            HttpSessionAttributeListener.class,
+            HttpSessionIdListener.class
+    );
+
     private ServletAnnotations() {
     }
 
@@ -85,15 +98,59 @@ public class ServletAnnotations {
     }
 
     private static boolean canBeWebListener(Class<?> clazz) {
-        return Stream.of(
-                        ServletContextListener.class,
-                        ServletContextAttributeListener.class,
-                        ServletRequestListener.class,
-                        ServletRequestAttributeListener.class,
-                        HttpSessionListener.class,
-                        HttpSessionAttributeListener.class,
-                        HttpSessionIdListener.class
-                )
-                .anyMatch(c -> c.isAssignableFrom(clazz));
+        return WEB_LISTENER_TYPES.stream().anyMatch(c -> c.isAssignableFrom(clazz));
+    }
+
+    // Class file based variants, not needing any class loading of the inspected classes
+
+    public static boolean isWebServlet(ClassInfo classInfo) {
+        return findWebServletAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findWebServletAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, WebServlet.class);
+    }
+
+    public static boolean isWebFilter(ClassInfo classInfo) {
+        return findWebFilterAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findWebFilterAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, WebFilter.class);
+    }
+
+    public static boolean isWebListener(ClassInfo classInfo) {
+        return findWebListenerAnnotation(classInfo).isPresent();
+    }
+
+    public static Optional<AnnotationInfo> findWebListenerAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, WebListener.class);
+    }
+
+    /**
+     * Returns true if the given class is annotated with WebListener and implements one of the listener interfaces
+     * allowed for WebListener classes, according to the given type hierarchy. No class is loaded.
+     */
+    public static boolean isAllowedWebListener(ClassInfo classInfo, TypeHierarchy typeHierarchy) {
+        return isWebListener(classInfo) && canBeWebListener(classInfo, typeHierarchy);
+    }
+
+    public static Optional<AnnotationInfo> findAllowedWebListenerAnnotation(
+            ClassInfo classInfo,
+            TypeHierarchy typeHierarchy
+    ) {
+        return findWebListenerAnnotation(classInfo).filter(ignored -> canBeWebListener(classInfo, typeHierarchy));
+    }
+
+    /**
+     * Returns the ServletSecurity annotation declared on the given class, if any. Unlike the reflection-based
+     * variant, an inherited ServletSecurity annotation is not found, because superclasses are not consulted.
+     */
+    public static Optional<AnnotationInfo> findDeclaredServletSecurityAnnotation(ClassInfo classInfo) {
+        return findDeclaredAnnotation(classInfo, ServletSecurity.class);
+    }
+
+    private static boolean canBeWebListener(ClassInfo classInfo, TypeHierarchy typeHierarchy) {
+        return WEB_LISTENER_TYPES.stream().anyMatch(c -> typeHierarchy.isSubtypeOf(classInfo.className(), c));
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -67,6 +68,10 @@ public final class ConnectionManager implements ServerXmlContent {
                 .orElse(-1);
     }
 
+    public int agedTimeout(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(agedTimeoutAsStringOption()).orElse(-1);
+    }
+
     public Optional<String> maxPoolSizeAsStringOption() {
         return element.attributeOption(new QName("maxPoolSize"));
     }
@@ -83,6 +88,10 @@ public final class ConnectionManager implements ServerXmlContent {
                 .orElse(50);
     }
 
+    public int maxPoolSize(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(maxPoolSizeAsStringOption()).orElse(50);
+    }
+
     public OptionalInt minPoolSizeOption() {
         return minPoolSizeAsStringOption()
                 .stream()
@@ -90,6 +99,10 @@ public final class ConnectionManager implements ServerXmlContent {
                 .findFirst();
     }
 
+    public OptionalInt minPoolSizeOption(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(minPoolSizeAsStringOption());
+    }
+
     public Optional<String> reapTimeOption() {
         return element.attributeOption(new QName("reapTime"));
     }
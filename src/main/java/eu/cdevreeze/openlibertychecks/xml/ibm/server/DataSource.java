@@ -18,6 +18,8 @@ package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -35,9 +37,19 @@ public final class DataSource implements ServerXmlJndiResource {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<JdbcDriver>> jdbcDrivers;
+    private final Lazy<ImmutableList<Properties>> propertiesElements;
+
     public DataSource(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("dataSource"));
         this.element = element;
+
+        this.jdbcDrivers = Lazy.of(() -> element.childElementStream(hasName("jdbcDriver"))
+                .map(JdbcDriver::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.propertiesElements = Lazy.of(() -> element.childElementStream(hasName("properties"))
+                .map(Properties::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -62,15 +74,11 @@ public final class DataSource implements ServerXmlJndiResource {
     }
 
     public ImmutableList<JdbcDriver> jdbcDrivers() {
-        return element.childElementStream(hasName("jdbcDriver"))
-                .map(JdbcDriver::new)
-                .collect(ImmutableList.toImmutableList());
+        return jdbcDrivers.get();
     }
 
     public ImmutableList<Properties> propertiesElements() {
-        return element.childElementStream(hasName("properties"))
-                .map(Properties::new)
-                .collect(ImmutableList.toImmutableList());
+        return propertiesElements.get();
     }
 
     public static final class Properties implements ServerXmlContent {
@@ -118,5 +126,9 @@ public final class DataSource implements ServerXmlJndiResource {
                     .mapToInt(Integer::parseInt)
                     .findFirst();
         }
+
+        public OptionalInt portNumberOption(ConfigVariableResolver variableResolver) {
+            return variableResolver.resolveInt(portNumberAsStringOption());
+        }
     }
 }
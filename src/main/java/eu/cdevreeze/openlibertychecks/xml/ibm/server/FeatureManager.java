@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import static eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareElementPredicates.hasName;
@@ -31,9 +32,15 @@ public final class FeatureManager implements ServerXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<String>> features;
+
     public FeatureManager(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("featureManager"));
         this.element = element;
+
+        this.features = Lazy.of(() -> element.childElementStream(hasName("feature"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -41,8 +48,6 @@ public final class FeatureManager implements ServerXmlContent {
     }
 
     public ImmutableList<String> features() {
-        return element.childElementStream(hasName("feature"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return features.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -66,6 +67,10 @@ public final class HttpEndpoint implements ServerXmlContent {
                 .findFirst();
     }
 
+    public OptionalInt httpPortOption(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(httpPortAsStringOption());
+    }
+
     public OptionalInt httpsPortOption() {
         return httpsPortAsStringOption()
                 .stream()
@@ -73,6 +78,10 @@ public final class HttpEndpoint implements ServerXmlContent {
                 .findFirst();
     }
 
+    public OptionalInt httpsPortOption(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(httpsPortAsStringOption());
+    }
+
     public Optional<String> hostOption() {
         return element.attributeOption(new QName("host"));
     }
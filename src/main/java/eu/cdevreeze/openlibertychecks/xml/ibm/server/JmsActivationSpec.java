@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -65,4 +66,8 @@ public final class JmsActivationSpec implements ServerXmlContent {
     public int maxEndpoints() {
         return maxEndpointsAsStringOption().map(Integer::parseInt).orElse(500);
     }
+
+    public int maxEndpoints(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(maxEndpointsAsStringOption()).orElse(500);
+    }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -34,9 +35,15 @@ public final class Library implements ServerXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<Fileset>> filesets;
+
     public Library(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("library"));
         this.element = element;
+
+        this.filesets = Lazy.of(() -> element.childElementStream(hasName("fileset"))
+                .map(Fileset::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -48,9 +55,7 @@ public final class Library implements ServerXmlContent {
     }
 
     public ImmutableList<Fileset> filesets() {
-        return element.childElementStream(hasName("fileset"))
-                .map(Fileset::new)
-                .collect(ImmutableList.toImmutableList());
+        return filesets.get();
     }
 
 }
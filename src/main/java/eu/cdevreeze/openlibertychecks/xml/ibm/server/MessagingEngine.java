@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -34,9 +35,15 @@ public final class MessagingEngine implements ServerXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<Queue>> queues;
+
     public MessagingEngine(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("messagingEngine"));
         this.element = element;
+
+        this.queues = Lazy.of(() -> element.childElementStream(hasName("queue"))
+                .map(Queue::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -44,9 +51,7 @@ public final class MessagingEngine implements ServerXmlContent {
     }
 
     public ImmutableList<Queue> queues() {
-        return element.childElementStream(hasName("queue"))
-                .map(Queue::new)
-                .collect(ImmutableList.toImmutableList());
+        return queues.get();
     }
 
     public static final class Queue implements ServerXmlContent {
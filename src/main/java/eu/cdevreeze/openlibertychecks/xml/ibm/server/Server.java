@@ -18,13 +18,13 @@ package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
 import java.util.Optional;
 
-import static eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareElementPredicates.hasName;
-
 /**
  * Root element of an OpenLiberty server.xml file.
  * <p>
@@ -39,9 +39,120 @@ public final class Server implements ServerXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    // Computed in one scan of the child elements, serving all accessors below
+    private final Lazy<ImmutableListMultimap<String, AncestryAwareNodes.Element>> childElementsByName;
+
+    private final Lazy<ImmutableList<Include>> includes;
+    private final Lazy<ImmutableList<FeatureManager>> featureManagers;
+    private final Lazy<ImmutableList<HttpEndpoint>> httpEndpoints;
+    private final Lazy<ImmutableList<ApplicationManager>> applicationManagers;
+    private final Lazy<ImmutableList<JndiEntry>> jndiEntries;
+    private final Lazy<ImmutableList<ConnectionManager>> connectionManagers;
+    private final Lazy<ImmutableList<DataSource>> dataSources;
+    private final Lazy<ImmutableList<ActivationSpec>> activationSpecs;
+    private final Lazy<ImmutableList<JmsActivationSpec>> jmsActivationSpecs;
+    private final Lazy<ImmutableList<JmsConnectionFactory>> jmsConnectionFactories;
+    private final Lazy<ImmutableList<JmsQueueConnectionFactory>> jmsQueueConnectionFactories;
+    private final Lazy<ImmutableList<JmsTopicConnectionFactory>> jmsTopicConnectionFactories;
+    private final Lazy<ImmutableList<JmsQueue>> jmsQueues;
+    private final Lazy<ImmutableList<JmsTopic>> jmsTopics;
+    private final Lazy<ImmutableList<KeyStore>> keyStores;
+    private final Lazy<ImmutableList<Library>> libraries;
+    private final Lazy<ImmutableList<Logging>> loggings;
+    private final Lazy<ImmutableList<MessagingEngine>> messagingEngines;
+    private final Lazy<ImmutableList<ResourceAdapter>> resourceAdapters;
+    private final Lazy<ImmutableList<Ssl>> ssls;
+    private final Lazy<ImmutableList<SslDefault>> sslDefaults;
+    private final Lazy<ImmutableList<Transaction>> transactions;
+    private final Lazy<ImmutableList<Variable>> variables;
+    private final Lazy<ImmutableList<WasJmsEndpoint>> wasJmsEndpoints;
+    private final Lazy<ImmutableList<WebApplication>> webApplications;
+
     public Server(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("server"));
         this.element = element;
+
+        this.includes = Lazy.of(() -> childElements("include").stream()
+                .map(Include::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.featureManagers = Lazy.of(() -> childElements("featureManager").stream()
+                .map(FeatureManager::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.httpEndpoints = Lazy.of(() -> childElements("httpEndpoint").stream()
+                .map(HttpEndpoint::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.applicationManagers = Lazy.of(() -> childElements("applicationManager").stream()
+                .map(ApplicationManager::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jndiEntries = Lazy.of(() -> childElements("jndiEntry").stream()
+                .map(JndiEntry::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.connectionManagers = Lazy.of(() -> childElements("connectionManager").stream()
+                .map(ConnectionManager::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.dataSources = Lazy.of(() -> childElements("dataSource").stream()
+                .map(DataSource::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.activationSpecs = Lazy.of(() -> childElements("activationSpec").stream()
+                .map(ActivationSpec::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsActivationSpecs = Lazy.of(() -> childElements("jmsActivationSpec").stream()
+                .map(JmsActivationSpec::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsConnectionFactories = Lazy.of(() -> childElements("jmsConnectionFactory").stream()
+                .map(JmsConnectionFactory::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsQueueConnectionFactories = Lazy.of(() -> childElements("jmsQueueConnectionFactory").stream()
+                .map(JmsQueueConnectionFactory::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsTopicConnectionFactories = Lazy.of(() -> childElements("jmsTopicConnectionFactory").stream()
+                .map(JmsTopicConnectionFactory::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsQueues = Lazy.of(() -> childElements("jmsQueue").stream()
+                .map(JmsQueue::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.jmsTopics = Lazy.of(() -> childElements("jmsTopic").stream()
+                .map(JmsTopic::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.keyStores = Lazy.of(() -> childElements("keyStore").stream()
+                .map(KeyStore::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.libraries = Lazy.of(() -> childElements("library").stream()
+                .map(Library::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.loggings = Lazy.of(() -> childElements("logging").stream()
+                .map(Logging::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.messagingEngines = Lazy.of(() -> childElements("messagingEngine").stream()
+                .map(MessagingEngine::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.resourceAdapters = Lazy.of(() -> childElements("resourceAdapter").stream()
+                .map(ResourceAdapter::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.ssls = Lazy.of(() -> childElements("ssl").stream()
+                .map(Ssl::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.sslDefaults = Lazy.of(() -> childElements("sslDefault").stream()
+                .map(SslDefault::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.transactions = Lazy.of(() -> childElements("transaction").stream()
+                .map(Transaction::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.variables = Lazy.of(() -> childElements("variable").stream()
+                .map(Variable::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.wasJmsEndpoints = Lazy.of(() -> childElements("wasJmsEndpoint").stream()
+                .map(WasJmsEndpoint::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.webApplications = Lazy.of(() -> childElements("webApplication").stream()
+                .map(WebApplication::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.childElementsByName = Lazy.of(() -> element.childElementStream()
+                .filter(e -> e.elementName().getNamespaceURI().isEmpty())
+                .collect(ImmutableListMultimap.toImmutableListMultimap(
+                        e -> e.elementName().getLocalPart(),
+                        e -> e
+                )));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -53,152 +164,113 @@ public final class Server implements ServerXmlContent {
     }
 
     public ImmutableList<Include> includes() {
-        return element.childElementStream(hasName("include"))
-                .map(Include::new)
-                .collect(ImmutableList.toImmutableList());
+        return includes.get();
     }
 
     public ImmutableList<FeatureManager> featureManagers() {
-        return element.childElementStream(hasName("featureManager"))
-                .map(FeatureManager::new)
-                .collect(ImmutableList.toImmutableList());
+        return featureManagers.get();
     }
 
     public ImmutableList<HttpEndpoint> httpEndpoints() {
-        return element.childElementStream(hasName("httpEndpoint"))
-                .map(HttpEndpoint::new)
-                .collect(ImmutableList.toImmutableList());
+        return httpEndpoints.get();
     }
 
     public ImmutableList<ApplicationManager> applicationManagers() {
-        return element.childElementStream(hasName("applicationManager"))
-                .map(ApplicationManager::new)
-                .collect(ImmutableList.toImmutableList());
+        return applicationManagers.get();
     }
 
     public ImmutableList<JndiEntry> jndiEntries() {
-        return element.childElementStream(hasName("jndiEntry"))
-                .map(JndiEntry::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiEntries.get();
     }
 
     public ImmutableList<ConnectionManager> connectionManagers() {
-        return element.childElementStream(hasName("connectionManager"))
-                .map(ConnectionManager::new)
-                .collect(ImmutableList.toImmutableList());
+        return connectionManagers.get();
     }
 
     public ImmutableList<DataSource> dataSources() {
-        return element.childElementStream(hasName("dataSource"))
-                .map(DataSource::new)
-                .collect(ImmutableList.toImmutableList());
+        return dataSources.get();
     }
 
     public ImmutableList<ActivationSpec> activationSpecs() {
-        return element.childElementStream(hasName("activationSpec"))
-                .map(ActivationSpec::new)
-                .collect(ImmutableList.toImmutableList());
+        return activationSpecs.get();
     }
 
     public ImmutableList<JmsActivationSpec> jmsActivationSpecs() {
-        return element.childElementStream(hasName("jmsActivationSpec"))
-                .map(JmsActivationSpec::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsActivationSpecs.get();
     }
 
     public ImmutableList<JmsConnectionFactory> jmsConnectionFactories() {
-        return element.childElementStream(hasName("jmsConnectionFactory"))
-                .map(JmsConnectionFactory::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsConnectionFactories.get();
     }
 
     public ImmutableList<JmsQueueConnectionFactory> jmsQueueConnectionFactories() {
-        return element.childElementStream(hasName("jmsQueueConnectionFactory"))
-                .map(JmsQueueConnectionFactory::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsQueueConnectionFactories.get();
     }
 
     public ImmutableList<JmsTopicConnectionFactory> jmsTopicConnectionFactories() {
-        return element.childElementStream(hasName("jmsTopicConnectionFactory"))
-                .map(JmsTopicConnectionFactory::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsTopicConnectionFactories.get();
     }
 
     public ImmutableList<JmsQueue> jmsQueues() {
-        return element.childElementStream(hasName("jmsQueue"))
-                .map(JmsQueue::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsQueues.get();
     }
 
     public ImmutableList<JmsTopic> jmsTopics() {
-        return element.childElementStream(hasName("jmsTopic"))
-                .map(JmsTopic::new)
-                .collect(ImmutableList.toImmutableList());
+        return jmsTopics.get();
     }
 
     public ImmutableList<KeyStore> keyStores() {
-        return element.childElementStream(hasName("keyStore"))
-                .map(KeyStore::new)
-                .collect(ImmutableList.toImmutableList());
+        return keyStores.get();
     }
 
     public ImmutableList<Library> libraries() {
-        return element.childElementStream(hasName("library"))
-                .map(Library::new)
-                .collect(ImmutableList.toImmutableList());
+        return libraries.get();
     }
 
     public ImmutableList<Logging> loggings() {
-        return element.childElementStream(hasName("logging"))
-                .map(Logging::new)
-                .collect(ImmutableList.toImmutableList());
+        return loggings.get();
     }
 
     public ImmutableList<MessagingEngine> messagingEngines() {
-        return element.childElementStream(hasName("messagingEngine"))
-                .map(MessagingEngine::new)
-                .collect(ImmutableList.toImmutableList());
+        return messagingEngines.get();
     }
 
     public ImmutableList<ResourceAdapter> resourceAdapters() {
-        return element.childElementStream(hasName("resourceAdapter"))
-                .map(ResourceAdapter::new)
-                .collect(ImmutableList.toImmutableList());
+        return resourceAdapters.get();
     }
 
     public ImmutableList<Ssl> ssls() {
-        return element.childElementStream(hasName("ssl"))
-                .map(Ssl::new)
-                .collect(ImmutableList.toImmutableList());
+        return ssls.get();
     }
 
     public ImmutableList<SslDefault> sslDefaults() {
-        return element.childElementStream(hasName("sslDefault"))
-                .map(SslDefault::new)
-                .collect(ImmutableList.toImmutableList());
+        return sslDefaults.get();
     }
 
     public ImmutableList<Transaction> transactions() {
-        return element.childElementStream(hasName("transaction"))
-                .map(Transaction::new)
-                .collect(ImmutableList.toImmutableList());
+        return transactions.get();
     }
 
     public ImmutableList<Variable> variables() {
-        return element.childElementStream(hasName("variable"))
-                .map(Variable::new)
-                .collect(ImmutableList.toImmutableList());
+        return variables.get();
     }
 
     public ImmutableList<WasJmsEndpoint> wasJmsEndpoints() {
-        return element.childElementStream(hasName("wasJmsEndpoint"))
-                .map(WasJmsEndpoint::new)
-                .collect(ImmutableList.toImmutableList());
+        return wasJmsEndpoints.get();
     }
 
     public ImmutableList<WebApplication> webApplications() {
-        return element.childElementStream(hasName("webApplication"))
-                .map(WebApplication::new)
-                .collect(ImmutableList.toImmutableList());
+        return webApplications.get();
+    }
+
+    /**
+     * Returns the child elements having the given local name and no namespace, in document order.
+     */
+    public ImmutableList<AncestryAwareNodes.Element> childElements(String name) {
+        return childElementsByName().get(name);
+    }
+
+    private ImmutableListMultimap<String, AncestryAwareNodes.Element> childElementsByName() {
+        return childElementsByName.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -70,6 +71,10 @@ public final class WasJmsEndpoint implements ServerXmlContent {
                 .orElse(7276);
     }
 
+    public int wasJmsPort(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(wasJmsPortAsStringOption()).orElse(7276);
+    }
+
     public int wasJmsSSLPort() {
         return wasJmsSSLPortAsStringOption()
                 .stream()
@@ -77,4 +82,8 @@ public final class WasJmsEndpoint implements ServerXmlContent {
                 .findFirst()
                 .orElse(7286);
     }
+
+    public int wasJmsSSLPort(ConfigVariableResolver variableResolver) {
+        return variableResolver.resolveInt(wasJmsSSLPortAsStringOption()).orElse(7286);
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resolver of configuration variable references (such as "${http.port}") in server.xml attribute values,
+ * against a {@link ConfigVariables} table.
+ * <p>
+ * Each distinct raw string is compiled once into a {@link Template} of literal text and variable references,
+ * and each variable is resolved at most once, in dependency order (a variable is resolved after the variables its
+ * value refers to). So resolving many attribute values costs time linear in their total size. Cyclic variable
+ * definitions lead to an {@link IllegalStateException}. References to unknown variables are left in place.
+ * <p>
+ * Expressions in variable references (such as "${var+1}") are not supported, and are treated as unknown variables.
+ * Instances are thread-safe.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ConfigVariableResolver {
+
+    /**
+     * A compiled raw string, as sequence of segments that are either literal text or variable references.
+     */
+    public record Template(ImmutableList<Segment> segments) {
+
+        public Template {
+            Objects.requireNonNull(segments);
+        }
+
+        public sealed interface Segment {
+        }
+
+        public record Literal(String text) implements Segment {
+        }
+
+        public record VariableReference(String variableName) implements Segment {
+        }
+
+        public static Template compile(String rawValue) {
+            ImmutableList.Builder<Segment> segments = ImmutableList.builder();
+            int position = 0;
+            while (position < rawValue.length()) {
+                int start = rawValue.indexOf("${", position);
+                int end = start < 0 ? -1 : rawValue.indexOf('}', start + 2);
+                if (end < 0) {
+                    segments.add(new Literal(rawValue.substring(position)));
+                    break;
+                }
+                if (start > position) {
+                    segments.add(new Literal(rawValue.substring(position, start)));
+                }
+                segments.add(new VariableReference(rawValue.substring(start + 2, end)));
+                position = end + 1;
+            }
+            return new Template(segments.build());
+        }
+
+        public boolean hasVariableReferences() {
+            return segments.stream().anyMatch(s -> s instanceof VariableReference);
+        }
+
+        public Stream<String> variableNames() {
+            return segments.stream()
+                    .flatMap(s -> s instanceof VariableReference ref ? Stream.of(ref.variableName()) : Stream.empty());
+        }
+    }
+
+    private final ConfigVariables variables;
+    private final ConcurrentHashMap<String, Template> templateCache = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, Optional<String>> resolvedVariables = new HashMap<>();
+    private final LinkedHashSet<String> variablesBeingResolved = new LinkedHashSet<>();
+
+    public ConfigVariableResolver(ConfigVariables variables) {
+        this.variables = Objects.requireNonNull(variables);
+    }
+
+    public ConfigVariables variables() {
+        return variables;
+    }
+
+    public Template compile(String rawValue) {
+        return templateCache.computeIfAbsent(rawValue, Template::compile);
+    }
+
+    /**
+     * Returns the given raw value with all variable references to known variables replaced by their resolved values.
+     */
+    public String resolve(String rawValue) {
+        if (!rawValue.contains("${")) {
+            return rawValue;
+        }
+        Template template = compile(rawValue);
+        synchronized (this) {
+            return evaluate(template);
+        }
+    }
+
+    public Optional<String> resolve(Optional<String> rawValueOption) {
+        return rawValueOption.map(this::resolve);
+    }
+
+    /**
+     * Returns the resolved value of the given variable, if it is defined.
+     */
+    public synchronized Optional<String> resolveVariable(String name) {
+        Optional<String> result = resolvedVariables.get(name);
+        if (result != null) {
+            return result;
+        }
+        Preconditions.checkState(
+                variablesBeingResolved.add(name),
+                "Cyclic variable definitions: %s",
+                Stream.concat(variablesBeingResolved.stream().dropWhile(n -> !n.equals(name)), Stream.of(name)).toList()
+        );
+        try {
+            result = variables.findRawValue(name).map(rawValue -> evaluate(compile(rawValue)));
+        } finally {
+            variablesBeingResolved.remove(name);
+        }
+        resolvedVariables.put(name, result);
+        return result;
+    }
+
+    /**
+     * Resolves and parses the given optional raw integer value, such as an attribute value that may hold a variable
+     * reference. Throws a {@link NumberFormatException} if the resolved value is not an integer.
+     */
+    public OptionalInt resolveInt(Optional<String> rawValueOption) {
+        return resolve(rawValueOption).stream().mapToInt(v -> Integer.parseInt(v.strip())).findFirst();
+    }
+
+    public Optional<Boolean> resolveBoolean(Optional<String> rawValueOption) {
+        return resolve(rawValueOption).map(v -> Boolean.parseBoolean(v.strip()));
+    }
+
+    private String evaluate(Template template) {
+        StringBuilder sb = new StringBuilder();
+        for (Template.Segment segment : template.segments()) {
+            if (segment instanceof Template.Literal literal) {
+                sb.append(literal.text());
+            } else {
+                String name = ((Template.VariableReference) segment).variableName();
+                sb.append(resolveVariable(name).orElse("${" + name + "}"));
+            }
+        }
+        return sb.toString();
+    }
+}
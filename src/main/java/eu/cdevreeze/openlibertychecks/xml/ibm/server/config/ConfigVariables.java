@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Variable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Layered table of (unresolved) configuration variables. Later layers take precedence over earlier ones.
+ * The values may themselves contain variable references, to be resolved by a {@link ConfigVariableResolver}.
+ * <p>
+ * See <a href="https://openliberty.io/docs/latest/reference/config/server-configuration-overview.html">Server Configuration Overview</a>
+ * for the sources of configuration variables.
+ *
+ * @author Chris de Vreeze
+ */
+public record ConfigVariables(ImmutableList<Layer> layers) {
+
+    public ConfigVariables {
+        Objects.requireNonNull(layers);
+    }
+
+    /**
+     * One source of variables, such as bootstrap.properties.
+     */
+    public record Layer(String name, ImmutableMap<String, String> variables) {
+
+        public Layer {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(variables);
+        }
+    }
+
+    public static ConfigVariables of(List<Layer> layers) {
+        return new ConfigVariables(ImmutableList.copyOf(layers));
+    }
+
+    /**
+     * Returns the variables of a server, from lowest to highest precedence: the "defaultValue" attributes of
+     * variable elements, the server.env file (as variables prefixed with "env."), the bootstrap.properties file,
+     * and the "value" attributes of variable elements. The given server.xml documents must be in processing order
+     * (see {@link ResolvedServerXml}), so a later variable declaration overrides an earlier one.
+     * Missing server.env and bootstrap.properties files are treated as empty.
+     */
+    public static ConfigVariables forServer(Path serverConfigDir, List<Server> servers) {
+        Map<String, String> defaultValues = new LinkedHashMap<>();
+        Map<String, String> values = new LinkedHashMap<>();
+        servers.stream().flatMap(s -> s.variables().stream()).forEach(v -> {
+            v.defaultValueOption().ifPresent(value -> defaultValues.put(v.name(), value));
+            v.valueOption().ifPresent(value -> values.put(v.name(), value));
+        });
+
+        Map<String, String> envVariables = new LinkedHashMap<>();
+        readServerEnv(serverConfigDir.resolve("server.env"))
+                .forEach((name, value) -> envVariables.put("env." + name, value));
+
+        return of(List.of(
+                new Layer("defaultValue", ImmutableMap.copyOf(defaultValues)),
+                new Layer("server.env", ImmutableMap.copyOf(envVariables)),
+                new Layer("bootstrap.properties", readBootstrapProperties(serverConfigDir.resolve("bootstrap.properties"))),
+                new Layer("value", ImmutableMap.copyOf(values))
+        ));
+    }
+
+    /**
+     * Returns the raw value of the given variable in the layer with the highest precedence defining it, if any.
+     */
+    public Optional<String> findRawValue(String name) {
+        return layers.reverse().stream()
+                .flatMap(layer -> Optional.ofNullable(layer.variables().get(name)).stream())
+                .findFirst();
+    }
+
+    public static ImmutableMap<String, String> readBootstrapProperties(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return ImmutableMap.of();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return properties.stringPropertyNames().stream()
+                    .sorted()
+                    .collect(ImmutableMap.toImmutableMap(n -> n, properties::getProperty));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a server.env file, containing "KEY=value" lines. Empty lines and lines starting with "#" are ignored.
+     */
+    public static ImmutableMap<String, String> readServerEnv(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return ImmutableMap.of();
+        }
+        try {
+            Map<String, String> result = new LinkedHashMap<>();
+            Files.readAllLines(file).stream()
+                    .map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#") && line.contains("="))
+                    .forEach(line -> result.put(
+                            line.substring(0, line.indexOf('=')).strip(),
+                            line.substring(line.indexOf('=') + 1).strip()
+                    ));
+            return ImmutableMap.copyOf(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import javax.xml.namespace.QName;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Effective (merged) configuration of a server, whose configuration may be spread across several server.xml
+ * documents (see {@link ResolvedServerXml}). It is created by an {@link EffectiveServerConfigBuilder}.
+ * <p>
+ * Top-level configuration elements are merged by element name and "id" attribute (and variable elements by "name"
+ * attribute). Elements without identity are only merged per element name for known singleton configuration, such as
+ * "featureManager" or "logging". Other elements without identity (such as "dataSource" or "jndiEntry" elements without
+ * "id" attribute) are factory configuration instances, each with an identity of its own, namely its document and
+ * position. Include elements are not part of the effective configuration.
+ *
+ * @author Chris de Vreeze
+ */
+public record EffectiveServerConfig(ImmutableMap<ElementKey, EffectiveElement> elements) {
+
+    public EffectiveServerConfig {
+        Objects.requireNonNull(elements);
+    }
+
+    /**
+     * The identity of a top-level configuration element. The position is only present for factory configuration
+     * instances without "id" attribute.
+     */
+    public record ElementKey(String elementName, Optional<String> idOption, Optional<Position> positionOption) {
+
+        // Singleton configuration, as opposed to factory configuration; not exhaustive
+        private static final ImmutableSet<String> SINGLETON_ELEMENT_NAMES = ImmutableSet.of(
+                "applicationManager",
+                "applicationMonitor",
+                "cdi",
+                "config",
+                "ejbContainer",
+                "executor",
+                "featureManager",
+                "httpDispatcher",
+                "httpSession",
+                "jpa",
+                "logging",
+                "sslDefault",
+                "transaction",
+                "webContainer"
+        );
+
+        public ElementKey {
+            Objects.requireNonNull(elementName);
+            Objects.requireNonNull(idOption);
+            Objects.requireNonNull(positionOption);
+        }
+
+        /**
+         * Returns the key of the given top-level element, which is the element with the given (zero-based) index
+         * among the top-level elements of the given document. Returns an empty Optional for include elements.
+         */
+        public static Optional<ElementKey> of(Path document, int index, AncestryAwareNodes.Element element) {
+            String elementName = element.elementName().getLocalPart();
+            if (elementName.equals("include")) {
+                return Optional.empty();
+            }
+
+            Optional<String> idOption = elementName.equals("variable") ?
+                    element.attributeOption(new QName("name")) :
+                    element.attributeOption(new QName("id"));
+
+            if (idOption.isPresent() || SINGLETON_ELEMENT_NAMES.contains(elementName)) {
+                return Optional.of(new ElementKey(elementName, idOption, Optional.empty()));
+            } else {
+                return Optional.of(new ElementKey(elementName, idOption, Optional.of(new Position(document, index))));
+            }
+        }
+    }
+
+    /**
+     * The document and (zero-based) index among the top-level elements of that document of a configuration element.
+     */
+    public record Position(Path document, int index) {
+
+        public Position {
+            Objects.requireNonNull(document);
+        }
+    }
+
+    /**
+     * The "onConflict" behaviour of an include element, for elements in the included document that are also
+     * present in earlier processed documents.
+     */
+    public enum OnConflict {
+
+        MERGE, REPLACE, IGNORE;
+
+        /**
+         * Parses the given attribute value case-insensitively, returning MERGE (the default) for unknown values.
+         */
+        public static OnConflict parse(Optional<String> valueOption) {
+            return valueOption
+                    .map(v -> v.strip().toUpperCase(Locale.ROOT))
+                    .flatMap(v -> {
+                        try {
+                            return Optional.of(valueOf(v));
+                        } catch (IllegalArgumentException e) {
+                            return Optional.empty();
+                        }
+                    })
+                    .orElse(MERGE);
+        }
+    }
+
+    /**
+     * A merged configuration element. The attributes are the merged attributes of the source elements (later ones
+     * overriding earlier ones), and the child elements are the concatenated child elements of the merged source
+     * elements, in document order (with included documents at the position of their include elements). Variable
+     * references have not been resolved.
+     */
+    public record EffectiveElement(
+            ElementKey key,
+            ImmutableMap<QName, String> attributes,
+            ImmutableList<AncestryAwareNodes.Element> childElements,
+            ImmutableList<AncestryAwareNodes.Element> sourceElements
+    ) {
+
+        public EffectiveElement {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(attributes);
+            Objects.requireNonNull(childElements);
+            Objects.requireNonNull(sourceElements);
+        }
+
+        public Optional<String> attributeOption(String name) {
+            return Optional.ofNullable(attributes.get(new QName(name)));
+        }
+    }
+
+    public Optional<EffectiveElement> findElement(String elementName, String id) {
+        return Optional.ofNullable(elements.get(new ElementKey(elementName, Optional.of(id), Optional.empty())));
+    }
+
+    public Optional<EffectiveElement> findSingletonElement(String elementName) {
+        return Optional.ofNullable(elements.get(new ElementKey(elementName, Optional.empty(), Optional.empty())));
+    }
+
+    public ImmutableList<EffectiveElement> elements(String elementName) {
+        return elements.values().stream()
+                .filter(e -> e.key().elementName().equals(elementName))
+                .collect(ImmutableList.toImmutableList());
+    }
+}
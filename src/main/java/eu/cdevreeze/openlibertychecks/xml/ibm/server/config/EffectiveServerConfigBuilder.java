@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import javax.xml.namespace.QName;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Incremental builder of {@link EffectiveServerConfig} instances, following the OpenLiberty merge rules for
+ * configuration spread across several documents: later elements override attributes of earlier ones, unless the
+ * "onConflict" attribute of the include element of the document of the later element says otherwise (REPLACE or
+ * IGNORE).
+ * <p>
+ * Like in OpenLiberty, the top-level elements are processed in document order, where the elements of an included
+ * document are processed at the position of the include element. So elements of the including document after the
+ * include element override those of the included document, whereas the included document overrides the elements
+ * before the include element.
+ * <p>
+ * Merged elements are cached per {@link EffectiveServerConfig.ElementKey}. After replacing one fragment, method
+ * "build" only re-merges the keys of the elements that occur in the old or new version of that fragment (or all keys,
+ * if the number of include elements of the fragment changed). The include elements of the new version of a fragment
+ * are not followed again, so included documents keep being included by include element index.
+ * Instances are not thread-safe.
+ *
+ * @author Chris de Vreeze
+ */
+public final class EffectiveServerConfigBuilder {
+
+    private record Fragment(
+            Path path,
+            Server server,
+            EffectiveServerConfig.OnConflict onConflict,
+            Optional<ResolvedServerXml.IncludeSite> includeSiteOption,
+            ImmutableListMultimap<EffectiveServerConfig.ElementKey, AncestryAwareNodes.Element> elementsByKey
+    ) {
+    }
+
+    private record Occurrence(Fragment fragment, AncestryAwareNodes.Element element) {
+    }
+
+    private final List<Fragment> fragments;
+    private final Map<EffectiveServerConfig.ElementKey, EffectiveServerConfig.EffectiveElement> mergedElements =
+            new HashMap<>();
+    private final Set<EffectiveServerConfig.ElementKey> dirtyKeys = new HashSet<>();
+    private ListMultimap<EffectiveServerConfig.ElementKey, Occurrence> occurrencesByKey;
+    private int lastMergeCount;
+
+    private EffectiveServerConfigBuilder(List<Fragment> fragments) {
+        Preconditions.checkArgument(!fragments.isEmpty(), "Missing root server.xml document");
+        this.fragments = new ArrayList<>(fragments);
+        this.fragments.forEach(f -> dirtyKeys.addAll(f.elementsByKey().keySet()));
+    }
+
+    public static EffectiveServerConfigBuilder from(ResolvedServerXml resolvedServerXml) {
+        return new EffectiveServerConfigBuilder(
+                resolvedServerXml.fragments().stream()
+                        .map(f -> toFragment(
+                                f.path(),
+                                f.server(),
+                                EffectiveServerConfig.OnConflict.parse(f.includeOption().flatMap(i -> i.onConflictOption())),
+                                f.includeSiteOption()
+                        ))
+                        .toList()
+        );
+    }
+
+    /**
+     * Replaces the server.xml document with the given path by the given new version, keeping the "onConflict"
+     * behaviour of the fragment. Only the affected element keys are re-merged by the next call to "build".
+     */
+    public EffectiveServerConfigBuilder replaceFragment(Path path, Server server) {
+        int index = findFragmentIndex(path);
+        Fragment oldFragment = fragments.get(index);
+        Fragment newFragment =
+                toFragment(oldFragment.path(), server, oldFragment.onConflict(), oldFragment.includeSiteOption());
+
+        fragments.set(index, newFragment);
+        occurrencesByKey = null;
+        dirtyKeys.addAll(oldFragment.elementsByKey().keySet());
+        dirtyKeys.addAll(newFragment.elementsByKey().keySet());
+
+        if (oldFragment.server().includes().size() != newFragment.server().includes().size()) {
+            // Other fragments may now be included elsewhere, or not at all
+            fragments.forEach(f -> dirtyKeys.addAll(f.elementsByKey().keySet()));
+        }
+        return this;
+    }
+
+    public EffectiveServerConfig build() {
+        if (occurrencesByKey == null) {
+            occurrencesByKey = findOccurrencesInDocumentOrder();
+        }
+
+        for (EffectiveServerConfig.ElementKey key : dirtyKeys) {
+            merge(key).ifPresentOrElse(e -> mergedElements.put(key, e), () -> mergedElements.remove(key));
+        }
+        lastMergeCount = dirtyKeys.size();
+        dirtyKeys.clear();
+
+        // Keys in order of first occurrence, without re-merging anything
+        Map<EffectiveServerConfig.ElementKey, EffectiveServerConfig.EffectiveElement> result = new LinkedHashMap<>();
+        occurrencesByKey.keySet().forEach(key -> result.put(key, mergedElements.get(key)));
+        return new EffectiveServerConfig(ImmutableMap.copyOf(result));
+    }
+
+    /**
+     * Returns the number of element keys that were (re-)merged by the last call to method "build".
+     */
+    public int lastMergeCount() {
+        return lastMergeCount;
+    }
+
+    private Optional<EffectiveServerConfig.EffectiveElement> merge(EffectiveServerConfig.ElementKey key) {
+        Map<QName, String> attributes = new LinkedHashMap<>();
+        List<AncestryAwareNodes.Element> childElements = new ArrayList<>();
+        List<AncestryAwareNodes.Element> sourceElements = new ArrayList<>();
+
+        for (Occurrence occurrence : occurrencesByKey.get(key)) {
+            EffectiveServerConfig.OnConflict onConflict = occurrence.fragment().onConflict();
+            boolean conflict = !sourceElements.isEmpty();
+
+            if (conflict && onConflict == EffectiveServerConfig.OnConflict.IGNORE) {
+                continue;
+            }
+            if (conflict && onConflict == EffectiveServerConfig.OnConflict.REPLACE) {
+                attributes.clear();
+                childElements.clear();
+                sourceElements.clear();
+            }
+            attributes.putAll(occurrence.element().attributes());
+            occurrence.element().childElementStream().forEach(childElements::add);
+            sourceElements.add(occurrence.element());
+        }
+
+        if (sourceElements.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new EffectiveServerConfig.EffectiveElement(
+                key,
+                ImmutableMap.copyOf(attributes),
+                ImmutableList.copyOf(childElements),
+                ImmutableList.copyOf(sourceElements)
+        ));
+    }
+
+    private ListMultimap<EffectiveServerConfig.ElementKey, Occurrence> findOccurrencesInDocumentOrder() {
+        ListMultimap<Path, Fragment> fragmentsByIncludingFile = MultimapBuilder.hashKeys().arrayListValues().build();
+        fragments.forEach(f -> f.includeSiteOption().ifPresent(site -> fragmentsByIncludingFile.put(site.includingFile(), f)));
+
+        ListMultimap<EffectiveServerConfig.ElementKey, Occurrence> result =
+                MultimapBuilder.linkedHashKeys().arrayListValues().build();
+        addOccurrencesInDocumentOrder(fragments.get(0), fragmentsByIncludingFile, result);
+        return result;
+    }
+
+    private void addOccurrencesInDocumentOrder(
+            Fragment fragment,
+            ListMultimap<Path, Fragment> fragmentsByIncludingFile,
+            ListMultimap<EffectiveServerConfig.ElementKey, Occurrence> result
+    ) {
+        // Each document occurs at most once in the fragments, so the include sites form a tree, without cycles
+        List<AncestryAwareNodes.Element> topLevelElements = fragment.server().getElement().childElementStream().toList();
+        int includeIndex = 0;
+
+        for (int index = 0; index < topLevelElements.size(); index++) {
+            AncestryAwareNodes.Element element = topLevelElements.get(index);
+
+            if (element.elementName().getLocalPart().equals("include")) {
+                int currentIncludeIndex = includeIndex;
+                includeIndex++;
+                fragmentsByIncludingFile.get(fragment.path()).stream()
+                        .filter(f -> f.includeSiteOption().orElseThrow().includeIndex() == currentIncludeIndex)
+                        .forEach(f -> addOccurrencesInDocumentOrder(f, fragmentsByIncludingFile, result));
+            } else {
+                EffectiveServerConfig.ElementKey key =
+                        EffectiveServerConfig.ElementKey.of(fragment.path(), index, element).orElseThrow();
+                result.put(key, new Occurrence(fragment, element));
+            }
+        }
+    }
+
+    private int findFragmentIndex(Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        for (int i = 0; i < fragments.size(); i++) {
+            if (fragments.get(i).path().equals(normalizedPath)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown fragment: " + path);
+    }
+
+    private static Fragment toFragment(
+            Path path,
+            Server server,
+            EffectiveServerConfig.OnConflict onConflict,
+            Optional<ResolvedServerXml.IncludeSite> includeSiteOption
+    ) {
+        List<AncestryAwareNodes.Element> topLevelElements = server.getElement().childElementStream().toList();
+        ImmutableListMultimap.Builder<EffectiveServerConfig.ElementKey, AncestryAwareNodes.Element> elementsByKey =
+                ImmutableListMultimap.builder();
+
+        for (int index = 0; index < topLevelElements.size(); index++) {
+            AncestryAwareNodes.Element element = topLevelElements.get(index);
+            EffectiveServerConfig.ElementKey.of(path, index, element).ifPresent(key -> elementsByKey.put(key, element));
+        }
+        return new Fragment(path, server, onConflict, includeSiteOption, elementsByKey.build());
+    }
+}
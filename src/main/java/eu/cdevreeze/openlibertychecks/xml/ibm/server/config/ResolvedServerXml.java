@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Include;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A server.xml file with all documents it (directly or indirectly) includes, as found by
+ * {@link ServerXmlIncludeResolver}. The fragments are in processing order: the root server.xml first, and each
+ * included document directly after the document including it (depth-first, in document order). Each document
+ * occurs at most once, even if it is included more than once.
+ *
+ * @author Chris de Vreeze
+ */
+public record ResolvedServerXml(
+        Path serverXmlFile,
+        ImmutableList<Fragment> fragments,
+        ImmutableList<IncludeProblem> problems
+) {
+
+    public ResolvedServerXml {
+        Objects.requireNonNull(serverXmlFile);
+        Objects.requireNonNull(fragments);
+        Objects.requireNonNull(problems);
+    }
+
+    public ImmutableList<Server> servers() {
+        return fragments.stream().map(Fragment::server).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * One server.xml document, along with the include element that included it (absent for the root document).
+     */
+    public record Fragment(Path path, Server server, Optional<IncludeSite> includeSiteOption) {
+
+        public Fragment {
+            Objects.requireNonNull(path);
+            Objects.requireNonNull(server);
+            Objects.requireNonNull(includeSiteOption);
+        }
+
+        public Optional<Include> includeOption() {
+            return includeSiteOption.map(IncludeSite::include);
+        }
+    }
+
+    /**
+     * The include element that included a document, along with the including document and the (zero-based) index
+     * of the include element among the include elements of the including document. An include element of a
+     * directory location includes several documents.
+     */
+    public record IncludeSite(Path includingFile, int includeIndex, Include include) {
+
+        public IncludeSite {
+            Objects.requireNonNull(includingFile);
+            Objects.requireNonNull(include);
+        }
+    }
+
+    /**
+     * A problem found when following an include element (or when loading the root document, in which case the
+     * including file is the root document itself). Missing optional includes are not problems.
+     */
+    public record IncludeProblem(Path includingFile, String location, Kind kind, String message) {
+
+        public IncludeProblem {
+            Objects.requireNonNull(includingFile);
+            Objects.requireNonNull(location);
+            Objects.requireNonNull(kind);
+            Objects.requireNonNull(message);
+        }
+
+        public enum Kind {CYCLE, MISSING, UNPARSEABLE, UNRESOLVED_LOCATION, UNSUPPORTED_LOCATION}
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import javax.xml.namespace.QName;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Index of the elements having an "id" attribute in all documents of a (possibly multi-document) server
+ * configuration, keyed by element name and id, along with all Ref attributes (such as "connectionManagerRef",
+ * "libraryRef", "keyStoreRef" or "authDataRef") found in those documents.
+ * <p>
+ * The index is built in one pass over all elements, after which resolving a reference is a hash lookup, and finding
+ * dangling references and unreferenced elements takes time linear in the number of references and elements.
+ * <p>
+ * The element name targeted by a Ref attribute is the attribute name without the "Ref" suffix, except for a few
+ * well-known attributes such as "trustStoreRef" (targeting "keyStore") and "containerAuthDataRef" (targeting
+ * "authData"). Ref attribute values may be comma-separated lists of ids. Elements nested inside the referring
+ * element are an alternative to Ref attributes, and are not considered to be references.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ServerConfigIdIndex {
+
+    private static final ImmutableMap<String, String> TARGET_ELEMENT_NAMES_BY_REF_ATTRIBUTE = ImmutableMap.copyOf(
+            Map.of(
+                    "trustStoreRef", "keyStore",
+                    "containerAuthDataRef", "authData",
+                    "recoveryAuthDataRef", "authData",
+                    "commonLibraryRef", "library",
+                    "privateLibraryRef", "library",
+                    "apiTypeVisibilityRef", "library"
+            )
+    );
+
+    public record ElementId(String elementName, String id) {
+
+        public ElementId {
+            Objects.requireNonNull(elementName);
+            Objects.requireNonNull(id);
+        }
+    }
+
+    /**
+     * An element having an "id" attribute, along with the document containing it.
+     */
+    public record IndexedElement(ElementId elementId, Path document, AncestryAwareNodes.Element element) {
+
+        public IndexedElement {
+            Objects.requireNonNull(elementId);
+            Objects.requireNonNull(document);
+            Objects.requireNonNull(element);
+        }
+    }
+
+    /**
+     * One id in the value of a Ref attribute, along with the referring element and its document.
+     */
+    public record Reference(
+            Path document,
+            AncestryAwareNodes.Element referringElement,
+            String attributeName,
+            ElementId target
+    ) {
+
+        public Reference {
+            Objects.requireNonNull(document);
+            Objects.requireNonNull(referringElement);
+            Objects.requireNonNull(attributeName);
+            Objects.requireNonNull(target);
+        }
+    }
+
+    /**
+     * Report of references without target element, and of elements (of element types that occur as reference
+     * targets) that are not referenced.
+     */
+    public record ReferenceReport(
+            Path serverXmlFile,
+            ImmutableList<Reference> danglingReferences,
+            ImmutableList<IndexedElement> unreferencedElements
+    ) {
+
+        public ReferenceReport {
+            Objects.requireNonNull(serverXmlFile);
+            Objects.requireNonNull(danglingReferences);
+            Objects.requireNonNull(unreferencedElements);
+        }
+
+        public boolean isClean() {
+            return danglingReferences.isEmpty() && unreferencedElements.isEmpty();
+        }
+    }
+
+    private final Path serverXmlFile;
+    private final ImmutableListMultimap<ElementId, IndexedElement> elementsById;
+    private final ImmutableList<Reference> references;
+    private final UnaryOperator<String> valueResolver;
+
+    private ServerConfigIdIndex(
+            Path serverXmlFile,
+            ImmutableListMultimap<ElementId, IndexedElement> elementsById,
+            ImmutableList<Reference> references,
+            UnaryOperator<String> valueResolver
+    ) {
+        this.serverXmlFile = serverXmlFile;
+        this.elementsById = elementsById;
+        this.references = references;
+        this.valueResolver = valueResolver;
+    }
+
+    public static ServerConfigIdIndex of(ResolvedServerXml resolvedServerXml) {
+        return of(resolvedServerXml, UnaryOperator.identity());
+    }
+
+    /**
+     * Builds the index, resolving "id" and Ref attribute values with the given value resolver first. Typically,
+     * that is method {@link ConfigVariableResolver#resolve(String)}.
+     */
+    public static ServerConfigIdIndex of(ResolvedServerXml resolvedServerXml, UnaryOperator<String> valueResolver) {
+        ImmutableListMultimap.Builder<ElementId, IndexedElement> elementsById = ImmutableListMultimap.builder();
+        List<Reference> references = new ArrayList<>();
+
+        for (ResolvedServerXml.Fragment fragment : resolvedServerXml.fragments()) {
+            fragment.server().getElement().childElementStream()
+                    .flatMap(AncestryAwareNodes.Element::elementStream)
+                    .forEach(element -> {
+                        String elementName = element.elementName().getLocalPart();
+
+                        element.attributeOption(new QName("id")).map(valueResolver).ifPresent(id -> {
+                            ElementId elementId = new ElementId(elementName, id);
+                            elementsById.put(elementId, new IndexedElement(elementId, fragment.path(), element));
+                        });
+
+                        element.attributes().forEach((attrName, attrValue) -> {
+                            String localName = attrName.getLocalPart();
+                            if (attrName.getNamespaceURI().isEmpty() && localName.endsWith("Ref")) {
+                                String targetElementName = targetElementName(localName);
+                                splitIds(valueResolver.apply(attrValue))
+                                        .forEach(id -> references.add(new Reference(
+                                                fragment.path(),
+                                                element,
+                                                localName,
+                                                new ElementId(targetElementName, id)
+                                        )));
+                            }
+                        });
+                    });
+        }
+
+        return new ServerConfigIdIndex(
+                resolvedServerXml.serverXmlFile(),
+                elementsById.build(),
+                ImmutableList.copyOf(references),
+                valueResolver
+        );
+    }
+
+    /**
+     * Returns the reference reports of the given server configurations, such as all server configurations of a fleet
+     * of servers, in the same order. Configuration variables are not resolved, so prefer the overloaded method
+     * taking a value resolver per server configuration if "id" or Ref attributes may contain variable references.
+     */
+    public static ImmutableList<ReferenceReport> referenceReports(List<ResolvedServerXml> resolvedServerXmls) {
+        return referenceReports(resolvedServerXmls, c -> UnaryOperator.identity());
+    }
+
+    /**
+     * Like the other "referenceReports" method, but resolving "id" and Ref attribute values first, with the value
+     * resolver of the server configuration. Typically, that is method {@link ConfigVariableResolver#resolve(String)}
+     * for the variables of that server (see {@link ConfigVariables#forServer(Path, List)}).
+     */
+    public static ImmutableList<ReferenceReport> referenceReports(
+            List<ResolvedServerXml> resolvedServerXmls,
+            Function<ResolvedServerXml, UnaryOperator<String>> valueResolvers
+    ) {
+        return resolvedServerXmls.stream()
+                .map(c -> ServerConfigIdIndex.of(c, valueResolvers.apply(c)).referenceReport())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns the element name targeted by the given Ref attribute, such as "keyStore" for "trustStoreRef".
+     */
+    public static String targetElementName(String refAttributeName) {
+        Preconditions.checkArgument(refAttributeName.endsWith("Ref"), "Not a Ref attribute: %s", refAttributeName);
+        return Optional.ofNullable(TARGET_ELEMENT_NAMES_BY_REF_ATTRIBUTE.get(refAttributeName))
+                .orElse(refAttributeName.substring(0, refAttributeName.length() - "Ref".length()));
+    }
+
+    public Path serverXmlFile() {
+        return serverXmlFile;
+    }
+
+    public ImmutableListMultimap<ElementId, IndexedElement> elementsById() {
+        return elementsById;
+    }
+
+    public ImmutableList<Reference> references() {
+        return references;
+    }
+
+    /**
+     * Returns all elements with the given element name and id. There can be more than one, to be merged into one
+     * effective element (see {@link EffectiveServerConfigBuilder}).
+     */
+    public ImmutableList<IndexedElement> findElements(String elementName, String id) {
+        return elementsById.get(new ElementId(elementName, id));
+    }
+
+    public Optional<IndexedElement> findElement(String elementName, String id) {
+        return findElements(elementName, id).stream().findFirst();
+    }
+
+    public ImmutableList<IndexedElement> resolve(Reference reference) {
+        return elementsById.get(reference.target());
+    }
+
+    /**
+     * Returns the targets of the given Ref attribute of the given element, such as the "keyStore" elements
+     * referred to by the "trustStoreRef" attribute of an "ssl" element. The attribute value is resolved with the value
+     * resolver of this index first, just like when building the index.
+     */
+    public ImmutableList<IndexedElement> resolve(AncestryAwareNodes.Element referringElement, String refAttributeName) {
+        String targetElementName = targetElementName(refAttributeName);
+        return referringElement.attributeOption(new QName(refAttributeName)).stream()
+                .map(valueResolver)
+                .flatMap(ServerConfigIdIndex::splitIds)
+                .flatMap(id -> findElements(targetElementName, id).stream())
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    public ImmutableList<Reference> danglingReferences() {
+        return references.stream()
+                .filter(ref -> !elementsById.containsKey(ref.target()))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Returns the elements that are not referenced by any Ref attribute, restricted to the element names that are
+     * targeted by at least one Ref attribute (in this server configuration). For example, an unreferenced
+     * "dataSource" is not reported, whereas an unreferenced "authData" typically is.
+     */
+    public ImmutableList<IndexedElement> unreferencedElements() {
+        ImmutableSet<ElementId> targets =
+                references.stream().map(Reference::target).collect(ImmutableSet.toImmutableSet());
+        ImmutableSet<String> targetElementNames =
+                targets.stream().map(ElementId::elementName).collect(ImmutableSet.toImmutableSet());
+
+        return elementsById.values().stream()
+                .filter(e -> targetElementNames.contains(e.elementId().elementName()))
+                .filter(e -> !targets.contains(e.elementId()))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    public ReferenceReport referenceReport() {
+        return new ReferenceReport(serverXmlFile, danglingReferences(), unreferencedElements());
+    }
+
+    private static Stream<String> splitIds(String refAttributeValue) {
+        return Arrays.stream(refAttributeValue.split(","))
+                .map(String::strip)
+                .filter(id -> !id.isEmpty());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Include;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParser;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Resolver of "include" elements in server.xml files, returning the server.xml documents making up the configuration
+ * of a server. See <a href="https://openliberty.io/docs/latest/reference/config/server-configuration-overview.html">Server Configuration Overview</a>.
+ * <p>
+ * Documents are loaded on a pool with the given parallelism. As soon as a document has been loaded, the documents it
+ * includes are fetched as well, so independent branches of the include graph are loaded concurrently. The resulting
+ * order does not depend on timing, though. Loaded documents are cached by normalized absolute path for the lifetime
+ * of the resolver, so fragments included by several servers are loaded only once, if the same resolver is used.
+ * Include cycles are detected and reported, instead of being followed.
+ * <p>
+ * Include locations are resolved against the directory of the including document. Locations ending with a slash
+ * denote directories, of which all XML files are included, in file name order. Remote (URL) locations are not
+ * supported, and are reported as problems. Configuration variables in include locations can be resolved by passing
+ * a location resolver.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ServerXmlIncludeResolver implements AutoCloseable {
+
+    private record LoadedDocument(Path path, Optional<Server> serverOption, Optional<String> errorOption) {
+    }
+
+    private final Function<Path, AncestryAwareNodes.Element> documentLoader;
+    private final ForkJoinPool pool;
+    private final ConcurrentMap<Path, CompletableFuture<LoadedDocument>> documentCache = new ConcurrentHashMap<>();
+
+    private ServerXmlIncludeResolver(Function<Path, AncestryAwareNodes.Element> documentLoader, int parallelism) {
+        Preconditions.checkArgument(parallelism >= 1, "Parallelism must be at least 1");
+        this.documentLoader = documentLoader;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public static ServerXmlIncludeResolver create(int parallelism) {
+        ThreadLocal<DocumentParser> docParsers =
+                ThreadLocal.withInitial(() -> DocumentParsers.builder().removingInterElementWhitespace().build());
+        return new ServerXmlIncludeResolver(
+                path -> AncestryAwareDocument.from(docParsers.get().parse(path.toUri()))
+                        .withUri(path.toUri())
+                        .documentElement(),
+                parallelism
+        );
+    }
+
+    public static ServerXmlIncludeResolver create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a resolver using the given document loader, which must be thread-safe.
+     */
+    public static ServerXmlIncludeResolver create(
+            Function<Path, AncestryAwareNodes.Element> documentLoader,
+            int parallelism
+    ) {
+        return new ServerXmlIncludeResolver(documentLoader, parallelism);
+    }
+
+    public ResolvedServerXml resolve(Path serverXmlFile) {
+        return resolve(serverXmlFile, UnaryOperator.identity());
+    }
+
+    /**
+     * Resolves the includes of the given server.xml file, first passing each include location to the given location
+     * resolver (for example, to replace configuration variables).
+     */
+    public ResolvedServerXml resolve(Path serverXmlFile, UnaryOperator<String> locationResolver) {
+        Path rootPath = normalize(serverXmlFile);
+
+        List<ResolvedServerXml.Fragment> fragments = new ArrayList<>();
+        List<ResolvedServerXml.IncludeProblem> problems = new ArrayList<>();
+
+        LoadedDocument root = fetch(rootPath).join();
+        if (root.serverOption().isEmpty()) {
+            problems.add(new ResolvedServerXml.IncludeProblem(
+                    rootPath,
+                    rootPath.toString(),
+                    Files.exists(rootPath) ?
+                            ResolvedServerXml.IncludeProblem.Kind.UNPARSEABLE :
+                            ResolvedServerXml.IncludeProblem.Kind.MISSING,
+                    root.errorOption().orElse("")
+            ));
+        } else {
+            visit(root, Optional.empty(), new LinkedHashSet<>(), new HashSet<>(), locationResolver, fragments, problems);
+        }
+
+        return new ResolvedServerXml(rootPath, ImmutableList.copyOf(fragments), ImmutableList.copyOf(problems));
+    }
+
+    /**
+     * Returns the number of distinct documents loaded (or attempted to be loaded) so far by this resolver.
+     */
+    public int cachedDocumentCount() {
+        return documentCache.size();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void visit(
+            LoadedDocument document,
+            Optional<ResolvedServerXml.IncludeSite> includeSiteOption,
+            LinkedHashSet<Path> includePath,
+            Set<Path> visited,
+            UnaryOperator<String> locationResolver,
+            List<ResolvedServerXml.Fragment> fragments,
+            List<ResolvedServerXml.IncludeProblem> problems
+    ) {
+        Server server = document.serverOption().orElseThrow();
+        visited.add(document.path());
+        includePath.add(document.path());
+        fragments.add(new ResolvedServerXml.Fragment(document.path(), server, includeSiteOption));
+
+        ImmutableList<Include> includes = server.includes();
+        for (int includeIndex = 0; includeIndex < includes.size(); includeIndex++) {
+            Include include = includes.get(includeIndex);
+            String location = include.locationOption().map(locationResolver).orElse("");
+            Optional<ResolvedServerXml.IncludeProblem.Kind> locationProblemOption = checkLocation(location);
+
+            if (locationProblemOption.isPresent()) {
+                problems.add(new ResolvedServerXml.IncludeProblem(
+                        document.path(), location, locationProblemOption.get(), "Cannot follow include location"
+                ));
+                continue;
+            }
+
+            List<Path> includedPaths = resolveLocation(document.path(), location);
+            if (includedPaths.isEmpty() && !include.optional()) {
+                problems.add(new ResolvedServerXml.IncludeProblem(
+                        document.path(), location, ResolvedServerXml.IncludeProblem.Kind.MISSING, "Included file not found"
+                ));
+            }
+
+            for (Path includedPath : includedPaths) {
+                if (includePath.contains(includedPath)) {
+                    problems.add(new ResolvedServerXml.IncludeProblem(
+                            document.path(),
+                            location,
+                            ResolvedServerXml.IncludeProblem.Kind.CYCLE,
+                            "Include cycle: " + Stream.concat(includePath.stream(), Stream.of(includedPath)).toList()
+                    ));
+                } else if (!visited.contains(includedPath)) {
+                    LoadedDocument includedDocument = fetch(includedPath).join();
+
+                    if (includedDocument.serverOption().isPresent()) {
+                        visit(
+                                includedDocument,
+                                Optional.of(new ResolvedServerXml.IncludeSite(document.path(), includeIndex, include)),
+                                includePath,
+                                visited,
+                                locationResolver,
+                                fragments,
+                                problems
+                        );
+                    } else if (Files.exists(includedPath)) {
+                        problems.add(new ResolvedServerXml.IncludeProblem(
+                                document.path(),
+                                location,
+                                ResolvedServerXml.IncludeProblem.Kind.UNPARSEABLE,
+                                includedDocument.errorOption().orElse("")
+                        ));
+                    } else if (!include.optional()) {
+                        problems.add(new ResolvedServerXml.IncludeProblem(
+                                document.path(), location, ResolvedServerXml.IncludeProblem.Kind.MISSING, "Included file not found"
+                        ));
+                    }
+                }
+            }
+        }
+        includePath.remove(document.path());
+    }
+
+    private CompletableFuture<LoadedDocument> fetch(Path path) {
+        return documentCache.computeIfAbsent(path, p -> CompletableFuture.supplyAsync(() -> load(p), pool));
+    }
+
+    private LoadedDocument load(Path path) {
+        Server server;
+        try {
+            server = new Server(documentLoader.apply(path));
+        } catch (RuntimeException e) {
+            return new LoadedDocument(path, Optional.empty(), Optional.of(String.valueOf(e.getMessage())));
+        }
+
+        // Prefetching the included documents (without location resolver), so independent branches load concurrently
+        try {
+            server.includes().stream()
+                    .flatMap(include -> include.locationOption().stream())
+                    .filter(location -> checkLocation(location).isEmpty())
+                    .flatMap(location -> resolveLocation(path, location).stream())
+                    .forEach(this::fetch);
+        } catch (UncheckedIOException e) {
+            // Ignoring the exception, because prefetching is only an optimization
+        }
+        return new LoadedDocument(path, Optional.of(server), Optional.empty());
+    }
+
+    private static Optional<ResolvedServerXml.IncludeProblem.Kind> checkLocation(String location) {
+        if (location.isBlank() || location.contains("${")) {
+            return Optional.of(ResolvedServerXml.IncludeProblem.Kind.UNRESOLVED_LOCATION);
+        } else if (location.contains("://")) {
+            return Optional.of(ResolvedServerXml.IncludeProblem.Kind.UNSUPPORTED_LOCATION);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static List<Path> resolveLocation(Path includingFile, String location) {
+        Path resolvedPath = normalize(includingFile.getParent().resolve(location));
+
+        if (location.endsWith("/") || Files.isDirectory(resolvedPath)) {
+            if (!Files.isDirectory(resolvedPath)) {
+                return List.of();
+            }
+            try (Stream<Path> fileStream = Files.list(resolvedPath)) {
+                return fileStream
+                        .filter(p -> p.getFileName().toString().endsWith(".xml"))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return Files.isRegularFile(resolvedPath) ? List.of(resolvedPath) : List.of();
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
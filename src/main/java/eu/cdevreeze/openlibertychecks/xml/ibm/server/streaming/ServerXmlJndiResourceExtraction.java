@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Streaming (StAX-based) extraction of {@link ServerXmlJndiResourceFact} instances from server.xml files,
+ * without building any element tree. Like the tree-based approach (using the ServerXmlJndiResources factory
+ * on the child elements of the root element), only the child elements of the root "server" element are
+ * considered. Their descendants are skipped, and memory use does not depend on the file size.
+ * <p>
+ * No DTDs or external entities are loaded, and include elements are not followed.
+ *
+ * @author Chris de Vreeze
+ */
+public class ServerXmlJndiResourceExtraction {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private ServerXmlJndiResourceExtraction() {
+    }
+
+    /**
+     * Returns the facts of the given server.xml file, in document order. If the root element is not named "server",
+     * an empty list is returned. Throws an {@link UncheckedIOException} if the file is not well-formed XML.
+     */
+    public static ImmutableList<ServerXmlJndiResourceFact> findJndiResourceFacts(Path serverXmlFile) {
+        ImmutableList.Builder<ServerXmlJndiResourceFact> result = ImmutableList.builder();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(serverXmlFile))) {
+            forEachJndiResourceFact(inputStream, serverXmlFile.toUri().toString(), result::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.build();
+    }
+
+    /**
+     * Passes each fact of the given server.xml input to the given consumer, in document order, as soon as the
+     * corresponding start tag has been read. The input stream is not closed.
+     */
+    public static void forEachJndiResourceFact(
+            InputStream inputStream,
+            String systemId,
+            Consumer<ServerXmlJndiResourceFact> consumer
+    ) throws IOException {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(systemId, inputStream);
+            try {
+                int depth = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 1 && !reader.getLocalName().equals("server")) {
+                            return;
+                        }
+                        if (depth == 2) {
+                            toFact(reader).ifPresent(consumer);
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Optional<ServerXmlJndiResourceFact> toFact(XMLStreamReader reader) {
+        if (!Strings.isNullOrEmpty(reader.getNamespaceURI())) {
+            return Optional.empty();
+        }
+        return ServerXmlJndiResourceFact.Kind.fromElementName(reader.getLocalName())
+                .map(kind -> {
+                    Optional<String> idOption = Optional.empty();
+                    Optional<String> jndiNameOption = Optional.empty();
+                    ImmutableMap.Builder<String, String> refs = ImmutableMap.builder();
+
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        if (!Strings.isNullOrEmpty(reader.getAttributeNamespace(i))) {
+                            continue;
+                        }
+                        String attrName = reader.getAttributeLocalName(i);
+                        String attrValue = reader.getAttributeValue(i);
+
+                        if (attrName.equals("id")) {
+                            idOption = Optional.of(attrValue);
+                        } else if (attrName.equals("jndiName")) {
+                            jndiNameOption = Optional.of(attrValue);
+                        } else if (attrName.endsWith("Ref")) {
+                            refs.put(attrName, attrValue);
+                        }
+                    }
+                    return new ServerXmlJndiResourceFact(
+                            kind,
+                            idOption,
+                            jndiNameOption,
+                            refs.build(),
+                            reader.getLocation().getLineNumber()
+                    );
+                });
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return xmlInputFactory;
+    }
+}
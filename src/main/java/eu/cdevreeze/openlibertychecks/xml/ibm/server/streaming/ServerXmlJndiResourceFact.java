@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Facts about a server.xml element that may have a JNDI name associated with it, extracted with a streaming parser
+ * instead of from an element tree. See {@link ServerXmlJndiResourceExtraction}. This is the tree-less counterpart
+ * of {@link eu.cdevreeze.openlibertychecks.xml.ibm.server.ServerXmlJndiResource}.
+ * <p>
+ * The reference attributes are those whose local names end with "Ref", such as "connectionManagerRef",
+ * keyed by attribute local name. Configuration variables have not been resolved.
+ *
+ * @author Chris de Vreeze
+ */
+public record ServerXmlJndiResourceFact(
+        Kind kind,
+        Optional<String> idOption,
+        Optional<String> jndiNameOption,
+        ImmutableMap<String, String> refs,
+        int lineNumber
+) {
+
+    public ServerXmlJndiResourceFact {
+        Objects.requireNonNull(kind);
+        Objects.requireNonNull(idOption);
+        Objects.requireNonNull(jndiNameOption);
+        Objects.requireNonNull(refs);
+    }
+
+    /**
+     * The kinds of server.xml elements recognized by the ServerXmlJndiResources factory.
+     */
+    public enum Kind {
+
+        DATA_SOURCE("dataSource"),
+        JMS_CONNECTION_FACTORY("jmsConnectionFactory"),
+        JMS_QUEUE("jmsQueue"),
+        JMS_QUEUE_CONNECTION_FACTORY("jmsQueueConnectionFactory"),
+        JMS_TOPIC("jmsTopic"),
+        JMS_TOPIC_CONNECTION_FACTORY("jmsTopicConnectionFactory"),
+        JNDI_ENTRY("jndiEntry");
+
+        private final String elementName;
+
+        Kind(String elementName) {
+            this.elementName = elementName;
+        }
+
+        public String elementName() {
+            return elementName;
+        }
+
+        public static Optional<Kind> fromElementName(String elementName) {
+            return Arrays.stream(values()).filter(k -> k.elementName.equals(elementName)).findFirst();
+        }
+    }
+}
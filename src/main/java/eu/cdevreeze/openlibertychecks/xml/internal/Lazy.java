@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.internal;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Value computed on first access, and then remembered, using the "racy single-check" idiom. That is, the value is
+ * read from a non-volatile field, and computed and stored if it is still null. Different threads may compute the
+ * value concurrently, so the computation must be side-effect free and its (non-null) result must be deeply immutable.
+ * No locking is needed then.
+ *
+ * @author Chris de Vreeze
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> supplier;
+
+    private T value;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        return new Lazy<>(Objects.requireNonNull(supplier));
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            result = Objects.requireNonNull(supplier.get());
+            value = result;
+        }
+        return result;
+    }
+}
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -35,11 +36,48 @@ public final class ConnectionFactory implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> name;
+    private final Lazy<String> interfaceName;
+    private final Lazy<String> resourceAdapter;
+    private final Lazy<OptionalInt> maxPoolSizeOption;
+    private final Lazy<OptionalInt> minPoolSizeOption;
+    private final Lazy<Optional<Boolean>> transactionSupportOption;
+    private final Lazy<ImmutableList<Property>> properties;
+
     public ConnectionFactory(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("connection-factory"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.name = Lazy.of(() -> element.childElementStream(hasName(ns, "name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.interfaceName = Lazy.of(() -> element.childElementStream(hasName(ns, "interface-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.resourceAdapter = Lazy.of(() -> element.childElementStream(hasName(ns, "resource-adapter"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.maxPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "max-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.minPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "min-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.transactionSupportOption = Lazy.of(() -> element.childElementStream(hasName(ns, "transaction-support"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(Boolean::valueOf));
+        this.properties = Lazy.of(() -> element.childElementStream(hasName(ns, "property"))
+                .map(Property::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -54,57 +92,30 @@ public final class ConnectionFactory implements JndiEnvironmentRefElement {
      * Returns the JNDI name
      */
     public String name() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return name.get();
     }
 
     public String interfaceName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interface-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return interfaceName.get();
     }
 
     public String resourceAdapter() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "resource-adapter"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return resourceAdapter.get();
     }
 
     public OptionalInt maxPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "max-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return maxPoolSizeOption.get();
     }
 
     public OptionalInt minPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "min-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return minPoolSizeOption.get();
     }
 
     public Optional<Boolean> transactionSupportOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "transaction-support"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(Boolean::valueOf);
+        return transactionSupportOption.get();
     }
 
     public ImmutableList<Property> properties() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "property"))
-                .map(Property::new)
-                .collect(ImmutableList.toImmutableList());
+        return properties.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -35,11 +36,92 @@ public final class DataSource implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> name;
+    private final Lazy<Optional<String>> classNameOption;
+    private final Lazy<Optional<String>> serverNameOption;
+    private final Lazy<OptionalInt> portNumberOption;
+    private final Lazy<Optional<String>> databaseNameOption;
+    private final Lazy<Optional<String>> urlOption;
+    private final Lazy<Optional<String>> userOption;
+    private final Lazy<Optional<String>> passwordOption;
+    private final Lazy<ImmutableList<Property>> properties;
+    private final Lazy<OptionalInt> loginTimeoutOption;
+    private final Lazy<Optional<Boolean>> transactionalOption;
+    private final Lazy<Optional<IsolationLevel>> isolationLevelOption;
+    private final Lazy<OptionalInt> initialPoolSizeOption;
+    private final Lazy<OptionalInt> maxPoolSizeOption;
+    private final Lazy<OptionalInt> minPoolSizeOption;
+    private final Lazy<OptionalInt> maxIdleTimeOption;
+    private final Lazy<OptionalInt> maxStatementsOption;
+
     public DataSource(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("data-source"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.name = Lazy.of(() -> element.childElementStream(hasName(ns, "name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.classNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "class-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.serverNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "server-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.portNumberOption = Lazy.of(() -> element.childElementStream(hasName(ns, "port-number"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.databaseNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "database-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.urlOption = Lazy.of(() -> element.childElementStream(hasName(ns, "url"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.userOption = Lazy.of(() -> element.childElementStream(hasName(ns, "user"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.passwordOption = Lazy.of(() -> element.childElementStream(hasName(ns, "password"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.properties = Lazy.of(() -> element.childElementStream(hasName(ns, "property"))
+                .map(Property::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.loginTimeoutOption = Lazy.of(() -> element.childElementStream(hasName(ns, "login-timeout"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.transactionalOption = Lazy.of(() -> element.childElementStream(hasName(ns, "transactional"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(Boolean::valueOf));
+        this.isolationLevelOption = Lazy.of(() -> element.childElementStream(hasName(ns, "isolation-level"))
+                .map(AncestryAwareNodes.Element::text)
+                .map(IsolationLevel::valueOf)
+                .findFirst());
+        this.initialPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "initial-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.maxPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "max-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.minPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "min-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.maxIdleTimeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "max-idle-time"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.maxStatementsOption = Lazy.of(() -> element.childElementStream(hasName(ns, "max-statements"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -54,131 +136,70 @@ public final class DataSource implements JndiEnvironmentRefElement {
      * Returns the JNDI name
      */
     public String name() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return name.get();
     }
 
     public Optional<String> classNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "class-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return classNameOption.get();
     }
 
     public Optional<String> serverNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "server-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return serverNameOption.get();
     }
 
     public OptionalInt portNumberOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "port-number"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return portNumberOption.get();
     }
 
     public Optional<String> databaseNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "database-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return databaseNameOption.get();
     }
 
     public Optional<String> urlOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "url"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return urlOption.get();
     }
 
     public Optional<String> userOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "user"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return userOption.get();
     }
 
     public Optional<String> passwordOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "password"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return passwordOption.get();
     }
 
     public ImmutableList<Property> properties() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "property"))
-                .map(Property::new)
-                .collect(ImmutableList.toImmutableList());
+        return properties.get();
     }
 
     public OptionalInt loginTimeoutOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "login-timeout"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return loginTimeoutOption.get();
     }
 
     public Optional<Boolean> transactionalOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "transactional"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(Boolean::valueOf);
+        return transactionalOption.get();
     }
 
     public Optional<IsolationLevel> isolationLevelOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "isolation-level"))
-                .map(AncestryAwareNodes.Element::text)
-                .map(IsolationLevel::valueOf)
-                .findFirst();
+        return isolationLevelOption.get();
     }
 
     public OptionalInt initialPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "initial-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return initialPoolSizeOption.get();
     }
 
     public OptionalInt maxPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "max-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return maxPoolSizeOption.get();
     }
 
     public OptionalInt minPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "min-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return minPoolSizeOption.get();
     }
 
     public OptionalInt maxIdleTimeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "max-idle-time"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return maxIdleTimeOption.get();
     }
 
     public OptionalInt maxStatementsOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "max-statements"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return maxStatementsOption.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,11 +34,27 @@ public final class EnvEntry implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> envEntryName;
+    private final Lazy<Optional<String>> envEntryTypeOption;
+    private final Lazy<Optional<String>> envEntryValueOption;
+
     public EnvEntry(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("env-entry"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.envEntryName = Lazy.of(() -> element.childElementStream(hasName(ns, "env-entry-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.envEntryTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "env-entry-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.envEntryValueOption = Lazy.of(() -> element.childElementStream(hasName(ns, "env-entry-value"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -57,24 +74,14 @@ public final class EnvEntry implements JndiEnvironmentRefElement {
      * Returns the JNDI name relative to the java:comp/env context.
      */
     public String envEntryName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "env-entry-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return envEntryName.get();
     }
 
     public Optional<String> envEntryTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "env-entry-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return envEntryTypeOption.get();
     }
 
     public Optional<String> envEntryValueOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "env-entry-value"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return envEntryValueOption.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -35,11 +36,62 @@ public final class JmsConnectionFactory implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> name;
+    private final Lazy<Optional<String>> interfaceNameOption;
+    private final Lazy<Optional<String>> classNameOption;
+    private final Lazy<Optional<String>> resourceAdapterOption;
+    private final Lazy<Optional<String>> userOption;
+    private final Lazy<Optional<String>> passwordOption;
+    private final Lazy<Optional<String>> clientIdOption;
+    private final Lazy<ImmutableList<Property>> properties;
+    private final Lazy<Optional<Boolean>> transactionalOption;
+    private final Lazy<OptionalInt> maxPoolSizeOption;
+    private final Lazy<OptionalInt> minPoolSizeOption;
+
     public JmsConnectionFactory(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("jms-connection-factory"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.name = Lazy.of(() -> element.childElementStream(hasName(ns, "name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.interfaceNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "interface-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.classNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "class-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.resourceAdapterOption = Lazy.of(() -> element.childElementStream(hasName(ns, "resource-adapter"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.userOption = Lazy.of(() -> element.childElementStream(hasName(ns, "user"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.passwordOption = Lazy.of(() -> element.childElementStream(hasName(ns, "password"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.clientIdOption = Lazy.of(() -> element.childElementStream(hasName(ns, "client-id"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.properties = Lazy.of(() -> element.childElementStream(hasName(ns, "property"))
+                .map(Property::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.transactionalOption = Lazy.of(() -> element.childElementStream(hasName(ns, "transactional"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(Boolean::valueOf));
+        this.maxPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "max-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
+        this.minPoolSizeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "min-pool-size"))
+                .map(AncestryAwareNodes.Element::text)
+                .mapToInt(Integer::parseInt)
+                .findFirst());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -54,83 +106,46 @@ public final class JmsConnectionFactory implements JndiEnvironmentRefElement {
      * Returns the JNDI name
      */
     public String name() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return name.get();
     }
 
     public Optional<String> interfaceNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interface-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return interfaceNameOption.get();
     }
 
     public Optional<String> classNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "class-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return classNameOption.get();
     }
 
     public Optional<String> resourceAdapterOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "resource-adapter"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return resourceAdapterOption.get();
     }
 
     public Optional<String> userOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "user"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return userOption.get();
     }
 
     public Optional<String> passwordOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "password"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return passwordOption.get();
     }
 
     public Optional<String> clientIdOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "client-id"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return clientIdOption.get();
     }
 
     public ImmutableList<Property> properties() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "property"))
-                .map(Property::new)
-                .collect(ImmutableList.toImmutableList());
+        return properties.get();
     }
 
     public Optional<Boolean> transactionalOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "transactional"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(Boolean::valueOf);
+        return transactionalOption.get();
     }
 
     public OptionalInt maxPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "max-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return maxPoolSizeOption.get();
     }
 
     public OptionalInt minPoolSizeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "min-pool-size"))
-                .map(AncestryAwareNodes.Element::text)
-                .mapToInt(Integer::parseInt)
-                .findFirst();
+        return minPoolSizeOption.get();
     }
 }
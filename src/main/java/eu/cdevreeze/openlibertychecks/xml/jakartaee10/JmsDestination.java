@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -34,11 +35,40 @@ public final class JmsDestination implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> name;
+    private final Lazy<String> interfaceName;
+    private final Lazy<Optional<String>> classNameOption;
+    private final Lazy<Optional<String>> resourceAdapterOption;
+    private final Lazy<Optional<String>> destinationNameOption;
+    private final Lazy<ImmutableList<Property>> properties;
+
     public JmsDestination(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("jms-destination"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.name = Lazy.of(() -> element.childElementStream(hasName(ns, "name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.interfaceName = Lazy.of(() -> element.childElementStream(hasName(ns, "interface-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.classNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "class-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.resourceAdapterOption = Lazy.of(() -> element.childElementStream(hasName(ns, "resource-adapter"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.destinationNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "destination-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.properties = Lazy.of(() -> element.childElementStream(hasName(ns, "property"))
+                .map(Property::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -53,46 +83,26 @@ public final class JmsDestination implements JndiEnvironmentRefElement {
      * Returns the JNDI name
      */
     public String name() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return name.get();
     }
 
     public String interfaceName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interface-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return interfaceName.get();
     }
 
     public Optional<String> classNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "class-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return classNameOption.get();
     }
 
     public Optional<String> resourceAdapterOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "resource-adapter"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return resourceAdapterOption.get();
     }
 
     public Optional<String> destinationNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "destination-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return destinationNameOption.get();
     }
 
     public ImmutableList<Property> properties() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "property"))
-                .map(Property::new)
-                .collect(ImmutableList.toImmutableList());
+        return properties.get();
     }
 }
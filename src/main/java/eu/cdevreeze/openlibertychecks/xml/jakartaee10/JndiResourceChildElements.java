@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
+
+import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+
+import java.util.Objects;
+
+/**
+ * The JNDI environment reference child elements of a {@link JndiResourceContainerElement}, grouped by kind,
+ * and collected in one scan of the child elements.
+ *
+ * @author Chris de Vreeze
+ */
+public record JndiResourceChildElements(
+        ImmutableList<EnvEntry> envEntries,
+        ImmutableList<ResourceRef> resourceRefs,
+        ImmutableList<ResourceEnvRef> resourceEnvRefs,
+        ImmutableList<DataSource> dataSources,
+        ImmutableList<JmsConnectionFactory> jmsConnectionFactories,
+        ImmutableList<JmsDestination> jmsDestinations,
+        ImmutableList<ConnectionFactory> connectionFactories
+) {
+
+    public JndiResourceChildElements {
+        Objects.requireNonNull(envEntries);
+        Objects.requireNonNull(resourceRefs);
+        Objects.requireNonNull(resourceEnvRefs);
+        Objects.requireNonNull(dataSources);
+        Objects.requireNonNull(jmsConnectionFactories);
+        Objects.requireNonNull(jmsDestinations);
+        Objects.requireNonNull(connectionFactories);
+    }
+
+    public static JndiResourceChildElements of(AncestryAwareNodes.Element containerElement) {
+        String ns = containerElement.elementName().getNamespaceURI();
+
+        ImmutableList.Builder<EnvEntry> envEntries = ImmutableList.builder();
+        ImmutableList.Builder<ResourceRef> resourceRefs = ImmutableList.builder();
+        ImmutableList.Builder<ResourceEnvRef> resourceEnvRefs = ImmutableList.builder();
+        ImmutableList.Builder<DataSource> dataSources = ImmutableList.builder();
+        ImmutableList.Builder<JmsConnectionFactory> jmsConnectionFactories = ImmutableList.builder();
+        ImmutableList.Builder<JmsDestination> jmsDestinations = ImmutableList.builder();
+        ImmutableList.Builder<ConnectionFactory> connectionFactories = ImmutableList.builder();
+
+        containerElement.childElementStream()
+                .filter(e -> e.elementName().getNamespaceURI().equals(ns))
+                .forEach(e -> {
+                    switch (e.elementName().getLocalPart()) {
+                        case "env-entry" -> envEntries.add(new EnvEntry(e));
+                        case "resource-ref" -> resourceRefs.add(new ResourceRef(e));
+                        case "resource-env-ref" -> resourceEnvRefs.add(new ResourceEnvRef(e));
+                        case "data-source" -> dataSources.add(new DataSource(e));
+                        case "jms-connection-factory" -> jmsConnectionFactories.add(new JmsConnectionFactory(e));
+                        case "jms-destination" -> jmsDestinations.add(new JmsDestination(e));
+                        case "connection-factory" -> connectionFactories.add(new ConnectionFactory(e));
+                        default -> {
+                        }
+                    }
+                });
+
+        return new JndiResourceChildElements(
+                envEntries.build(),
+                resourceRefs.build(),
+                resourceEnvRefs.build(),
+                dataSources.build(),
+                jmsConnectionFactories.build(),
+                jmsDestinations.build(),
+                connectionFactories.build()
+        );
+    }
+}
@@ -21,8 +21,6 @@ import com.google.common.collect.ImmutableList;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
-import static eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareElementPredicates.hasName;
-
 /**
  * Any container of JNDI environment references, such as EJBs, the web-app root element etc.
  *
@@ -30,53 +28,40 @@ import static eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareElementPredic
  */
 public interface JndiResourceContainerElement extends JakartaEEXmlContent {
 
+    /**
+     * Returns the JNDI environment reference child elements, collected in one scan of the child elements.
+     * Implementations typically compute this once, and then return the same result on each call.
+     */
+    default JndiResourceChildElements jndiResourceChildElements() {
+        return JndiResourceChildElements.of(getElement());
+    }
+
     default ImmutableList<EnvEntry> envEntries() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "env-entry"))
-                .map(EnvEntry::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().envEntries();
     }
 
     default ImmutableList<ResourceRef> resourceRefs() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "resource-ref"))
-                .map(ResourceRef::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().resourceRefs();
     }
 
     default ImmutableList<ResourceEnvRef> resourceEnvRefs() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "resource-env-ref"))
-                .map(ResourceEnvRef::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().resourceEnvRefs();
     }
 
     default ImmutableList<DataSource> dataSources() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "data-source"))
-                .map(DataSource::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().dataSources();
     }
 
     default ImmutableList<JmsConnectionFactory> jmsConnectionFactories() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "jms-connection-factory"))
-                .map(JmsConnectionFactory::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().jmsConnectionFactories();
     }
 
     default ImmutableList<JmsDestination> jmsDestinations() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "jms-destination"))
-                .map(JmsDestination::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().jmsDestinations();
     }
 
     default ImmutableList<ConnectionFactory> connectionFactories() {
-        String ns = getElement().elementName().getNamespaceURI();
-        return getElement().childElementStream(hasName(ns, "connection-factory"))
-                .map(ConnectionFactory::new)
-                .collect(ImmutableList.toImmutableList());
+        return jndiResourceChildElements().connectionFactories();
     }
 
     /**
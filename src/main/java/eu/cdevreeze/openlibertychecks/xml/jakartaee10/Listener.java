@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,10 +34,19 @@ public final class Listener implements JakartaEEXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> listenerClass;
+
     public Listener(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.listenerClass = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "listener-class"))
+                .findFirst()
+                .orElseThrow()
+                .text());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -48,11 +58,6 @@ public final class Listener implements JakartaEEXmlContent {
     }
 
     public String listenerClass() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "listener-class"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return listenerClass.get();
     }
 }
@@ -29,9 +29,12 @@ public class Names {
     }
 
     public static final String JAKARTAEE_NS = "https://jakarta.ee/xml/ns/jakartaee";
+    public static final String JAKARTA_PERSISTENCE_NS = "https://jakarta.ee/xml/ns/persistence";
 
     public static final QName JAKARTAEE_WEBAPP_NAME = new QName(JAKARTAEE_NS, "web-app");
     public static final QName JAKARTAEE_EJBJAR_NAME = new QName(JAKARTAEE_NS, "ejb-jar");
+    public static final QName JAKARTAEE_BEANS_NAME = new QName(JAKARTAEE_NS, "beans");
+    public static final QName JAKARTA_PERSISTENCE_NAME = new QName(JAKARTA_PERSISTENCE_NS, "persistence");
 
     public static final QName JAKARTAEE_ENTITY_NAME = new QName(JAKARTAEE_NS, "entity");
     public static final QName JAKARTAEE_SESSION_NAME = new QName(JAKARTAEE_NS, "session");
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,10 +34,25 @@ public final class ParamValue implements JakartaEEXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> paramName;
+    private final Lazy<String> paramValue;
+
     public ParamValue(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.paramName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "param-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.paramValue = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "param-value"))
+                .findFirst()
+                .orElseThrow()
+                .text());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -48,20 +64,10 @@ public final class ParamValue implements JakartaEEXmlContent {
     }
 
     public String paramName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "param-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return paramName.get();
     }
 
     public String paramValue() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "param-value"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return paramValue.get();
     }
 }
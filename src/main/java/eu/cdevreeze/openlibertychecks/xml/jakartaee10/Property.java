@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,10 +34,25 @@ public final class Property implements JakartaEEXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> name;
+    private final Lazy<String> value;
+
     public Property(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.name = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.value = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "value"))
+                .findFirst()
+                .orElseThrow()
+                .text());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -48,20 +64,10 @@ public final class Property implements JakartaEEXmlContent {
     }
 
     public String name() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return name.get();
     }
 
     public String value() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "value"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return value.get();
     }
 }
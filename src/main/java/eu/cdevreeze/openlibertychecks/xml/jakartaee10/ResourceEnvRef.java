@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,11 +34,23 @@ public final class ResourceEnvRef implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> resourceEnvRefName;
+    private final Lazy<Optional<String>> resourceEnvRefTypeOption;
+
     public ResourceEnvRef(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("resource-env-ref"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.resourceEnvRefName = Lazy.of(() -> element.childElementStream(hasName(ns, "resource-env-ref-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.resourceEnvRefTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "resource-env-ref-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -57,17 +70,10 @@ public final class ResourceEnvRef implements JndiEnvironmentRefElement {
      * Returns the JNDI name relative to the java:comp/env context.
      */
     public String resourceEnvRefName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "resource-env-ref-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return resourceEnvRefName.get();
     }
 
     public Optional<String> resourceEnvRefTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "resource-env-ref-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return resourceEnvRefTypeOption.get();
     }
 }
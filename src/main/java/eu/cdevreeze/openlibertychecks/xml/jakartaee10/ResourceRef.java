@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,11 +34,28 @@ public final class ResourceRef implements JndiEnvironmentRefElement {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> resRefName;
+    private final Lazy<Optional<String>> resTypeOption;
+    private final Lazy<Optional<ResAuthType>> resAuthOption;
+
     public ResourceRef(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("resource-ref"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.resRefName = Lazy.of(() -> element.childElementStream(hasName(ns, "res-ref-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.resTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "res-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.resAuthOption = Lazy.of(() -> element.childElementStream(hasName(ns, "res-auth"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(ResAuthType::valueOf));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -57,25 +75,14 @@ public final class ResourceRef implements JndiEnvironmentRefElement {
      * Returns the JNDI name relative to the java:comp/env context.
      */
     public String resRefName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "res-ref-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return resRefName.get();
     }
 
     public Optional<String> resTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "res-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return resTypeOption.get();
     }
 
     public Optional<ResAuthType> resAuthOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "res-auth"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(ResAuthType::valueOf);
+        return resAuthOption.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
 import javax.xml.namespace.QName;
@@ -33,10 +34,24 @@ public final class SecurityRoleRef implements JakartaEEXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> roleName;
+    private final Lazy<Optional<String>> roleLinkOption;
+
     public SecurityRoleRef(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.roleName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "role-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.roleLinkOption = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "role-link"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -48,19 +63,10 @@ public final class SecurityRoleRef implements JakartaEEXmlContent {
     }
 
     public String roleName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "role-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return roleName.get();
     }
 
     public Optional<String> roleLinkOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "role-link"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return roleLinkOption.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.cdi;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -32,11 +33,22 @@ public final class Alternatives implements BeansXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<String>> classes;
+    private final Lazy<ImmutableList<String>> stereotypes;
+
     public Alternatives(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("alternatives"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.classes = Lazy.of(() -> element.childElementStream(hasName(ns, "class"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.stereotypes = Lazy.of(() -> element.childElementStream(hasName(ns, "stereotype"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -44,16 +56,10 @@ public final class Alternatives implements BeansXmlContent {
     }
 
     public ImmutableList<String> classes() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "class"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return classes.get();
     }
 
     public ImmutableList<String> stereotypes() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "stereotype"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return stereotypes.get();
     }
 }
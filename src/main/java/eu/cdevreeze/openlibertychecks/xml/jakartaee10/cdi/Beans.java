@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10.cdi;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -34,11 +35,34 @@ public final class Beans implements BeansXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<Optional<Interceptors>> interceptorsElementOption;
+    private final Lazy<Optional<Decorators>> decoratorsElementOption;
+    private final Lazy<Optional<Alternatives>> alternativesElementOption;
+    private final Lazy<Optional<Scan>> scanOption;
+    private final Lazy<Optional<String>> trimOption;
+
     public Beans(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("beans"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.interceptorsElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "interceptors"))
+                .map(Interceptors::new)
+                .findFirst());
+        this.decoratorsElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "decorators"))
+                .map(Decorators::new)
+                .findFirst());
+        this.alternativesElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "alternatives"))
+                .map(Alternatives::new)
+                .findFirst());
+        this.scanOption = Lazy.of(() -> element.childElementStream(hasName(ns, "scan"))
+                .map(Scan::new)
+                .findFirst());
+        this.trimOption = Lazy.of(() -> element.childElementStream(hasName(ns, "trim"))
+                .map(AncestryAwareNodes.Element::text)
+                .findFirst());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -52,37 +76,22 @@ public final class Beans implements BeansXmlContent {
     }
 
     public Optional<Interceptors> interceptorsElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interceptors"))
-                .map(Interceptors::new)
-                .findFirst();
+        return interceptorsElementOption.get();
     }
 
     public Optional<Decorators> decoratorsElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "decorators"))
-                .map(Decorators::new)
-                .findFirst();
+        return decoratorsElementOption.get();
     }
 
     public Optional<Alternatives> alternativesElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "alternatives"))
-                .map(Alternatives::new)
-                .findFirst();
+        return alternativesElementOption.get();
     }
 
     public Optional<Scan> scanOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "scan"))
-                .map(Scan::new)
-                .findFirst();
+        return scanOption.get();
     }
 
     public Optional<String> trimOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "trim"))
-                .map(AncestryAwareNodes.Element::text)
-                .findFirst();
+        return trimOption.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.cdi;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -34,11 +35,27 @@ public final class Exclude implements BeansXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<IfClassAvailable>> ifClassAvailableElements;
+    private final Lazy<ImmutableList<IfClassNotAvailable>> ifClassNotAvailableElements;
+    private final Lazy<ImmutableList<IfSystemProperty>> ifSystemPropertyElements;
+
     public Exclude(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("exclude"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.ifClassAvailableElements = Lazy.of(() -> element.childElementStream(hasName(ns, "if-class-available"))
+                .map(IfClassAvailable::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.ifClassNotAvailableElements = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "if-class-not-available"))
+                .map(IfClassNotAvailable::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.ifSystemPropertyElements = Lazy.of(() -> element.childElementStream(hasName(ns, "if-system-property"))
+                .map(IfSystemProperty::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -50,23 +67,14 @@ public final class Exclude implements BeansXmlContent {
     }
 
     public ImmutableList<IfClassAvailable> ifClassAvailableElements() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "if-class-available"))
-                .map(IfClassAvailable::new)
-                .collect(ImmutableList.toImmutableList());
+        return ifClassAvailableElements.get();
     }
 
     public ImmutableList<IfClassNotAvailable> ifClassNotAvailableElements() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "if-class-not-available"))
-                .map(IfClassNotAvailable::new)
-                .collect(ImmutableList.toImmutableList());
+        return ifClassNotAvailableElements.get();
     }
 
     public ImmutableList<IfSystemProperty> ifSystemPropertyElements() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "if-system-property"))
-                .map(IfSystemProperty::new)
-                .collect(ImmutableList.toImmutableList());
+        return ifSystemPropertyElements.get();
     }
 }
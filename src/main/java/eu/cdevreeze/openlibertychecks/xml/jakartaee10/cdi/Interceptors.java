@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.cdi;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -32,11 +33,18 @@ public final class Interceptors implements BeansXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<String>> classes;
+
     public Interceptors(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("interceptors"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.classes = Lazy.of(() -> element.childElementStream(hasName(ns, "class"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -44,9 +52,6 @@ public final class Interceptors implements BeansXmlContent {
     }
 
     public ImmutableList<String> classes() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "class"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return classes.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.SecurityRole;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
@@ -36,11 +37,26 @@ public final class AssemblyDescriptor implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<SecurityRole>> securityRoles;
+    private final Lazy<ImmutableList<MethodPermission>> methodPermissions;
+    private final Lazy<Optional<ExcludeList>> excludeListOption;
+
     public AssemblyDescriptor(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("assembly-descriptor"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.securityRoles = Lazy.of(() -> element.childElementStream(hasName(ns, "security-role"))
+                .map(SecurityRole::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.methodPermissions = Lazy.of(() -> element.childElementStream(hasName(ns, "method-permission"))
+                .map(MethodPermission::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.excludeListOption = Lazy.of(() -> element.childElementStream(hasName(ns, "exclude-list"))
+                .map(ExcludeList::new)
+                .findFirst());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -52,23 +68,14 @@ public final class AssemblyDescriptor implements EjbJarXmlContent {
     }
 
     public ImmutableList<SecurityRole> securityRoles() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "security-role"))
-                .map(SecurityRole::new)
-                .collect(ImmutableList.toImmutableList());
+        return securityRoles.get();
     }
 
     public ImmutableList<MethodPermission> methodPermissions() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method-permission"))
-                .map(MethodPermission::new)
-                .collect(ImmutableList.toImmutableList());
+        return methodPermissions.get();
     }
 
     public Optional<ExcludeList> excludeListOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "exclude-list"))
-                .map(ExcludeList::new)
-                .findFirst();
+        return excludeListOption.get();
     }
 }
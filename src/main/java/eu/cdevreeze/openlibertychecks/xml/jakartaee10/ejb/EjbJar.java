@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.DeploymentDescriptorRootElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
@@ -37,11 +38,34 @@ public final class EjbJar implements EjbJarXmlContent, DeploymentDescriptorRootE
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<Optional<EnterpriseBeans>> enterpriseBeansElementOption;
+    private final Lazy<Optional<Interceptors>> interceptorsElementOption;
+    private final Lazy<Optional<Relationships>> relationshipsElementOption;
+    private final Lazy<Optional<AssemblyDescriptor>> assemblyDescriptorOption;
+    private final Lazy<Optional<String>> ejbClientJarOption;
+
     public EjbJar(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("ejb-jar"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.enterpriseBeansElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "enterprise-beans"))
+                .map(EnterpriseBeans::new)
+                .findFirst());
+        this.interceptorsElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "interceptors"))
+                .map(Interceptors::new)
+                .findFirst());
+        this.relationshipsElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "relationships"))
+                .map(Relationships::new)
+                .findFirst());
+        this.assemblyDescriptorOption = Lazy.of(() -> element.childElementStream(hasName(ns, "assembly-descriptor"))
+                .map(AssemblyDescriptor::new)
+                .findFirst());
+        this.ejbClientJarOption = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-client-jar"))
+                .map(AncestryAwareNodes.Element::text)
+                .findFirst());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -49,37 +73,22 @@ public final class EjbJar implements EjbJarXmlContent, DeploymentDescriptorRootE
     }
 
     public Optional<EnterpriseBeans> enterpriseBeansElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "enterprise-beans"))
-                .map(EnterpriseBeans::new)
-                .findFirst();
+        return enterpriseBeansElementOption.get();
     }
 
     public Optional<Interceptors> interceptorsElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interceptors"))
-                .map(Interceptors::new)
-                .findFirst();
+        return interceptorsElementOption.get();
     }
 
     public Optional<Relationships> relationshipsElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "relationships"))
-                .map(Relationships::new)
-                .findFirst();
+        return relationshipsElementOption.get();
     }
 
     public Optional<AssemblyDescriptor> assemblyDescriptorOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "assembly-descriptor"))
-                .map(AssemblyDescriptor::new)
-                .findFirst();
+        return assemblyDescriptorOption.get();
     }
 
     public Optional<String> ejbClientJarOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-client-jar"))
-                .map(AncestryAwareNodes.Element::text)
-                .findFirst();
+        return ejbClientJarOption.get();
     }
 }
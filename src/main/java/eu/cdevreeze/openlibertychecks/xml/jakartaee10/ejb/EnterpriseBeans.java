@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -35,11 +36,26 @@ public final class EnterpriseBeans implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<SessionBean>> sessionBeans;
+    private final Lazy<ImmutableList<EntityBean>> entityBeans;
+    private final Lazy<ImmutableList<MessageDrivenBean>> messageDrivenBeans;
+
     public EnterpriseBeans(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("enterprise-beans"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.sessionBeans = Lazy.of(() -> element.childElementStream(hasName(ns, "session"))
+                .map(SessionBean::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.entityBeans = Lazy.of(() -> element.childElementStream(hasName(ns, "entity"))
+                .map(EntityBean::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.messageDrivenBeans = Lazy.of(() -> element.childElementStream(hasName(ns, "message-driven"))
+                .map(MessageDrivenBean::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -51,23 +67,14 @@ public final class EnterpriseBeans implements EjbJarXmlContent {
     }
 
     public ImmutableList<SessionBean> sessionBeans() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "session"))
-                .map(SessionBean::new)
-                .collect(ImmutableList.toImmutableList());
+        return sessionBeans.get();
     }
 
     public ImmutableList<EntityBean> entityBeans() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "entity"))
-                .map(EntityBean::new)
-                .collect(ImmutableList.toImmutableList());
+        return entityBeans.get();
     }
 
     public ImmutableList<MessageDrivenBean> messageDrivenBeans() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "message-driven"))
-                .map(MessageDrivenBean::new)
-                .collect(ImmutableList.toImmutableList());
+        return messageDrivenBeans.get();
     }
 }
@@ -18,6 +18,8 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceChildElements;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.SecurityRoleRef;
@@ -37,93 +39,113 @@ public final class EntityBean implements EjbJarXmlContent, JndiResourceContainer
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<JndiResourceChildElements> jndiResourceChildElements;
+    private final Lazy<String> ejbName;
+    private final Lazy<Optional<String>> mappedNameOption;
+    private final Lazy<Optional<String>> homeOption;
+    private final Lazy<Optional<String>> remoteOption;
+    private final Lazy<Optional<String>> localHomeOption;
+    private final Lazy<Optional<String>> localOption;
+    private final Lazy<String> ejbClass;
+    private final Lazy<PersistenceType> persistenceType;
+    private final Lazy<String> primKeyClass;
+    private final Lazy<ImmutableList<SecurityRoleRef>> securityRoleRefs;
+
     public EntityBean(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("entity"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.jndiResourceChildElements = Lazy.of(() -> JndiResourceContainerElement.super.jndiResourceChildElements());
+        this.ejbName = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.mappedNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "mapped-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.homeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "home"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.remoteOption = Lazy.of(() -> element.childElementStream(hasName(ns, "remote"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.localHomeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "local-home"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.localOption = Lazy.of(() -> element.childElementStream(hasName(ns, "local"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.ejbClass = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-class"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.persistenceType = Lazy.of(() -> element.childElementStream(hasName(ns, "persistence-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(PersistenceType::valueOf)
+                .orElseThrow());
+        this.primKeyClass = Lazy.of(() -> element.childElementStream(hasName(ns, "prim-key-class"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.securityRoleRefs = Lazy.of(() -> element.childElementStream(hasName(ns, "security-role-ref"))
+                .map(SecurityRoleRef::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
         return element;
     }
 
+    @Override
+    public JndiResourceChildElements jndiResourceChildElements() {
+        return jndiResourceChildElements.get();
+    }
+
     public Optional<String> idOption() {
         return element.attributeOption(new QName("id"));
     }
 
     public String ejbName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return ejbName.get();
     }
 
     public Optional<String> mappedNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "mapped-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return mappedNameOption.get();
     }
 
     public Optional<String> homeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "home"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return homeOption.get();
     }
 
     public Optional<String> remoteOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "remote"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return remoteOption.get();
     }
 
     public Optional<String> localHomeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "local-home"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return localHomeOption.get();
     }
 
     public Optional<String> localOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "local"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return localOption.get();
     }
 
     public String ejbClass() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-class"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return ejbClass.get();
     }
 
     public PersistenceType persistenceType() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "persistence-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(PersistenceType::valueOf)
-                .orElseThrow();
+        return persistenceType.get();
     }
 
     public String primKeyClass() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "prim-key-class"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return primKeyClass.get();
     }
 
     public ImmutableList<SecurityRoleRef> securityRoleRefs() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "security-role-ref"))
-                .map(SecurityRoleRef::new)
-                .collect(ImmutableList.toImmutableList());
+        return securityRoleRefs.get();
     }
 }
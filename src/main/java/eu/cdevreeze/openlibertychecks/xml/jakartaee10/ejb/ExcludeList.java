@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -35,11 +36,18 @@ public final class ExcludeList implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<Method>> methods;
+
     public ExcludeList(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("exclude-list"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.methods = Lazy.of(() -> element.childElementStream(hasName(ns, "method"))
+                .map(Method::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -51,9 +59,6 @@ public final class ExcludeList implements EjbJarXmlContent {
     }
 
     public ImmutableList<Method> methods() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method"))
-                .map(Method::new)
-                .collect(ImmutableList.toImmutableList());
+        return methods.get();
     }
 }
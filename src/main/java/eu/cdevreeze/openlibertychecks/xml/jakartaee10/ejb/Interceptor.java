@@ -17,6 +17,8 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceChildElements;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
@@ -35,26 +37,37 @@ public final class Interceptor implements EjbJarXmlContent, JndiResourceContaine
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<JndiResourceChildElements> jndiResourceChildElements;
+    private final Lazy<String> interceptorClass;
+
     public Interceptor(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("interceptor"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.jndiResourceChildElements = Lazy.of(() -> JndiResourceContainerElement.super.jndiResourceChildElements());
+        this.interceptorClass = Lazy.of(() -> element.childElementStream(hasName(ns, "interceptor-class"))
+                .findFirst()
+                .orElseThrow()
+                .text());
     }
 
     public AncestryAwareNodes.Element getElement() {
         return element;
     }
 
+    @Override
+    public JndiResourceChildElements jndiResourceChildElements() {
+        return jndiResourceChildElements.get();
+    }
+
     public Optional<String> idOption() {
         return element.attributeOption(new QName("id"));
     }
 
     public String interceptorClass() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interceptor-class"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return interceptorClass.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -35,11 +36,18 @@ public final class Interceptors implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<Interceptor>> interceptors;
+
     public Interceptors(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("interceptors"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.interceptors = Lazy.of(() -> element.childElementStream(hasName(ns, "interceptor"))
+                .map(Interceptor::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -51,9 +59,6 @@ public final class Interceptors implements EjbJarXmlContent {
     }
 
     public ImmutableList<Interceptor> interceptors() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "interceptor"))
-                .map(Interceptor::new)
-                .collect(ImmutableList.toImmutableList());
+        return interceptors.get();
     }
 }
@@ -18,6 +18,8 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceChildElements;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.SecurityRoleRef;
@@ -37,47 +39,61 @@ public final class MessageDrivenBean implements EjbJarXmlContent, JndiResourceCo
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<JndiResourceChildElements> jndiResourceChildElements;
+    private final Lazy<String> ejbName;
+    private final Lazy<Optional<String>> mappedNameOption;
+    private final Lazy<Optional<String>> ejbClassOption;
+    private final Lazy<ImmutableList<SecurityRoleRef>> securityRoleRefs;
+
     public MessageDrivenBean(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("message-driven"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.jndiResourceChildElements = Lazy.of(() -> JndiResourceContainerElement.super.jndiResourceChildElements());
+        this.ejbName = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.mappedNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "mapped-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.ejbClassOption = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-class"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.securityRoleRefs = Lazy.of(() -> element.childElementStream(hasName(ns, "security-role-ref"))
+                .map(SecurityRoleRef::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
         return element;
     }
 
+    @Override
+    public JndiResourceChildElements jndiResourceChildElements() {
+        return jndiResourceChildElements.get();
+    }
+
     public Optional<String> idOption() {
         return element.attributeOption(new QName("id"));
     }
 
     public String ejbName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return ejbName.get();
     }
 
     public Optional<String> mappedNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "mapped-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return mappedNameOption.get();
     }
 
     public Optional<String> ejbClassOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-class"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return ejbClassOption.get();
     }
 
     public ImmutableList<SecurityRoleRef> securityRoleRefs() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "security-role-ref"))
-                .map(SecurityRoleRef::new)
-                .collect(ImmutableList.toImmutableList());
+        return securityRoleRefs.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -34,11 +35,33 @@ public final class Method implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> ejbName;
+    private final Lazy<Optional<MethodIntfType>> methodIntfTypeOption;
+    private final Lazy<String> methodName;
+    private final Lazy<Optional<MethodParams>> methodParamsElementOption;
+
     public Method(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("method"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.ejbName = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.methodIntfTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "method-intf"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(MethodIntfType::valueOf));
+        this.methodName = Lazy.of(() -> element.childElementStream(hasName(ns, "method-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.methodParamsElementOption = Lazy.of(() -> element.childElementStream(hasName(ns, "method-params"))
+                .findFirst()
+                .map(MethodParams::new));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -50,33 +73,18 @@ public final class Method implements EjbJarXmlContent {
     }
 
     public String ejbName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return ejbName.get();
     }
 
     public Optional<MethodIntfType> methodIntfTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method-intf"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(MethodIntfType::valueOf);
+        return methodIntfTypeOption.get();
     }
 
     public String methodName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return methodName.get();
     }
 
     public Optional<MethodParams> methodParamsElementOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method-params"))
-                .findFirst()
-                .map(MethodParams::new);
+        return methodParamsElementOption.get();
     }
 }
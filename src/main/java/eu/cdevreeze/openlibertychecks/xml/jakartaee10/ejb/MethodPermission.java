@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -35,11 +36,22 @@ public final class MethodPermission implements EjbJarXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<ImmutableList<String>> roleNames;
+    private final Lazy<ImmutableList<Method>> methods;
+
     public MethodPermission(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("method-permission"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.roleNames = Lazy.of(() -> element.childElementStream(hasName(ns, "role-name"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.methods = Lazy.of(() -> element.childElementStream(hasName(ns, "method"))
+                .map(Method::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -51,16 +63,10 @@ public final class MethodPermission implements EjbJarXmlContent {
     }
 
     public ImmutableList<String> roleNames() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "role-name"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return roleNames.get();
     }
 
     public ImmutableList<Method> methods() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "method"))
-                .map(Method::new)
-                .collect(ImmutableList.toImmutableList());
+        return methods.get();
     }
 }
@@ -18,6 +18,8 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.ejb;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceChildElements;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.SecurityRoleRef;
@@ -37,111 +39,134 @@ public final class SessionBean implements EjbJarXmlContent, JndiResourceContaine
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<JndiResourceChildElements> jndiResourceChildElements;
+    private final Lazy<String> ejbName;
+    private final Lazy<Optional<String>> mappedNameOption;
+    private final Lazy<Optional<String>> homeOption;
+    private final Lazy<Optional<String>> remoteOption;
+    private final Lazy<Optional<String>> localHomeOption;
+    private final Lazy<Optional<String>> localOption;
+    private final Lazy<ImmutableList<String>> businessLocals;
+    private final Lazy<ImmutableList<String>> businessRemotes;
+    private final Lazy<Optional<LocalBean>> localBeanOption;
+    private final Lazy<Optional<String>> serviceEndpointOption;
+    private final Lazy<Optional<String>> ejbClassOption;
+    private final Lazy<Optional<SessionType>> sessionTypeOption;
+    private final Lazy<ImmutableList<SecurityRoleRef>> securityRoleRefs;
+
     public SessionBean(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("session"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.jndiResourceChildElements = Lazy.of(() -> JndiResourceContainerElement.super.jndiResourceChildElements());
+        this.ejbName = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.mappedNameOption = Lazy.of(() -> element.childElementStream(hasName(ns, "mapped-name"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.homeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "home"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.remoteOption = Lazy.of(() -> element.childElementStream(hasName(ns, "remote"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.localHomeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "local-home"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.localOption = Lazy.of(() -> element.childElementStream(hasName(ns, "local"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.businessLocals = Lazy.of(() -> element.childElementStream(hasName(ns, "business-local"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.businessRemotes = Lazy.of(() -> element.childElementStream(hasName(ns, "business-remote"))
+                .map(AncestryAwareNodes.Element::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.localBeanOption = Lazy.of(() -> element.childElementStream(hasName(ns, "local-bean"))
+                .map(LocalBean::new)
+                .findFirst());
+        this.serviceEndpointOption = Lazy.of(() -> element.childElementStream(hasName(ns, "service-endpoint"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.ejbClassOption = Lazy.of(() -> element.childElementStream(hasName(ns, "ejb-class"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.sessionTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "session-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text)
+                .map(SessionType::valueOf));
+        this.securityRoleRefs = Lazy.of(() -> element.childElementStream(hasName(ns, "security-role-ref"))
+                .map(SecurityRoleRef::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
         return element;
     }
 
+    @Override
+    public JndiResourceChildElements jndiResourceChildElements() {
+        return jndiResourceChildElements.get();
+    }
+
     public Optional<String> idOption() {
         return element.attributeOption(new QName("id"));
     }
 
     public String ejbName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return ejbName.get();
     }
 
     public Optional<String> mappedNameOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "mapped-name"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return mappedNameOption.get();
     }
 
     public Optional<String> homeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "home"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return homeOption.get();
     }
 
     public Optional<String> remoteOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "remote"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return remoteOption.get();
     }
 
     public Optional<String> localHomeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "local-home"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return localHomeOption.get();
     }
 
     public Optional<String> localOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "local"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return localOption.get();
     }
 
     public ImmutableList<String> businessLocals() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "business-local"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return businessLocals.get();
     }
 
     public ImmutableList<String> businessRemotes() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "business-remote"))
-                .map(AncestryAwareNodes.Element::text)
-                .collect(ImmutableList.toImmutableList());
+        return businessRemotes.get();
     }
 
     public Optional<LocalBean> localBeanOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "local-bean"))
-                .map(LocalBean::new)
-                .findFirst();
+        return localBeanOption.get();
     }
 
     public Optional<String> serviceEndpointOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "service-endpoint"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return serviceEndpointOption.get();
     }
 
     public Optional<String> ejbClassOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "ejb-class"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return ejbClassOption.get();
     }
 
     public Optional<SessionType> sessionTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "session-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text)
-                .map(SessionType::valueOf);
+        return sessionTypeOption.get();
     }
 
     public ImmutableList<SecurityRoleRef> securityRoleRefs() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "security-role-ref"))
-                .map(SecurityRoleRef::new)
-                .collect(ImmutableList.toImmutableList());
+        return securityRoleRefs.get();
     }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 
@@ -34,11 +35,27 @@ public final class ErrorPage implements WebXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<Optional<String>> errorCodeOption;
+    private final Lazy<Optional<String>> exceptionTypeOption;
+    private final Lazy<String> location;
+
     public ErrorPage(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("error-page"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.errorCodeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "error-code"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.exceptionTypeOption = Lazy.of(() -> element.childElementStream(hasName(ns, "exception-type"))
+                .findFirst()
+                .map(AncestryAwareNodes.Element::text));
+        this.location = Lazy.of(() -> element.childElementStream(hasName(ns, "location"))
+                .findFirst()
+                .orElseThrow()
+                .text());
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -50,24 +67,14 @@ public final class ErrorPage implements WebXmlContent {
     }
 
     public Optional<String> errorCodeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "error-code"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return errorCodeOption.get();
     }
 
     public Optional<String> exceptionTypeOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "exception-type"))
-                .findFirst()
-                .map(AncestryAwareNodes.Element::text);
+        return exceptionTypeOption.get();
     }
 
     public String location() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "location"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return location.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.ParamValue;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
@@ -37,11 +38,30 @@ public final class Filter implements WebXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> filterName;
+    private final Lazy<Optional<String>> filterClassOption;
+    private final Lazy<ImmutableList<ParamValue>> initParams;
+
     public Filter(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("filter"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.filterName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "filter-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.filterClassOption = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "filter-class"))
+                .findFirst()
+                .map(ElementApi::text));
+        this.initParams = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "init-param"))
+                .map(ParamValue::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -53,27 +73,14 @@ public final class Filter implements WebXmlContent {
     }
 
     public String filterName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "filter-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return filterName.get();
     }
 
     public Optional<String> filterClassOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "filter-class"))
-                .findFirst()
-                .map(ElementApi::text);
+        return filterClassOption.get();
     }
 
     public ImmutableList<ParamValue> initParams() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "init-param"))
-                .map(ParamValue::new)
-                .collect(ImmutableList.toImmutableList());
+        return initParams.get();
     }
 }
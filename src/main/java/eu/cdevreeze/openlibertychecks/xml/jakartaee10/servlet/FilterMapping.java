@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 import eu.cdevreeze.yaidom4j.queryapi.ElementApi;
@@ -40,11 +41,36 @@ public final class FilterMapping implements WebXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> filterName;
+    private final Lazy<ImmutableList<String>> urlPatterns;
+    private final Lazy<ImmutableList<String>> servletNames;
+    private final Lazy<ImmutableList<Dispatcher>> dispatchers;
+
     public FilterMapping(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("filter-mapping"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.filterName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "filter-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.urlPatterns = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "url-pattern"))
+                .map(ElementApi::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.servletNames = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "servlet-name"))
+                .map(ElementApi::text)
+                .collect(ImmutableList.toImmutableList()));
+        this.dispatchers = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "dispatcher"))
+                .map(ElementApi::text)
+                .map(Dispatcher::valueOf)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -56,36 +82,18 @@ public final class FilterMapping implements WebXmlContent {
     }
 
     public String filterName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "filter-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return filterName.get();
     }
 
     public ImmutableList<String> urlPatterns() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "url-pattern"))
-                .map(ElementApi::text)
-                .collect(ImmutableList.toImmutableList());
+        return urlPatterns.get();
     }
 
     public ImmutableList<String> servletNames() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "servlet-name"))
-                .map(ElementApi::text)
-                .collect(ImmutableList.toImmutableList());
+        return servletNames.get();
     }
 
     public ImmutableList<Dispatcher> dispatchers() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "dispatcher"))
-                .map(ElementApi::text)
-                .map(Dispatcher::valueOf)
-                .collect(ImmutableList.toImmutableList());
+        return dispatchers.get();
     }
 }
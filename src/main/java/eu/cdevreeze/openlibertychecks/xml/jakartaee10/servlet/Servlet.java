@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.ParamValue;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
@@ -37,11 +38,30 @@ public final class Servlet implements WebXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> servletName;
+    private final Lazy<Optional<String>> servletClassOption;
+    private final Lazy<ImmutableList<ParamValue>> initParams;
+
     public Servlet(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("servlet"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.servletName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "servlet-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.servletClassOption = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "servlet-class"))
+                .findFirst()
+                .map(ElementApi::text));
+        this.initParams = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "init-param"))
+                .map(ParamValue::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -53,27 +73,14 @@ public final class Servlet implements WebXmlContent {
     }
 
     public String servletName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "servlet-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return servletName.get();
     }
 
     public Optional<String> servletClassOption() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "servlet-class"))
-                .findFirst()
-                .map(ElementApi::text);
+        return servletClassOption.get();
     }
 
     public ImmutableList<ParamValue> initParams() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "init-param"))
-                .map(ParamValue::new)
-                .collect(ImmutableList.toImmutableList());
+        return initParams.get();
     }
 }
@@ -18,6 +18,7 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
 import eu.cdevreeze.yaidom4j.queryapi.ElementApi;
@@ -36,11 +37,25 @@ public final class ServletMapping implements WebXmlContent {
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<String> servletName;
+    private final Lazy<ImmutableList<String>> urlPatterns;
+
     public ServletMapping(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("servlet-mapping"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.servletName = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "servlet-name"))
+                .findFirst()
+                .orElseThrow()
+                .text());
+        this.urlPatterns = Lazy.of(() -> element
+                .childElementStream(hasName(ns, "url-pattern"))
+                .map(ElementApi::text)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
@@ -52,19 +67,10 @@ public final class ServletMapping implements WebXmlContent {
     }
 
     public String servletName() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "servlet-name"))
-                .findFirst()
-                .orElseThrow()
-                .text();
+        return servletName.get();
     }
 
     public ImmutableList<String> urlPatterns() {
-        String ns = element.elementName().getNamespaceURI();
-        return element
-                .childElementStream(hasName(ns, "url-pattern"))
-                .map(ElementApi::text)
-                .collect(ImmutableList.toImmutableList());
+        return urlPatterns.get();
     }
 }
@@ -18,7 +18,9 @@ package eu.cdevreeze.openlibertychecks.xml.jakartaee10.servlet;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.openlibertychecks.xml.internal.Lazy;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.DeploymentDescriptorRootElement;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceChildElements;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Listener;
 import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
@@ -35,63 +37,80 @@ public final class WebApp implements WebXmlContent, DeploymentDescriptorRootElem
 
     private final AncestryAwareNodes.Element element;
 
+    private final Lazy<JndiResourceChildElements> jndiResourceChildElements;
+    private final Lazy<ImmutableList<Servlet>> servlets;
+    private final Lazy<ImmutableList<ServletMapping>> servletMappings;
+    private final Lazy<ImmutableList<Filter>> filters;
+    private final Lazy<ImmutableList<FilterMapping>> filterMappings;
+    private final Lazy<ImmutableList<Listener>> listeners;
+    private final Lazy<ImmutableList<WelcomeFileList>> welcomeFileLists;
+    private final Lazy<ImmutableList<ErrorPage>> errorPages;
+
     public WebApp(AncestryAwareNodes.Element element) {
         Preconditions.checkArgument(Names.JAKARTAEE_NS.equals(element.elementName().getNamespaceURI()));
         Preconditions.checkArgument(element.elementName().getLocalPart().equals("web-app"));
 
         this.element = element;
+
+        String ns = element.elementName().getNamespaceURI();
+        this.jndiResourceChildElements = Lazy.of(() -> JndiResourceContainerElement.super.jndiResourceChildElements());
+        this.servlets = Lazy.of(() -> element.childElementStream(hasName(ns, "servlet"))
+                .map(Servlet::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.servletMappings = Lazy.of(() -> element.childElementStream(hasName(ns, "servlet-mapping"))
+                .map(ServletMapping::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.filters = Lazy.of(() -> element.childElementStream(hasName(ns, "filter"))
+                .map(Filter::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.filterMappings = Lazy.of(() -> element.childElementStream(hasName(ns, "filter-mapping"))
+                .map(FilterMapping::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.listeners = Lazy.of(() -> element.childElementStream(hasName(ns, "listener"))
+                .map(Listener::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.welcomeFileLists = Lazy.of(() -> element.childElementStream(hasName(ns, "welcome-file-list"))
+                .map(WelcomeFileList::new)
+                .collect(ImmutableList.toImmutableList()));
+        this.errorPages = Lazy.of(() -> element.childElementStream(hasName(ns, "error-page"))
+                .map(ErrorPage::new)
+                .collect(ImmutableList.toImmutableList()));
     }
 
     public AncestryAwareNodes.Element getElement() {
         return element;
     }
 
+    @Override
+    public JndiResourceChildElements jndiResourceChildElements() {
+        return jndiResourceChildElements.get();
+    }
+
     public ImmutableList<Servlet> servlets() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "servlet"))
-                .map(Servlet::new)
-                .collect(ImmutableList.toImmutableList());
+        return servlets.get();
     }
 
     public ImmutableList<ServletMapping> servletMappings() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "servlet-mapping"))
-                .map(ServletMapping::new)
-                .collect(ImmutableList.toImmutableList());
+        return servletMappings.get();
     }
 
     public ImmutableList<Filter> filters() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "filter"))
-                .map(Filter::new)
-                .collect(ImmutableList.toImmutableList());
+        return filters.get();
     }
 
     public ImmutableList<FilterMapping> filterMappings() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "filter-mapping"))
-                .map(FilterMapping::new)
-                .collect(ImmutableList.toImmutableList());
+        return filterMappings.get();
     }
 
     public ImmutableList<Listener> listeners() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "listener"))
-                .map(Listener::new)
-                .collect(ImmutableList.toImmutableList());
+        return listeners.get();
     }
 
     public ImmutableList<WelcomeFileList> welcomeFileLists() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "welcome-file-list"))
-                .map(WelcomeFileList::new)
-                .collect(ImmutableList.toImmutableList());
+        return welcomeFileLists.get();
     }
 
     public ImmutableList<ErrorPage> errorPages() {
-        String ns = element.elementName().getNamespaceURI();
-        return element.childElementStream(hasName(ns, "error-page"))
-                .map(ErrorPage::new)
-                .collect(ImmutableList.toImmutableList());
+        return errorPages.get();
     }
 }
@@ -19,6 +19,11 @@
  * files. These support class wrap underlying XML "DOM" elements, for some very common parts of the
  * dialect. This support makes querying for a dialect a bit friendlier than plain XML querying (using only
  * the yaidom4j element query API).
+ * <p>
+ * The wrappers compute their query results (child element lists and values derived from child elements) only once,
+ * on first access, holding them in {@link eu.cdevreeze.openlibertychecks.xml.internal.Lazy} fields. Different threads
+ * may compute the same result concurrently, but since all results are deeply immutable and equal, that is harmless,
+ * and no locking is needed.
  *
  * @author Chris de Vreeze
  */
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.openlibertychecks.reflection.internal.ClassPathScanning;
+import jakarta.annotation.Resource;
+import jakarta.annotation.Resources;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for reading the index emitted by the openlibertychecks annotation processor, including a test compiling
+ * sources with that annotation processor.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ChecksIndexesTests {
+
+    private static final Path PROCESSOR_SOURCE_FILE = Path.of(
+            "openlibertychecks-index-processor/src/main/java/eu/cdevreeze/openlibertychecks/indexprocessor/ChecksIndexProcessor.java"
+    );
+
+    private static final String PROCESSOR_CLASS_NAME = "eu.cdevreeze.openlibertychecks.indexprocessor.ChecksIndexProcessor";
+
+    @Resource(name = "jdbc/sampleDS")
+    public static class SampleBean {
+    }
+
+    private Path dir;
+
+    @BeforeAll
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("checksIndexes");
+    }
+
+    @AfterAll
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testChecksIndex() throws IOException {
+        Path classesDir = Files.createDirectory(dir.resolve("classes"));
+        Path classFile = writeClassFile(classesDir, SampleBean.class);
+        Path indexFile = classesDir.resolve(ChecksIndexes.INDEX_RESOURCE_NAME);
+        ConstantPoolPrefilter prefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class);
+        ClassInfo sampleBean = ClassFileParser.parse(Files.readAllBytes(classFile));
+        ImmutableSet<String> compiledClassNames = ImmutableSet.of(ChecksIndexesTests.class.getName());
+
+        writeChecksIndex(indexFile, new ChecksIndexes.ChecksIndex(compiledClassNames, ImmutableList.of(sampleBean)));
+
+        assertEquals(Optional.of(List.of(sampleBean)), ChecksIndexes.findClassInfosInChecksIndex(classesDir));
+        assertEquals(List.of(sampleBean), ClassPathScanning.findClassInfosPreferringChecksIndex(classesDir, prefilter, 2));
+
+        // An empty index, which is used as long as it is up-to-date
+        writeChecksIndex(indexFile, new ChecksIndexes.ChecksIndex(compiledClassNames, ImmutableList.of()));
+
+        assertEquals(List.of(), ClassPathScanning.findClassInfosPreferringChecksIndex(classesDir, prefilter, 2));
+
+        // After compiling another class without index update, the index is stale, and the class files are scanned instead
+        writeClassFile(classesDir, ClassFileParser.class);
+
+        assertEquals(Optional.empty(), ChecksIndexes.findClassInfosInChecksIndex(classesDir));
+        assertEquals(List.of(sampleBean), ClassPathScanning.findClassInfosPreferringChecksIndex(classesDir, prefilter, 2));
+    }
+
+    @Test
+    public void testIndexEmittedByAnnotationProcessorIsUsed() throws IOException {
+        // Only works if the working directory is the project root directory, which is the case when running Maven
+        assumeTrue(Files.isRegularFile(PROCESSOR_SOURCE_FILE), "Annotation processor source not found");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path processorClassesDir = Files.createDirectory(dir.resolve("processorClasses"));
+        Path sourceDir = Files.createDirectories(dir.resolve("sources/sample"));
+        Path appClassesDir = Files.createDirectory(dir.resolve("appClasses"));
+
+        compile(compiler, List.of("-d", processorClassesDir.toString()), PROCESSOR_SOURCE_FILE);
+
+        Path annotatedSourceFile = Files.writeString(
+                sourceDir.resolve("AnnotatedBean.java"),
+                """
+                        package sample;
+
+                        import jakarta.annotation.Resource;
+
+                        public class AnnotatedBean {
+
+                            @Resource(name = "jdbc/sampleDS")
+                            private javax.sql.DataSource dataSource;
+
+                            private final Runnable task = new Runnable() {
+                                public void run() {
+                                }
+                            };
+
+                            public static class Nested {
+                            }
+                        }
+                        """
+        );
+        Path plainSourceFile = Files.writeString(
+                sourceDir.resolve("PlainBean.java"),
+                """
+                        package sample;
+
+                        public class PlainBean {
+                        }
+                        """
+        );
+        compile(
+                compiler,
+                List.of(
+                        "-d", appClassesDir.toString(),
+                        "-classpath", System.getProperty("java.class.path"),
+                        "-processorpath", processorClassesDir.toString(),
+                        "-processor", PROCESSOR_CLASS_NAME
+                ),
+                annotatedSourceFile,
+                plainSourceFile
+        );
+
+        assertTrue(Files.isRegularFile(appClassesDir.resolve(ChecksIndexes.INDEX_RESOURCE_NAME)));
+        assertTrue(Files.isRegularFile(appClassesDir.resolve("sample/AnnotatedBean$1.class")));
+
+        Optional<List<ClassInfo>> indexedClassInfosOption = ChecksIndexes.findClassInfosInChecksIndex(appClassesDir);
+
+        assertTrue(indexedClassInfosOption.isPresent(), "Index written by the annotation processor considered stale");
+        assertEquals(
+                List.of("sample.AnnotatedBean"),
+                indexedClassInfosOption.get().stream().map(ClassInfo::className).toList()
+        );
+
+        ClassInfo indexedClassInfo = indexedClassInfosOption.get().get(0);
+        ClassInfo parsedClassInfo =
+                ClassFileParser.parse(Files.readAllBytes(appClassesDir.resolve("sample/AnnotatedBean.class")));
+
+        assertEquals(parsedClassInfo.fields(), indexedClassInfo.fields());
+
+        // The class files are not read at all, so garbling them does not matter
+        Files.write(appClassesDir.resolve("sample/AnnotatedBean.class"), new byte[]{1, 2, 3});
+        ConstantPoolPrefilter prefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class);
+
+        assertEquals(
+                List.of(indexedClassInfo),
+                ClassPathScanning.findClassInfosPreferringChecksIndex(appClassesDir, prefilter, 2)
+        );
+
+        // Compiling an extra class without the annotation processor makes the index stale
+        Path extraSourceFile = Files.writeString(
+                sourceDir.resolve("ExtraBean.java"),
+                """
+                        package sample;
+
+                        public class ExtraBean {
+                        }
+                        """
+        );
+        compile(compiler, List.of("-d", appClassesDir.toString(), "-proc:none"), extraSourceFile);
+
+        assertEquals(Optional.empty(), ChecksIndexes.findClassInfosInChecksIndex(appClassesDir));
+    }
+
+    private void compile(JavaCompiler compiler, List<String> options, Path... sourceFiles) {
+        List<String> arguments = new ArrayList<>(options);
+        Stream.of(sourceFiles).map(Path::toString).forEach(arguments::add);
+
+        int exitCode = compiler.run(null, null, null, arguments.toArray(String[]::new));
+        assertEquals(0, exitCode, "Compilation failed");
+    }
+
+    private void writeChecksIndex(Path indexFile, ChecksIndexes.ChecksIndex index) throws IOException {
+        Files.createDirectories(indexFile.getParent());
+        try (OutputStream os = Files.newOutputStream(indexFile)) {
+            ChecksIndexes.writeChecksIndex(index, os);
+        }
+    }
+
+    private Path writeClassFile(Path classesDir, Class<?> clazz) throws IOException {
+        Path classFile = classesDir.resolve(clazz.getName().replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+        return Files.write(classFile, readClassFile(clazz));
+    }
+
+    private byte[] readClassFile(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return Objects.requireNonNull(inputStream).readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import eu.cdevreeze.openlibertychecks.reflection.internal.ClassPathScanning;
+import jakarta.annotation.Resource;
+import jakarta.annotation.Resources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class file parsing tests, comparing the results with those of Java reflection.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClassFileParserTests {
+
+    @Resources({
+            @Resource(name = "jdbc/firstDS", lookup = "java:app/jdbc/firstDS"),
+            @Resource(name = "jms/queue", shareable = false, authenticationType = Resource.AuthenticationType.APPLICATION)
+    })
+    public static class SampleBean implements Runnable {
+
+        @Resource(name = "jdbc/secondDS", type = javax.sql.DataSource.class)
+        private Object dataSource;
+
+        private String[][] notAnnotated;
+
+        public SampleBean(int ignored) {
+        }
+
+        @Resource(lookup = "java:comp/DefaultManagedExecutorService")
+        public void setExecutor(Object executor) {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    private ClassInfo parseClass(Class<?> clazz) {
+        return ClassFileParser.parse(readClassFile(clazz));
+    }
+
+    private byte[] readClassFile(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return Objects.requireNonNull(inputStream).readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    public void testClassHeaderParsing() {
+        ClassInfo classInfo = parseClass(SampleBean.class);
+
+        assertEquals(SampleBean.class.getName(), classInfo.className());
+        assertEquals(Optional.of(Object.class.getName()), classInfo.superClassNameOption());
+        assertEquals(List.of(Runnable.class.getName()), classInfo.interfaceNames());
+        assertEquals(SampleBean.class.getPackageName(), classInfo.packageName());
+
+        assertEquals(
+                Arrays.stream(SampleBean.class.getDeclaredFields()).map(Field::getName).collect(Collectors.toSet()),
+                classInfo.fields().stream().map(MemberInfo::name).collect(Collectors.toSet())
+        );
+        assertEquals(
+                Arrays.stream(SampleBean.class.getDeclaredMethods()).map(Method::getName).collect(Collectors.toSet()),
+                classInfo.declaredMethods().stream().map(MemberInfo::name).collect(Collectors.toSet())
+        );
+        assertEquals(
+                List.of("ClassFileParserTests$SampleBean(int)"),
+                classInfo.declaredConstructors().stream().map(MemberInfo::signature).toList()
+        );
+        assertEquals(
+                Set.of("java.lang.Object dataSource", "java.lang.String[][] notAnnotated"),
+                classInfo.fields().stream().map(MemberInfo::signature).collect(Collectors.toSet())
+        );
+    }
+
+    @Test
+    public void testAnnotationParsing() {
+        ClassInfo classInfo = parseClass(SampleBean.class);
+
+        AnnotationInfo resources = classInfo.findAnnotation(Resources.class.getName()).orElseThrow();
+        List<AnnotationInfo> nestedResources = resources.nestedAnnotations("value");
+
+        assertEquals(
+                List.of(Optional.of("jdbc/firstDS"), Optional.of("jms/queue")),
+                nestedResources.stream().map(r -> r.elementValueAsStringOption("name")).toList()
+        );
+        assertEquals(
+                Optional.of(new AnnotationInfo.ConstValue(false)),
+                nestedResources.get(1).elementValueOption("shareable")
+        );
+        assertEquals(
+                Optional.of(new AnnotationInfo.EnumConstValue(Resource.AuthenticationType.class.getName(), "APPLICATION")),
+                nestedResources.get(1).elementValueOption("authenticationType")
+        );
+
+        assertEquals(
+                List.of("dataSource", "setExecutor"),
+                classInfo.annotatedMembers().stream().map(MemberInfo::name).toList()
+        );
+
+        MemberInfo dataSourceField = classInfo.annotatedMembers().get(0);
+        assertEquals(
+                Optional.of(new AnnotationInfo.ClassValue("javax.sql.DataSource")),
+                dataSourceField.findAnnotation(Resource.class.getName()).orElseThrow().elementValueOption("type")
+        );
+
+        MemberInfo setter = classInfo.annotatedMembers().get(1);
+        assertEquals("void setExecutor(java.lang.Object)", setter.signature());
+        assertEquals(
+                Optional.of("java:comp/DefaultManagedExecutorService"),
+                setter.findAnnotation(Resource.class.getName()).orElseThrow().elementValueAsStringOption("lookup")
+        );
+    }
+
+    @Test
+    public void testClassPathScanningWithoutClassLoading() throws URISyntaxException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+
+        List<ClassInfo> classInfos = ClassPathScanning.findClassInfos(rootDir);
+        List<Class<?>> classes = ClassPathScanning.findClasses(rootDir);
+
+        assertEquals(
+                classes.stream().map(Class::getName).collect(Collectors.toSet()),
+                classInfos.stream().map(ClassInfo::className).collect(Collectors.toSet())
+        );
+
+        assertTrue(
+                classInfos.stream()
+                        .filter(c -> c.className().endsWith(".ClassFileParser"))
+                        .allMatch(c -> c.superClassNameOption().equals(Optional.of(Object.class.getName())))
+        );
+    }
+
+    @Test
+    public void testConstantPoolPrefilter() {
+        ConstantPoolPrefilter resourcePrefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class);
+
+        assertTrue(resourcePrefilter.test(readClassFile(SampleBean.class)));
+        assertFalse(resourcePrefilter.test(readClassFile(ClassFileParser.class)));
+        assertFalse(resourcePrefilter.test(new byte[]{1, 2, 3}));
+
+        assertTrue(resourcePrefilter.matchesAnnotations(ClassFileParser.parse(readClassFile(SampleBean.class))));
+        assertFalse(resourcePrefilter.matchesAnnotations(ClassFileParser.parse(readClassFile(ClassFileParser.class))));
+
+        ConstantPoolPrefilter testPrefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Test.class);
+
+        assertTrue(testPrefilter.test(readClassFile(ClassFileParserTests.class)));
+    }
+
+    @Test
+    public void testClassInfoCache() throws URISyntaxException, IOException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+        Path cacheFile = Files.createTempFile("classInfoCache", ".bin");
+        ConstantPoolPrefilter prefilter = ConstantPoolPrefilter.forAnnotationTypes(Resource.class, Resources.class);
+
+        try {
+            ClassInfoCache firstCache = ClassInfoCache.open(cacheFile, prefilter);
+            List<ClassInfo> firstClassInfos = ClassPathScanning.findClassInfos(rootDir, firstCache, 2);
+            firstCache.save();
+
+            assertTrue(firstCache.analyzedCount() > 0);
+            assertEquals(0, firstCache.reusedCount());
+            assertEquals(ClassPathScanning.findClassInfos(rootDir, prefilter, 2), firstClassInfos);
+
+            ClassInfoCache secondCache = ClassInfoCache.open(cacheFile, prefilter);
+            List<ClassInfo> secondClassInfos = ClassPathScanning.findClassInfos(rootDir, secondCache, 2);
+
+            assertEquals(0, secondCache.analyzedCount());
+            assertEquals(firstCache.analyzedCount(), secondCache.reusedCount());
+            assertEquals(firstClassInfos, secondClassInfos);
+
+            ClassInfoCache otherPrefilterCache =
+                    ClassInfoCache.open(cacheFile, ConstantPoolPrefilter.forAnnotationTypes(Resource.class));
+            ClassPathScanning.findClassInfos(rootDir, otherPrefilterCache, 2);
+
+            assertEquals(0, otherPrefilterCache.reusedCount());
+        } finally {
+            Files.deleteIfExists(cacheFile);
+        }
+    }
+
+    @Test
+    public void testClassInfoCacheSaveFailure() throws IOException {
+        Path dir = Files.createTempDirectory("classInfoCacheDir");
+        // A non-empty directory in the place of the cache file, so replacing it by the temporary file fails
+        Path cacheFile = Files.createDirectory(dir.resolve("classInfoCache.bin"));
+        Path fileInCacheDir = Files.writeString(cacheFile.resolve("dummy.txt"), "dummy");
+
+        try {
+            ClassInfoCache cache =
+                    ClassInfoCache.open(cacheFile, ConstantPoolPrefilter.forAnnotationTypes(Resource.class));
+
+            assertThrows(UncheckedIOException.class, cache::save);
+
+            // The temporary file has been deleted
+            try (Stream<Path> pathStream = Files.list(dir)) {
+                assertEquals(List.of(cacheFile), pathStream.toList());
+            }
+        } finally {
+            Files.delete(fileInCacheDir);
+            Files.delete(cacheFile);
+            Files.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import com.google.common.collect.ImmutableList;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for reading Jandex indexes, comparing the converted index content with the results of
+ * {@link ClassFileParser}. The indexes are created with the Jandex {@link Indexer}, for classes compiled on the fly.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JandexIndexesTests {
+
+    private static final long CLASS_FILE_TIME = 1_700_000_000_000L;
+
+    private static final List<String> CLASS_FILE_NAMES = List.of(
+            "sample/Sample.class",
+            "sample/SampleBean.class",
+            "sample/SampleKind.class"
+    );
+
+    private Path dir;
+    private Path classesDir;
+
+    @BeforeAll
+    public void compileClasses() throws IOException {
+        dir = Files.createTempDirectory("jandexIndexes");
+        classesDir = Files.createDirectory(dir.resolve("classes"));
+        Path sourceDir = Files.createDirectories(dir.resolve("sources/sample"));
+
+        Path annotationSourceFile = Files.writeString(
+                sourceDir.resolve("Sample.java"),
+                """
+                        package sample;
+
+                        import jakarta.annotation.Resource;
+
+                        import java.lang.annotation.Retention;
+                        import java.lang.annotation.RetentionPolicy;
+
+                        @Retention(RetentionPolicy.RUNTIME)
+                        public @interface Sample {
+
+                            int[] ints() default {};
+
+                            String[] names() default {};
+
+                            Class<?> type();
+
+                            SampleKind kind() default SampleKind.FIRST;
+
+                            Resource nested() default @Resource;
+
+                            Resource[] nestedArray() default {};
+
+                            char character() default 'x';
+
+                            long number() default 1L;
+
+                            boolean flag() default false;
+                        }
+                        """
+        );
+        Path enumSourceFile = Files.writeString(
+                sourceDir.resolve("SampleKind.java"),
+                """
+                        package sample;
+
+                        public enum SampleKind {
+                            FIRST, SECOND
+                        }
+                        """
+        );
+        Path beanSourceFile = Files.writeString(
+                sourceDir.resolve("SampleBean.java"),
+                """
+                        package sample;
+
+                        import jakarta.annotation.Resource;
+
+                        @Sample(
+                                ints = {1, 2},
+                                names = {},
+                                type = String[].class,
+                                kind = SampleKind.SECOND,
+                                nested = @Resource(
+                                        name = "jdbc/ds",
+                                        authenticationType = Resource.AuthenticationType.APPLICATION
+                                ),
+                                nestedArray = {@Resource(name = "jms/queue"), @Resource(lookup = "java:app/jms/topic")},
+                                character = 'y',
+                                number = 42L,
+                                flag = true
+                        )
+                        public class SampleBean {
+
+                            @Sample(type = int.class, ints = {})
+                            private java.util.List<String>[] values;
+
+                            @Resource(name = "jdbc/otherDS", type = javax.sql.DataSource.class)
+                            private Object dataSource;
+
+                            public SampleBean(int[][] ignored) {
+                            }
+
+                            @Sample(type = void.class)
+                            public void setValues(java.util.Map<String, Integer> map, long[][] numbers, char c) {
+                            }
+
+                            public <T extends Number> T firstValue(java.util.List<? extends T> list) {
+                                return list.get(0);
+                            }
+                        }
+                        """
+        );
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(List.of(
+                "-d", classesDir.toString(),
+                "-classpath", System.getProperty("java.class.path"),
+                "-proc:none"
+        ));
+        Stream.of(annotationSourceFile, enumSourceFile, beanSourceFile).map(Path::toString).forEach(arguments::add);
+
+        int exitCode = compiler.run(null, null, null, arguments.toArray(String[]::new));
+        assertEquals(0, exitCode, "Compilation failed");
+    }
+
+    @AfterAll
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testJandexIndexMatchesClassFiles() throws IOException {
+        Path jarFile = writeJar("upToDate.jar", CLASS_FILE_NAMES, Optional.of(createJandexIndex(CLASS_FILE_NAMES)),
+                CLASS_FILE_TIME);
+
+        List<ClassInfo> parsedClassInfos = parseClassFiles(CLASS_FILE_NAMES);
+
+        try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+            Optional<List<ClassInfo>> indexedClassInfosOption = JandexIndexes.findClassInfosInJandexIndex(zipFile);
+
+            assertTrue(indexedClassInfosOption.isPresent(), "Up-to-date Jandex index considered stale");
+
+            List<ClassInfo> indexedClassInfos = indexedClassInfosOption.get();
+
+            assertEquals(
+                    parsedClassInfos.stream().map(ClassInfo::className).toList(),
+                    indexedClassInfos.stream().map(ClassInfo::className).toList()
+            );
+
+            for (int i = 0; i < parsedClassInfos.size(); i++) {
+                assertEquals(withSortedMembers(parsedClassInfos.get(i)), withSortedMembers(indexedClassInfos.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testConvertedAnnotationValues() throws IOException {
+        Path jarFile = writeJar("values.jar", CLASS_FILE_NAMES, Optional.of(createJandexIndex(CLASS_FILE_NAMES)),
+                CLASS_FILE_TIME);
+
+        try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+            ClassInfo sampleBean = JandexIndexes.findClassInfosInJandexIndex(zipFile).orElseThrow()
+                    .stream()
+                    .filter(c -> c.className().equals("sample.SampleBean"))
+                    .findFirst()
+                    .orElseThrow();
+
+            AnnotationInfo classAnnotation = sampleBean.annotations().get(0);
+
+            assertEquals(
+                    new AnnotationInfo.ArrayValue(ImmutableList.of(
+                            new AnnotationInfo.ConstValue(1),
+                            new AnnotationInfo.ConstValue(2)
+                    )),
+                    classAnnotation.elementValues().get("ints")
+            );
+            assertEquals(
+                    new AnnotationInfo.ArrayValue(ImmutableList.of()),
+                    classAnnotation.elementValues().get("names")
+            );
+            assertEquals(
+                    new AnnotationInfo.ClassValue("java.lang.String[]"),
+                    classAnnotation.elementValues().get("type")
+            );
+            assertEquals(
+                    new AnnotationInfo.EnumConstValue("sample.SampleKind", "SECOND"),
+                    classAnnotation.elementValues().get("kind")
+            );
+            assertEquals(
+                    Optional.of("jdbc/ds"),
+                    classAnnotation.nestedAnnotations("nested").get(0).elementValueAsStringOption("name")
+            );
+            assertEquals(2, classAnnotation.nestedAnnotations("nestedArray").size());
+            assertEquals(new AnnotationInfo.ConstValue('y'), classAnnotation.elementValues().get("character"));
+            assertEquals(new AnnotationInfo.ConstValue(42L), classAnnotation.elementValues().get("number"));
+            assertEquals(new AnnotationInfo.ConstValue(true), classAnnotation.elementValues().get("flag"));
+
+            MemberInfo valuesField = sampleBean.fields().stream()
+                    .filter(f -> f.name().equals("values"))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals("[Ljava/util/List;", valuesField.typeDescriptor());
+            assertEquals(
+                    new AnnotationInfo.ClassValue("int"),
+                    valuesField.annotations().get(0).elementValues().get("type")
+            );
+            assertEquals(
+                    new AnnotationInfo.ArrayValue(ImmutableList.of()),
+                    valuesField.annotations().get(0).elementValues().get("ints")
+            );
+
+            MemberInfo setter = sampleBean.methods().stream()
+                    .filter(m -> m.name().equals("setValues"))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals("(Ljava/util/Map;[[JC)V", setter.typeDescriptor());
+            assertEquals(
+                    new AnnotationInfo.ClassValue("void"),
+                    setter.annotations().get(0).elementValues().get("type")
+            );
+        }
+    }
+
+    @Test
+    public void testStaleJandexIndexes() throws IOException {
+        byte[] indexBytes = createJandexIndex(CLASS_FILE_NAMES);
+
+        // No index at all
+        Path jarWithoutIndex = writeJar("noIndex.jar", CLASS_FILE_NAMES, Optional.empty(), CLASS_FILE_TIME);
+
+        // A class file added after indexing
+        Path jarWithExtraClass = writeJar(
+                "extraClass.jar",
+                CLASS_FILE_NAMES,
+                Optional.of(createJandexIndex(CLASS_FILE_NAMES.subList(0, 2))),
+                CLASS_FILE_TIME
+        );
+
+        // A class file removed after indexing
+        Path jarWithMissingClass =
+                writeJar("missingClass.jar", CLASS_FILE_NAMES.subList(0, 2), Optional.of(indexBytes), CLASS_FILE_TIME);
+
+        // The index is older than the class files
+        Path jarWithOldIndex =
+                writeJar("oldIndex.jar", CLASS_FILE_NAMES, Optional.of(indexBytes), CLASS_FILE_TIME - 3_600_000L);
+
+        // An unreadable index
+        Path jarWithGarbledIndex =
+                writeJar("garbledIndex.jar", CLASS_FILE_NAMES, Optional.of(new byte[]{1, 2, 3}), CLASS_FILE_TIME);
+
+        for (Path jarFile : List.of(jarWithoutIndex, jarWithExtraClass, jarWithMissingClass, jarWithOldIndex,
+                jarWithGarbledIndex)) {
+            try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+                assertEquals(
+                        Optional.empty(),
+                        JandexIndexes.findClassInfosInJandexIndex(zipFile),
+                        "Stale index used in " + jarFile.getFileName()
+                );
+            }
+        }
+    }
+
+    private byte[] createJandexIndex(List<String> classFileNames) throws IOException {
+        Indexer indexer = new Indexer();
+        for (String classFileName : classFileNames) {
+            indexer.index(new ByteArrayInputStream(Files.readAllBytes(classesDir.resolve(classFileName))));
+        }
+        Index index = indexer.complete();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new IndexWriter(bos).write(index);
+        return bos.toByteArray();
+    }
+
+    private Path writeJar(
+            String jarFileName,
+            List<String> classFileNames,
+            Optional<byte[]> indexBytesOption,
+            long indexTime
+    ) throws IOException {
+        Path jarFile = dir.resolve(jarFileName);
+
+        try (OutputStream os = Files.newOutputStream(jarFile); ZipOutputStream zos = new ZipOutputStream(os)) {
+            for (String classFileName : classFileNames) {
+                writeEntry(zos, classFileName, Files.readAllBytes(classesDir.resolve(classFileName)), CLASS_FILE_TIME);
+            }
+            if (indexBytesOption.isPresent()) {
+                writeEntry(zos, JandexIndexes.JANDEX_INDEX_ENTRY_NAME, indexBytesOption.get(), indexTime);
+            }
+        }
+        return jarFile;
+    }
+
+    private void writeEntry(ZipOutputStream zos, String entryName, byte[] bytes, long time) throws IOException {
+        ZipEntry entry = new ZipEntry(entryName);
+        entry.setTime(time);
+        zos.putNextEntry(entry);
+        zos.write(bytes);
+        zos.closeEntry();
+    }
+
+    private List<ClassInfo> parseClassFiles(List<String> classFileNames) throws IOException {
+        List<ClassInfo> classInfos = new ArrayList<>();
+        for (String classFileName : classFileNames) {
+            classInfos.add(ClassFileParser.parse(Files.readAllBytes(classesDir.resolve(classFileName))));
+        }
+        return classInfos.stream().sorted(Comparator.comparing(ClassInfo::className)).toList();
+    }
+
+    /**
+     * Returns the same ClassInfo, but with fields and methods sorted by name and descriptor, since Jandex does not
+     * retain the declaration order of members.
+     */
+    private ClassInfo withSortedMembers(ClassInfo classInfo) {
+        Comparator<MemberInfo> memberComparator =
+                Comparator.comparing(MemberInfo::name).thenComparing(MemberInfo::typeDescriptor);
+
+        return new ClassInfo(
+                classInfo.className(),
+                classInfo.accessFlags(),
+                classInfo.superClassNameOption(),
+                classInfo.interfaceNames(),
+                classInfo.annotations(),
+                classInfo.fields().stream().sorted(memberComparator).collect(ImmutableList.toImmutableList()),
+                classInfo.methods().stream().sorted(memberComparator).collect(ImmutableList.toImmutableList())
+        );
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.classfile;
+
+import eu.cdevreeze.openlibertychecks.reflection.internal.ClassPathScanning;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.http.HttpSessionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.EventListener;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Class file based type hierarchy tests, comparing the results with those of Java reflection.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TypeHierarchyTests {
+
+    @WebListener
+    public static class SampleListener implements HttpSessionListener {
+    }
+
+    @Test
+    public void testTypeHierarchy() throws URISyntaxException, ClassNotFoundException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+        List<ClassInfo> classInfos = ClassPathScanning.findClassInfos(rootDir);
+        ClassInfo sampleListener = parseClass(SampleListener.class);
+
+        TypeHierarchy typeHierarchy = TypeHierarchy.build(
+                Stream.concat(classInfos.stream(), Stream.of(sampleListener)).toList(),
+                TypeHierarchy.classFileResolver(getClass().getClassLoader())
+        );
+
+        assertTrue(typeHierarchy.isKnownType(Record.class.getName()));
+        assertTrue(typeHierarchy.isKnownType(EventListener.class.getName()));
+
+        List<Class<?>> supertypes = List.of(Object.class, Runnable.class, EventListener.class, Record.class, Enum.class);
+
+        for (ClassInfo classInfo : classInfos) {
+            Class<?> clazz = Class.forName(classInfo.className());
+
+            for (Class<?> supertype : supertypes) {
+                assertEquals(supertype.isAssignableFrom(clazz), typeHierarchy.isSubtypeOf(classInfo.className(), supertype));
+            }
+        }
+
+        assertEquals(
+                List.of(SampleListener.class.getName(), HttpSessionListener.class.getName(), EventListener.class.getName()),
+                typeHierarchy.findSubtypeNames(EventListener.class.getName())
+        );
+    }
+
+    private ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
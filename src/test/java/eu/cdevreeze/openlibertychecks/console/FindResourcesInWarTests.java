@@ -0,0 +1,299 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console;
+
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiEnvironmentRefElement;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Element;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import javax.xml.namespace.QName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.AnnotatedElement;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests checking that the class file based resource report has the same format as the reflection-based one.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FindResourcesInWarTests {
+
+    @Resource(name = "jdbc/classLevelDS", type = javax.sql.DataSource.class)
+    public static class SampleResourceBean {
+
+        @Resource(name = "jdbc/myDS", lookup = "java:app/jdbc/myDS")
+        private static Object dataSource;
+
+        @Resource(shareable = false, authenticationType = Resource.AuthenticationType.APPLICATION)
+        protected Runnable[] tasks;
+
+        @Resource(description = "executor")
+        public final synchronized void setExecutor(Executor executor, int ignored) {
+        }
+    }
+
+    @Test
+    public void testClassFileBasedReportFormat() throws NoSuchFieldException, NoSuchMethodException {
+        ClassInfo classInfo = parseClass(SampleResourceBean.class);
+
+        assertSameXml(SampleResourceBean.class, classInfo, findResourceAnnotation(classInfo.annotations()));
+
+        for (MemberInfo member : classInfo.fields()) {
+            assertSameXml(
+                    SampleResourceBean.class.getDeclaredField(member.name()),
+                    member,
+                    findResourceAnnotation(member.annotations())
+            );
+        }
+
+        MemberInfo setter = findMember(classInfo, "setExecutor");
+        assertSameXml(
+                SampleResourceBean.class.getMethod("setExecutor", Executor.class, int.class),
+                setter,
+                findResourceAnnotation(setter.annotations())
+        );
+    }
+
+    @Test
+    public void testSharedSuperclassInClassesDir() throws IOException {
+        Path warDir = Files.createTempDirectory("war");
+        Path sourceDir = Files.createDirectories(warDir.resolve("src/sample"));
+        Path classesDir = Files.createDirectories(warDir.resolve("WEB-INF/classes"));
+
+        try {
+            // Both subclasses inherit the public annotated setter and field of the superclass
+            List<Path> sourceFiles = List.of(
+                    Files.writeString(
+                            sourceDir.resolve("Base.java"),
+                            "package sample; import jakarta.annotation.Resource; public class Base { " +
+                                    "@Resource(name = \"jdbc/baseDS\") public Object dataSource; " +
+                                    "@Resource(name = \"executor\") public void setExecutor(Object executor) { } }"
+                    ),
+                    Files.writeString(
+                            sourceDir.resolve("First.java"),
+                            "package sample; public class First extends Base { }"
+                    ),
+                    Files.writeString(
+                            sourceDir.resolve("Second.java"),
+                            "package sample; public class Second extends Base { }"
+                    )
+            );
+            List<String> compilerArgs = Stream.concat(
+                    Stream.of("-cp", System.getProperty("java.class.path"), "-d", classesDir.toString()),
+                    sourceFiles.stream().map(Path::toString)
+            ).toList();
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            assertEquals(0, compiler.run(null, null, null, compilerArgs.toArray(String[]::new)));
+
+            Map<AnnotatedInfo, List<AnnotationInfo>> resources =
+                    FindResourcesInWar.findResourceDescriptorsInClassesDir(warDir);
+
+            assertEquals(
+                    List.of("executor", "jdbc/baseDS"),
+                    resources.values().stream()
+                            .flatMap(List::stream)
+                            .map(a -> a.elementValueAsStringOption("name").orElseThrow())
+                            .distinct()
+                            .sorted()
+                            .toList()
+            );
+        } finally {
+            deleteRecursively(warDir);
+        }
+    }
+
+    @Test
+    public void testCyclicVariablesInServerXml() throws IOException {
+        Path warDir = Files.createTempDirectory("war");
+        Files.createDirectories(warDir.resolve("WEB-INF/classes"));
+        Path serverConfigDir = Files.createTempDirectory("serverConfig");
+        Files.writeString(
+                serverConfigDir.resolve("server.xml"),
+                """
+                        <server>
+                            <variable name="a" value="${b}"/>
+                            <variable name="b" value="${a}"/>
+                            <dataSource id="cyclic" jndiName="jdbc/${a}"/>
+                            <dataSource id="plain" jndiName="jdbc/plain"/>
+                        </server>
+                        """
+        );
+
+        try {
+            // The configuration error does not abort the report, but the unresolved JNDI name shows up in it
+            Element report = FindResourcesInWar.findResourcesAsXml(warDir, List.of(serverConfigDir));
+
+            assertEquals(
+                    List.of("jdbc/${a}", "jdbc/plain"),
+                    report.childElementStream()
+                            .filter(e -> e.elementName().getLocalPart().equals("jndiNameMatches"))
+                            .flatMap(Element::childElementStream)
+                            .filter(e -> e.elementName().getLocalPart().equals("unreferencedServerXmlProviders"))
+                            .flatMap(Element::childElementStream)
+                            .map(e -> e.attributeOption(new QName("name")).orElseThrow())
+                            .toList()
+            );
+        } finally {
+            deleteRecursively(warDir);
+            deleteRecursively(serverConfigDir);
+        }
+    }
+
+    @Test
+    public void testPackedAndExplodedWarDeploymentDescriptors() throws IOException {
+        Path warDir = Files.createTempDirectory("war");
+        Path archiveDir = Files.createTempDirectory("archives");
+        String webXml = """
+                <web-app xmlns="https://jakarta.ee/xml/ns/jakartaee" version="6.0">
+                    <resource-ref><res-ref-name>jdbc/webDS</res-ref-name></resource-ref>
+                </web-app>
+                """;
+        String ejbJarXml = """
+                <ejb-jar xmlns="https://jakarta.ee/xml/ns/jakartaee" version="4.0">
+                    <enterprise-beans>
+                        <session>
+                            <ejb-name>SampleBean</ejb-name>
+                            <resource-ref><res-ref-name>jdbc/ejbDS</res-ref-name></resource-ref>
+                        </session>
+                    </enterprise-beans>
+                </ejb-jar>
+                """;
+
+        try {
+            // A library JAR in the WAR, with its own deployment descriptor, which is not opened by the directory walk
+            byte[] libJar = zip(Map.of("META-INF/ejb-jar.xml", ejbJarXml));
+            Files.createDirectories(warDir.resolve("WEB-INF/lib"));
+            Files.writeString(warDir.resolve("WEB-INF/web.xml"), webXml);
+            Files.write(warDir.resolve("WEB-INF/lib/lib.jar"), libJar);
+
+            byte[] war = zip(Map.of("WEB-INF/web.xml", webXml, "WEB-INF/lib/lib.jar", libJar));
+            Path warFile = Files.write(archiveDir.resolve("app.war"), war);
+
+            List<String> explodedWarRefNames =
+                    refNames(FindResourcesInWar.findJndiEnvironmentRefsInDeploymentDescriptors(List.of(warDir)));
+
+            assertEquals(List.of("jdbc/webDS"), explodedWarRefNames);
+            assertEquals(
+                    explodedWarRefNames,
+                    refNames(FindResourcesInWar.findJndiEnvironmentRefsInArchiveDeploymentDescriptors(warFile))
+            );
+
+            // The EJB module of an EAR file is scanned, but the library JARs of the EAR file and its WAR are not
+            byte[] ear = zip(Map.of("app.war", war, "ejb.jar", libJar, "lib/lib.jar", libJar));
+            Path earFile = Files.write(archiveDir.resolve("app.ear"), ear);
+
+            assertEquals(
+                    List.of("jdbc/ejbDS", "jdbc/webDS"),
+                    refNames(FindResourcesInWar.findJndiEnvironmentRefsInArchiveDeploymentDescriptors(earFile))
+                            .stream()
+                            .sorted()
+                            .toList()
+            );
+        } finally {
+            deleteRecursively(warDir);
+            deleteRecursively(archiveDir);
+        }
+    }
+
+    private void assertSameXml(
+            AnnotatedElement annotatedElement,
+            AnnotatedInfo annotatedInfo,
+            AnnotationInfo annotationInfo
+    ) {
+        FindResourcesInWar.ResourceAnnotationInfo reflectionBasedInfo = new FindResourcesInWar.ResourceAnnotationInfo(
+                annotatedElement,
+                Objects.requireNonNull(annotatedElement.getAnnotation(Resource.class))
+        );
+        FindResourcesInWar.ResourceAnnotationClassFileInfo classFileBasedInfo =
+                new FindResourcesInWar.ResourceAnnotationClassFileInfo(annotatedInfo, annotationInfo);
+
+        assertEquals(reflectionBasedInfo.toXml(), classFileBasedInfo.toXml());
+    }
+
+    private static AnnotationInfo findResourceAnnotation(List<AnnotationInfo> annotations) {
+        return annotations.stream().filter(a -> a.hasType(Resource.class)).findFirst().orElseThrow();
+    }
+
+    private static MemberInfo findMember(ClassInfo classInfo, String name) {
+        return classInfo.methods().stream().filter(m -> m.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> refNames(List<JndiEnvironmentRefElement> jndiEnvironmentRefs) {
+        return jndiEnvironmentRefs.stream().map(JndiEnvironmentRefElement::name).toList();
+    }
+
+    /**
+     * Returns the bytes of a ZIP file with the given entries, whose values are either strings or byte arrays.
+     */
+    private static byte[] zip(Map<String, ?> entries) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            for (Map.Entry<String, ?> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue() instanceof String text ?
+                        text.getBytes(StandardCharsets.UTF_8) :
+                        (byte[]) entry.getValue());
+                zos.closeEntry();
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(dir)) {
+            for (Path p : pathStream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex.JndiName;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex.JndiProvider;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex.Match;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex.Scope;
+import eu.cdevreeze.openlibertychecks.console.internal.JndiNameIndex.Source;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.ServerXmlJndiResource;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariableResolver;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.config.ConfigVariables;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.factories.ServerXmlJndiResources;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiEnvironmentRefElement;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.JndiResourceContainerElement;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.factories.JndiResourceContainerElements;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.xml.sax.InputSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JndiNameIndex tests, joining Resource annotations, deployment descriptor elements and server.xml resources.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JndiNameIndexTests {
+
+    private static final String WEB_XML = """
+            <web-app xmlns="https://jakarta.ee/xml/ns/jakartaee" version="6.0">
+                <env-entry>
+                    <env-entry-name>config/greeting</env-entry-name>
+                    <env-entry-type>java.lang.String</env-entry-type>
+                    <env-entry-value>Hello</env-entry-value>
+                </env-entry>
+                <resource-ref>
+                    <res-ref-name>jdbc/overridden</res-ref-name>
+                    <lookup-name>jdbc/fromDescriptor</lookup-name>
+                </resource-ref>
+            </web-app>
+            """;
+
+    private static final String SERVER_XML = """
+            <server>
+                <dataSource id="defaultBound" jndiName="jdbc/defaultBound"/>
+                <dataSource id="fromDescriptor" jndiName="jdbc/fromDescriptor"/>
+                <dataSource id="fromAnnotation" jndiName="jdbc/fromAnnotation"/>
+                <dataSource id="variable" jndiName="${ds.prefix}/variable"/>
+            </server>
+            """;
+
+    @Resource(name = "config/greeting")
+    public static class SampleResourceBean {
+
+        @Resource
+        private Object defaultNamedField;
+
+        @Resource(name = "jdbc/overridden", lookup = "jdbc/fromAnnotation")
+        private Object overriddenDataSource;
+
+        @Resource(name = "jdbc/defaultBound")
+        private Object defaultBoundDataSource;
+
+        @Resource(name = "jdbc/variable")
+        private Object variableDataSource;
+
+        @Resource
+        public void setDefaultNamedProperty(Object value) {
+        }
+
+        @Resource
+        public void setURL(Object value) {
+        }
+    }
+
+    private ClassInfo classInfo;
+    private JndiNameIndex index;
+
+    @BeforeAll
+    public void createIndex() {
+        classInfo = parseClass(SampleResourceBean.class);
+
+        ConfigVariableResolver resolver = new ConfigVariableResolver(ConfigVariables.of(List.of(
+                new ConfigVariables.Layer("value", ImmutableMap.of("ds.prefix", "jdbc"))
+        )));
+
+        index = JndiNameIndex.of(
+                findResourceAnnotations(classInfo),
+                findJndiEnvironmentRefElements(parse(WEB_XML)),
+                findServerXmlJndiResources(parse(SERVER_XML)),
+                resolver::resolve
+        );
+    }
+
+    @Test
+    public void testScopeParsing() {
+        assertEquals(new JndiName(Scope.COMP_ENV, "jdbc/a"), JndiName.parseReferenceName("java:comp/env/jdbc/a"));
+        assertEquals(new JndiName(Scope.COMP_ENV, "jdbc/a"), JndiName.parseLookupName("java:comp/env/jdbc/a"));
+        assertEquals(new JndiName(Scope.COMP, "ORB"), JndiName.parseReferenceName("java:comp/ORB"));
+        assertEquals(new JndiName(Scope.MODULE, "jdbc/a"), JndiName.parseLookupName("java:module/jdbc/a"));
+        assertEquals(new JndiName(Scope.APP, "jdbc/a"), JndiName.parseLookupName("java:app/jdbc/a"));
+        assertEquals(new JndiName(Scope.GLOBAL, "jdbc/a"), JndiName.parseLookupName(" java:global/jdbc/a "));
+
+        assertEquals(new JndiName(Scope.COMP_ENV, "jdbc/a"), JndiName.parseReferenceName("jdbc/a"));
+        assertEquals(new JndiName(Scope.SERVER, "jdbc/a"), JndiName.parseLookupName("jdbc/a"));
+        assertEquals(new JndiName(Scope.SERVER, "java:other/a"), JndiName.parseReferenceName("java:other/a"));
+
+        assertEquals("java:comp/env/jdbc/a", JndiName.parseReferenceName("jdbc/a").toString());
+        assertEquals("jdbc/a", JndiName.parseLookupName("jdbc/a").toString());
+    }
+
+    @Test
+    public void testDefaultReferenceNames() {
+        String className = classInfo.className();
+
+        assertEquals(
+                new JndiName(Scope.SERVER, className + "/defaultNamedField"),
+                findMatch(new JndiName(Scope.COMP_ENV, className + "/defaultNamedField")).target()
+        );
+        assertTrue(findMatchOption(new JndiName(Scope.COMP_ENV, className + "/defaultNamedProperty")).isPresent());
+        assertTrue(findMatchOption(new JndiName(Scope.COMP_ENV, className + "/URL")).isPresent());
+
+        assertFalse(findMatchOption(new JndiName(Scope.COMP_ENV, className + "/setDefaultNamedProperty")).isPresent());
+    }
+
+    @Test
+    public void testDescriptorLookupOverridesAnnotationLookup() {
+        Match match = index.matches().stream()
+                .filter(m -> m.reference().name().equals(new JndiName(Scope.COMP_ENV, "jdbc/overridden")))
+                .filter(m -> m.reference().source() == Source.RESOURCE_ANNOTATION)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(Optional.of(new JndiName(Scope.SERVER, "jdbc/fromDescriptor")), match.reference().lookupOption());
+        assertEquals(new JndiName(Scope.SERVER, "jdbc/fromDescriptor"), match.target());
+        assertTrue(match.isMatched());
+    }
+
+    @Test
+    public void testDefaultBindingInServerNamespace() {
+        Match match = findMatch(new JndiName(Scope.COMP_ENV, "jdbc/defaultBound"));
+
+        assertEquals(Optional.empty(), match.reference().lookupOption());
+        assertEquals(new JndiName(Scope.SERVER, "jdbc/defaultBound"), match.target());
+        assertEquals(
+                List.of(Source.SERVER_XML),
+                match.providers().stream().map(JndiProvider::source).toList()
+        );
+    }
+
+    @Test
+    public void testEnvEntryAsProvider() {
+        JndiName name = new JndiName(Scope.COMP_ENV, "config/greeting");
+
+        assertEquals(
+                List.of(Source.DEPLOYMENT_DESCRIPTOR),
+                index.findProviders(name).stream().map(JndiProvider::source).toList()
+        );
+        assertTrue(index.references().stream()
+                .noneMatch(r -> r.source() == Source.DEPLOYMENT_DESCRIPTOR && r.name().equals(name)));
+
+        Match match = findMatch(name);
+
+        assertEquals(name, match.target());
+        assertTrue(match.isMatched());
+    }
+
+    @Test
+    public void testResolvedServerXmlJndiName() {
+        Match match = findMatch(new JndiName(Scope.COMP_ENV, "jdbc/variable"));
+
+        assertEquals(new JndiName(Scope.SERVER, "jdbc/variable"), match.target());
+        assertTrue(match.isMatched());
+        assertTrue(index.findProviders(new JndiName(Scope.SERVER, "${ds.prefix}/variable")).isEmpty());
+    }
+
+    @Test
+    public void testUnreferencedServerXmlProviders() {
+        assertEquals(
+                List.of(new JndiName(Scope.SERVER, "jdbc/fromAnnotation")),
+                index.unreferencedServerXmlProviders().stream().map(JndiProvider::name).toList()
+        );
+
+        String className = classInfo.className();
+
+        assertEquals(
+                ImmutableSet.of(
+                        new JndiName(Scope.SERVER, className + "/defaultNamedField"),
+                        new JndiName(Scope.SERVER, className + "/defaultNamedProperty"),
+                        new JndiName(Scope.SERVER, className + "/URL")
+                ),
+                index.unmatchedReferences().stream().map(Match::target).collect(ImmutableSet.toImmutableSet())
+        );
+    }
+
+    private Match findMatch(JndiName referenceName) {
+        return findMatchOption(referenceName).orElseThrow();
+    }
+
+    private Optional<Match> findMatchOption(JndiName referenceName) {
+        return index.matches().stream().filter(m -> m.reference().name().equals(referenceName)).findFirst();
+    }
+
+    private static Map<AnnotatedInfo, List<AnnotationInfo>> findResourceAnnotations(ClassInfo classInfo) {
+        Map<AnnotatedInfo, List<AnnotationInfo>> result = new LinkedHashMap<>();
+        Stream.concat(Stream.of(classInfo), Stream.concat(classInfo.fields().stream(), classInfo.methods().stream()))
+                .forEach(annotatedInfo -> {
+                    List<AnnotationInfo> annotations = annotatedInfo.annotations().stream()
+                            .filter(a -> a.hasType(Resource.class))
+                            .toList();
+                    if (!annotations.isEmpty()) {
+                        result.put(annotatedInfo, annotations);
+                    }
+                });
+        return result;
+    }
+
+    private static List<JndiEnvironmentRefElement> findJndiEnvironmentRefElements(AncestryAwareNodes.Element webApp) {
+        return JndiResourceContainerElement.findJndiEnvironmentRefElements(
+                JndiResourceContainerElements.newInstance(webApp)
+        );
+    }
+
+    private static List<ServerXmlJndiResource> findServerXmlJndiResources(AncestryAwareNodes.Element server) {
+        return server.childElementStream()
+                .flatMap(e -> ServerXmlJndiResources.optionalInstance(e).stream())
+                .toList();
+    }
+
+    private static AncestryAwareNodes.Element parse(String xml) {
+        return AncestryAwareDocument.from(
+                DocumentParsers.builder().removingInterElementWhitespace().build()
+                        .parse(new InputSource(new StringReader(xml)))
+        ).documentElement();
+    }
+
+    private static ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import eu.cdevreeze.openlibertychecks.console.FindResourcesInWar;
+import eu.cdevreeze.openlibertychecks.xml.jakartaee10.Names;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * XML descriptor root element tests, classifying the XML files of a small directory with mixed content.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class XmlDescriptorRootsTests {
+
+    private Path rootDir;
+
+    @BeforeAll
+    public void createXmlFiles() throws IOException {
+        rootDir = Files.createTempDirectory("xmlDescriptorRoots");
+        Path webInfDir = Files.createDirectories(rootDir.resolve("WEB-INF"));
+        Path metaInfDir = Files.createDirectories(webInfDir.resolve("classes/META-INF"));
+        Path configDir = Files.createDirectories(rootDir.resolve("config"));
+
+        Files.writeString(
+                webInfDir.resolve("web.xml"),
+                "<web-app xmlns=\"" + Names.JAKARTAEE_NS + "\" version=\"6.0\">" +
+                        "<resource-ref><res-ref-name>jdbc/sampleDS</res-ref-name></resource-ref></web-app>"
+        );
+        Files.writeString(
+                webInfDir.resolve("ejb-jar.xml"),
+                "<ejb-jar xmlns=\"" + Names.JAKARTAEE_NS + "\" version=\"4.0\"></ejb-jar>"
+        );
+        Files.writeString(
+                webInfDir.resolve("beans.xml"),
+                "<beans xmlns=\"" + Names.JAKARTAEE_NS + "\" version=\"4.0\"></beans>"
+        );
+        Files.writeString(
+                metaInfDir.resolve("persistence.xml"),
+                "<persistence xmlns=\"" + Names.JAKARTA_PERSISTENCE_NS + "\" version=\"3.0\"></persistence>"
+        );
+        Files.writeString(
+                configDir.resolve("server.xml"),
+                "<server><featureManager><feature>servlet-6.0</feature></featureManager>" +
+                        "<dataSource id=\"ds\" jndiName=\"jdbc/sampleDS\"/></server>"
+        );
+
+        // Not descriptors of a known kind, or not XML files at all
+        Files.writeString(
+                configDir.resolve("pom.xml"),
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"></project>"
+        );
+        Files.writeString(webInfDir.resolve("web-app.xml"), "<web-app>"); // not well-formed
+        Files.writeString(configDir.resolve("server.txt"), "<server/>");
+    }
+
+    @AfterAll
+    public void deleteXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(rootDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testClassification() {
+        XmlDescriptorRoots descriptorRoots = XmlDescriptorRoots.findInDirectories(List.of(rootDir));
+
+        // Exactly one descriptor of each kind, so the non-descriptors and unparseable files are ignored
+        for (XmlDescriptorRoots.DescriptorKind kind : XmlDescriptorRoots.DescriptorKind.values()) {
+            assertEquals(
+                    List.of(kind.rootElementName()),
+                    descriptorRoots.rootElements(kind).stream().map(AncestryAwareNodes.Element::name).toList()
+            );
+        }
+
+        // The parallel variant gives the same result
+        XmlDescriptorRoots parallelDescriptorRoots = XmlDescriptorRoots.findInDirectories(List.of(rootDir), 4);
+
+        for (XmlDescriptorRoots.DescriptorKind kind : XmlDescriptorRoots.DescriptorKind.values()) {
+            assertEquals(
+                    descriptorRoots.rootElements(kind).stream().map(AncestryAwareNodes.Element::name).toList(),
+                    parallelDescriptorRoots.rootElements(kind).stream().map(AncestryAwareNodes.Element::name).toList()
+            );
+        }
+    }
+
+    @Test
+    public void testFindResourcesInWarHelpers() {
+        assertEquals(List.of("servlet-6.0"), FindResourcesInWar.findEnabledFeaturesInServerXmlFiles(List.of(rootDir)));
+        assertEquals(1, FindResourcesInWar.findJndiResourcesInServerXmlFiles(List.of(rootDir)).size());
+        assertEquals(1, FindResourcesInWar.findJndiEnvironmentRefsInDeploymentDescriptors(List.of(rootDir)).size());
+    }
+}
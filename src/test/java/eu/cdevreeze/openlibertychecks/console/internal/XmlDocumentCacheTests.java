@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Document;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParser;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * XML document cache tests, checking LRU eviction, the byte estimate, the counters and invalidation.
+ * Each miss is a parse, so the miss count is also the number of parsed documents.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class XmlDocumentCacheTests {
+
+    private static final int FILE_SIZE = 100;
+
+    // The cache estimates 10 retained bytes per file byte, so 3 files fit
+    private static final long MAX_BYTES = 3 * 10 * FILE_SIZE;
+
+    private Path dir;
+
+    @BeforeAll
+    public void createXmlFiles() throws IOException {
+        dir = Files.createTempDirectory("xmlDocumentCache");
+
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            writeXmlFile(name, FILE_SIZE);
+        }
+        writeXmlFile("large", 4 * FILE_SIZE);
+    }
+
+    @AfterAll
+    public void deleteXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        XmlDocumentCache cache = new XmlDocumentCache(MAX_BYTES);
+        DocumentParser parser = DocumentParsers.builder().removingInterElementWhitespace().build();
+
+        Document docA = cache.getOrParse(xmlFile("a"), parser);
+        cache.getOrParse(xmlFile("b"), parser);
+        cache.getOrParse(xmlFile("c"), parser);
+
+        assertEquals(3, cache.size());
+        assertEquals(MAX_BYTES, cache.estimatedBytes());
+        assertEquals(0, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        assertEquals("a", docA.documentElement().attribute(new QName("name")));
+
+        // Using "a" makes "b" the least recently used entry
+        assertSame(docA, cache.getOrParse(xmlFile("a"), parser));
+        assertEquals(1, cache.hitCount());
+
+        cache.getOrParse(xmlFile("d"), parser);
+
+        assertEquals(3, cache.size());
+        assertEquals(MAX_BYTES, cache.estimatedBytes());
+        assertEquals(4, cache.missCount());
+
+        // "a", "c" and "d" are still cached, but "b" has been evicted
+        cache.getOrParse(xmlFile("a"), parser);
+        cache.getOrParse(xmlFile("c"), parser);
+        cache.getOrParse(xmlFile("d"), parser);
+        assertEquals(4, cache.hitCount());
+        assertEquals(4, cache.missCount());
+
+        cache.getOrParse(xmlFile("b"), parser);
+        assertEquals(5, cache.missCount());
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.estimatedBytes());
+    }
+
+    @Test
+    public void testTooLargeDocumentsAreNotCached() {
+        XmlDocumentCache cache = new XmlDocumentCache(MAX_BYTES);
+        DocumentParser parser = DocumentParsers.builder().removingInterElementWhitespace().build();
+
+        cache.getOrParse(xmlFile("a"), parser);
+        cache.getOrParse(xmlFile("large"), parser);
+        cache.getOrParse(xmlFile("large"), parser);
+
+        assertEquals(1, cache.size());
+        assertEquals(10L * FILE_SIZE, cache.estimatedBytes());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    public void testInvalidationOnModification() throws IOException {
+        XmlDocumentCache cache = new XmlDocumentCache(MAX_BYTES);
+        DocumentParser parser = DocumentParsers.builder().removingInterElementWhitespace().build();
+
+        Path file = writeXmlFile("e", FILE_SIZE);
+        Document oldDoc = cache.getOrParse(file, parser);
+        assertSame(oldDoc, cache.getOrParse(file, parser));
+
+        // Same size, but a different modification time
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+
+        cache.getOrParse(file, parser);
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        // The new version replaces the old one, so the byte estimate is not counted twice
+        assertEquals(1, cache.size());
+        assertEquals(10L * FILE_SIZE, cache.estimatedBytes());
+    }
+
+    private Path xmlFile(String name) {
+        return dir.resolve(name + ".xml");
+    }
+
+    private Path writeXmlFile(String name, int size) throws IOException {
+        String root = "<doc name=\"" + name + "\"/>";
+        Path file = xmlFile(name);
+        Files.writeString(file, root + " ".repeat(size - root.length()));
+        return file;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.console.internal;
+
+import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * XML root element finder tests, comparing the parallel and sequential variants.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class XmlRootElementFinderTests {
+
+    private static final int FILE_COUNT = 60;
+
+    private Path rootDir;
+
+    @BeforeAll
+    public void createXmlFiles() throws IOException {
+        rootDir = Files.createTempDirectory("xmlRootElementFinder");
+
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Path dir = rootDir.resolve("dir" + (i % 7));
+            Files.createDirectories(dir);
+            String content = switch (i % 3) {
+                case 0 -> "<server description=\"server" + i + "\"><featureManager/></server>";
+                case 1 -> "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><name>project" + i + "</name></project>";
+                default -> "<server description=\"broken" + i + "\">"; // not well-formed
+            };
+            Files.writeString(dir.resolve("file" + i + ".xml"), content);
+        }
+        Files.writeString(rootDir.resolve("notes.txt"), "<server description=\"not an XML file name\"/>");
+    }
+
+    @AfterAll
+    public void deleteXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(rootDir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelFindingEqualsSequentialFinding() {
+        ImmutableList<AncestryAwareNodes.Element> sequentialResult = XmlRootElementFinder.findXmlRootElementsByName(
+                rootDir,
+                p -> p.getFileName().toString().endsWith(".xml"),
+                n -> n.equals(new QName("server"))
+        );
+
+        List<String> expectedDescriptions = IntStream.range(0, FILE_COUNT)
+                .filter(i -> i % 3 == 0)
+                .mapToObj(i -> "server" + i)
+                .sorted()
+                .toList();
+
+        assertEquals(expectedDescriptions, descriptions(sequentialResult).stream().sorted().toList());
+
+        for (int parallelism : List.of(1, 2, 4, 16)) {
+            ImmutableList<AncestryAwareNodes.Element> parallelResult = XmlRootElementFinder.findXmlRootElementsByName(
+                    rootDir,
+                    p -> p.getFileName().toString().endsWith(".xml"),
+                    n -> n.equals(new QName("server")),
+                    parallelism
+            );
+
+            // Same elements, in the same (directory walk) order
+            assertEquals(descriptions(sequentialResult), descriptions(parallelResult));
+        }
+    }
+
+    @Test
+    public void testFindRootElementName() {
+        assertEquals(
+                Optional.of(new QName("http://maven.apache.org/POM/4.0.0", "project")),
+                XmlRootElementFinder.findRootElementName(rootDir.resolve("dir1").resolve("file1.xml"))
+        );
+        assertEquals(
+                Optional.empty(),
+                XmlRootElementFinder.findRootElementName(rootDir.resolve("dir0").resolve("doesNotExist.xml"))
+        );
+    }
+
+    private static List<String> descriptions(List<AncestryAwareNodes.Element> serverElements) {
+        return serverElements.stream().map(e -> e.attribute(new QName("description"))).toList();
+    }
+}
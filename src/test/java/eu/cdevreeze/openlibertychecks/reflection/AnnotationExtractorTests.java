@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection;
+
+import eu.cdevreeze.openlibertychecks.classfile.AnnotatedInfo;
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationExtractor;
+import eu.cdevreeze.openlibertychecks.reflection.internal.ReflectionDescriptors;
+import jakarta.annotation.Resource;
+import jakarta.annotation.Resources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Annotation extractor tests, comparing reflection-based and class file based extraction.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AnnotationExtractorTests {
+
+    @Resources({
+            @Resource(name = "jdbc/firstDS", lookup = "java:app/jdbc/firstDS"),
+            @Resource(name = "jms/queue", shareable = false, authenticationType = Resource.AuthenticationType.APPLICATION)
+    })
+    public static class SampleBean implements Runnable {
+
+        @Resource(name = "jdbc/secondDS", type = javax.sql.DataSource.class)
+        private Object dataSource;
+
+        private String[][] notAnnotated;
+
+        public SampleBean(int ignored) {
+        }
+
+        @Resource(lookup = "java:comp/DefaultManagedExecutorService")
+        public void setExecutor(Object executor) {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    @Test
+    public void testAnnotationExtractor() throws NoSuchFieldException, NoSuchMethodException {
+        AnnotationExtractor extractor = AnnotationExtractor.forAnnotationTypes(Resource.class, Resources.class);
+
+        AnnotationExtractor.ClassAnnotations classAnnotations = extractor.extract(SampleBean.class);
+
+        assertEquals(2, classAnnotations.findClassAnnotation(Resources.class).orElseThrow().value().length);
+        assertFalse(classAnnotations.findClassAnnotation(Resource.class).isPresent());
+        assertEquals(
+                Set.of(
+                        SampleBean.class.getDeclaredField("dataSource"),
+                        SampleBean.class.getMethod("setExecutor", Object.class)
+                ),
+                classAnnotations.findAnnotatedMembers(Resource.class).keySet()
+        );
+
+        // The class file based extraction finds the same annotations
+        Map<AnnotatedInfo, List<AnnotationInfo>> annotationInfos =
+                Map.copyOf(extractor.extract(parseClass(SampleBean.class)));
+
+        assertEquals(
+                classAnnotations.annotationsByElement().values().stream()
+                        .flatMap(Collection::stream)
+                        .map(ReflectionDescriptors::toAnnotationInfo)
+                        .collect(Collectors.toSet()),
+                annotationInfos.values().stream().flatMap(Collection::stream).collect(Collectors.toSet())
+        );
+    }
+
+    private ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
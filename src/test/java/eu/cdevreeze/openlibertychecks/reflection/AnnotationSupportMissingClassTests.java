@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection;
+
+import eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findAnnotation;
+import static eu.cdevreeze.openlibertychecks.reflection.internal.AnnotationSupport.findDeclaredAnnotation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Annotation retrieval support tests for classes of which some member signatures refer to missing classes.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AnnotationSupportMissingClassTests {
+
+    @Test
+    public void testClassAnnotationRetrievalWithMissingClassInMemberSignature() throws IOException {
+        Path dir = Files.createTempDirectory("annotationSupport");
+
+        try {
+            Path sourceDir = Files.createDirectories(dir.resolve("sample"));
+            Path missingSourceFile = Files.writeString(
+                    sourceDir.resolve("Missing.java"),
+                    """
+                            package sample;
+
+                            public class Missing {
+                            }
+                            """
+            );
+            Path annotatedSourceFile = Files.writeString(
+                    sourceDir.resolve("AnnotatedBean.java"),
+                    """
+                            package sample;
+
+                            import jakarta.annotation.Resource;
+
+                            @Resource(name = "jdbc/classDS")
+                            public class AnnotatedBean {
+
+                                @Resource(name = "jdbc/fieldDS")
+                                private Object dataSource;
+
+                                public Missing getMissing() {
+                                    return null;
+                                }
+                            }
+                            """
+            );
+            int exitCode = ToolProvider.getSystemJavaCompiler().run(
+                    null,
+                    null,
+                    null,
+                    "-d", dir.toString(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    missingSourceFile.toString(),
+                    annotatedSourceFile.toString()
+            );
+            assertEquals(0, exitCode);
+
+            // Class "Missing" is referred to by a method signature, but it is not on the class path
+            Files.delete(dir.resolve("sample/Missing.class"));
+
+            try (URLClassLoader classLoader =
+                         new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader())) {
+                Class<?> clazz = Class.forName("sample.AnnotatedBean", false, classLoader);
+
+                assertEquals(
+                        Optional.of("jdbc/classDS"),
+                        findDeclaredAnnotation(clazz, Resource.class).map(Resource::name)
+                );
+                assertEquals(Optional.of("jdbc/classDS"), findAnnotation(clazz, Resource.class).map(Resource::name));
+
+                // The methods are not needed for field annotations either
+                Field field = clazz.getDeclaredField("dataSource");
+
+                assertEquals(
+                        Optional.of("jdbc/fieldDS"),
+                        findDeclaredAnnotation(field, Resource.class).map(Resource::name)
+                );
+                assertEquals(List.of(field), AnnotationSupport.getFields(clazz));
+
+                // Only the methods cannot be read
+                assertThrows(NoClassDefFoundError.class, () -> AnnotationSupport.getMethods(clazz));
+            } catch (ClassNotFoundException | NoSuchFieldException e) {
+                throw new RuntimeException(e);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
@@ -16,15 +16,33 @@
 
 package eu.cdevreeze.openlibertychecks.reflection;
 
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ConstantPoolPrefilter;
 import eu.cdevreeze.openlibertychecks.reflection.internal.ClassPathScanning;
+import eu.cdevreeze.openlibertychecks.reflection.internal.IsolatedClassLoading;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -56,4 +74,145 @@ public class ClassPathScanningTests {
 
         assertTrue(packages.stream().allMatch(p -> p.getName().startsWith("eu.cdevreeze.openlibertychecks")));
     }
+
+    @Test
+    public void testParallelClassPathScanning() throws URISyntaxException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+
+        List<ClassInfo> sequentiallyFoundClasses = ClassPathScanning.findClassInfos(rootDir)
+                .stream()
+                .sorted(Comparator.comparing(ClassInfo::className))
+                .toList();
+
+        List<ClassInfo> classes = ClassPathScanning.findClassInfos(rootDir, bytes -> true, 4);
+
+        assertTrue(classes.size() >= 75);
+        assertEquals(sequentiallyFoundClasses, classes);
+
+        assertEquals(classes, ClassPathScanning.findClassInfos(rootDir, bytes -> true, 1));
+    }
+
+    @Test
+    public void testJarScanning() throws URISyntaxException, IOException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+
+        Path libDir = Files.createTempDirectory("lib");
+        Path jarFile = libDir.resolve("classes.jar");
+
+        try (OutputStream os = Files.newOutputStream(jarFile);
+             ZipOutputStream zos = new ZipOutputStream(os);
+             Stream<Path> pathStream = Files.walk(rootDir)) {
+            for (Path p : pathStream.filter(Files::isRegularFile).toList()) {
+                zos.putNextEntry(new ZipEntry(rootDir.relativize(p).toString().replace('\\', '/')));
+                zos.write(Files.readAllBytes(p));
+                zos.closeEntry();
+            }
+        }
+
+        assertEquals(List.of(jarFile), ClassPathScanning.findJarFiles(libDir));
+
+        List<ClassInfo> classesInJar =
+                ClassPathScanning.findClassInfosInJars(ClassPathScanning.findJarFiles(libDir), bytes -> true, 2);
+
+        assertTrue(classesInJar.size() >= 75);
+        assertEquals(ClassPathScanning.findClassInfos(rootDir, bytes -> true, 2), classesInJar);
+
+        // Without Jandex index, falling back to class file scanning
+        ConstantPoolPrefilter prefilter = ConstantPoolPrefilter.forAnnotationTypes(Test.class);
+
+        assertEquals(
+                ClassPathScanning.findClassInfosInJars(List.of(jarFile), prefilter, 2),
+                ClassPathScanning.findClassInfosInJarsPreferringIndexes(List.of(jarFile), prefilter, 2)
+        );
+    }
+
+    @Test
+    public void testNestedArchiveScanning() throws URISyntaxException, IOException {
+        Path rootDir = Path.of(
+                Objects.requireNonNull(ClassPathScanning.class.getResource("/dummyFile.txt")).toURI()
+        ).getParent();
+        List<Path> classFiles;
+        try (Stream<Path> pathStream = Files.walk(rootDir)) {
+            classFiles = pathStream.filter(p -> p.toString().endsWith(".class")).sorted().toList();
+        }
+        List<Path> libClassFiles = classFiles.stream().filter(p -> p.toString().contains("classfile")).toList();
+        List<Path> webInfClassFiles = classFiles.stream().filter(p -> !libClassFiles.contains(p)).toList();
+
+        byte[] jar = zip(libClassFiles.stream().map(p -> Map.entry(rootDir.relativize(p).toString(), readAllBytes(p))).toList());
+        byte[] war = zip(
+                Stream.concat(
+                        webInfClassFiles.stream()
+                                .map(p -> Map.entry("WEB-INF/classes/" + rootDir.relativize(p), readAllBytes(p))),
+                        Stream.of(
+                                Map.entry("WEB-INF/lib/lib.jar", jar),
+                                // Not on the class path of the web application
+                                Map.entry("Ignored.class", readAllBytes(classFiles.get(0)))
+                        )
+                ).toList()
+        );
+        Path earFile = Files.createTempDirectory("ear").resolve("app.ear");
+        Files.write(earFile, zip(List.of(Map.entry("app.war", war))));
+
+        List<ClassInfo> classesInEar = ClassPathScanning.findClassInfosInArchive(earFile, bytes -> true);
+
+        assertEquals(ClassPathScanning.findClassInfos(rootDir, bytes -> true, 2), classesInEar);
+    }
+
+    @Test
+    public void testIsolatedClassLoading() throws IOException {
+        Path warDir = Files.createTempDirectory("war");
+        Path sourceDir = Files.createDirectories(warDir.resolve("src/sample"));
+        Path classesDir = Files.createDirectories(warDir.resolve("WEB-INF/classes"));
+
+        // A class whose initialization would fail, and which is not on the class path of this test
+        Path sourceFile = sourceDir.resolve("Bomb.java");
+        Files.writeString(
+                sourceFile,
+                "package sample; public class Bomb { static { if (true) throw new IllegalStateException(); } }"
+        );
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-d", classesDir.toString(), sourceFile.toString()));
+
+        List<ClassLoader> usedClassLoaders = new ArrayList<>();
+        List<String> classNames = IsolatedClassLoading.analyzeWar(
+                warDir,
+                classLoader -> {
+                    usedClassLoaders.add(classLoader);
+                    List<Class<?>> classes = ClassPathScanning.findClasses(classesDir, classLoader);
+
+                    assertTrue(classes.stream().allMatch(c -> c.getClassLoader() == classLoader));
+                    return classes.stream().map(Class::getName).toList();
+                }
+        );
+
+        assertEquals(List.of("sample.Bomb"), classNames);
+        // The class loader has been closed, so it no longer finds any resources
+        assertNull(usedClassLoaders.get(0).getResource("sample/Bomb.class"));
+    }
+
+    private static byte[] zip(List<Map.Entry<String, byte[]>> entries) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            for (Map.Entry<String, byte[]> entry : entries) {
+                zos.putNextEntry(new ZipEntry(entry.getKey().replace('\\', '/')));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] readAllBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection;
+
+import eu.cdevreeze.openlibertychecks.classfile.AnnotationInfo;
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.MemberInfo;
+import eu.cdevreeze.openlibertychecks.reflection.internal.ReflectionDescriptors;
+import jakarta.annotation.Resource;
+import jakarta.annotation.Resources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests checking that reflection results converted to descriptors are the same as the parsed class files.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReflectionDescriptorsTests {
+
+    @Resources({
+            @Resource(name = "jdbc/firstDS", lookup = "java:app/jdbc/firstDS"),
+            @Resource(name = "jms/queue", shareable = false, authenticationType = Resource.AuthenticationType.APPLICATION)
+    })
+    public static class SampleBean implements Runnable {
+
+        @Resource(name = "jdbc/secondDS", type = javax.sql.DataSource.class)
+        private Object dataSource;
+
+        private String[][] notAnnotated;
+
+        public SampleBean(int ignored) {
+        }
+
+        @Resource(lookup = "java:comp/DefaultManagedExecutorService")
+        public void setExecutor(Object executor) {
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    @Resources({
+            @Resource(name = "jdbc/firstDS", shareable = true),
+            @Resource(name = "jms/queue", authenticationType = Resource.AuthenticationType.CONTAINER)
+    })
+    public static class ExplicitDefaultValuesBean {
+
+        @Resource(name = "y", shareable = true, description = "")
+        private Object dataSource;
+    }
+
+    @Test
+    public void testReflectionDescriptors() {
+        ClassInfo parsedClassInfo = parseClass(SampleBean.class);
+        ClassInfo convertedClassInfo = ReflectionDescriptors.toClassInfo(SampleBean.class);
+
+        assertEquals(parsedClassInfo.className(), convertedClassInfo.className());
+        assertEquals(parsedClassInfo.superClassNameOption(), convertedClassInfo.superClassNameOption());
+        assertEquals(parsedClassInfo.interfaceNames(), convertedClassInfo.interfaceNames());
+        assertEquals(parsedClassInfo.annotations(), convertedClassInfo.annotations());
+        assertEquals(Set.copyOf(parsedClassInfo.fields()), Set.copyOf(convertedClassInfo.fields()));
+        assertEquals(
+                Set.copyOf(parsedClassInfo.annotatedMembers()),
+                Set.copyOf(convertedClassInfo.annotatedMembers())
+        );
+        assertEquals(
+                parsedClassInfo.methods().stream().map(MemberInfo::signature).collect(Collectors.toSet()),
+                convertedClassInfo.methods().stream().map(MemberInfo::signature).collect(Collectors.toSet())
+        );
+    }
+
+    @Test
+    public void testExplicitDefaultValues() {
+        ClassInfo parsedClassInfo = parseClass(ExplicitDefaultValuesBean.class);
+        ClassInfo convertedClassInfo = ReflectionDescriptors.toClassInfo(ExplicitDefaultValuesBean.class);
+
+        AnnotationInfo parsedResource = parsedClassInfo.fields().get(0).annotations().get(0);
+        AnnotationInfo convertedResource = convertedClassInfo.fields().get(0).annotations().get(0);
+
+        // Class files keep explicitly written default values, whereas reflection cannot tell them apart
+        assertEquals(Set.of("name", "shareable", "description"), parsedResource.elementValues().keySet());
+        assertEquals(Set.of("name"), convertedResource.elementValues().keySet());
+        assertNotEquals(convertedResource, parsedResource);
+
+        assertEquals(convertedResource, ReflectionDescriptors.withoutDefaultValues(parsedResource, Resource.class));
+
+        // Also for nested annotations
+        AnnotationInfo parsedResources = parsedClassInfo.annotations().get(0);
+        AnnotationInfo convertedResources = convertedClassInfo.annotations().get(0);
+
+        assertNotEquals(convertedResources, parsedResources);
+        assertEquals(convertedResources, ReflectionDescriptors.withoutDefaultValues(parsedResources, Resources.class));
+    }
+
+    private ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
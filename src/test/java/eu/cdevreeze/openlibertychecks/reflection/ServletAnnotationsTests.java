@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.reflection;
+
+import eu.cdevreeze.openlibertychecks.classfile.ClassFileParser;
+import eu.cdevreeze.openlibertychecks.classfile.ClassInfo;
+import eu.cdevreeze.openlibertychecks.classfile.TypeHierarchy;
+import eu.cdevreeze.openlibertychecks.reflection.jakartaee10.servlet.ServletAnnotations;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.http.HttpSessionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Servlet annotation checks tests, using a class file based type hierarchy.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ServletAnnotationsTests {
+
+    @WebListener
+    public static class SampleListener implements HttpSessionListener {
+    }
+
+    @WebListener
+    public static class SampleNonListener implements Runnable {
+
+        @Override
+        public void run() {
+        }
+    }
+
+    @Test
+    public void testIsAllowedWebListener() {
+        ClassInfo sampleListener = parseClass(SampleListener.class);
+        ClassInfo sampleNonListener = parseClass(SampleNonListener.class);
+
+        TypeHierarchy typeHierarchy = TypeHierarchy.build(
+                List.of(sampleListener, sampleNonListener),
+                TypeHierarchy.classFileResolver(getClass().getClassLoader())
+        );
+
+        assertTrue(ServletAnnotations.isAllowedWebListener(sampleListener, typeHierarchy));
+        assertFalse(ServletAnnotations.isAllowedWebListener(sampleNonListener, typeHierarchy));
+    }
+
+    private ClassInfo parseClass(Class<?> clazz) {
+        String classFileName = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFileName)) {
+            return ClassFileParser.parse(Objects.requireNonNull(inputStream).readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -17,6 +17,9 @@
 package eu.cdevreeze.openlibertychecks.xml.ibm.server;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming.ServerXmlJndiResourceExtraction;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.streaming.ServerXmlJndiResourceFact;
 import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
 import org.junit.jupiter.api.Test;
@@ -24,7 +27,9 @@ import org.junit.jupiter.api.TestInstance;
 import org.xml.sax.InputSource;
 
 import javax.xml.namespace.QName;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -149,4 +154,25 @@ public class ServerDialectTests {
                         .toList()
         );
     }
+
+    @Test
+    public void testStreamingJndiResourceExtraction() throws IOException {
+        List<ServerXmlJndiResourceFact> facts = new ArrayList<>();
+        try (InputStream inputStream = ServerDialectTests.class.getResourceAsStream("/dialects/sample-server.xml")) {
+            ServerXmlJndiResourceExtraction.forEachJndiResourceFact(inputStream, "sample-server.xml", facts::add);
+        }
+
+        assertEquals(
+                List.of(
+                        new ServerXmlJndiResourceFact(
+                                ServerXmlJndiResourceFact.Kind.DATA_SOURCE,
+                                Optional.of("blogDS"),
+                                Optional.of("jdbc/blogDS"),
+                                ImmutableMap.of("connectionManagerRef", "derbyPool"),
+                                13
+                        )
+                ),
+                facts
+        );
+    }
 }
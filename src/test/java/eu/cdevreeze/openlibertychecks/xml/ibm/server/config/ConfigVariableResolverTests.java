@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.ConnectionManager;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.HttpEndpoint;
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Configuration variable resolution tests.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ConfigVariableResolverTests {
+
+    private final ConfigVariables variables = ConfigVariables.of(List.of(
+            new ConfigVariables.Layer(
+                    "defaultValue",
+                    ImmutableMap.of("http.port", "9080", "host", "localhost")
+            ),
+            new ConfigVariables.Layer(
+                    "value",
+                    ImmutableMap.copyOf(Map.of(
+                            "http.port", "${port.prefix}443",
+                            "port.prefix", "9",
+                            "a", "${b}",
+                            "b", "${a}"
+                    ))
+            )
+    ));
+
+    @Test
+    public void testVariableResolution() {
+        ConfigVariableResolver resolver = new ConfigVariableResolver(variables);
+
+        assertEquals("https://localhost:9443/${unknown}", resolver.resolve("https://${host}:${http.port}/${unknown}"));
+        assertEquals(OptionalInt.of(9443), resolver.resolveInt(Optional.of("${http.port}")));
+        assertEquals(Optional.empty(), resolver.resolveVariable("unknown"));
+        assertEquals("no variables", resolver.resolve("no variables"));
+    }
+
+    @Test
+    public void testCycleDetection() {
+        ConfigVariableResolver resolver = new ConfigVariableResolver(variables);
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolve("${a}"));
+    }
+
+    @Test
+    public void testIntegerAttributeResolution() {
+        String serverXml = """
+                <server>
+                    <httpEndpoint id="defaultHttpEndpoint" httpPort="${http.port}" httpsPort="9443"/>
+                    <connectionManager id="pool" maxPoolSize="${port.prefix}"/>
+                </server>
+                """;
+        Server server = new Server(
+                AncestryAwareDocument.from(
+                        DocumentParsers.builder().removingInterElementWhitespace().build()
+                                .parse(new InputSource(new StringReader(serverXml)))
+                ).documentElement()
+        );
+        ConfigVariableResolver resolver = new ConfigVariableResolver(variables);
+        HttpEndpoint httpEndpoint = server.httpEndpoints().get(0);
+        ConnectionManager connectionManager = server.connectionManagers().get(0);
+
+        assertEquals(OptionalInt.of(9443), httpEndpoint.httpPortOption(resolver));
+        assertEquals(OptionalInt.of(9443), httpEndpoint.httpsPortOption(resolver));
+        assertEquals(9, connectionManager.maxPoolSize(resolver));
+        assertEquals(-1, connectionManager.agedTimeout(resolver));
+
+        // Without variable resolution, the raw attribute value is parsed
+        assertThrows(NumberFormatException.class, httpEndpoint::httpPortOption);
+    }
+}
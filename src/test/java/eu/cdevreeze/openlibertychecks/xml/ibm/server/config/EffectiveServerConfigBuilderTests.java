@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import eu.cdevreeze.openlibertychecks.xml.ibm.server.Server;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareDocument;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParser;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentParsers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Effective server configuration tests, merging a server.xml file with the documents it includes.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class EffectiveServerConfigBuilderTests {
+
+    private static final String ROOT_SERVER_XML = """
+            <server>
+                <dataSource id="ds" jndiName="jdbc/root" minPoolSize="1"/>
+                <include location="merge.xml"/>
+                <include location="replace.xml" onConflict="REPLACE"/>
+                <include location="ignore.xml" onConflict="IGNORE"/>
+                <httpEndpoint id="defaultHttpEndpoint" httpPort="9080"/>
+                <jndiEntry jndiName="first" value="1"/>
+                <jndiEntry jndiName="second" value="2"/>
+                <featureManager>
+                    <feature>servlet-6.0</feature>
+                </featureManager>
+            </server>
+            """;
+
+    private static final String MERGE_XML = """
+            <server>
+                <dataSource id="ds" jndiName="jdbc/merged"/>
+                <httpEndpoint id="defaultHttpEndpoint" httpPort="9081" httpsPort="9444"/>
+                <featureManager>
+                    <feature>cdi-4.0</feature>
+                </featureManager>
+                <library id="lib" name="first">
+                    <file name="first.jar"/>
+                </library>
+                <keyStore id="ks" password="pw"/>
+            </server>
+            """;
+
+    private static final String REPLACE_XML = """
+            <server>
+                <library id="lib">
+                    <file name="second.jar"/>
+                </library>
+            </server>
+            """;
+
+    private static final String IGNORE_XML = """
+            <server>
+                <keyStore id="ks" password="other" type="PKCS12"/>
+                <authData id="auth" user="user"/>
+            </server>
+            """;
+
+    private Path dir;
+
+    @BeforeAll
+    public void createServerXmlFiles() throws IOException {
+        dir = Files.createTempDirectory("effectiveServerConfig");
+
+        Files.writeString(dir.resolve("server.xml"), ROOT_SERVER_XML);
+        Files.writeString(dir.resolve("merge.xml"), MERGE_XML);
+        Files.writeString(dir.resolve("replace.xml"), REPLACE_XML);
+        Files.writeString(dir.resolve("ignore.xml"), IGNORE_XML);
+    }
+
+    @AfterAll
+    public void deleteServerXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testMergeInDocumentOrder() {
+        EffectiveServerConfig config = createBuilder().build();
+
+        // The included document overrides the elements before the include element
+        EffectiveServerConfig.EffectiveElement dataSource = config.findElement("dataSource", "ds").orElseThrow();
+
+        assertEquals(Optional.of("jdbc/merged"), dataSource.attributeOption("jndiName"));
+        assertEquals(Optional.of("1"), dataSource.attributeOption("minPoolSize"));
+        assertEquals(2, dataSource.sourceElements().size());
+
+        // The elements after the include element override the included document
+        EffectiveServerConfig.EffectiveElement httpEndpoint =
+                config.findElement("httpEndpoint", "defaultHttpEndpoint").orElseThrow();
+
+        assertEquals(Optional.of("9080"), httpEndpoint.attributeOption("httpPort"));
+        assertEquals(Optional.of("9444"), httpEndpoint.attributeOption("httpsPort"));
+
+        // Singleton configuration without id is merged, in document order
+        EffectiveServerConfig.EffectiveElement featureManager =
+                config.findSingletonElement("featureManager").orElseThrow();
+
+        assertEquals(
+                List.of("cdi-4.0", "servlet-6.0"),
+                featureManager.childElements().stream().map(AncestryAwareNodes.Element::text).toList()
+        );
+
+        // Factory configuration without id is not merged
+        List<EffectiveServerConfig.EffectiveElement> jndiEntries = config.elements("jndiEntry");
+
+        assertEquals(
+                List.of(Optional.of("first"), Optional.of("second")),
+                jndiEntries.stream().map(e -> e.attributeOption("jndiName")).toList()
+        );
+        assertTrue(jndiEntries.stream().allMatch(e -> e.key().positionOption().isPresent()));
+        assertEquals(Optional.empty(), config.findSingletonElement("jndiEntry"));
+    }
+
+    @Test
+    public void testOnConflict() {
+        EffectiveServerConfig config = createBuilder().build();
+
+        // onConflict="REPLACE" replaces the earlier library element, including its child elements
+        EffectiveServerConfig.EffectiveElement library = config.findElement("library", "lib").orElseThrow();
+
+        assertEquals(Optional.empty(), library.attributeOption("name"));
+        assertEquals(
+                List.of(Optional.of("second.jar")),
+                library.childElements().stream().map(e -> e.attributeOption(new QName("name"))).toList()
+        );
+
+        // onConflict="IGNORE" ignores the conflicting keyStore element, but not the non-conflicting authData element
+        EffectiveServerConfig.EffectiveElement keyStore = config.findElement("keyStore", "ks").orElseThrow();
+
+        assertEquals(Optional.of("pw"), keyStore.attributeOption("password"));
+        assertEquals(Optional.empty(), keyStore.attributeOption("type"));
+        assertEquals(Optional.of("user"), config.findElement("authData", "auth").orElseThrow().attributeOption("user"));
+    }
+
+    @Test
+    public void testIncrementalMerge() throws IOException {
+        EffectiveServerConfigBuilder builder = createBuilder();
+        EffectiveServerConfig config = builder.build();
+
+        assertEquals(config.elements().size(), builder.lastMergeCount());
+
+        builder.build();
+
+        assertEquals(0, builder.lastMergeCount());
+
+        // Replacing merge.xml only re-merges the keys in the old or new version of that document
+        String changedMergeXml = MERGE_XML
+                .replace("jdbc/merged", "jdbc/changed")
+                .replace("<keyStore id=\"ks\" password=\"pw\"/>", "");
+        builder.replaceFragment(dir.resolve("merge.xml"), parseServer("changed-merge.xml", changedMergeXml));
+        EffectiveServerConfig changedConfig = builder.build();
+
+        assertEquals(5, builder.lastMergeCount());
+        assertEquals(
+                Optional.of("jdbc/changed"),
+                changedConfig.findElement("dataSource", "ds").orElseThrow().attributeOption("jndiName")
+        );
+        // The keyStore in the ignore.xml document no longer conflicts with an earlier one
+        assertEquals(
+                Optional.of("PKCS12"),
+                changedConfig.findElement("keyStore", "ks").orElseThrow().attributeOption("type")
+        );
+        assertEquals(
+                config.findElement("httpEndpoint", "defaultHttpEndpoint").orElseThrow().attributes(),
+                changedConfig.findElement("httpEndpoint", "defaultHttpEndpoint").orElseThrow().attributes()
+        );
+
+        // Dropping an include element of the root document re-merges everything
+        String changedServerXml =
+                ROOT_SERVER_XML.replace("<include location=\"ignore.xml\" onConflict=\"IGNORE\"/>", "");
+        builder.replaceFragment(dir.resolve("server.xml"), parseServer("changed-server.xml", changedServerXml));
+        EffectiveServerConfig configWithoutIgnoreXml = builder.build();
+
+        // All keys, including the keys of the jndiEntry elements of both versions of the root document
+        assertEquals(changedConfig.elements().size() + 1, builder.lastMergeCount());
+        assertEquals(Optional.empty(), configWithoutIgnoreXml.findElement("authData", "auth"));
+        assertEquals(Optional.empty(), configWithoutIgnoreXml.findElement("keyStore", "ks"));
+    }
+
+    private EffectiveServerConfigBuilder createBuilder() {
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            ResolvedServerXml resolvedServerXml = resolver.resolve(dir.resolve("server.xml"));
+
+            assertEquals(List.of(), resolvedServerXml.problems());
+            return EffectiveServerConfigBuilder.from(resolvedServerXml);
+        }
+    }
+
+    private Server parseServer(String fileName, String xml) throws IOException {
+        Path file = Files.writeString(dir.resolve(fileName), xml);
+        DocumentParser docParser = DocumentParsers.builder().removingInterElementWhitespace().build();
+        return new Server(
+                AncestryAwareDocument.from(docParser.parse(file.toUri())).withUri(file.toUri()).documentElement()
+        );
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.yaidom4j.dom.ancestryaware.AncestryAwareNodes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Server configuration id index tests, finding dangling references and unreferenced elements.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ServerConfigIdIndexTests {
+
+    private static final String SERVER_XML = """
+            <server>
+                <include location="security.xml"/>
+                <ssl id="defaultSSLConfig" keyStoreRef="defaultKeyStore" trustStoreRef="${trustStore.id}"/>
+                <dataSource id="ds" jndiName="jdbc/ds" containerAuthDataRef="dbAuth" jdbcDriverRef="missingDriver"/>
+                <application location="app.war" commonLibraryRef="sharedLib, missingLib"/>
+                <library id="sharedLib"/>
+            </server>
+            """;
+
+    private static final String SECURITY_XML = """
+            <server>
+                <keyStore id="defaultKeyStore" password="pw"/>
+                <keyStore id="trustStore" password="pw"/>
+                <keyStore id="unusedKeyStore" password="pw"/>
+                <authData id="dbAuth" user="user"/>
+                <authData id="unusedAuth" user="user"/>
+            </server>
+            """;
+
+    private final ConfigVariables variables = ConfigVariables.of(List.of(
+            new ConfigVariables.Layer("value", ImmutableMap.of("trustStore.id", "trustStore"))
+    ));
+
+    private Path dir;
+    private ResolvedServerXml resolvedServerXml;
+
+    @BeforeAll
+    public void createServerXmlFiles() throws IOException {
+        dir = Files.createTempDirectory("serverConfigIdIndex");
+
+        Files.writeString(dir.resolve("server.xml"), SERVER_XML);
+        Files.writeString(dir.resolve("security.xml"), SECURITY_XML);
+
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            resolvedServerXml = resolver.resolve(dir.resolve("server.xml"));
+        }
+    }
+
+    @AfterAll
+    public void deleteServerXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testTargetElementName() {
+        assertEquals("keyStore", ServerConfigIdIndex.targetElementName("trustStoreRef"));
+        assertEquals("keyStore", ServerConfigIdIndex.targetElementName("keyStoreRef"));
+        assertEquals("authData", ServerConfigIdIndex.targetElementName("containerAuthDataRef"));
+        assertEquals("authData", ServerConfigIdIndex.targetElementName("recoveryAuthDataRef"));
+        assertEquals("library", ServerConfigIdIndex.targetElementName("commonLibraryRef"));
+        assertEquals("connectionManager", ServerConfigIdIndex.targetElementName("connectionManagerRef"));
+    }
+
+    @Test
+    public void testDanglingAndUnreferencedElements() {
+        ServerConfigIdIndex index =
+                ServerConfigIdIndex.of(resolvedServerXml, new ConfigVariableResolver(variables)::resolve);
+
+        assertEquals(
+                Set.of(
+                        new ServerConfigIdIndex.ElementId("jdbcDriver", "missingDriver"),
+                        new ServerConfigIdIndex.ElementId("library", "missingLib")
+                ),
+                index.danglingReferences().stream()
+                        .map(ServerConfigIdIndex.Reference::target)
+                        .collect(Collectors.toSet())
+        );
+
+        // Unreferenced dataSource, ssl elements etc. are not reported, because no Ref attribute targets them
+        assertEquals(
+                Set.of(
+                        new ServerConfigIdIndex.ElementId("keyStore", "unusedKeyStore"),
+                        new ServerConfigIdIndex.ElementId("authData", "unusedAuth")
+                ),
+                index.unreferencedElements().stream()
+                        .map(ServerConfigIdIndex.IndexedElement::elementId)
+                        .collect(Collectors.toSet())
+        );
+        assertEquals(dir.resolve("security.xml"), index.findElement("keyStore", "trustStore").orElseThrow().document());
+        assertFalse(index.referenceReport().isClean());
+    }
+
+    @Test
+    public void testVariableResolution() {
+        ServerConfigIdIndex index =
+                ServerConfigIdIndex.of(resolvedServerXml, new ConfigVariableResolver(variables)::resolve);
+        ServerConfigIdIndex indexWithoutVariableResolution = ServerConfigIdIndex.of(resolvedServerXml);
+        AncestryAwareNodes.Element ssl = index.findElement("ssl", "defaultSSLConfig").orElseThrow().element();
+
+        assertEquals(
+                List.of(index.findElement("keyStore", "trustStore").orElseThrow()),
+                index.resolve(ssl, "trustStoreRef")
+        );
+        assertEquals(List.of(), indexWithoutVariableResolution.resolve(ssl, "trustStoreRef"));
+
+        // Comma-separated ids, of which one is dangling
+        AncestryAwareNodes.Element application = index.references().stream()
+                .filter(ref -> ref.attributeName().equals("commonLibraryRef"))
+                .findFirst()
+                .orElseThrow()
+                .referringElement();
+
+        assertEquals(
+                List.of("sharedLib"),
+                index.resolve(application, "commonLibraryRef").stream().map(e -> e.elementId().id()).toList()
+        );
+
+        // Without variable resolution, the trustStoreRef is dangling
+        assertEquals(
+                Set.of("${trustStore.id}", "missingDriver", "missingLib"),
+                indexWithoutVariableResolution.danglingReferences().stream()
+                        .map(ref -> ref.target().id())
+                        .collect(Collectors.toSet())
+        );
+    }
+
+    @Test
+    public void testReferenceReports() {
+        ConfigVariableResolver variableResolver = new ConfigVariableResolver(variables);
+
+        List<ServerConfigIdIndex.ReferenceReport> reports = ServerConfigIdIndex.referenceReports(
+                List.of(resolvedServerXml, resolvedServerXml),
+                c -> variableResolver::resolve
+        );
+
+        assertEquals(2, reports.size());
+        assertEquals(
+                Set.of("missingDriver", "missingLib"),
+                reports.get(0).danglingReferences().stream()
+                        .map(ref -> ref.target().id())
+                        .collect(Collectors.toSet())
+        );
+        assertEquals(
+                Set.of("unusedKeyStore", "unusedAuth"),
+                reports.get(0).unreferencedElements().stream()
+                        .map(e -> e.elementId().id())
+                        .collect(Collectors.toSet())
+        );
+        assertEquals(reports.get(0), reports.get(1));
+
+        // Without variable resolution, the trustStoreRef is dangling, and its target unreferenced
+        ServerConfigIdIndex.ReferenceReport reportWithoutVariableResolution =
+                ServerConfigIdIndex.referenceReports(List.of(resolvedServerXml)).get(0);
+
+        assertEquals(
+                Set.of("${trustStore.id}", "missingDriver", "missingLib"),
+                reportWithoutVariableResolution.danglingReferences().stream()
+                        .map(ref -> ref.target().id())
+                        .collect(Collectors.toSet())
+        );
+        assertEquals(
+                Set.of("trustStore", "unusedKeyStore", "unusedAuth"),
+                reportWithoutVariableResolution.unreferencedElements().stream()
+                        .map(e -> e.elementId().id())
+                        .collect(Collectors.toSet())
+        );
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024-2024 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.openlibertychecks.xml.ibm.server.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Include resolution tests, using small trees of server.xml files.
+ * <p>
+ * This is not a regular unit test.
+ *
+ * @author Chris de Vreeze
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ServerXmlIncludeResolverTests {
+
+    private Path dir;
+
+    @BeforeAll
+    public void createServerXmlFiles() throws IOException {
+        dir = Files.createTempDirectory("serverXmlIncludes");
+
+        // Nested includes, with locations relative to the including file
+        writeServerXml(
+                "nested/server.xml",
+                "<include location=\"conf/first.xml\"/>",
+                "<include location=\"shared.xml\"/>"
+        );
+        writeServerXml("nested/conf/first.xml", "<include location=\"../second/second.xml\"/>");
+        writeServerXml("nested/second/second.xml", "<include location=\"../shared.xml\"/>");
+        writeServerXml("nested/shared.xml", "<featureManager/>");
+
+        // An include cycle
+        writeServerXml("cycle/server.xml", "<include location=\"a.xml\"/>");
+        writeServerXml("cycle/a.xml", "<include location=\"b.xml\"/>");
+        writeServerXml("cycle/b.xml", "<include location=\"a.xml\"/>");
+
+        // Missing includes, optional or not
+        writeServerXml(
+                "missing/server.xml",
+                "<include location=\"optional.xml\" optional=\"true\"/>",
+                "<include location=\"required.xml\"/>"
+        );
+    }
+
+    @AfterAll
+    public void deleteServerXmlFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testNestedIncludes() {
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            ResolvedServerXml resolvedServerXml = resolver.resolve(dir.resolve("nested/server.xml"));
+
+            // Depth-first, in document order, and each document only once
+            assertEquals(
+                    List.of(
+                            dir.resolve("nested/server.xml"),
+                            dir.resolve("nested/conf/first.xml"),
+                            dir.resolve("nested/second/second.xml"),
+                            dir.resolve("nested/shared.xml")
+                    ),
+                    resolvedServerXml.fragments().stream().map(ResolvedServerXml.Fragment::path).toList()
+            );
+            assertEquals(List.of(), resolvedServerXml.problems());
+
+            ResolvedServerXml.IncludeSite sharedXmlIncludeSite =
+                    resolvedServerXml.fragments().get(3).includeSiteOption().orElseThrow();
+
+            assertEquals(dir.resolve("nested/second/second.xml"), sharedXmlIncludeSite.includingFile());
+            assertEquals(0, sharedXmlIncludeSite.includeIndex());
+        }
+    }
+
+    @Test
+    public void testIncludeCycle() {
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            ResolvedServerXml resolvedServerXml = resolver.resolve(dir.resolve("cycle/server.xml"));
+
+            assertEquals(
+                    List.of(dir.resolve("cycle/server.xml"), dir.resolve("cycle/a.xml"), dir.resolve("cycle/b.xml")),
+                    resolvedServerXml.fragments().stream().map(ResolvedServerXml.Fragment::path).toList()
+            );
+            assertEquals(
+                    List.of(ResolvedServerXml.IncludeProblem.Kind.CYCLE),
+                    resolvedServerXml.problems().stream().map(ResolvedServerXml.IncludeProblem::kind).toList()
+            );
+            assertEquals(dir.resolve("cycle/b.xml"), resolvedServerXml.problems().get(0).includingFile());
+        }
+    }
+
+    @Test
+    public void testMissingIncludes() {
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            ResolvedServerXml resolvedServerXml = resolver.resolve(dir.resolve("missing/server.xml"));
+
+            assertEquals(1, resolvedServerXml.fragments().size());
+
+            // Only the missing include that is not optional is a problem
+            assertEquals(
+                    List.of(ResolvedServerXml.IncludeProblem.Kind.MISSING),
+                    resolvedServerXml.problems().stream().map(ResolvedServerXml.IncludeProblem::kind).toList()
+            );
+            assertEquals("required.xml", resolvedServerXml.problems().get(0).location());
+        }
+    }
+
+    @Test
+    public void testDocumentCacheReuse() {
+        try (ServerXmlIncludeResolver resolver = ServerXmlIncludeResolver.create(2)) {
+            resolver.resolve(dir.resolve("nested/server.xml"));
+
+            assertEquals(4, resolver.cachedDocumentCount());
+
+            // Resolving again, or resolving an included document, loads no other documents
+            resolver.resolve(dir.resolve("nested/server.xml"));
+            ResolvedServerXml resolvedFirstXml = resolver.resolve(dir.resolve("nested/conf/first.xml"));
+
+            assertEquals(3, resolvedFirstXml.fragments().size());
+            assertEquals(4, resolver.cachedDocumentCount());
+
+            resolver.resolve(dir.resolve("cycle/server.xml"));
+
+            assertEquals(7, resolver.cachedDocumentCount());
+        }
+    }
+
+    private void writeServerXml(String relativePath, String... childElements) throws IOException {
+        Path file = dir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "<server>\n" + String.join("\n", childElements) + "\n</server>\n");
+    }
+}